@@ -16,6 +16,10 @@ import de.lessvoid.nifty.spi.render.RenderFont;
 
 /**
  * The ListBox interface is the Nifty control API view of a Nifty ListBox control.
+ * <p/>
+ * The ListBox finds items by their equals() and hashCode() methods, so both must be implemented consistently and must
+ * not change while the item is part of the ListBox. Items that are equal are treated as the same item, methods that
+ * take an item act on its first occurrence.
  *
  * @param <T>
  * @author void
@@ -54,6 +58,14 @@ public interface ListBox<T> extends NiftyControl {
    */
   void insertItem(@Nonnull T item, int index);
 
+  /**
+   * Insert all given items starting at the given index. This is a lot faster than inserting the items one by one.
+   *
+   * @param itemsToInsert the items to insert
+   * @param index         the index the first item is inserted at
+   */
+  void insertAllItems(@Nonnull Collection<T> itemsToInsert, int index);
+
   /**
    * Retrieve the number of items in the ListBox.
    *
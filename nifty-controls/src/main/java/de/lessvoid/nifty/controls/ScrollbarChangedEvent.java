@@ -1,6 +1,6 @@
 package de.lessvoid.nifty.controls;
 
-import de.lessvoid.nifty.NiftyEvent;
+import de.lessvoid.nifty.NiftyCoalescableEvent;
 
 import javax.annotation.Nonnull;
 
@@ -9,7 +9,7 @@ import javax.annotation.Nonnull;
  *
  * @author void
  */
-public class ScrollbarChangedEvent implements NiftyEvent {
+public class ScrollbarChangedEvent implements NiftyCoalescableEvent {
   @Nonnull
   private final Scrollbar scrollbar;
   private final float value;
@@ -1,6 +1,6 @@
 package de.lessvoid.nifty.controls;
 
-import de.lessvoid.nifty.NiftyEvent;
+import de.lessvoid.nifty.NiftyCoalescableEvent;
 
 import javax.annotation.Nonnull;
 
@@ -9,7 +9,7 @@ import javax.annotation.Nonnull;
  *
  * @author void
  */
-public class SliderChangedEvent implements NiftyEvent {
+public class SliderChangedEvent implements NiftyCoalescableEvent {
   @Nonnull
   private final Slider slider;
   private final float value;
@@ -641,6 +641,11 @@ public class ListBoxControl<T> extends AbstractController implements ListBox<T>,
     listBoxImpl.insertItem(item, index);
   }
 
+  @Override
+  public void insertAllItems(@Nonnull final Collection<T> itemsToInsert, final int index) {
+    listBoxImpl.insertAllItems(itemsToInsert, index);
+  }
+
   @Override
   public int itemCount() {
     return listBoxImpl.itemCount();
@@ -4,8 +4,13 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.logging.Logger;
 
 import javax.annotation.Nonnull;
@@ -23,8 +28,27 @@ class ListBoxImpl<T> {
   private final ListBox<T> listBox;
   @Nonnull
   private final List<T> items;
+  /**
+   * The width of each item, the entry at index i belongs to the item at index i.
+   */
   @Nonnull
-  private final List<ItemWidth<T>> widthList;
+  private final List<Integer> itemWidths;
+  /**
+   * How many items there are of each width. The last key is the width of the widest item.
+   */
+  @Nonnull
+  private final TreeMap<Integer, Integer> widthCounts;
+  /**
+   * The index of the first occurrence of each item. This is only valid as long as itemIndicesValid is set. Adding,
+   * inserting and removing items keeps it up to date: only the entries of the items that moved are changed, which are
+   * the same items the list itself has to shift. Sorting marks it invalid and it is rebuilt on the next lookup.
+   * <p/>
+   * Because this is a hash map the items need consistent equals() and hashCode() implementations, just like the
+   * list box always required equals() to find items. Items that are equal are treated as the same item.
+   */
+  @Nonnull
+  private final Map<T, Integer> itemIndices;
+  private boolean itemIndicesValid = true;
   @Nonnull
   private ListBoxSelectionMode<T> selection;
   @Nullable
@@ -43,7 +67,9 @@ class ListBoxImpl<T> {
   public ListBoxImpl(@Nonnull final ListBox<T> listBox) {
     this.listBox = listBox;
     items = new ArrayList<T>();
-    widthList = new ArrayList<ItemWidth<T>>();
+    itemWidths = new ArrayList<Integer>();
+    widthCounts = new TreeMap<Integer, Integer>();
+    itemIndices = new HashMap<T, Integer>();
     selection = new ListBoxSelectionModeSingle<T>();
     visibleItemsForDisplay = new ArrayList<T>();
     selectedItemsForDisplay = new ArrayList<Integer>();
@@ -130,8 +156,7 @@ class ListBoxImpl<T> {
   public void addItem(@Nonnull final T newItem) {
     T visibleItem = getVisibleItem();
 
-    widthList.add(new ItemWidth<T>(newItem, view == null ? 0 : view.getWidth(newItem)));
-    items.add(newItem);
+    appendItem(newItem, view == null ? 0 : view.getWidth(newItem));
     widthUpdate();
     focusItemIndexUpdate();
     updateViewTotalCount();
@@ -148,9 +173,12 @@ class ListBoxImpl<T> {
 
   public void clear() {
     items.clear();
+    itemIndices.clear();
+    itemIndicesValid = true;
     selection.clear();
 
-    widthList.clear();
+    itemWidths.clear();
+    widthCounts.clear();
     lastMaxWidth = 0;
     if (view != null) {
       view.updateTotalWidth(lastMaxWidth);
@@ -172,7 +200,7 @@ class ListBoxImpl<T> {
   }
 
   public void selectItem(@Nonnull final T item) {
-    selectItemByIndex(items.indexOf(item));
+    selectItemByIndex(indexOf(item));
   }
 
   public void selectNext() {
@@ -182,7 +210,7 @@ class ListBoxImpl<T> {
     if (selection.getSelection().isEmpty()) {
       return;
     }
-    int selectionIndex = items.indexOf(selection.getSelection().get(0));
+    int selectionIndex = indexOf(selection.getSelection().get(0));
     if (invalidIndex(selectionIndex)) {
       return;
     }
@@ -201,7 +229,7 @@ class ListBoxImpl<T> {
     if (selection.getSelection().isEmpty()) {
       return;
     }
-    int selectionIndex = items.indexOf(selection.getSelection().get(0));
+    int selectionIndex = indexOf(selection.getSelection().get(0));
     if (invalidIndex(selectionIndex)) {
       return;
     }
@@ -226,7 +254,7 @@ class ListBoxImpl<T> {
 
     List<Integer> result = new ArrayList<Integer>();
     for (T selItem : sel) {
-      result.add(items.indexOf(selItem));
+      result.add(indexOf(selItem));
     }
     return result;
   }
@@ -240,8 +268,7 @@ class ListBoxImpl<T> {
 
     T item = items.get(itemIndex);
     selection.removeForced(item);
-    items.remove(itemIndex);
-    widthList.remove(findItemIndexInWidthList(item));
+    removeItemAt(itemIndex);
     widthUpdate();
 
     listBoxFocusItem.prepare();
@@ -254,7 +281,7 @@ class ListBoxImpl<T> {
   }
 
   public void removeItem(final T item) {
-    removeItemByIndex(items.indexOf(item));
+    removeItemByIndex(indexOf(item));
   }
 
   public void removeAllItems(@Nonnull final Collection<T> itemsToRemove) {
@@ -263,13 +290,38 @@ class ListBoxImpl<T> {
 
     listBoxFocusItem.prepare();
     for (T item : itemsToRemove) {
-      listBoxFocusItem.registerIndex(items.indexOf(item));
-      widthList.remove(findItemIndexInWidthList(item));
+      int index = indexOf(item);
+      if (index != -1) {
+        listBoxFocusItem.registerIndex(index);
+      }
     }
 
+    // remove all occurrences of the items in one pass instead of searching the list for each of them, the indices
+    // of the remaining items are collected in the same pass
+    Set<T> removeSet = new HashSet<T>(itemsToRemove);
+    itemIndices.clear();
+    int remaining = 0;
+    for (int i = 0; i < items.size(); i++) {
+      T item = items.get(i);
+      if (removeSet.contains(item)) {
+        removeWidth(itemWidths.get(i));
+      } else {
+        items.set(remaining, item);
+        itemWidths.set(remaining, itemWidths.get(i));
+        if (!itemIndices.containsKey(item)) {
+          itemIndices.put(item, remaining);
+        }
+        remaining++;
+      }
+    }
+    boolean removed = remaining < items.size();
+    items.subList(remaining, items.size()).clear();
+    itemWidths.subList(remaining, itemWidths.size()).clear();
+    itemIndicesValid = true;
+
     widthUpdate();
 
-    if (!items.removeAll(itemsToRemove)) {
+    if (!removed) {
       return;
     }
 
@@ -293,7 +345,7 @@ class ListBoxImpl<T> {
   }
 
   public void deselectItem(@Nonnull final T item) {
-    deselectItemByIndex(items.indexOf(item));
+    deselectItemByIndex(indexOf(item));
   }
 
   @Nonnull
@@ -306,8 +358,17 @@ class ListBoxImpl<T> {
       return;
     }
     T visibleItem = getVisibleItem();
-    widthList.add(new ItemWidth<T>(item, view == null ? 0 : view.getWidth(item)));
-    items.add(index, item);
+    int width = view == null ? 0 : view.getWidth(item);
+    if (index == items.size()) {
+      appendItem(item, width);
+    } else {
+      items.add(index, item);
+      itemWidths.add(index, width);
+      addWidth(width);
+      if (itemIndicesValid) {
+        shiftIndicesAfterInsert(index, 1);
+      }
+    }
     widthUpdate();
     focusItemIndexUpdate();
     updateViewTotalCount();
@@ -317,8 +378,37 @@ class ListBoxImpl<T> {
     ensureAutoSelection(item);
   }
 
+  public void insertAllItems(@Nonnull final Collection<T> itemsToInsert, final int index) {
+    if (itemsToInsert.isEmpty() || invalidIndexForInsert(index)) {
+      return;
+    }
+    if (index == items.size()) {
+      addAllItems(itemsToInsert);
+      return;
+    }
+    List<Integer> widths = new ArrayList<Integer>(itemsToInsert.size());
+    for (T item : itemsToInsert) {
+      int width = view == null ? 0 : view.getWidth(item);
+      widths.add(width);
+      addWidth(width);
+    }
+    T visibleItem = getVisibleItem();
+    items.addAll(index, itemsToInsert);
+    itemWidths.addAll(index, widths);
+    if (itemIndicesValid) {
+      shiftIndicesAfterInsert(index, itemsToInsert.size());
+    }
+    widthUpdate();
+    focusItemIndexUpdate();
+    updateViewTotalCount();
+    if (visibleItem != null) {
+      restoreVisibleItem(visibleItem);
+    }
+    ensureAutoSelection(itemsToInsert.iterator().next());
+  }
+
   public void showItem(@Nonnull final T item) {
-    showItemByIndex(items.indexOf(item));
+    showItemByIndex(indexOf(item));
   }
 
   public void showItemByIndex(final int itemIndex) {
@@ -339,7 +429,7 @@ class ListBoxImpl<T> {
     if (item == null) {
       setFocusItemByIndex(-1);
     } else {
-      setFocusItemByIndex(items.indexOf(item));
+      setFocusItemByIndex(indexOf(item));
     }
   }
 
@@ -380,11 +470,16 @@ class ListBoxImpl<T> {
     if (itemsToAdd.isEmpty()) {
       return;
     }
+    int[] widths = new int[itemsToAdd.size()];
+    int i = 0;
     for (T item : itemsToAdd) {
-      widthList.add(new ItemWidth<T>(item, view == null ? 0 : view.getWidth(item)));
+      widths[i++] = view == null ? 0 : view.getWidth(item);
     }
     T visibleItem = getVisibleItem();
-    items.addAll(itemsToAdd);
+    i = 0;
+    for (T item : itemsToAdd) {
+      appendItem(item, widths[i++]);
+    }
     widthUpdate();
     focusItemIndexUpdate();
     updateViewTotalCount();
@@ -397,7 +492,18 @@ class ListBoxImpl<T> {
   }
 
   public void sortItems(@Nullable final Comparator<T> comparator) {
-    Collections.sort(items, comparator);
+    // sort the items together with their widths so that both lists stay in the same order
+    List<ItemWidth<T>> sorted = new ArrayList<ItemWidth<T>>(items.size());
+    for (int i = 0; i < items.size(); i++) {
+      sorted.add(new ItemWidth<T>(items.get(i), itemWidths.get(i)));
+    }
+    Collections.sort(sorted, new ItemWidthComparator<T>(comparator));
+    for (int i = 0; i < sorted.size(); i++) {
+      ItemWidth<T> itemWidth = sorted.get(i);
+      items.set(i, itemWidth.getItem());
+      itemWidths.set(i, itemWidth.getWidth());
+    }
+    itemIndicesValid = false;
   }
 
   void updateViewTotalCount() {
@@ -425,11 +531,9 @@ class ListBoxImpl<T> {
       return selectedItemsForDisplay;
     }
     for (T selectedItem : selectionList) {
-      for (int i = 0; i < viewDisplayItemCount; i++) {
-        int selectedItemIndex = items.indexOf(selectedItem);
-        if (selectedItemIndex == viewOffset + i) {
-          selectedItemsForDisplay.add(i);
-        }
+      int displayIndex = indexOf(selectedItem) - viewOffset;
+      if (displayIndex >= 0 && displayIndex < viewDisplayItemCount) {
+        selectedItemsForDisplay.add(displayIndex);
       }
     }
     return selectedItemsForDisplay;
@@ -538,7 +642,7 @@ class ListBoxImpl<T> {
   }
 
   private void widthUpdate() {
-    if (widthList.isEmpty()) {
+    if (widthCounts.isEmpty()) {
       if (lastMaxWidth != 0) {
         lastMaxWidth = 0;
         if (view != null) {
@@ -547,24 +651,102 @@ class ListBoxImpl<T> {
       }
       return;
     }
-    Collections.sort(widthList);
-
-    if (widthList.get(widthList.size() - 1).getWidth() != lastMaxWidth) {
-      lastMaxWidth = widthList.get(widthList.size() - 1).getWidth();
+    int maxWidth = widthCounts.lastKey();
+    if (maxWidth != lastMaxWidth) {
+      lastMaxWidth = maxWidth;
       if (view != null) {
         view.updateTotalWidth(lastMaxWidth);
       }
     }
   }
 
-  private int findItemIndexInWidthList(final T item) {
-    for (int i = 0; i < widthList.size(); i++) {
-      ItemWidth itemWidth = widthList.get(i);
-      if (itemWidth.getItem().equals(item)) {
-        return i;
+  private void addWidth(final int width) {
+    Integer count = widthCounts.get(width);
+    widthCounts.put(width, count == null ? 1 : count + 1);
+  }
+
+  private void removeWidth(final int width) {
+    Integer count = widthCounts.get(width);
+    if (count == null) {
+      return;
+    }
+    if (count == 1) {
+      widthCounts.remove(width);
+    } else {
+      widthCounts.put(width, count - 1);
+    }
+  }
+
+  private void appendItem(@Nonnull final T item, final int width) {
+    int index = items.size();
+    items.add(item);
+    itemWidths.add(width);
+    addWidth(width);
+    if (itemIndicesValid && !itemIndices.containsKey(item)) {
+      itemIndices.put(item, index);
+    }
+  }
+
+  private void removeItemAt(final int index) {
+    T item = items.remove(index);
+    removeWidth(itemWidths.remove(index));
+    if (!itemIndicesValid) {
+      return;
+    }
+    Integer firstIndex = itemIndices.get(item);
+    if (firstIndex != null && firstIndex == index) {
+      // the next occurrence of the item, if there is any, is found while shifting the following items
+      itemIndices.remove(item);
+    }
+    for (int i = index; i < items.size(); i++) {
+      T current = items.get(i);
+      Integer currentIndex = itemIndices.get(current);
+      if (currentIndex == null || currentIndex == i + 1) {
+        itemIndices.put(current, i);
+      }
+    }
+  }
+
+  /**
+   * Update the indices after count items have been inserted at the given index. The following items are processed
+   * from the back so that a later occurrence of an item is never mistaken for its first occurrence.
+   */
+  private void shiftIndicesAfterInsert(final int index, final int count) {
+    for (int i = items.size() - 1; i >= index + count; i--) {
+      T current = items.get(i);
+      Integer currentIndex = itemIndices.get(current);
+      if (currentIndex != null && currentIndex == i - count) {
+        itemIndices.put(current, i);
+      }
+    }
+    for (int i = index + count - 1; i >= index; i--) {
+      T current = items.get(i);
+      Integer currentIndex = itemIndices.get(current);
+      if (currentIndex == null || currentIndex > i) {
+        itemIndices.put(current, i);
       }
     }
-    return -1;
+  }
+
+  /**
+   * Get the index of the first occurrence of the item. Same as items.indexOf(item) but without searching the list.
+   */
+  private int indexOf(@Nullable final T item) {
+    if (item == null) {
+      return -1;
+    }
+    if (!itemIndicesValid) {
+      itemIndices.clear();
+      for (int i = 0; i < items.size(); i++) {
+        T current = items.get(i);
+        if (!itemIndices.containsKey(current)) {
+          itemIndices.put(current, i);
+        }
+      }
+      itemIndicesValid = true;
+    }
+    Integer index = itemIndices.get(item);
+    return index == null ? -1 : index;
   }
 
   private void ensureAutoSelection(@Nonnull final T newItem) {
@@ -599,7 +781,7 @@ class ListBoxImpl<T> {
     showItem(visibleItem);
   }
 
-  private static class ItemWidth<T> implements Comparable<ItemWidth<T>> {
+  private static class ItemWidth<T> {
     @Nonnull
     private final T item;
     private final int width;
@@ -609,11 +791,6 @@ class ListBoxImpl<T> {
       this.width = width;
     }
 
-    @Override
-    public int compareTo(@Nonnull final ItemWidth a) {
-      return Integer.valueOf(width).compareTo(a.width);
-    }
-
     @Nonnull
     public T getItem() {
       return item;
@@ -623,4 +800,25 @@ class ListBoxImpl<T> {
       return width;
     }
   }
+
+  /**
+   * Compares ItemWidth instances by their items using the given comparator or the natural ordering of the items.
+   */
+  private static class ItemWidthComparator<T> implements Comparator<ItemWidth<T>> {
+    @Nullable
+    private final Comparator<T> comparator;
+
+    public ItemWidthComparator(@Nullable final Comparator<T> comparator) {
+      this.comparator = comparator;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public int compare(@Nonnull final ItemWidth<T> a, @Nonnull final ItemWidth<T> b) {
+      if (comparator == null) {
+        return ((Comparable<T>) a.getItem()).compareTo(b.getItem());
+      }
+      return comparator.compare(a.getItem(), b.getItem());
+    }
+  }
 }
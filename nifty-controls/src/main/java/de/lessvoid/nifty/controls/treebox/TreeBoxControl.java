@@ -14,6 +14,8 @@ import de.lessvoid.nifty.screen.Screen;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.logging.Logger;
 
 /**
@@ -106,6 +108,40 @@ public final class TreeBoxControl<T> extends ListBoxControl<TreeItem<T>> impleme
     selectItem(selectItem);
   }
 
+  /**
+   * Update the {@link ListBox} after the expanded state of a single item changed. Only the rows of the children of
+   * this item are inserted or removed, the rest of the list stays untouched.
+   *
+   * @param item the item that was expanded or collapsed
+   */
+  void updateExpandedState(@Nonnull final TreeItem<T> item) {
+    final ListBox<TreeItem<T>> list = getListBox();
+    final List<TreeItem<T>> items = list.getItems();
+    final int index = items.indexOf(item);
+    if (index == -1) {
+      updateList(item);
+      return;
+    }
+
+    int end = index + 1;
+    while (end < items.size() && isDescendant(items.get(end), item)) {
+      end++;
+    }
+
+    if (item.isExpanded()) {
+      if (end == index + 1) {
+        final List<TreeItem<T>> rows = new ArrayList<TreeItem<T>>();
+        for (final TreeItem<T> child : item) {
+          collectListItems(rows, child, item.getIndent() + indentWidth);
+        }
+        list.insertAllItems(rows, index + 1);
+      }
+    } else if (end > index + 1) {
+      list.removeAllItems(new ArrayList<TreeItem<T>>(items.subList(index + 1, end)));
+    }
+    selectItem(item);
+  }
+
   /**
    * Clear and build the tree again into the {@link ListBox}.
    */
@@ -117,9 +153,11 @@ public final class TreeBoxControl<T> extends ListBoxControl<TreeItem<T>> impleme
     final ListBox<TreeItem<T>> list = getListBox();
     list.clear();
 
+    final List<TreeItem<T>> rows = new ArrayList<TreeItem<T>>();
     for (final TreeItem<T> item : treeRoot) {
-      addListItem(list, item, 0);
+      collectListItems(rows, item, 0);
     }
+    list.addAllItems(rows);
   }
 
   @Override
@@ -134,23 +172,34 @@ public final class TreeBoxControl<T> extends ListBoxControl<TreeItem<T>> impleme
   }
 
   /**
-   * Add a tree item to the list box and also insert all its children. This function is made for recursive calls in
-   * order to update the current indent value.
+   * Collect a tree item and all its visible children in the order they are displayed in the list box. This function
+   * is made for recursive calls in order to update the current indent value.
    *
-   * @param list          the {@link ListBox} that is filled with entries
+   * @param rows          the list that is filled with entries
    * @param currentItem   the current item that is supposed to be added to the list
    * @param currentIndent the indent of the current item
    */
-  private void addListItem(
-      @Nonnull final ListBox<TreeItem<T>> list,
+  private void collectListItems(
+      @Nonnull final List<TreeItem<T>> rows,
       @Nonnull final TreeItem<T> currentItem,
       final int currentIndent) {
-    list.addItem(currentItem);
+    rows.add(currentItem);
     currentItem.setIndent(currentIndent);
     if (currentItem.isExpanded()) {
       for (final TreeItem<T> item : currentItem) {
-        addListItem(list, item, currentIndent + indentWidth);
+        collectListItems(rows, item, currentIndent + indentWidth);
+      }
+    }
+  }
+
+  private static <T> boolean isDescendant(@Nonnull final TreeItem<T> item, @Nonnull final TreeItem<T> ancestor) {
+    TreeItem<T> current = item.getParentItem();
+    while (current != null) {
+      if (current == ancestor) {
+        return true;
       }
+      current = current.getParentItem();
     }
+    return false;
   }
 }
@@ -0,0 +1,182 @@
+package de.lessvoid.nifty.controls.listbox;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.annotation.Nonnull;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import de.lessvoid.nifty.controls.ListBox.SelectionMode;
+import de.lessvoid.nifty.controls.ListBoxSelectionChangedEvent;
+
+public class ListBoxBookkeepingTest {
+  private ListBoxImpl<TestItem> listBox = new ListBoxImpl<TestItem>(null);
+  private WidthView view = new WidthView();
+  private TestItem a = new TestItem("a");
+  private TestItem bb = new TestItem("bb");
+  private TestItem ccc = new TestItem("ccc");
+  private TestItem dddd = new TestItem("dddd");
+
+  @Before
+  public void before() {
+    listBox.bindToView(view, 2);
+  }
+
+  @Test
+  public void testMaxWidthFollowsAddAndRemove() {
+    listBox.addAllItems(Arrays.asList(a, dddd, bb, dddd));
+    assertEquals(4, view.totalWidth);
+
+    listBox.removeItemByIndex(1);
+    assertEquals(4, view.totalWidth);
+
+    listBox.removeItem(dddd);
+    assertEquals(2, view.totalWidth);
+
+    listBox.insertItem(ccc, 0);
+    assertEquals(3, view.totalWidth);
+
+    listBox.removeAllItems(Arrays.asList(ccc, bb));
+    assertEquals(1, view.totalWidth);
+
+    listBox.clear();
+    assertEquals(0, view.totalWidth);
+  }
+
+  @Test
+  public void testIndicesAfterInsertAndRemove() {
+    listBox.addAllItems(Arrays.asList(a, bb, ccc));
+    listBox.insertItem(dddd, 1);
+    assertEquals(Arrays.asList(a, dddd, bb, ccc), listBox.getItems());
+
+    listBox.selectItem(bb);
+    assertEquals(Arrays.asList(2), listBox.getSelectedIndices());
+
+    listBox.removeItem(a);
+    assertEquals(Arrays.asList(1), listBox.getSelectedIndices());
+
+    listBox.selectNext();
+    assertEquals(Arrays.asList(ccc), listBox.getSelection());
+    assertEquals(Arrays.asList(2), listBox.getSelectedIndices());
+  }
+
+  @Test
+  public void testIndicesOfDuplicatesPointToFirstOccurrence() {
+    listBox.addAllItems(Arrays.asList(a, bb, a, ccc));
+    listBox.selectItem(a);
+    assertEquals(Arrays.asList(0), listBox.getSelectedIndices());
+
+    listBox.removeItemByIndex(0);
+    listBox.selectItem(a);
+    assertEquals(Arrays.asList(1), listBox.getSelectedIndices());
+  }
+
+  @Test
+  public void testIndicesOfDuplicatesAfterInsertAndRemoveInTheMiddle() {
+    listBox.addAllItems(Arrays.asList(a, bb, ccc, bb, dddd, a));
+    assertFirstOccurrences();
+
+    listBox.insertItem(bb, 1);
+    assertFirstOccurrences();
+
+    listBox.insertAllItems(Arrays.asList(dddd, a, ccc), 2);
+    assertFirstOccurrences();
+
+    listBox.removeItemByIndex(1);
+    assertFirstOccurrences();
+
+    listBox.removeItemByIndex(0);
+    assertFirstOccurrences();
+
+    listBox.removeItem(ccc);
+    assertFirstOccurrences();
+
+    listBox.removeAllItems(Arrays.asList(dddd));
+    assertFirstOccurrences();
+  }
+
+  @Test
+  public void testInsertAllItems() {
+    listBox.addAllItems(Arrays.asList(a, dddd));
+    listBox.insertAllItems(Arrays.asList(bb, ccc), 1);
+    assertEquals(Arrays.asList(a, bb, ccc, dddd), listBox.getItems());
+    listBox.selectItem(ccc);
+    assertEquals(Arrays.asList(2), listBox.getSelectedIndices());
+
+    listBox.removeItem(dddd);
+    assertEquals(3, view.totalWidth);
+  }
+
+  @Test
+  public void testSortKeepsWidthsWithItems() {
+    listBox.addAllItems(Arrays.asList(dddd, a, ccc));
+    listBox.sortItems(null);
+    assertEquals(Arrays.asList(a, ccc, dddd), listBox.getItems());
+
+    listBox.removeItemByIndex(2);
+    assertEquals(3, view.totalWidth);
+    listBox.selectItem(ccc);
+    assertEquals(Arrays.asList(1), listBox.getSelectedIndices());
+  }
+
+  @Test
+  public void testSelectionDisplayedForVisibleItemsOnly() {
+    listBox.changeSelectionMode(SelectionMode.Multiple, false);
+    listBox.addAllItems(Arrays.asList(a, bb, ccc, dddd));
+    listBox.selectItem(bb);
+    listBox.selectItem(dddd);
+    listBox.showItemByIndex(1);
+    assertEquals(Arrays.asList(bb, ccc), view.captions);
+    assertEquals(Arrays.asList(0), view.selection);
+  }
+
+  private void assertFirstOccurrences() {
+    List<TestItem> items = new ArrayList<TestItem>(listBox.getItems());
+    for (TestItem item : items) {
+      listBox.selectItem(item);
+      assertEquals(Arrays.asList(items.indexOf(item)), listBox.getSelectedIndices());
+    }
+  }
+
+  private static class WidthView implements ListBoxView<TestItem> {
+    private int totalWidth;
+    private List<TestItem> captions = new ArrayList<TestItem>();
+    private List<Integer> selection = new ArrayList<Integer>();
+
+    @Override
+    public void display(
+        @Nonnull final List<TestItem> captions,
+        final int focusElementIndex,
+        @Nonnull final List<Integer> selectionElements) {
+      this.captions = new ArrayList<TestItem>(captions);
+      this.selection = new ArrayList<Integer>(selectionElements);
+    }
+
+    @Override
+    public void updateTotalCount(final int newCount) {
+    }
+
+    @Override
+    public void updateTotalWidth(final int newWidth) {
+      totalWidth = newWidth;
+    }
+
+    @Override
+    public void scrollTo(final int newPosition) {
+    }
+
+    @Override
+    public void publish(@Nonnull final ListBoxSelectionChangedEvent<TestItem> event) {
+    }
+
+    @Override
+    public int getWidth(final TestItem item) {
+      return item.getLabel().length();
+    }
+  }
+}
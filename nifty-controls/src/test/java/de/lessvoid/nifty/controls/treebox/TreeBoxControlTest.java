@@ -0,0 +1,73 @@
+package de.lessvoid.nifty.controls.treebox;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import de.lessvoid.nifty.controls.TreeItem;
+
+@SuppressWarnings("deprecation")
+public class TreeBoxControlTest {
+  private TreeBoxControl<String> treeBox;
+  private TreeItem<String> a = new TreeItem<String>("a");
+  private TreeItem<String> a1 = new TreeItem<String>("a1");
+  private TreeItem<String> a1x = new TreeItem<String>("a1x");
+  private TreeItem<String> a2 = new TreeItem<String>("a2");
+  private TreeItem<String> b = new TreeItem<String>("b");
+  private TreeItem<String> b1 = new TreeItem<String>("b1");
+
+  @Before
+  public void before() {
+    TreeItem<String> root = new TreeItem<String>();
+    root.addTreeItem(a);
+    root.addTreeItem(b);
+    a.addTreeItem(a1);
+    a.addTreeItem(a2);
+    a1.addTreeItem(a1x);
+    b.addTreeItem(b1);
+    a1.setExpanded(true);
+
+    treeBox = new TreeBoxControl<String>();
+    treeBox.setTree(root);
+  }
+
+  @Test
+  public void testCollapsedTree() {
+    assertEquals(Arrays.asList(a, b), treeBox.getItems());
+  }
+
+  @Test
+  public void testExpandInsertsVisibleChildren() {
+    toggle(a);
+    assertEquals(Arrays.asList(a, a1, a1x, a2, b), treeBox.getItems());
+
+    toggle(b);
+    assertEquals(Arrays.asList(a, a1, a1x, a2, b, b1), treeBox.getItems());
+  }
+
+  @Test
+  public void testCollapseRemovesAllDescendants() {
+    toggle(a);
+    toggle(b);
+    toggle(a);
+    assertEquals(Arrays.asList(a, b, b1), treeBox.getItems());
+
+    toggle(a);
+    toggle(a1);
+    assertEquals(Arrays.asList(a, a1, a2, b, b1), treeBox.getItems());
+  }
+
+  @Test
+  public void testToggledItemIsSelected() {
+    toggle(a);
+    assertEquals(Arrays.asList(a), treeBox.getSelection());
+  }
+
+  private void toggle(final TreeItem<String> item) {
+    item.setExpanded(!item.isExpanded());
+    treeBox.updateExpandedState(item);
+  }
+}
@@ -56,6 +56,9 @@ import de.lessvoid.nifty.loaderv2.types.ResourceBundleType;
 import de.lessvoid.nifty.loaderv2.types.StyleType;
 import de.lessvoid.nifty.loaderv2.types.resolver.style.StyleResolver;
 import de.lessvoid.nifty.loaderv2.types.resolver.style.StyleResolverDefault;
+import de.lessvoid.nifty.profiler.NiftyProfiler;
+import de.lessvoid.nifty.profiler.ProfilerOverlay;
+import de.lessvoid.nifty.profiler.ProfilerSection;
 import de.lessvoid.nifty.render.NiftyImage;
 import de.lessvoid.nifty.render.NiftyMouseImpl;
 import de.lessvoid.nifty.render.NiftyRenderEngine;
@@ -126,6 +129,8 @@ public class Nifty {
   @Nonnull
   private final Map<String, ControlDefinitionType> controlDefinitions;
   @Nonnull
+  private final Map<String, ElementType> controlTemplates;
+  @Nonnull
   private final Map<String, RegisterEffectType> registeredEffects;
   @Nonnull
   private final Map<String, ScreenController> registeredScreenControllers;
@@ -168,7 +173,13 @@ public class Nifty {
   private NiftyInputConsumerNotify niftyInputConsumerNotify = new NiftyInputConsumerNotifyDefault();
   @Nonnull
   private final SubscriberRegistry subscriberRegister = new SubscriberRegistry();
+  @Nonnull
+  private final NiftyEventBus niftyEventBus = new NiftyEventBus();
+  private boolean useNiftyEventBus;
   private boolean debugOptionPanelColors;
+  private boolean retainedRendering;
+  @Nullable
+  private ProfilerOverlay profilerOverlay;
   @Nonnull
   private Clipboard clipboard;
 
@@ -195,6 +206,7 @@ public class Nifty {
     popups = new HashMap<String, Element>();
     styles = new HashMap<String, StyleType>();
     controlDefinitions = new HashMap<String, ControlDefinitionType>();
+    controlTemplates = new HashMap<String, ElementType>();
     registeredEffects = new HashMap<String, RegisterEffectType>();
     registeredScreenControllers = new HashMap<String, ScreenController>();
     controlStylesChanged = new HashSet<String>();
@@ -302,16 +314,61 @@ public class Nifty {
     return service;
   }
 
+  /**
+   * Get the NiftyEventBus. It's only used to deliver the events of elements in case
+   * {@link #setUseNiftyEventBus(boolean)} is enabled.
+   */
+  @Nonnull
+  public NiftyEventBus getNiftyEventBus() {
+    return niftyEventBus;
+  }
+
+  /**
+   * Select the event bus used to deliver the events of elements. By default the events are delivered using the
+   * EventBus library (see {@link #getEventService()}). When this option is enabled the {@link NiftyEventBus} is used
+   * instead. It delivers the events with less overhead, coalesces {@link NiftyCoalescableEvent}s published while the
+   * input of a frame is processed and supports asynchronous subscribers.
+   * <p/>
+   * This option must be changed before any subscriptions are made, so before the first screen is loaded. Subscribers
+   * that are registered directly with the EventService don't receive the events of elements anymore once this
+   * option is enabled, they need to subscribe with {@link #subscribe(Screen, String, Class, EventTopicSubscriber)} or
+   * with {@link NiftyEventSubscriber} annotations.
+   *
+   * @param option enable (true) or disable (false) the NiftyEventBus, the default is disabled
+   */
+  public void setUseNiftyEventBus(final boolean option) {
+    useNiftyEventBus = option;
+  }
+
+  /**
+   * Returns true if the NiftyEventBus is used to deliver the events of elements.
+   */
+  public boolean isUseNiftyEventBus() {
+    return useNiftyEventBus;
+  }
+
   public void publishEvent(@Nonnull final String id, @Nonnull final NiftyEvent event) {
-    getEventService().publish(id, event);
+    if (useNiftyEventBus) {
+      niftyEventBus.publish(id, event);
+    } else {
+      getEventService().publish(id, event);
+    }
   }
 
   public void subscribeAnnotations(@Nonnull final Object object) {
-    NiftyEventAnnotationProcessor.process(object);
+    if (useNiftyEventBus) {
+      NiftyEventAnnotationProcessor.process(object, niftyEventBus);
+    } else {
+      NiftyEventAnnotationProcessor.process(object);
+    }
   }
 
   public void unsubscribeAnnotations(@Nonnull final Object object) {
-    NiftyEventAnnotationProcessor.unprocess(object);
+    if (useNiftyEventBus) {
+      NiftyEventAnnotationProcessor.unprocess(object, niftyEventBus);
+    } else {
+      NiftyEventAnnotationProcessor.unprocess(object);
+    }
   }
 
   public <T, S extends EventTopicSubscriber<? extends T>> void subscribe(
@@ -320,7 +377,11 @@ public class Nifty {
       @Nonnull final Class<T> eventClass,
       @Nonnull final S subscriber) {
     ClassSaveEventTopicSubscriber theSubscriber = new ClassSaveEventTopicSubscriber(elementId, subscriber, eventClass);
-    getEventService().subscribeStrongly(elementId, theSubscriber);
+    if (useNiftyEventBus) {
+      niftyEventBus.subscribe(elementId, theSubscriber, subscriber, false);
+    } else {
+      getEventService().subscribeStrongly(elementId, theSubscriber);
+    }
     log.fine("-> subscribe [" + elementId + "] screen [" + screen + "] -> [" + theSubscriber + "(" + subscriber + ")," +
         "(" + eventClass + ")]");
 
@@ -335,11 +396,21 @@ public class Nifty {
             "object \"" + object + "\". try to find the offending element and give it an id!");
         return;
       }
-      getEventService().unsubscribe(elementId, (EventTopicSubscriber<?>) object);
+      unsubscribeEventTopicSubscriber(elementId, (EventTopicSubscriber<?>) object);
       log.fine("<- unsubscribe [" + elementId + "] -> [" + object + "]");
     }
   }
 
+  private void unsubscribeEventTopicSubscriber(
+      @Nonnull final String elementId,
+      @Nonnull final EventTopicSubscriber<?> subscriber) {
+    if (useNiftyEventBus) {
+      niftyEventBus.unsubscribe(elementId, subscriber);
+    } else {
+      getEventService().unsubscribe(elementId, subscriber);
+    }
+  }
+
   public void unsubscribeScreen(@Nonnull final Screen screen) {
     subscriberRegister.unsubscribeScreen(screen);
   }
@@ -358,9 +429,19 @@ public class Nifty {
    * @return true when nifty has finished processing the screen and false when rendering should continue.
    */
   public boolean update() {
+    NiftyProfiler.beginFrame();
     if (currentScreen != null) {
+      NiftyProfiler.begin(ProfilerSection.INPUT);
       mouseInputEventProcessor.begin();
-      inputSystem.forwardEvents(niftyInputConsumer);
+      niftyInputConsumer.beginCoalescing();
+      niftyEventBus.beginFrame();
+      try {
+        inputSystem.forwardEvents(niftyInputConsumer);
+      } finally {
+        niftyInputConsumer.endCoalescing();
+        niftyEventBus.endFrame();
+        NiftyProfiler.end(ProfilerSection.INPUT);
+      }
       if (mouseInputEventProcessor.hasLastMouseDownEvent()) {
         forwardMouseEventToScreen(mouseInputEventProcessor.getLastMouseDownEvent(), currentScreen);
       }
@@ -368,6 +449,7 @@ public class Nifty {
     handleDynamicElements();
     updateSoundSystem();
     if (currentScreen != null) {
+      currentScreen.updateLayout();
       if (log.isLoggable(Level.FINEST)) {
         log.finest(currentScreen.debugOutput());
       } else if (log.isLoggable(Level.FINER)) {
@@ -393,19 +475,26 @@ public class Nifty {
    * @param clearScreen true if nifty should clean the screen and false when you've done that already.
    */
   public void render(final boolean clearScreen) {
+    NiftyProfiler.beginFrame();
     renderEngine.beginFrame();
     if (clearScreen) {
       renderEngine.clear();
     }
     renderEngine.applyAbsoluteClip();
     if (currentScreen != null) {
+      NiftyProfiler.begin(ProfilerSection.RENDER);
       currentScreen.renderLayers(renderEngine);
+      NiftyProfiler.end(ProfilerSection.RENDER);
     }
 
     if (exit) {
       renderEngine.clear();
     }
+    if (profilerOverlay != null) {
+      profilerOverlay.render(renderEngine);
+    }
     renderEngine.endFrame();
+    NiftyProfiler.endFrame();
 
     // now that the frame is complete we can reset the render device in case of the resolution change
     if (resolutionChanged) {
@@ -643,7 +732,7 @@ public class Nifty {
 
     try {
       long start = timeProvider.getMsTime();
-      final InputStream stream = getResourceAsStream(filename);
+      final InputStream stream = loader.openResource(filename);
       if (stream == null) {
         throw new IOException("Failed to open stream to resource \"" + filename + "\" for loading.");
       }
@@ -1392,6 +1481,8 @@ public class Nifty {
 
   public void registerControlDefintion(@Nonnull final ControlDefinitionType controlDefinition) {
     controlDefinitions.put(controlDefinition.getName(), controlDefinition);
+    // templates contain the expanded nested controls too, so any of them might be outdated now
+    controlTemplates.clear();
     // TODO: add the same behaviour of register style and try to updating 
     // already registered control defintions.
   }
@@ -1408,6 +1499,28 @@ public class Nifty {
     return controlDefinitions.get(name);
   }
 
+  /**
+   * Get the template for the control definition with the given name. The template is a copy of the control definition
+   * with all controls that are used inside of the definition already expanded. Templates are created on first use and
+   * are reused for all following instances of the control until a control definition is registered.
+   *
+   * @param name the name of the control definition
+   * @return the template or {@code null} in case there is no control definition with this name
+   */
+  @Nullable
+  public ElementType resolveControlTemplate(@Nullable final String name) {
+    ControlDefinitionType controlDefinition = resolveControlDefinition(name);
+    if (controlDefinition == null) {
+      return null;
+    }
+    ElementType template = controlTemplates.get(name);
+    if (template == null) {
+      template = controlDefinition.createTemplate(this);
+      controlTemplates.put(name, template);
+    }
+    return template;
+  }
+
   @Nullable
   public RegisterEffectType resolveRegisteredEffect(@Nullable final String name) {
     if (name == null) {
@@ -1637,6 +1750,27 @@ public class Nifty {
     private boolean button1Down = false;
     private boolean button2Down = false;
 
+    /**
+     * The single event instance that is reused for every mouse event forwarded to the screen.
+     */
+    @Nonnull
+    private final NiftyMouseInputEvent mouseEvent = new NiftyMouseInputEvent();
+
+    /**
+     * The event instance used to check if a coalesced mouse move hits any element of the current screen.
+     */
+    @Nonnull
+    private final NiftyMouseInputEvent hitTestEvent = new NiftyMouseInputEvent();
+
+    /**
+     * While this is true plain mouse moves are not forwarded right away. Only the last position is remembered and
+     * forwarded once another kind of event arrives or the input system is done forwarding events.
+     */
+    private boolean coalescing = false;
+    private boolean hasPendingMove = false;
+    private int pendingMouseX;
+    private int pendingMouseY;
+
     @Override
     public boolean processMouseEvent(
         final int mouseX,
@@ -1646,7 +1780,22 @@ public class Nifty {
         final boolean buttonDown) {
       boolean processed = false;
       if (!isIgnoreMouseEvents()) {
-        processed = processEvent(createEvent(mouseX, mouseY, mouseWheel, button, buttonDown));
+        boolean newButton0Down = button == 0 ? buttonDown : button0Down;
+        boolean newButton1Down = button == 1 ? buttonDown : button1Down;
+        boolean newButton2Down = button == 2 ? buttonDown : button2Down;
+        if (coalescing &&
+            mouseInputEventProcessor.isMoveOnly(mouseWheel, newButton0Down, newButton1Down, newButton2Down)) {
+          updateButtons(button, buttonDown);
+          hasPendingMove = true;
+          pendingMouseX = mouseX;
+          pendingMouseY = mouseY;
+          processed = hitsElement(mouseX, mouseY);
+        } else {
+          // the pending move happened before this event so it is forwarded with the button state it had back then
+          flushPendingMove();
+          updateButtons(button, buttonDown);
+          processed = processEvent(mouseX, mouseY, mouseWheel);
+        }
         if (log.isLoggable(Level.FINE)) {
           log.fine("[processMouseEvent] [" + mouseX + ", " + mouseY + ", " + mouseWheel + ", " + button + ", " +
               "" + buttonDown + "] processed [" + processed + "]");
@@ -1677,13 +1826,36 @@ public class Nifty {
       button2Down = false;
     }
 
-    @Nonnull
-    private NiftyMouseInputEvent createEvent(
-        final int mouseX,
-        final int mouseY,
-        final int mouseWheel,
-        final int button,
-        final boolean buttonDown) {
+    void beginCoalescing() {
+      coalescing = true;
+    }
+
+    void endCoalescing() {
+      coalescing = false;
+      flushPendingMove();
+    }
+
+    private void flushPendingMove() {
+      if (hasPendingMove) {
+        hasPendingMove = false;
+        processEvent(pendingMouseX, pendingMouseY, 0);
+      }
+    }
+
+    /**
+     * Get the processed state of a coalesced mouse move. The move is not forwarded yet, so the current screen is only
+     * checked for an element at the position of the move, without notifying any element.
+     */
+    private boolean hitsElement(final int mouseX, final int mouseY) {
+      if (currentScreen == null) {
+        return false;
+      }
+      hitTestEvent.initialize(renderEngine.convertFromNativeX(mouseX), renderEngine.convertFromNativeY(mouseY),
+          0, button0Down, button1Down, button2Down);
+      return currentScreen.hitsElement(hitTestEvent);
+    }
+
+    private void updateButtons(final int button, final boolean buttonDown) {
       switch (button) {
         case 0:
           button0Down = buttonDown;
@@ -1695,22 +1867,18 @@ public class Nifty {
           button2Down = buttonDown;
           break;
       }
-
-      NiftyMouseInputEvent result = new NiftyMouseInputEvent();
-      result.initialize(renderEngine.convertFromNativeX(mouseX), renderEngine.convertFromNativeY(mouseY),
-          mouseWheel, button0Down, button1Down, button2Down);
-      return result;
     }
 
-    private boolean processEvent(@Nonnull final NiftyMouseInputEvent mouseInputEvent) {
-      mouseInputEventProcessor.process(mouseInputEvent);
+    private boolean processEvent(final int mouseX, final int mouseY, final int mouseWheel) {
+      mouseEvent.initialize(renderEngine.convertFromNativeX(mouseX), renderEngine.convertFromNativeY(mouseY),
+          mouseWheel, button0Down, button1Down, button2Down);
+      mouseInputEventProcessor.process(mouseEvent);
       if (currentScreen == null) {
         return false;
-      } else {
-        boolean handled = forwardMouseEventToScreen(mouseInputEvent, currentScreen);
-        handleDynamicElements();
-        return handled;
       }
+      boolean processed = forwardMouseEventToScreen(mouseEvent, currentScreen);
+      handleDynamicElements();
+      return processed;
     }
   }
 
@@ -1863,6 +2031,9 @@ public class Nifty {
    */
   public void setDebugOptionPanelColors(final boolean option) {
     this.debugOptionPanelColors = option;
+    if (currentScreen != null) {
+      currentScreen.invalidateRender();
+    }
   }
 
   /**
@@ -1874,6 +2045,57 @@ public class Nifty {
     return debugOptionPanelColors;
   }
 
+  /**
+   * Enable or disable retained rendering. When enabled the draw calls of each layer are recorded and replayed in the
+   * following frames until something in the layer changes (layout, visibility, active effects or the content of the
+   * standard element renderers). This saves most of the CPU time spent to render screens that don't change.
+   * <p/>
+   * Custom ElementRenderers or code that modifies a NiftyImage that is already displayed need to call
+   * {@link Element#invalidateRender()} for the changed element when the output changes in this mode.
+   *
+   * @param option enable (true) or disable (false) retained rendering, the default is disabled
+   */
+  public void setRetainedRendering(final boolean option) {
+    this.retainedRendering = option;
+    if (currentScreen != null) {
+      currentScreen.invalidateRender();
+    }
+  }
+
+  /**
+   * Returns true if retained rendering is enabled.
+   *
+   * @return true if the option is enabled and false if not
+   */
+  public boolean isRetainedRendering() {
+    return retainedRendering;
+  }
+
+  /**
+   * Show the measurements of the {@link NiftyProfiler} on top of the screen. This enables the profiler in case it is
+   * disabled.
+   *
+   * @param fontName the font used to render the measurements
+   */
+  public void showProfilerOverlay(@Nonnull final String fontName) {
+    RenderFont font = renderEngine.createFont(fontName);
+    if (font == null) {
+      log.warning("Failed to load font [" + fontName + "] for the profiler overlay.");
+      return;
+    }
+    profilerOverlay = new ProfilerOverlay(font);
+    if (!NiftyProfiler.isEnabled()) {
+      NiftyProfiler.setEnabled(true);
+    }
+  }
+
+  /**
+   * Hide the measurements of the {@link NiftyProfiler} again.
+   */
+  public void hideProfilerOverlay() {
+    profilerOverlay = null;
+  }
+
   /**
    * A helper method to call the special values replace method ${} syntax
    *
@@ -1916,7 +2138,7 @@ public class Nifty {
           List<ClassSaveEventTopicSubscriber> list = entry.getValue();
           for (int i = 0; i < list.size(); i++) {
             ClassSaveEventTopicSubscriber subscriber = list.get(i);
-            getEventService().unsubscribe(subscriber.getElementId(), subscriber);
+            unsubscribeEventTopicSubscriber(subscriber.getElementId(), subscriber);
             log.fine("<- unsubscribe screen for [" + screen + "] [" + subscriber.getElementId() + "] -> [" +
                 subscriber + "]");
           }
@@ -1934,7 +2156,7 @@ public class Nifty {
         if (list != null && !list.isEmpty()) {
           for (int i = 0; i < list.size(); i++) {
             ClassSaveEventTopicSubscriber subscriber = list.get(i);
-            getEventService().unsubscribe(subscriber.getElementId(), subscriber);
+            unsubscribeEventTopicSubscriber(subscriber.getElementId(), subscriber);
             log.fine("<- unsubscribe element [" + elementId + "] [" + subscriber.getElementId() + "] -> [" +
                 subscriber + "]");
           }
@@ -0,0 +1,12 @@
+package de.lessvoid.nifty;
+
+/**
+ * Marker interface for NiftyEvents that report a new state that replaces the state reported by the event before,
+ * like the new value of a slider. When the {@link NiftyEventBus} is used and several events of the same class are
+ * published to the same topic while Nifty processes the input of a frame only the last of them is delivered, before
+ * the next event that is not coalesced or at the end of the input processing.
+ *
+ * @author void
+ */
+public interface NiftyCoalescableEvent extends NiftyEvent {
+}
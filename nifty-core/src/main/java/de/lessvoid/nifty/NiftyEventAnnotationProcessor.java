@@ -17,14 +17,31 @@ public class NiftyEventAnnotationProcessor {
   private static final Logger log = Logger.getLogger(NiftyEventAnnotationProcessor.class.getName());
 
   public static void process(final Object obj) {
-    processOrUnprocess(obj, true);
+    processOrUnprocess(obj, true, null);
   }
 
   public static void unprocess(final Object obj) {
-    processOrUnprocess(obj, false);
+    processOrUnprocess(obj, false, null);
   }
 
-  private static void processOrUnprocess(@Nullable final Object obj, final boolean add) {
+  /**
+   * Subscribe the annotated methods of the object to the given NiftyEventBus instead of the EventBus library.
+   */
+  public static void process(final Object obj, @Nonnull final NiftyEventBus eventBus) {
+    processOrUnprocess(obj, true, eventBus);
+  }
+
+  /**
+   * Unsubscribe the annotated methods of the object from the given NiftyEventBus.
+   */
+  public static void unprocess(final Object obj, @Nonnull final NiftyEventBus eventBus) {
+    processOrUnprocess(obj, false, eventBus);
+  }
+
+  private static void processOrUnprocess(
+      @Nullable final Object obj,
+      final boolean add,
+      @Nullable final NiftyEventBus eventBus) {
     if (obj == null) {
       return;
     }
@@ -39,7 +56,11 @@ public class NiftyEventAnnotationProcessor {
         if (log.isLoggable(Level.FINE)) {
           log.fine("Found NiftyEventSubscriber:" + niftyEventSubscriber + " on method:" + method);
         }
-        process(niftyEventSubscriber, obj, method, add);
+        if (eventBus == null) {
+          process(niftyEventSubscriber, obj, method, add);
+        } else {
+          process(niftyEventSubscriber, obj, method, add, eventBus);
+        }
       }
     }
   }
@@ -58,6 +79,39 @@ public class NiftyEventAnnotationProcessor {
     }
   }
 
+  private static void process(
+      @Nonnull final NiftyEventSubscriber annotation,
+      @Nonnull final Object obj,
+      @Nonnull final Method method,
+      final boolean add,
+      @Nonnull final NiftyEventBus eventBus) {
+    String id = annotation.id();
+    String pattern = annotation.pattern();
+    ensureNotNull(id, pattern);
+    ensureMethodParamCount(method.getParameterTypes());
+    Class<?> eventClass = method.getParameterTypes()[1];
+    if (isSet(id)) {
+      if (add) {
+        Subscriber subscriber = new Subscriber(obj, method, eventClass);
+        eventBus.subscribe(id, subscriber, obj, annotation.async());
+        log.fine("-> subscribe [" + id + "] -> [" + subscriber + "]");
+      } else {
+        eventBus.unsubscribe(id, obj);
+        log.fine("<- unsubscribe [" + id + "] -> [" + obj + "]");
+      }
+    } else {
+      Pattern topicPattern = Pattern.compile(pattern);
+      if (add) {
+        Subscriber subscriber = new Subscriber(obj, method, eventClass);
+        eventBus.subscribe(topicPattern, subscriber, obj, annotation.async());
+        log.fine("-> subscribe [" + topicPattern + "] -> [" + subscriber + "]");
+      } else {
+        eventBus.unsubscribe(topicPattern, obj);
+        log.fine("<- unsubscribe [" + topicPattern + "] -> [" + obj + "]");
+      }
+    }
+  }
+
   private static boolean isSet(@Nullable final String value) {
     return value != null && value.length() > 0;
   }
@@ -0,0 +1,453 @@
+package de.lessvoid.nifty;
+
+import org.bushe.swing.event.EventTopicSubscriber;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+
+/**
+ * The event bus Nifty uses to deliver events to the subscribers of element ids when it's enabled with
+ * {@link Nifty#setUseNiftyEventBus(boolean)}. Compared to the ThreadSafeEventService of the EventBus library it's
+ * optimized for the way Nifty publishes events:
+ * <ul>
+ * <li>The subscribers of each topic (including the subscribers of matching patterns) are resolved once and stored in
+ * an array. Publishing an event does not lock and does not allocate anything. The arrays are rebuilt when the
+ * subscriptions change.</li>
+ * <li>Events that implement {@link NiftyCoalescableEvent} and that are published while a frame is processed are
+ * delayed. Only the last of them is delivered for each topic and event class. The delayed events are delivered at
+ * {@link #endFrame()} or as soon as another event is delivered, so all events still arrive in the order they were
+ * published.</li>
+ * <li>Subscribers that are subscribed as asynchronous are called using the executor set with
+ * {@link #setAsyncExecutor(Executor)}. Without an executor they are called right away like all other subscribers.
+ * </li>
+ * </ul>
+ * Publishing is expected to happen on the thread that runs Nifty. Subscriptions may be changed from any thread.
+ *
+ * @author void
+ */
+public class NiftyEventBus {
+  @Nonnull
+  private static final Logger log = Logger.getLogger(NiftyEventBus.class.getName());
+  @Nonnull
+  private static final Subscription[] NO_SUBSCRIPTIONS = new Subscription[0];
+
+  /**
+   * The maximal amount of topics in {@link #dispatchCache}. Topics are often made from generated element ids, so the
+   * cache is started over when it reaches this size instead of growing without bounds.
+   */
+  private static final int MAX_CACHED_TOPICS = 1024;
+
+  /**
+   * The subscriptions to exact topics. Only changed while holding the lock of this map.
+   */
+  @Nonnull
+  private final Map<String, Subscription[]> topicSubscriptions = new HashMap<String, Subscription[]>();
+
+  /**
+   * The subscriptions to topic patterns. Only changed while holding the lock of {@link #topicSubscriptions}.
+   */
+  @Nonnull
+  private volatile Subscription[] patternSubscriptions = NO_SUBSCRIPTIONS;
+
+  /**
+   * The resolved subscriptions of the topics published so far. Topics without subscriptions are not kept.
+   */
+  @Nonnull
+  private final ConcurrentHashMap<String, Subscription[]> dispatchCache =
+      new ConcurrentHashMap<String, Subscription[]>();
+
+  /**
+   * Incremented on every change of the subscriptions. This is used to detect a resolved subscription array that was
+   * created from outdated subscriptions.
+   */
+  private volatile int generation;
+
+  @Nullable
+  private volatile Executor asyncExecutor;
+
+  private boolean frameActive;
+  @Nonnull
+  private final List<String> pendingTopics = new ArrayList<String>();
+  @Nonnull
+  private final List<Object> pendingEvents = new ArrayList<Object>();
+
+  /**
+   * Set the executor used to call asynchronous subscribers.
+   *
+   * @param executor the executor or {@code null} to call asynchronous subscribers right away
+   */
+  public void setAsyncExecutor(@Nullable final Executor executor) {
+    asyncExecutor = executor;
+  }
+
+  @Nullable
+  public Executor getAsyncExecutor() {
+    return asyncExecutor;
+  }
+
+  /**
+   * Subscribe to a topic.
+   */
+  public void subscribe(@Nonnull final String topic, @Nonnull final EventTopicSubscriber<?> subscriber) {
+    subscribe(topic, subscriber, subscriber, false);
+  }
+
+  /**
+   * Subscribe to a topic.
+   *
+   * @param async {@code true} to call the subscriber using the executor for asynchronous subscribers
+   */
+  public void subscribe(
+      @Nonnull final String topic,
+      @Nonnull final EventTopicSubscriber<?> subscriber,
+      final boolean async) {
+    subscribe(topic, subscriber, subscriber, async);
+  }
+
+  /**
+   * Subscribe to all topics matching a pattern.
+   */
+  public void subscribe(@Nonnull final Pattern topicPattern, @Nonnull final EventTopicSubscriber<?> subscriber) {
+    subscribe(topicPattern, subscriber, subscriber, false);
+  }
+
+  /**
+   * Subscribe to all topics matching a pattern.
+   *
+   * @param async {@code true} to call the subscriber using the executor for asynchronous subscribers
+   */
+  public void subscribe(
+      @Nonnull final Pattern topicPattern,
+      @Nonnull final EventTopicSubscriber<?> subscriber,
+      final boolean async) {
+    subscribe(topicPattern, subscriber, subscriber, async);
+  }
+
+  /**
+   * Subscribe to a topic. The owner is the object that is used to unsubscribe again. It's different from the
+   * subscriber in case the subscriber is a proxy created by Nifty.
+   */
+  void subscribe(
+      @Nonnull final String topic,
+      @Nonnull final EventTopicSubscriber<?> subscriber,
+      @Nonnull final Object owner,
+      final boolean async) {
+    synchronized (topicSubscriptions) {
+      Subscription[] current = topicSubscriptions.get(topic);
+      topicSubscriptions.put(topic, append(current, new Subscription(null, subscriber, owner, async)));
+      generation++;
+      dispatchCache.remove(topic);
+    }
+  }
+
+  void subscribe(
+      @Nonnull final Pattern topicPattern,
+      @Nonnull final EventTopicSubscriber<?> subscriber,
+      @Nonnull final Object owner,
+      final boolean async) {
+    synchronized (topicSubscriptions) {
+      patternSubscriptions = append(patternSubscriptions, new Subscription(topicPattern, subscriber, owner, async));
+      generation++;
+      dispatchCache.clear();
+    }
+  }
+
+  /**
+   * Remove the subscriptions of a subscriber from a topic.
+   *
+   * @param subscriber the subscriber or the object the subscriber was created for
+   * @return {@code true} in case any subscription was removed
+   */
+  public boolean unsubscribe(@Nonnull final String topic, @Nonnull final Object subscriber) {
+    synchronized (topicSubscriptions) {
+      Subscription[] current = topicSubscriptions.get(topic);
+      if (current == null) {
+        return false;
+      }
+      Subscription[] remaining = remove(current, null, subscriber);
+      if (remaining == current) {
+        return false;
+      }
+      if (remaining.length == 0) {
+        topicSubscriptions.remove(topic);
+      } else {
+        topicSubscriptions.put(topic, remaining);
+      }
+      generation++;
+      dispatchCache.remove(topic);
+      return true;
+    }
+  }
+
+  /**
+   * Remove the subscriptions of a subscriber from a topic pattern.
+   *
+   * @param subscriber the subscriber or the object the subscriber was created for
+   * @return {@code true} in case any subscription was removed
+   */
+  public boolean unsubscribe(@Nonnull final Pattern topicPattern, @Nonnull final Object subscriber) {
+    synchronized (topicSubscriptions) {
+      Subscription[] remaining = remove(patternSubscriptions, topicPattern.pattern(), subscriber);
+      if (remaining == patternSubscriptions) {
+        return false;
+      }
+      patternSubscriptions = remaining;
+      generation++;
+      dispatchCache.clear();
+      return true;
+    }
+  }
+
+  /**
+   * Remove all subscriptions.
+   */
+  public void clearAllSubscribers() {
+    synchronized (topicSubscriptions) {
+      topicSubscriptions.clear();
+      patternSubscriptions = NO_SUBSCRIPTIONS;
+      generation++;
+      dispatchCache.clear();
+    }
+  }
+
+  /**
+   * Check if there is any subscriber that would receive events published to the topic.
+   */
+  public boolean hasSubscribers(@Nonnull final String topic) {
+    return getSubscriptions(topic).length > 0;
+  }
+
+  // package private for the tests
+  int getCachedTopicCount() {
+    return dispatchCache.size();
+  }
+
+  /**
+   * Publish an event to all subscribers of the topic.
+   */
+  public void publish(@Nonnull final String topic, @Nonnull final Object event) {
+    Subscription[] subscriptions = getSubscriptions(topic);
+    if (subscriptions.length == 0) {
+      return;
+    }
+    if (frameActive && event instanceof NiftyCoalescableEvent) {
+      addPending(topic, event);
+      return;
+    }
+    // the delayed events were published first
+    deliverPending();
+    deliver(subscriptions, topic, event);
+  }
+
+  /**
+   * Start delaying the delivery of {@link NiftyCoalescableEvent}s.
+   */
+  public void beginFrame() {
+    frameActive = true;
+  }
+
+  /**
+   * Deliver the {@link NiftyCoalescableEvent}s delayed since {@link #beginFrame()}. Events published from now on are
+   * delivered right away again.
+   */
+  public void endFrame() {
+    frameActive = false;
+    deliverPending();
+  }
+
+  /**
+   * Delay a coalescable event. An event delayed before for the same topic and event class is dropped, the new event
+   * takes its place at the end of the delayed events because it was published last.
+   */
+  private void addPending(@Nonnull final String topic, @Nonnull final Object event) {
+    for (int i = 0; i < pendingTopics.size(); i++) {
+      if (pendingEvents.get(i).getClass() == event.getClass() && pendingTopics.get(i).equals(topic)) {
+        pendingTopics.remove(i);
+        pendingEvents.remove(i);
+        break;
+      }
+    }
+    pendingTopics.add(topic);
+    pendingEvents.add(event);
+  }
+
+  private void deliverPending() {
+    // subscribers might publish events themselves, so each event is removed before it is delivered
+    while (!pendingTopics.isEmpty()) {
+      String topic = pendingTopics.remove(0);
+      Object event = pendingEvents.remove(0);
+      deliver(getSubscriptions(topic), topic, event);
+    }
+  }
+
+  private void deliver(
+      @Nonnull final Subscription[] subscriptions,
+      @Nonnull final String topic,
+      @Nonnull final Object event) {
+    for (int i = 0; i < subscriptions.length; i++) {
+      Subscription subscription = subscriptions[i];
+      Executor executor = asyncExecutor;
+      if (subscription.async && executor != null) {
+        executor.execute(new AsyncDelivery(subscription, topic, event));
+      } else {
+        subscription.deliver(topic, event);
+      }
+    }
+  }
+
+  @Nonnull
+  private Subscription[] getSubscriptions(@Nonnull final String topic) {
+    Subscription[] result = dispatchCache.get(topic);
+    if (result != null) {
+      return result;
+    }
+    int resolvedGeneration;
+    synchronized (topicSubscriptions) {
+      resolvedGeneration = generation;
+      result = resolve(topic);
+    }
+    if (result.length == 0) {
+      // most topics nobody subscribed to are used once (generated element ids), keeping them would only fill the cache
+      return result;
+    }
+    if (dispatchCache.size() >= MAX_CACHED_TOPICS) {
+      dispatchCache.clear();
+    }
+    dispatchCache.put(topic, result);
+    if (resolvedGeneration != generation) {
+      // the subscriptions changed in the meantime, the result is still right for this call but must not be kept
+      dispatchCache.remove(topic);
+    }
+    return result;
+  }
+
+  @Nonnull
+  private Subscription[] resolve(@Nonnull final String topic) {
+    Subscription[] exact = topicSubscriptions.get(topic);
+    Subscription[] patterns = patternSubscriptions;
+    List<Subscription> matching = null;
+    for (int i = 0; i < patterns.length; i++) {
+      if (patterns[i].pattern.matcher(topic).matches()) {
+        if (matching == null) {
+          matching = new ArrayList<Subscription>();
+        }
+        matching.add(patterns[i]);
+      }
+    }
+    if (matching == null) {
+      return exact == null ? NO_SUBSCRIPTIONS : exact;
+    }
+    int exactCount = exact == null ? 0 : exact.length;
+    Subscription[] result = new Subscription[exactCount + matching.size()];
+    if (exact != null) {
+      System.arraycopy(exact, 0, result, 0, exactCount);
+    }
+    for (int i = 0; i < matching.size(); i++) {
+      result[exactCount + i] = matching.get(i);
+    }
+    return result;
+  }
+
+  @Nonnull
+  private static Subscription[] append(@Nullable final Subscription[] current, @Nonnull final Subscription added) {
+    if (current == null) {
+      return new Subscription[]{added};
+    }
+    Subscription[] result = new Subscription[current.length + 1];
+    System.arraycopy(current, 0, result, 0, current.length);
+    result[current.length] = added;
+    return result;
+  }
+
+  /**
+   * Remove the subscriptions of a subscriber.
+   *
+   * @return the remaining subscriptions or the same array in case nothing was removed
+   */
+  @Nonnull
+  private static Subscription[] remove(
+      @Nonnull final Subscription[] current,
+      @Nullable final String pattern,
+      @Nonnull final Object subscriber) {
+    List<Subscription> remaining = new ArrayList<Subscription>(current.length);
+    for (int i = 0; i < current.length; i++) {
+      if (!current[i].matches(pattern, subscriber)) {
+        remaining.add(current[i]);
+      }
+    }
+    if (remaining.size() == current.length) {
+      return current;
+    }
+    return remaining.toArray(new Subscription[remaining.size()]);
+  }
+
+  private static final class Subscription {
+    @Nullable
+    private final Pattern pattern;
+    @Nonnull
+    private final EventTopicSubscriber<Object> subscriber;
+    @Nonnull
+    private final Object owner;
+    private final boolean async;
+
+    @SuppressWarnings("unchecked")
+    private Subscription(
+        @Nullable final Pattern pattern,
+        @Nonnull final EventTopicSubscriber<?> subscriber,
+        @Nonnull final Object owner,
+        final boolean async) {
+      this.pattern = pattern;
+      this.subscriber = (EventTopicSubscriber<Object>) subscriber;
+      this.owner = owner;
+      this.async = async;
+    }
+
+    private boolean matches(@Nullable final String otherPattern, @Nonnull final Object other) {
+      if (otherPattern != null && (pattern == null || !otherPattern.equals(pattern.pattern()))) {
+        return false;
+      }
+      return subscriber == other || owner == other || subscriber.equals(other);
+    }
+
+    private void deliver(@Nonnull final String topic, @Nonnull final Object event) {
+      try {
+        subscriber.onEvent(topic, event);
+      } catch (RuntimeException e) {
+        log.log(Level.WARNING, "Subscriber [" + subscriber + "] failed to handle event [" + event + "] for topic [" +
+            topic + "]", e);
+      }
+    }
+  }
+
+  private static final class AsyncDelivery implements Runnable {
+    @Nonnull
+    private final Subscription subscription;
+    @Nonnull
+    private final String topic;
+    @Nonnull
+    private final Object event;
+
+    private AsyncDelivery(
+        @Nonnull final Subscription subscription,
+        @Nonnull final String topic,
+        @Nonnull final Object event) {
+      this.subscription = subscription;
+      this.topic = topic;
+      this.event = event;
+    }
+
+    @Override
+    public void run() {
+      subscription.deliver(topic, event);
+    }
+  }
+}
@@ -20,4 +20,11 @@ public @interface NiftyEventSubscriber {
    * @return
    */
   @Nonnull String pattern() default "";
+
+  /**
+   * Deliver the events to this method using the executor of the {@link NiftyEventBus} for asynchronous subscribers.
+   * This is only supported when Nifty uses the NiftyEventBus, see {@link Nifty#setUseNiftyEventBus(boolean)}.
+   * @return
+   */
+  boolean async() default false;
 }
@@ -1,6 +1,7 @@
 package de.lessvoid.nifty;
 
 import de.lessvoid.xml.tools.MethodResolver;
+import de.lessvoid.xml.tools.ResolvedMethod;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -23,6 +24,18 @@ public class NiftyMethodInvoker implements NiftyDelayedMethodInvoke {
   private final String methodWithName;
   private final Nifty nifty;
 
+  /**
+   * The resolved method for each target object. The entries are in the same order as the target objects.
+   */
+  @Nullable
+  private final ResolvedMethod[] resolvedMethods;
+
+  /**
+   * The parameters encoded in the method name. They don't change so we extract them only once.
+   */
+  @Nonnull
+  private final Object[] encodedParameters;
+
   /**
    * create null MethodInvoker.
    */
@@ -30,6 +43,8 @@ public class NiftyMethodInvoker implements NiftyDelayedMethodInvoke {
     this.nifty = nifty;
     this.methodWithName = null;
     this.target = null;
+    this.resolvedMethods = null;
+    this.encodedParameters = new Object[0];
   }
 
   /**
@@ -46,10 +61,22 @@ public class NiftyMethodInvoker implements NiftyDelayedMethodInvoke {
       this.target = new Object[targetParam.length];
       System.arraycopy(targetParam, 0, target, 0, targetParam.length);
 
-      log.fine("target objects for [" + methodWithName + "]");
-      for (Object o : target) {
-        log.fine(o.toString());
+      if (log.isLoggable(Level.FINE)) {
+        log.fine("target objects for [" + methodWithName + "]");
+        for (Object o : target) {
+          log.fine(o.toString());
+        }
+      }
+    }
+    if (methodParam == null || target == null) {
+      this.resolvedMethods = null;
+      this.encodedParameters = new Object[0];
+    } else {
+      this.resolvedMethods = new ResolvedMethod[target.length];
+      for (int i = 0; i < resolvedMethods.length; i++) {
+        resolvedMethods[i] = new ResolvedMethod(methodParam);
       }
+      this.encodedParameters = MethodResolver.extractParameters(methodParam);
     }
   }
 
@@ -74,13 +101,16 @@ public class NiftyMethodInvoker implements NiftyDelayedMethodInvoke {
 
   @Override
   public void performInvoke(@Nonnull final Object ... invokeParametersParam) {
-    if (target == null || methodWithName == null) {
+    if (target == null || methodWithName == null || resolvedMethods == null) {
       return;
     }
+    final boolean logFine = log.isLoggable(Level.FINE);
     // process all methods (first one wins)
-    for (Object object : target) {
+    for (int i = 0; i < target.length; i++) {
+      Object object = target[i];
       if (object != null) {
-        Method method = MethodResolver.findMethod(object.getClass(), methodWithName);
+        ResolvedMethod resolvedMethod = resolvedMethods[i];
+        Method method = resolvedMethod.getMethod(object.getClass());
         if (method != null) {
           // we've found a method with the given name. now we need to match the parameters.
           //
@@ -93,41 +123,55 @@ public class NiftyMethodInvoker implements NiftyDelayedMethodInvoke {
           //        if this is not possible we fall back to 2b)
           //    2b) just call the method without any parameters
           Object methodResult;
-          Object[] invokeParameters = MethodResolver.extractParameters(methodWithName);
+          Object[] invokeParameters = encodedParameters;
           if (invokeParameters.length > 0) {
             // does the method supports the parameters?
             // TODO: not only check for the count but check the type too
-            if (getMethodParameterCount(method) == invokeParameters.length) {
-              log.fine("invoking method '" + methodWithName + "' with (" + debugParaString(invokeParameters) + ")");
+            if (resolvedMethod.getParameterCount() == invokeParameters.length) {
+              if (logFine) {
+                log.fine("invoking method '" + methodWithName + "' with (" + debugParaString(invokeParameters) + ")");
+              }
               methodResult = callMethod(object, method, invokeParameters);
             } else {
-              log.fine("invoking method '" + methodWithName + "' (note: given invokeParameters have been ignored)");
+              if (logFine) {
+                log.fine("invoking method '" + methodWithName + "' (note: given invokeParameters have been ignored)");
+              }
               methodResult = callMethod(object, method);
             }
           } else {
             // no invokeParameters encoded. this means we can call the method as is or with the invokeParametersParam
             if (invokeParametersParam.length > 0) {
-              if (getMethodParameterCount(method) == invokeParametersParam.length) {
-                log.fine("invoking method '" + methodWithName + "' with the actual parameters (" + debugParaString(invokeParametersParam) + ")");
+              if (resolvedMethod.getParameterCount() == invokeParametersParam.length) {
+                if (logFine) {
+                  log.fine("invoking method '" + methodWithName + "' with the actual parameters (" + debugParaString(invokeParametersParam) + ")");
+                }
                 methodResult = callMethod(object, method, invokeParametersParam);
               } else {
-                log.fine("invoking method '" + methodWithName + "' without parameters (invokeParametersParam mismatch)");
+                if (logFine) {
+                  log.fine("invoking method '" + methodWithName + "' without parameters (invokeParametersParam mismatch)");
+                }
                 methodResult = callMethod(object, method);
               }
             } else {
-              log.fine("invoking method '" + methodWithName + "' without parameters");
+              if (logFine) {
+                log.fine("invoking method '" + methodWithName + "' without parameters");
+              }
               methodResult = callMethod(object, method);
             }
           }
           if (methodResult != null && (methodResult.getClass().equals(Boolean.class))) {
             if ((Boolean) methodResult) {
-              log.fine("method invoke for '" + methodWithName + "' returns true. by definition this means we're not calling any other targets for this method.");
+              if (logFine) {
+                log.fine("method invoke for '" + methodWithName + "' returns true. by definition this means we're not calling any other targets for this method.");
+              }
               return;
             }
             
           }
         } else {
-          log.fine("method [" + methodWithName + "] not found at object class [" + object.getClass() + "]");
+          if (logFine) {
+            log.fine("method [" + methodWithName + "] not found at object class [" + object.getClass() + "]");
+          }
         }
       } else {
         log.warning("target object is null");
@@ -148,11 +192,13 @@ public class NiftyMethodInvoker implements NiftyDelayedMethodInvoke {
       @Nonnull final Method method,
       @Nonnull final Object... invokeParameters) {
     try {
-      log.fine("method: " + method + "on targetObject: " + targetObject + ", parameters: " + Arrays.toString
-          (invokeParameters));
-      log.fine(method.getName());
-      for (Object o : invokeParameters) {
-        log.fine("parameter: " + o);
+      if (log.isLoggable(Level.FINE)) {
+        log.fine("method: " + method + "on targetObject: " + targetObject + ", parameters: " + Arrays.toString
+            (invokeParameters));
+        log.fine(method.getName());
+        for (Object o : invokeParameters) {
+          log.fine("parameter: " + o);
+        }
       }
       return method.invoke(targetObject, invokeParameters);
     } catch (RuntimeException e) {
@@ -170,16 +216,6 @@ public class NiftyMethodInvoker implements NiftyDelayedMethodInvoke {
     }
   }
 
-  /**
-   * return count of actual method parameters.
-   * @param method method
-   * @return count of parameters the method needs
-   */
-  private int getMethodParameterCount(@Nonnull final Method method) {
-    Class < ? > [] parameterTypes = method.getParameterTypes();
-    return parameterTypes.length;
-  }
-
   /**
    * helper method to convert the given parameter object array into a string for debugging.
    * @param invokeParameters parameter array
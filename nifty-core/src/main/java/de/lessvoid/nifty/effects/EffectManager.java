@@ -11,6 +11,8 @@ import javax.annotation.Nullable;
 
 import de.lessvoid.nifty.EndNotify;
 import de.lessvoid.nifty.elements.Element;
+import de.lessvoid.nifty.profiler.NiftyProfiler;
+import de.lessvoid.nifty.profiler.ProfilerSection;
 import de.lessvoid.nifty.render.NiftyRenderEngine;
 import de.lessvoid.nifty.spi.time.TimeProvider;
 
@@ -66,6 +68,13 @@ public class EffectManager {
       EffectProcessor>(EffectEventId.class);
   @Nonnull
   private final List<EffectProcessor> effectProcessorList = new ArrayList<EffectProcessor>(0);
+
+  // the processors that currently need to be rendered in the order of effectsRenderOrder. the processors tell us when
+  // they start or stop rendering and we only rebuild this list when that happened since the last time we rendered.
+  @Nonnull
+  private final List<EffectProcessor> renderingProcessors = new ArrayList<EffectProcessor>(0);
+  private boolean renderingProcessorsChanged;
+  private int activeProcessorCount;
   @Nullable
   private Falloff hoverFalloff;
   @Nullable
@@ -99,7 +108,7 @@ public class EffectManager {
   public void registerEffect(@Nonnull final EffectEventId id, @Nonnull final Effect e) {
     EffectProcessor processor = effectProcessor.get(id);
     if (processor == null) {
-      processor = id.createEffectProcessor(new NotifyAdapter(id, notify));
+      processor = id.createEffectProcessor(new NotifyAdapter(id));
       effectProcessor.put(id, processor);
       effectProcessorList.add(processor);
     }
@@ -155,13 +164,42 @@ public class EffectManager {
     renderInternal(renderEngine, renderPhaseOverlay);
   }
 
+  /**
+   * Checks if any of the effect processors of this manager needs to be rendered. When this returns false the
+   * renderPre(), renderPost() and renderOverlay() calls would not render anything and can be skipped.
+   *
+   * @return true, if at least one effect processor is active or keeps rendering, false otherwise
+   */
+  public boolean isRendering() {
+    updateRenderingProcessors();
+    return !renderingProcessors.isEmpty();
+  }
+
   private void renderInternal(
       @Nonnull final NiftyRenderEngine renderEngine,
       @Nonnull final RenderPhase phase) {
+    updateRenderingProcessors();
+    if (renderingProcessors.isEmpty()) {
+      return;
+    }
+    NiftyProfiler.begin(ProfilerSection.EFFECTS);
+    // processors that start or stop rendering while we render only change the list the next time we render
+    for (int i = 0; i < renderingProcessors.size(); i++) {
+      phase.render(renderingProcessors.get(i), renderEngine);
+    }
+    NiftyProfiler.end(ProfilerSection.EFFECTS);
+  }
+
+  private void updateRenderingProcessors() {
+    if (!renderingProcessorsChanged) {
+      return;
+    }
+    renderingProcessorsChanged = false;
+    renderingProcessors.clear();
     for (int i = 0; i < effectsRenderOrder.length; i++) {
       EffectProcessor processor = getEffectProcessor(effectsRenderOrder[i]);
-      if (processor != null) {
-        phase.render(processor, renderEngine);
+      if (processor != null && processor.isRendering()) {
+        renderingProcessors.add(processor);
       }
     }
   }
@@ -213,6 +251,15 @@ public class EffectManager {
     return processor.isActive();
   }
 
+  /**
+   * checks if any of the effects of this manager is active.
+   *
+   * @return true, if at least one effect is active, false otherwise
+   */
+  public boolean isAnyEffectActive() {
+    return activeProcessorCount > 0;
+  }
+
   public void reset() {
     // onHover should stay active and is not reset
     // onActive should stay active and is not reset
@@ -362,21 +409,24 @@ public class EffectManager {
     void effectStateChanged(@Nonnull EffectEventId eventId, boolean active);
   }
 
-  private static class NotifyAdapter implements EffectProcessorImpl.Notify {
-    @Nonnull
-    private final Notify notify;
+  private class NotifyAdapter implements EffectProcessorImpl.Notify {
     @Nonnull
     private final EffectEventId eventId;
 
-    public NotifyAdapter(@Nonnull final EffectEventId eventId, @Nonnull final Notify notify) {
+    public NotifyAdapter(@Nonnull final EffectEventId eventId) {
       this.eventId = eventId;
-      this.notify = notify;
     }
 
     @Override
     public void effectProcessorStateChanged(final boolean active) {
+      activeProcessorCount += active ? 1 : -1;
       notify.effectStateChanged(eventId, active);
     }
+
+    @Override
+    public void effectProcessorRenderingChanged(final boolean rendering) {
+      renderingProcessorsChanged = true;
+    }
   }
 
   @Nullable
@@ -18,6 +18,12 @@ public interface EffectProcessor {
 
   boolean isActive();
 
+  /**
+   * Checks if rendering this processor has any effect. This is the case as long as the processor is active or keeps
+   * rendering effects that never stop rendering. Processors that are not rendering can be skipped entirely.
+   */
+  boolean isRendering();
+
   void saveActiveNeverStopRenderingEffects();
 
   void restoreNeverStopRenderingEffects();
@@ -32,6 +32,7 @@ public class EffectProcessorImpl implements EffectProcessor {
   private final List<Effect> pushedEffects = new ArrayList<Effect>();
 
   private boolean active = false;
+  private boolean rendering = false;
   @Nullable
   private EndNotify listener;
 
@@ -69,6 +70,11 @@ public class EffectProcessorImpl implements EffectProcessor {
     return active;
   }
 
+  @Override
+  public boolean isRendering() {
+    return rendering;
+  }
+
   @Override
   public void saveActiveNeverStopRenderingEffects() {
     pushedEffects.clear();
@@ -103,6 +109,7 @@ public class EffectProcessorImpl implements EffectProcessor {
     } else {
       pendingEffectsRemove = true;
     }
+    updateRendering();
   }
 
   @Override
@@ -127,6 +134,7 @@ public class EffectProcessorImpl implements EffectProcessor {
         activeEffects.remove(e);
       }
     }
+    updateRendering();
   }
 
   @Override
@@ -146,6 +154,7 @@ public class EffectProcessorImpl implements EffectProcessor {
       internalSetActive(true);
       pendingEffectsRemove = false;
     }
+    updateRendering();
   }
 
   @Nonnull
@@ -197,6 +206,7 @@ public class EffectProcessorImpl implements EffectProcessor {
         }
       }
     }
+    updateRendering();
   }
 
   @Override
@@ -220,6 +230,7 @@ public class EffectProcessorImpl implements EffectProcessor {
         }
       }
     }
+    updateRendering();
   }
 
   @Override
@@ -246,6 +257,7 @@ public class EffectProcessorImpl implements EffectProcessor {
         }
       }
     }
+    updateRendering();
   }
 
   @Override
@@ -261,12 +273,14 @@ public class EffectProcessorImpl implements EffectProcessor {
         }
       }
     }
+    updateRendering();
   }
 
   @Override
   public void removeAllEffects() {
     allEffects.clear();
     activeEffects.clear();
+    updateRendering();
   }
 
   /**
@@ -292,6 +306,11 @@ public class EffectProcessorImpl implements EffectProcessor {
 
   public interface Notify {
     void effectProcessorStateChanged(boolean active);
+
+    /**
+     * Called when the processor starts or stops rendering, see {@link EffectProcessor#isRendering()}.
+     */
+    void effectProcessorRenderingChanged(boolean rendering);
   }
 
   private void renderActive(@Nonnull final NiftyRenderEngine renderDevice, @Nonnull final List<Effect> effects) {
@@ -312,6 +331,7 @@ public class EffectProcessorImpl implements EffectProcessor {
 
     checkFinish();
     checkPendingEffectsRemove();
+    updateRendering();
   }
 
   private void startEffect(
@@ -382,5 +402,20 @@ public class EffectProcessorImpl implements EffectProcessor {
     if (newActive != oldActive) {
       notify.effectProcessorStateChanged(newActive);
     }
+    updateRendering();
+  }
+
+  /**
+   * Keep track of whether rendering this processor has any effect and tell the {@link Notify} about changes. This
+   * follows {@link #renderActive(NiftyRenderEngine, List)}: the processor renders unless {@link #isInactive()}, which
+   * takes the never stop rendering flag of the processor and of its effects into account. An inactive processor
+   * without any active effects has nothing to render even when it never stops rendering.
+   */
+  private void updateRendering() {
+    boolean newRendering = !isInactive() && (active || !activeEffects.isEmpty());
+    if (newRendering != rendering) {
+      rendering = newRendering;
+      notify.effectProcessorRenderingChanged(newRendering);
+    }
   }
 }
@@ -1,17 +1,38 @@
 package de.lessvoid.nifty.effects;
 
+import de.lessvoid.nifty.spi.time.TimeProvider;
+import de.lessvoid.nifty.tools.Color;
 import de.lessvoid.nifty.tools.LinearInterpolator;
+import de.lessvoid.nifty.tools.SizeValue;
+import de.lessvoid.nifty.tools.pulsate.Pulsator;
 import de.lessvoid.xml.xpp3.Attributes;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Properties;
 
+/**
+ * The parameters of an effect. Besides the plain string properties this provides typed access to the parameters with
+ * {@link #getColor(String, String)}, {@link #getSizeValue(String)}, {@link #getBoolean(String, boolean)} and so on.
+ * Each typed value is parsed once and then kept, so effects that are started over and over again, like hover or
+ * focus effects, don't parse their parameters each time they are activated. Changing a property discards all typed
+ * values, they are parsed again from the new properties the next time they are requested.
+ * <p/>
+ * The typed values are shared by all callers and must not be modified. Like the rest of Nifty the typed access is not
+ * thread safe.
+ */
 public class EffectProperties extends Properties {
   private static final long serialVersionUID = 1L;
   private EffectPropertiesValues effectValues;
 
+  @Nullable
+  private transient Map<String, CompiledValue> compiledValues;
+  @Nullable
+  private transient LinearInterpolator interpolator;
+  private transient boolean interpolatorCompiled;
+
   public EffectProperties(@Nonnull final Properties createProperties) {
     super();
 
@@ -22,6 +43,7 @@ public class EffectProperties extends Properties {
 
   public void addEffectValue(final Attributes effectProperties) {
     getEffectPropertiesValueLazy().add(effectProperties);
+    interpolatorCompiled = false;
   }
 
   public EffectPropertiesValues getEffectValues() {
@@ -32,19 +54,159 @@ public class EffectProperties extends Properties {
     return getEffectPropertiesValueLazy().containsTimeValues();
   }
 
+  /**
+   * Get the interpolator curve defined by the effect values. The curve is created once, when the effect values are
+   * applied while the effect is loaded, and shared by all callers afterwards.
+   *
+   * @return the interpolator or {@code null} in case the effect values don't define a curve
+   */
   @Nullable
   public LinearInterpolator getInterpolator() {
     if (effectValues == null) {
       return null;
     }
-    LinearInterpolator interpolator = getEffectPropertiesValueLazy().toLinearInterpolator();
-    if (interpolator == null) {
-      return null;
+    if (!interpolatorCompiled) {
+      interpolator = getEffectPropertiesValueLazy().toLinearInterpolator();
+      if (interpolator != null) {
+        interpolator.prepare();
+      }
+      interpolatorCompiled = true;
     }
-    interpolator.prepare();
     return interpolator;
   }
 
+  /**
+   * Get a property as {@link Color}.
+   *
+   * @param key the name of the property
+   * @param defaultValue the color string to use in case the property is not set
+   * @return the color, this instance is shared and must not be modified
+   */
+  @Nonnull
+  public Color getColor(@Nonnull final String key, @Nonnull final String defaultValue) {
+    CompiledValue compiled = getCompiledValue(key, Color.class, defaultValue);
+    if (compiled == null) {
+      compiled = putCompiledValue(key, Color.class, defaultValue, new Color(getProperty(key, defaultValue)));
+    }
+    return (Color) compiled.value;
+  }
+
+  /**
+   * Get a property as {@link SizeValue}.
+   *
+   * @param key the name of the property
+   * @return the size value or the default size value in case the property is not set
+   */
+  @Nonnull
+  public SizeValue getSizeValue(@Nonnull final String key) {
+    CompiledValue compiled = getCompiledValue(key, SizeValue.class, null);
+    if (compiled == null) {
+      compiled = putCompiledValue(key, SizeValue.class, null, SizeValue.valueOf(getProperty(key)));
+    }
+    return (SizeValue) compiled.value;
+  }
+
+  /**
+   * Get a property as {@link SizeValue}.
+   *
+   * @param key the name of the property
+   * @param defaultValue the size value string to use in case the property is not set
+   * @return the size value
+   */
+  @Nonnull
+  public SizeValue getSizeValue(@Nonnull final String key, @Nonnull final String defaultValue) {
+    CompiledValue compiled = getCompiledValue(key, SizeValue.class, defaultValue);
+    if (compiled == null) {
+      SizeValue value = SizeValue.valueOf(getProperty(key, defaultValue));
+      compiled = putCompiledValue(key, SizeValue.class, defaultValue, value);
+    }
+    return (SizeValue) compiled.value;
+  }
+
+  /**
+   * Get a property as boolean. The property is {@code true} when it is set to "true", ignoring the case.
+   */
+  public boolean getBoolean(@Nonnull final String key, final boolean defaultValue) {
+    CompiledValue compiled = getCompiledValue(key, Boolean.class, null);
+    if (compiled == null) {
+      String value = getProperty(key);
+      compiled = putCompiledValue(key, Boolean.class, null, value == null ? null : Boolean.valueOf(value));
+    }
+    return compiled.value == null ? defaultValue : (Boolean) compiled.value;
+  }
+
+  /**
+   * Get a property as int.
+   *
+   * @throws NumberFormatException in case the property is set but is no valid int
+   */
+  public int getInt(@Nonnull final String key, final int defaultValue) {
+    CompiledValue compiled = getCompiledValue(key, Integer.class, null);
+    if (compiled == null) {
+      String value = getProperty(key);
+      compiled = putCompiledValue(key, Integer.class, null, value == null ? null : Integer.valueOf(value));
+    }
+    return compiled.value == null ? defaultValue : (Integer) compiled.value;
+  }
+
+  /**
+   * Get a property as float.
+   *
+   * @throws NumberFormatException in case the property is set but is no valid float
+   */
+  public float getFloat(@Nonnull final String key, final float defaultValue) {
+    CompiledValue compiled = getCompiledValue(key, Float.class, null);
+    if (compiled == null) {
+      String value = getProperty(key);
+      compiled = putCompiledValue(key, Float.class, null, value == null ? null : Float.valueOf(value));
+    }
+    return compiled.value == null ? defaultValue : (Float) compiled.value;
+  }
+
+  /**
+   * Get the {@link Pulsator} configured by the "pulsateType" property and the properties of the pulsator type.
+   * <p/>
+   * Other than the remaining typed values the pulsator has a state: the time it has been started. It is created once
+   * for the effect these properties belong to, the effect needs to {@link Pulsator#reset()} it each time it is
+   * activated.
+   *
+   * @param timeProvider the time provider the pulsator uses
+   */
+  @Nonnull
+  public Pulsator getPulsator(@Nonnull final TimeProvider timeProvider) {
+    CompiledValue compiled = getCompiledValue("pulsateType", Pulsator.class, timeProvider);
+    if (compiled == null) {
+      compiled = putCompiledValue("pulsateType", Pulsator.class, timeProvider, new Pulsator(this, timeProvider));
+    }
+    return (Pulsator) compiled.value;
+  }
+
+  @Nullable
+  @Override
+  public synchronized Object put(@Nonnull final Object key, @Nonnull final Object value) {
+    compiledValuesChanged();
+    return super.put(key, value);
+  }
+
+  @Override
+  public synchronized void putAll(@Nonnull final Map<?, ?> t) {
+    compiledValuesChanged();
+    super.putAll(t);
+  }
+
+  @Nullable
+  @Override
+  public synchronized Object remove(@Nonnull final Object key) {
+    compiledValuesChanged();
+    return super.remove(key);
+  }
+
+  @Override
+  public synchronized void clear() {
+    compiledValuesChanged();
+    super.clear();
+  }
+
   private EffectPropertiesValues getEffectPropertiesValueLazy() {
     if (effectValues != null) {
       return effectValues;
@@ -52,4 +214,57 @@ public class EffectProperties extends Properties {
     effectValues = new EffectPropertiesValues();
     return effectValues;
   }
+
+  @Nullable
+  private CompiledValue getCompiledValue(
+      @Nonnull final String key,
+      @Nonnull final Class<?> type,
+      @Nullable final Object argument) {
+    if (compiledValues == null) {
+      return null;
+    }
+    CompiledValue compiled = compiledValues.get(key);
+    if (compiled == null || compiled.type != type) {
+      return null;
+    }
+    if (compiled.argument != argument && (argument == null || !argument.equals(compiled.argument))) {
+      return null;
+    }
+    return compiled;
+  }
+
+  @Nonnull
+  private CompiledValue putCompiledValue(
+      @Nonnull final String key,
+      @Nonnull final Class<?> type,
+      @Nullable final Object argument,
+      @Nullable final Object value) {
+    if (compiledValues == null) {
+      compiledValues = new HashMap<String, CompiledValue>();
+    }
+    CompiledValue compiled = new CompiledValue(type, argument, value);
+    compiledValues.put(key, compiled);
+    return compiled;
+  }
+
+  private void compiledValuesChanged() {
+    if (compiledValues != null) {
+      compiledValues.clear();
+    }
+  }
+
+  private static final class CompiledValue {
+    @Nonnull
+    private final Class<?> type;
+    @Nullable
+    private final Object argument;
+    @Nullable
+    private final Object value;
+
+    private CompiledValue(@Nonnull final Class<?> type, @Nullable final Object argument, @Nullable final Object value) {
+      this.type = type;
+      this.argument = argument;
+      this.value = value;
+    }
+  }
 }
@@ -8,6 +8,7 @@ import java.util.Map;
 public class ElementEffectStateCache {
   @Nonnull
   private final Map<EffectEventId, Boolean> states;
+  private int activeCount;
 
   public ElementEffectStateCache() {
     states = new EnumMap<EffectEventId, Boolean>(EffectEventId.class);
@@ -22,6 +23,16 @@ public class ElementEffectStateCache {
   }
 
   public void set(@Nonnull final EffectEventId eventId, final boolean effectActive) {
+    if (get(eventId) != effectActive) {
+      activeCount += effectActive ? 1 : -1;
+    }
     states.put(eventId, effectActive);
   }
+
+  /**
+   * Check if any of the effect states is active.
+   */
+  public boolean isAnyActive() {
+    return activeCount > 0;
+  }
 }
@@ -62,8 +62,8 @@ public class Falloff {
       falloffConstraint = HoverFalloffConstraint.none;
     }
 
-    hoverWidth = new SizeValue(properties.getProperty(Falloff.HOVER_WIDTH));
-    hoverHeight = new SizeValue(properties.getProperty(Falloff.HOVER_HEIGHT));
+    hoverWidth = SizeValue.valueOf(properties.getProperty(Falloff.HOVER_WIDTH));
+    hoverHeight = SizeValue.valueOf(properties.getProperty(Falloff.HOVER_HEIGHT));
   }
 
   public void applyProperties(final Properties properties) {
@@ -54,10 +54,10 @@ public class Border implements EffectImpl {
       @Nonnull final EffectProperties parameter) {
     try {
       PaddingAttributeParser parser = new PaddingAttributeParser(parameter.getProperty("border", "1px"));
-      borderLeft = new SizeValue(parser.getLeft());
-      borderRight = new SizeValue(parser.getRight());
-      borderTop = new SizeValue(parser.getTop());
-      borderBottom = new SizeValue(parser.getBottom());
+      borderLeft = SizeValue.valueOf(parser.getLeft());
+      borderRight = SizeValue.valueOf(parser.getRight());
+      borderTop = SizeValue.valueOf(parser.getTop());
+      borderBottom = SizeValue.valueOf(parser.getBottom());
 
       parser = new PaddingAttributeParser(parameter.getProperty("color", "#ffff"));
       colorLeft = new Color(parser.getLeft());
@@ -66,10 +66,10 @@ public class Border implements EffectImpl {
       colorBottom = new Color(parser.getBottom());
 
       parser = new PaddingAttributeParser(parameter.getProperty("inset", "0px"));
-      insetLeft = new SizeValue(parser.getLeft());
-      insetRight = new SizeValue(parser.getRight());
-      insetTop = new SizeValue(parser.getTop());
-      insetBottom = new SizeValue(parser.getBottom());
+      insetLeft = SizeValue.valueOf(parser.getLeft());
+      insetRight = SizeValue.valueOf(parser.getRight());
+      insetTop = SizeValue.valueOf(parser.getTop());
+      insetBottom = SizeValue.valueOf(parser.getBottom());
     } catch (Exception e) {
       log.warning(e.getMessage());
     }
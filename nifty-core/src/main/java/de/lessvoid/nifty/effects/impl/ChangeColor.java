@@ -25,7 +25,7 @@ public class ChangeColor implements EffectImpl {
       @Nonnull final Nifty nifty,
       @Nonnull final Element element,
       @Nonnull final EffectProperties parameter) {
-    color = new de.lessvoid.nifty.tools.Color(parameter.getProperty("color", "#ffff"));
+    color = parameter.getColor("color", "#ffff");
   }
 
   @Override
@@ -43,14 +43,14 @@ public class ColorBar implements EffectImpl {
       @Nonnull final Nifty nifty,
       @Nonnull final Element element,
       @Nonnull final EffectProperties parameter) {
-    color = new Color(parameter.getProperty("color", "#ffffffff"));
-    width = new SizeValue(parameter.getProperty("width"));
+    color = parameter.getColor("color", "#ffffffff");
+    width = parameter.getSizeValue("width");
     try {
       PaddingAttributeParser parser = new PaddingAttributeParser(parameter.getProperty("inset", "0px"));
-      insetLeft = new SizeValue(parser.getLeft());
-      insetRight = new SizeValue(parser.getRight());
-      insetTop = new SizeValue(parser.getTop());
-      insetBottom = new SizeValue(parser.getBottom());
+      insetLeft = SizeValue.valueOf(parser.getLeft());
+      insetRight = SizeValue.valueOf(parser.getRight());
+      insetTop = SizeValue.valueOf(parser.getTop());
+      insetBottom = SizeValue.valueOf(parser.getBottom());
     } catch (Exception e) {
       log.warning(e.getMessage());
     }
@@ -30,9 +30,10 @@ public class ColorPulsate implements EffectImpl {
       @Nonnull final Nifty nifty,
       @Nonnull final Element element,
       @Nonnull final EffectProperties parameter) {
-    startColor = new Color(parameter.getProperty("startColor", "#00000000"));
-    endColor = new Color(parameter.getProperty("endColor", "#ffffffff"));
-    pulsator = new Pulsator(parameter, nifty.getTimeProvider());
+    startColor = parameter.getColor("startColor", "#00000000");
+    endColor = parameter.getColor("endColor", "#ffffffff");
+    pulsator = parameter.getPulsator(nifty.getTimeProvider());
+    pulsator.reset();
   }
 
   @Override
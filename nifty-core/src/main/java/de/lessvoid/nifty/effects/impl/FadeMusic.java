@@ -38,8 +38,8 @@ public class FadeMusic implements EffectImpl {
     if (music == null) {
       log.warning("Failed to get music for effect.");
     } else {
-      fromVolume = new SizeValue(parameter.getProperty("from", "0%")).getValue(1.0f);
-      toVolume = new SizeValue(parameter.getProperty("to", "100%")).getValue(1.0f);
+      fromVolume = SizeValue.valueOf(parameter.getProperty("from", "0%")).getValue(1.0f);
+      toVolume = SizeValue.valueOf(parameter.getProperty("to", "100%")).getValue(1.0f);
     }
   }
 
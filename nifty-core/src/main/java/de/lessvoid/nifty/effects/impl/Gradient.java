@@ -33,7 +33,7 @@ public class Gradient implements EffectImpl {
       @Nonnull final EffectProperties parameter) {
     entries.clear();
     for (Attributes entry : parameter.getEffectValues().getValues()) {
-      SizeValue offset = new SizeValue(entry.get("offset"));
+      SizeValue offset = SizeValue.valueOf(entry.get("offset"));
       Color color = entry.getAsColor("color");
       if (color != null) {
         entries.add(new Entry(offset, color));
@@ -60,7 +60,7 @@ public class ImageOverlay implements EffectImpl {
     }
 
     alpha = new Alpha(parameter.getProperty("alpha", "#f"));
-    inset = new SizeValue(parameter.getProperty("inset", "0px"));
+    inset = SizeValue.valueOf(parameter.getProperty("inset", "0px"));
     width = new SizeValue(parameter.getProperty("width", element.getWidth() + "px"));
     height = new SizeValue(parameter.getProperty("height", element.getHeight() + "px"));
     center = Boolean.valueOf(parameter.getProperty("center", "false"));
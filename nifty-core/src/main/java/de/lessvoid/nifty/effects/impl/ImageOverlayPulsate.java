@@ -48,7 +48,8 @@ public class ImageOverlayPulsate implements EffectImpl {
           renderStrategyProperty));
     }
 
-    this.pulsater = new Pulsator(parameter, nifty.getTimeProvider());
+    this.pulsater = parameter.getPulsator(nifty.getTimeProvider());
+    this.pulsater.reset();
   }
 
   @Override
@@ -23,7 +23,7 @@ public class ImageSize implements EffectImpl {
   private float startSize;
   private float endSize;
   @Nonnull
-  private SizeValue imageSize = new SizeValue("100%");
+  private SizeValue imageSize = SizeValue.valueOf("100%");
   @Nullable
   private LinearInterpolator interpolator;
 
@@ -33,13 +33,13 @@ public class ImageSize implements EffectImpl {
       @Nonnull final Element element,
       @Nonnull final EffectProperties parameter) {
     // for normal mode
-    startSize = Float.parseFloat(parameter.getProperty("startSize", "1.0"));
-    endSize = Float.parseFloat(parameter.getProperty("endSize", "2.0"));
+    startSize = parameter.getFloat("startSize", 1.0f);
+    endSize = parameter.getFloat("endSize", 2.0f);
 
     // for hover mode only
     String maxSizeString = parameter.getProperty("maxSize");
     if (maxSizeString != null) {
-      imageSize = new SizeValue(maxSizeString);
+      imageSize = SizeValue.valueOf(maxSizeString);
     }
     interpolator = parameter.getInterpolator();
   }
@@ -38,11 +38,12 @@ public class Pulsate implements EffectImpl {
       @Nonnull final Nifty nifty,
       @Nonnull final Element element,
       @Nonnull final EffectProperties parameter) {
-    startColor = new Color(parameter.getProperty("startColor", "#00000000"));
-    endColor = new Color(parameter.getProperty("endColor", "#ffffffff"));
-    width = new SizeValue(parameter.getProperty("width"));
-    changeColorOnly = Boolean.valueOf(parameter.getProperty("changeColorOnly", "false"));
-    pulsator = new Pulsator(parameter, nifty.getTimeProvider());
+    startColor = parameter.getColor("startColor", "#00000000");
+    endColor = parameter.getColor("endColor", "#ffffffff");
+    width = parameter.getSizeValue("width");
+    changeColorOnly = parameter.getBoolean("changeColorOnly", false);
+    pulsator = parameter.getPulsator(nifty.getTimeProvider());
+    pulsator.reset();
   }
 
   @Override
@@ -26,8 +26,8 @@ public class Shake implements EffectImpl {
       @Nonnull final Nifty nifty,
       @Nonnull final Element element,
       @Nonnull final EffectProperties parameter) {
-    distance = Float.parseFloat(parameter.getProperty("distance", "10.0"));
-    global = "true".equals(parameter.getProperty("global", "true").toLowerCase());
+    distance = parameter.getFloat("distance", 10.0f);
+    global = parameter.getBoolean("global", true);
   }
 
   @Override
@@ -31,13 +31,13 @@ public class TextSize implements EffectImpl {
       @Nonnull final Nifty nifty,
       @Nonnull final Element element,
       @Nonnull final EffectProperties parameter) {
-    startSize = Float.parseFloat(parameter.getProperty("startSize", "1.0"));
-    endSize = Float.parseFloat(parameter.getProperty("endSize", "2.0"));
+    startSize = parameter.getFloat("startSize", 1.0f);
+    endSize = parameter.getFloat("endSize", 2.0f);
 
     // hover mode only
     String maxSizeString = parameter.getProperty("maxSize");
     if (maxSizeString != null) {
-      textSize = new SizeValue(maxSizeString);
+      textSize = SizeValue.valueOf(maxSizeString);
     }
   }
 
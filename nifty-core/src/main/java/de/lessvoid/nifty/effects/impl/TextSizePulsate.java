@@ -26,13 +26,13 @@ public class TextSizePulsate implements EffectImpl {
    * start size.
    */
   @Nonnull
-  private SizeValue startSize = new SizeValue("0%");
+  private SizeValue startSize = SizeValue.valueOf("0%");
 
   /**
    * end size.
    */
   @Nonnull
-  private SizeValue endSize = new SizeValue("100%");
+  private SizeValue endSize = SizeValue.valueOf("100%");
 
   /**
    * Pulsator to use.
@@ -50,16 +50,15 @@ public class TextSizePulsate implements EffectImpl {
       @Nonnull final Nifty nifty,
       @Nonnull final Element element,
       @Nonnull final EffectProperties parameter) {
-    String startSizeString = parameter.getProperty("startSize");
-    if (startSizeString != null) {
-      startSize = new SizeValue(startSizeString);
+    if (parameter.getProperty("startSize") != null) {
+      startSize = parameter.getSizeValue("startSize");
     }
 
-    String endSizeString = parameter.getProperty("endSize");
-    if (endSizeString != null) {
-      endSize = new SizeValue(endSizeString);
+    if (parameter.getProperty("endSize") != null) {
+      endSize = parameter.getSizeValue("endSize");
     }
-    pulsator = new Pulsator(parameter, nifty.getTimeProvider());
+    pulsator = parameter.getPulsator(nifty.getTimeProvider());
+    pulsator.reset();
   }
 
   @Override
@@ -53,6 +53,9 @@ import de.lessvoid.nifty.loaderv2.types.apply.ApplyRendererImage;
 import de.lessvoid.nifty.loaderv2.types.apply.ApplyRendererPanel;
 import de.lessvoid.nifty.loaderv2.types.apply.Convert;
 import de.lessvoid.nifty.loaderv2.types.helper.PaddingAttributeParser;
+import de.lessvoid.nifty.profiler.NiftyProfiler;
+import de.lessvoid.nifty.profiler.ProfilerCounter;
+import de.lessvoid.nifty.profiler.ProfilerSection;
 import de.lessvoid.nifty.render.NiftyRenderEngine;
 import de.lessvoid.nifty.screen.KeyInputHandler;
 import de.lessvoid.nifty.screen.MouseOverHandler;
@@ -110,6 +113,13 @@ public class Element implements NiftyEvent, EffectManager.Notify {
   @Nonnull
   private final LayoutPart layoutPart;
 
+  /**
+   * The list of the LayoutParts of the children that is handed to the LayoutManager. The list is reused with each
+   * layout pass so laying out the element does not create a new list each time.
+   */
+  @Nullable
+  private List<LayoutPart> layoutPartChildren;
+
   /**
    * The ElementRenderer we should use to render this element.
    */
@@ -220,6 +230,23 @@ public class Element implements NiftyEvent, EffectManager.Notify {
   // publish an event on the event bus later
   private boolean constraintsChanged;
 
+  /**
+   * The maximal amount of layout passes {@link #layoutElements()} performs until the layout has to be settled.
+   */
+  private static final int MAX_LAYOUT_PASSES = 3;
+
+  /**
+   * This is set to true when the child elements of this element need to be laid out again. New elements always start
+   * with an invalid layout.
+   */
+  private boolean layoutInvalid = true;
+
+  /**
+   * This is set to true when at least one of the descendants of this element has an invalid layout. This is used to
+   * find the invalid parts of the element tree without walking the whole tree.
+   */
+  private boolean descendantLayoutInvalid;
+
   /*
    * Whether or not this element should ignore all mouse events.
    */
@@ -366,6 +393,7 @@ public class Element implements NiftyEvent, EffectManager.Notify {
       this.visible = true;
     }
     this.visibleToMouseEvents = attributes.getAsBoolean("visibleToMouse", Convert.DEFAULT_VISIBLE_TO_MOUSE);
+    invalidateMouseOverIndex();
     this.layoutManager = convert.layoutManager(attributes.get("childLayout"));
 
     this.focusable = attributes.getAsBoolean("focusable", Convert.DEFAULT_FOCUSABLE);
@@ -381,6 +409,8 @@ public class Element implements NiftyEvent, EffectManager.Notify {
 
   public void initializeFromPostAttributes(@Nonnull final Attributes attributes) {
     visible = attributes.getAsBoolean("visible", Convert.DEFAULT_VISIBLE);
+    invalidateMouseOverIndex();
+    invalidateRender();
   }
 
   @Nullable
@@ -658,6 +688,14 @@ public class Element implements NiftyEvent, EffectManager.Notify {
     } else {
       elementsRenderOrder = elementsRenderOrderSet.toArray(new Element[elementsRenderOrderSet.size()]);
     }
+    markChildLayoutInvalid();
+    invalidateMouseOverIndex();
+    childEffectStatesChanged(child);
+
+    Screen indexScreen = getIndexScreen();
+    if (indexScreen != null) {
+      indexScreen.registerElementTree(child);
+    }
   }
 
   /**
@@ -676,6 +714,8 @@ public class Element implements NiftyEvent, EffectManager.Notify {
         Element shouldBeThis = parentChildren.remove(curInd);
         if (shouldBeThis.equals(this)) {
           parentChildren.add(index, this);
+          parent.markChildLayoutInvalid();
+          invalidateMouseOverIndex();
         } else {
           log.severe("Setting index failed, detected index did not return correct element. Undoing operation");
           parentChildren.add(curInd, shouldBeThis);
@@ -686,7 +726,9 @@ public class Element implements NiftyEvent, EffectManager.Notify {
 
   public void render(@Nonnull final NiftyRenderEngine r) {
     if (visible) {
-      if (effectManager.isEmpty()) {
+      NiftyProfiler.count(ProfilerCounter.ELEMENTS_VISITED, 1);
+      // elements without effects or with effects that are currently idle skip the effect manager entirely
+      if (effectManager.isEmpty() || !effectManager.isRendering()) {
         r.saveStates();
         renderElement(r);
         renderChildren(r);
@@ -733,6 +775,7 @@ public class Element implements NiftyEvent, EffectManager.Notify {
 
   public void setLayoutManager(@Nullable final LayoutManager newLayout) {
     this.layoutManager = newLayout;
+    markChildLayoutInvalid();
   }
 
   public void resetLayout() {
@@ -834,7 +877,7 @@ public class Element implements NiftyEvent, EffectManager.Notify {
       return Collections.emptyList();
     }
     final int childrenCount = children.size();
-    List<LayoutPart> layoutPartChild = new ArrayList<LayoutPart>(childrenCount);
+    List<LayoutPart> layoutPartChild = getLayoutPartChildren(childrenCount);
     for (int i = 0; i < childrenCount; i++) {
       Element e = children.get(i);
       SizeValue childWidth = e.getConstraintWidth();
@@ -845,6 +888,16 @@ public class Element implements NiftyEvent, EffectManager.Notify {
     return layoutPartChild;
   }
 
+  @Nonnull
+  private List<LayoutPart> getLayoutPartChildren(final int childrenCount) {
+    if (layoutPartChildren == null) {
+      layoutPartChildren = new ArrayList<LayoutPart>(childrenCount);
+    } else {
+      layoutPartChildren.clear();
+    }
+    return layoutPartChildren;
+  }
+
   private void preProcessConstraintHeight() {
     if (children != null) {
       final int childrenCount = children.size();
@@ -929,7 +982,7 @@ public class Element implements NiftyEvent, EffectManager.Notify {
       return Collections.emptyList();
     }
     final int childrenCount = children.size();
-    List<LayoutPart> layoutPartChild = new ArrayList<LayoutPart>(childrenCount);
+    List<LayoutPart> layoutPartChild = getLayoutPartChildren(childrenCount);
     for (int i = 0; i < childrenCount; i++) {
       Element e = children.get(i);
       SizeValue childHeight = e.getConstraintHeight();
@@ -960,7 +1013,7 @@ public class Element implements NiftyEvent, EffectManager.Notify {
       if (children != null) {
         final int childrenCount = children.size();
         // we need a list of LayoutPart and not of Element, so we'll build one on the fly here
-        List<LayoutPart> layoutPartChild = new ArrayList<LayoutPart>(childrenCount);
+        List<LayoutPart> layoutPartChild = getLayoutPartChildren(childrenCount);
         for (int i = 0; i < childrenCount; i++) {
           Element w = children.get(i);
           layoutPartChild.add(w.layoutPart);
@@ -998,17 +1051,102 @@ public class Element implements NiftyEvent, EffectManager.Notify {
     }
   }
 
+  /**
+   * Layout this element and all of its descendants. The layout passes are repeated until no constraint of an
+   * element in this tree is changed anymore, but at most {@link #MAX_LAYOUT_PASSES} times.
+   */
   public void layoutElements() {
-    prepareLayout();
-    processLayout();
+    NiftyProfiler.begin(ProfilerSection.LAYOUT);
+    int layoutCount = 0;
+    int passes = 0;
+    do {
+      layoutCount += validateLayout();
+      prepareLayout();
+      processLayout();
+      passes++;
+    } while (isLayoutInvalid() && passes < MAX_LAYOUT_PASSES);
+
+    if (isLayoutInvalid()) {
+      // the layout did not settle, we'll keep the result of the last pass and won't try again until something changes
+      log.fine("Layout of element [" + id + "] did not settle after " + passes + " passes.");
+      validateLayout();
+    }
 
-    prepareLayout();
-    processLayout();
+    publishConstraintsChangedEvent();
+    invalidateRender();
 
-    prepareLayout();
-    processLayout();
+    if (screen != null) {
+      screen.addLayoutElementCount(layoutCount);
+    }
+    NiftyProfiler.end(ProfilerSection.LAYOUT);
+  }
 
-    publishConstraintsChangedEvent();
+  /**
+   * Layout only the parts of this element tree that have been invalidated since they have been laid out the last
+   * time. An invalidated element is laid out along with all of its descendants.
+   */
+  public void layoutInvalidatedElements() {
+    if (layoutInvalid) {
+      layoutElements();
+      return;
+    }
+    if (descendantLayoutInvalid) {
+      descendantLayoutInvalid = false;
+      if (children != null) {
+        for (int i = 0; i < children.size(); i++) {
+          children.get(i).layoutInvalidatedElements();
+        }
+      }
+    }
+  }
+
+  /**
+   * Check if this element or any of its descendants needs to be laid out again.
+   *
+   * @return {@code true} in case {@link #layoutInvalidatedElements()} has work to do
+   */
+  public boolean isLayoutInvalid() {
+    return layoutInvalid || descendantLayoutInvalid;
+  }
+
+  /**
+   * Invalidate the layout of this element. This needs to be called when something changed that influences the
+   * size or position of this element. The parent of this element (and with it this element and its siblings) will
+   * be laid out again the next time the invalidated elements of the screen are laid out.
+   */
+  public void invalidateLayout() {
+    if (parent != null) {
+      parent.markChildLayoutInvalid();
+    } else {
+      markChildLayoutInvalid();
+    }
+  }
+
+  private void markChildLayoutInvalid() {
+    layoutInvalid = true;
+    Element current = parent;
+    while (current != null && !current.descendantLayoutInvalid) {
+      current.descendantLayoutInvalid = true;
+      current = current.parent;
+    }
+  }
+
+  /**
+   * Mark the layout of this element and all of its descendants as valid.
+   *
+   * @return the amount of elements in this element tree
+   */
+  private int validateLayout() {
+    layoutInvalid = false;
+    descendantLayoutInvalid = false;
+    int count = 1;
+    if (children != null) {
+      final int childrenCount = children.size();
+      for (int i = 0; i < childrenCount; i++) {
+        count += children.get(i).validateLayout();
+      }
+    }
+    return count;
   }
 
   private void publishConstraintsChangedEvent() {
@@ -1111,22 +1249,34 @@ public class Element implements NiftyEvent, EffectManager.Notify {
   }
 
   public void setConstraintX(@Nonnull final SizeValue newX) {
-    layoutPart.getBoxConstraints().setX(newX);
+    if (!newX.equals(layoutPart.getBoxConstraints().getX())) {
+      layoutPart.getBoxConstraints().setX(newX);
+      invalidateLayout();
+    }
     notifyListeners();
   }
 
   public void setConstraintY(@Nonnull final SizeValue newY) {
-    layoutPart.getBoxConstraints().setY(newY);
+    if (!newY.equals(layoutPart.getBoxConstraints().getY())) {
+      layoutPart.getBoxConstraints().setY(newY);
+      invalidateLayout();
+    }
     notifyListeners();
   }
 
   public void setConstraintWidth(@Nonnull final SizeValue newWidth) {
-    layoutPart.getBoxConstraints().setWidth(newWidth);
+    if (!newWidth.equals(layoutPart.getBoxConstraints().getWidth())) {
+      layoutPart.getBoxConstraints().setWidth(newWidth);
+      invalidateLayout();
+    }
     notifyListeners();
   }
 
   public void setConstraintHeight(@Nonnull final SizeValue newHeight) {
-    layoutPart.getBoxConstraints().setHeight(newHeight);
+    if (!newHeight.equals(layoutPart.getBoxConstraints().getHeight())) {
+      layoutPart.getBoxConstraints().setHeight(newHeight);
+      invalidateLayout();
+    }
     notifyListeners();
   }
 
@@ -1151,11 +1301,17 @@ public class Element implements NiftyEvent, EffectManager.Notify {
   }
 
   public void setConstraintHorizontalAlign(@Nonnull final HorizontalAlign newHorizontalAlign) {
-    layoutPart.getBoxConstraints().setHorizontalAlign(newHorizontalAlign);
+    if (newHorizontalAlign != layoutPart.getBoxConstraints().getHorizontalAlign()) {
+      layoutPart.getBoxConstraints().setHorizontalAlign(newHorizontalAlign);
+      invalidateLayout();
+    }
   }
 
   public void setConstraintVerticalAlign(@Nonnull final VerticalAlign newVerticalAlign) {
-    layoutPart.getBoxConstraints().setVerticalAlign(newVerticalAlign);
+    if (newVerticalAlign != layoutPart.getBoxConstraints().getVerticalAlign()) {
+      layoutPart.getBoxConstraints().setVerticalAlign(newVerticalAlign);
+      invalidateLayout();
+    }
   }
 
   @Nonnull
@@ -1504,6 +1660,8 @@ public class Element implements NiftyEvent, EffectManager.Notify {
 
   private void internalShow() {
     visible = true;
+    invalidateMouseOverIndex();
+    invalidateRender();
     effectManager.restoreForShow();
 
     if (id != null) {
@@ -1568,6 +1726,8 @@ public class Element implements NiftyEvent, EffectManager.Notify {
 
   private void internalHide() {
     visible = false;
+    invalidateMouseOverIndex();
+    invalidateRender();
     disableFocus();
 
     if (id != null) {
@@ -1675,6 +1835,25 @@ public class Element implements NiftyEvent, EffectManager.Notify {
       @Nonnull final NiftyMouseInputEvent mouseEvent,
       final long eventTime,
       @Nonnull final MouseOverHandler mouseOverHandler) {
+    addToMouseOverHandler(mouseEvent, mouseOverHandler);
+    if (visible) {
+      if (children != null) {
+        final int childrenCount = children.size();
+        for (int i = 0; i < childrenCount; i++) {
+          Element w = children.get(i);
+          w.buildMouseOverElements(mouseEvent, eventTime, mouseOverHandler);
+        }
+      }
+    }
+  }
+
+  /**
+   * Add only this element (and none of its children) to the given MouseOverHandler in case it is able to process the
+   * given mouse event.
+   */
+  public void addToMouseOverHandler(
+      @Nonnull final NiftyMouseInputEvent mouseEvent,
+      @Nonnull final MouseOverHandler mouseOverHandler) {
     boolean isInside = isInside(mouseEvent);
     if (canHandleMouseEvents()) {
       if (isInside) {
@@ -1687,15 +1866,6 @@ public class Element implements NiftyEvent, EffectManager.Notify {
         mouseOverHandler.canTheoreticallyHandleMouse(this);
       }
     }
-    if (visible) {
-      if (children != null) {
-        final int childrenCount = children.size();
-        for (int i = 0; i < childrenCount; i++) {
-          Element w = children.get(i);
-          w.buildMouseOverElements(mouseEvent, eventTime, mouseOverHandler);
-        }
-      }
-    }
   }
 
   public void mouseEventHoverPreprocess(@Nonnull final NiftyMouseInputEvent mouseEvent, final long eventTime) {
@@ -1906,6 +2076,15 @@ public class Element implements NiftyEvent, EffectManager.Notify {
       return null;
     }
 
+    Screen indexScreen = getIndexScreen();
+    if (indexScreen != null && indexScreen.isBound()) {
+      return indexScreen.findElementById(this, findId);
+    }
+    return findElementByIdInTree(findId);
+  }
+
+  @Nullable
+  private Element findElementByIdInTree(@Nonnull final String findId) {
     if (id != null && id.equals(findId)) {
       return this;
     }
@@ -1918,7 +2097,7 @@ public class Element implements NiftyEvent, EffectManager.Notify {
       final int childrenCount = children.size();
       for (int i = 0; i < childrenCount; i++) {
         Element e = children.get(i);
-        Element found = e.findElementById(findId);
+        Element found = e.findElementByIdInTree(findId);
         if (found != null) {
           return found;
         }
@@ -1964,8 +2143,65 @@ public class Element implements NiftyEvent, EffectManager.Notify {
 
   private void bindToScreen(@Nonnull final Screen newScreen) {
     screen = newScreen;
-    if (id != null) {
-      screen.registerElementId(id);
+    screen.registerElement(this);
+    screen.invalidateMouseOverIndex();
+  }
+
+  /**
+   * Get the screen whose id index this element is part of. That's the screen this element or the closest of its
+   * parents is bound to.
+   */
+  @Nullable
+  private Screen getIndexScreen() {
+    Element current = this;
+    while (current != null) {
+      if (current.screen != null) {
+        return current.screen;
+      }
+      current = current.parent;
+    }
+    return null;
+  }
+
+  private void invalidateMouseOverIndex() {
+    if (screen != null) {
+      screen.invalidateMouseOverIndex();
+    }
+  }
+
+  /**
+   * Mark the recorded render commands of the layer this element belongs to as outdated. This is only relevant when
+   * retained rendering is enabled in Nifty, see {@link Screen#invalidateRender(Element)}.
+   */
+  public void invalidateRender() {
+    Screen indexScreen = getIndexScreen();
+    if (indexScreen != null) {
+      indexScreen.invalidateRender(this);
+    }
+  }
+
+  /**
+   * Checks if any effect of this visible element or any of its children is currently active. This is answered from
+   * the effect states that are kept for each element and its children, so it does not visit the children.
+   *
+   * @return true if at least one effect is active and false otherwise
+   */
+  public boolean hasActiveEffects() {
+    return visible && effectStateCache.isAnyActive();
+  }
+
+  /**
+   * Update the effect states of this element and its parents for a child that has been added or removed. The states
+   * only change when the child has active effects.
+   */
+  private void childEffectStatesChanged(@Nonnull final Element child) {
+    if (!child.effectStateCache.isAnyActive()) {
+      return;
+    }
+    for (EffectEventId eventId : EffectEventId.values()) {
+      if (child.effectStateCache.get(eventId)) {
+        effectStateChanged(eventId, true);
+      }
     }
   }
 
@@ -2060,6 +2296,7 @@ public class Element implements NiftyEvent, EffectManager.Notify {
 
   public void setVisibleToMouseEvents(final boolean newVisibleToMouseEvents) {
     this.visibleToMouseEvents = newVisibleToMouseEvents;
+    invalidateMouseOverIndex();
   }
 
   public boolean keyEvent(@Nonnull final KeyboardInputEvent inputEvent) {
@@ -2071,6 +2308,7 @@ public class Element implements NiftyEvent, EffectManager.Notify {
 
   public void setClipChildren(final boolean clipChildrenParam) {
     this.clipChildren = clipChildrenParam;
+    invalidateRender();
   }
 
   public boolean isClipChildren() {
@@ -2082,6 +2320,7 @@ public class Element implements NiftyEvent, EffectManager.Notify {
     if (parent != null) {
       parent.renderOrderChanged(this);
     }
+    invalidateRender();
   }
 
   private void renderOrderChanged(@Nonnull final Element element) {
@@ -2206,6 +2445,11 @@ public class Element implements NiftyEvent, EffectManager.Notify {
     @Nullable String oldId = this.id;
     this.id = id;
 
+    Screen indexScreen = getIndexScreen();
+    if (indexScreen != null) {
+      indexScreen.elementIdChanged(this, oldId);
+    }
+
     if (parent == null) {
       return;
     }
@@ -2315,6 +2559,8 @@ public class Element implements NiftyEvent, EffectManager.Notify {
       elementType.applyInteract(nifty, screen, this);
     }
     layoutElements();
+    // the style might have changed the size or the visibility of this element as well
+    invalidateLayout();
     log.fine("after setStyle [" + newStyle + "]\n" + elementType.output(0));
     publishEvent();
   }
@@ -2508,41 +2754,49 @@ public class Element implements NiftyEvent, EffectManager.Notify {
 
   public void setPaddingLeft(@Nonnull final SizeValue paddingValue) {
     layoutPart.getBoxConstraints().setPaddingLeft(paddingValue);
+    invalidateLayout();
     notifyListeners();
   }
 
   public void setPaddingRight(@Nonnull final SizeValue paddingValue) {
     layoutPart.getBoxConstraints().setPaddingRight(paddingValue);
+    invalidateLayout();
     notifyListeners();
   }
 
   public void setPaddingTop(@Nonnull final SizeValue paddingValue) {
     layoutPart.getBoxConstraints().setPaddingTop(paddingValue);
+    invalidateLayout();
     notifyListeners();
   }
 
   public void setPaddingBottom(@Nonnull final SizeValue paddingValue) {
     layoutPart.getBoxConstraints().setPaddingBottom(paddingValue);
+    invalidateLayout();
     notifyListeners();
   }
 
   public void setMarginLeft(@Nonnull final SizeValue value) {
     layoutPart.getBoxConstraints().setMarginLeft(value);
+    invalidateLayout();
     notifyListeners();
   }
 
   public void setMarginRight(@Nonnull final SizeValue value) {
     layoutPart.getBoxConstraints().setMarginRight(value);
+    invalidateLayout();
     notifyListeners();
   }
 
   public void setMarginTop(@Nonnull final SizeValue value) {
     layoutPart.getBoxConstraints().setMarginTop(value);
+    invalidateLayout();
     notifyListeners();
   }
 
   public void setMarginBottom(@Nonnull final SizeValue value) {
     layoutPart.getBoxConstraints().setMarginBottom(value);
+    invalidateLayout();
     notifyListeners();
   }
 
@@ -2616,7 +2870,6 @@ public class Element implements NiftyEvent, EffectManager.Notify {
 
   public void onEndScreen(@Nonnull final Screen screen) {
     if (id != null) {
-      screen.unregisterElementId(id);
       nifty.unsubscribeElement(screen, id);
     }
 
@@ -2724,6 +2977,14 @@ public class Element implements NiftyEvent, EffectManager.Notify {
     } else {
       elementsRenderOrder = null;
     }
+    markChildLayoutInvalid();
+    invalidateMouseOverIndex();
+    childEffectStatesChanged(element);
+
+    Screen indexScreen = getIndexScreen();
+    if (indexScreen != null) {
+      indexScreen.unregisterElementTree(element);
+    }
   }
 
   // package private to prevent public access
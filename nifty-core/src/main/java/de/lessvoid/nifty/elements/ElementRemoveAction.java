@@ -31,6 +31,7 @@ public class ElementRemoveAction implements Action {
     // that changed the image.
     removedElement.resetAllEffects();
     removedElement.onEndScreen(screen);
+    screen.unregisterElementTree(removedElement);
 
     removeSingleElement(removedElement);
     if (removedElement.hasParent()) {
@@ -17,11 +17,18 @@ public class ImageRenderer implements ElementRenderer {
   private NiftyImage image;
   private int inset = 0;
 
+  /**
+   * The element this renderer has been rendered for the last time.
+   */
+  @Nullable
+  private Element renderedElement;
+
   /**
    * Set Insert.
    */
   public void setInset(final int insetParam) {
     inset = insetParam;
+    invalidateRender();
   }
 
   /**
@@ -32,6 +39,7 @@ public class ImageRenderer implements ElementRenderer {
    */
   @Override
   public final void render(@Nonnull final Element element, @Nonnull final NiftyRenderEngine r) {
+    renderedElement = element;
     if (image != null) {
       r.renderImage(
           image,
@@ -59,5 +67,12 @@ public class ImageRenderer implements ElementRenderer {
    */
   public void setImage(@Nullable final NiftyImage newImage) {
     image = newImage;
+    invalidateRender();
+  }
+
+  private void invalidateRender() {
+    if (renderedElement != null) {
+      renderedElement.invalidateRender();
+    }
   }
 }
@@ -23,6 +23,12 @@ public class PanelRenderer implements ElementRenderer {
   @Nullable
   private Color debugColor;
 
+  /**
+   * The element this renderer has been rendered for the last time.
+   */
+  @Nullable
+  private Element renderedElement;
+
   /**
    * Default constructor.
    */
@@ -37,6 +43,7 @@ public class PanelRenderer implements ElementRenderer {
    */
   @Override
   public void render(@Nonnull final Element element, @Nonnull final NiftyRenderEngine r) {
+    renderedElement = element;
     if (element.getNifty().isDebugOptionPanelColors()) {
       r.saveStates();
       r.setColor(getDebugColor());
@@ -71,6 +78,9 @@ public class PanelRenderer implements ElementRenderer {
 
   public void setBackgroundColor(@Nullable final Color backgroundColor) {
     this.backgroundColor = backgroundColor;
+    if (renderedElement != null) {
+      renderedElement.invalidateRender();
+    }
   }
 
   @Nullable
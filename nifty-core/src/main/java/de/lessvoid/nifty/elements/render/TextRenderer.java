@@ -134,6 +134,36 @@ public class TextRenderer implements ElementRenderer, EventSubscriber<NiftyLocal
 
   private String originalTextBeforeSpecialValues;
 
+  /*
+   * The element this TextRenderer has been rendered for the last time. This is used to invalidate the retained render
+   * commands of the screen when the appearance of the text is changed.
+   */
+  @Nullable
+  private Element renderedElement;
+
+  /**
+   * The pixel width of each line in lineWidthsLines when rendered with lineWidthsFont. This way the width of the lines
+   * (required for the horizontal alignment) is only calculated again when the text or the font changed.
+   */
+  @Nullable
+  private int[] lineWidths;
+  @Nullable
+  private String[] lineWidthsLines;
+  @Nullable
+  private RenderFont lineWidthsFont;
+
+  /**
+   * The result of the last automatic line wrapping of wrappedText to wrappedWidth with wrappedFont. As long as none of
+   * these change the lines are reused and don't need to be wrapped again on each layout.
+   */
+  @Nullable
+  private String[] wrappedLines;
+  @Nullable
+  private String wrappedText;
+  private int wrappedWidth;
+  @Nullable
+  private RenderFont wrappedFont;
+
   /**
    * default constructor.
    */
@@ -188,8 +218,12 @@ public class TextRenderer implements ElementRenderer, EventSubscriber<NiftyLocal
 
     this.originalText = newText;
     this.textLines = newText.split("\n", -1);
+    lineWidths = null;
     if (changeExistingText && hasBeenLayoutedElement != null) {
-      hasBeenLayoutedElement.getParent().layoutElements();
+      hasBeenLayoutedElement.invalidateLayout();
+    }
+    if (changeExistingText) {
+      invalidateRender();
     }
 
     maxWidth = 0;
@@ -212,6 +246,7 @@ public class TextRenderer implements ElementRenderer, EventSubscriber<NiftyLocal
    */
   @Override
   public void render(@Nonnull final Element w, @Nonnull final NiftyRenderEngine r) {
+    renderedElement = w;
     if (textLines == null) {
       return;
     }
@@ -228,7 +263,8 @@ public class TextRenderer implements ElementRenderer, EventSubscriber<NiftyLocal
     boolean stateSaved = prepareRenderEngine(r, font);
 
     int y = getStartYWithVerticalAlign(lines.length * font.getHeight(), w.getHeight(), textVAlign);
-    for (String line : lines) {
+    for (int i = 0; i < lines.length; i++) {
+      String line = lines[i];
       int yy = w.getY() + y;
       if (Math.abs(xOffsetHack) > 0) {
         int fittingOffset = FontHelper.getVisibleCharactersFromStart(font, line, Math.abs(xOffsetHack), 1.0f);
@@ -237,7 +273,7 @@ public class TextRenderer implements ElementRenderer, EventSubscriber<NiftyLocal
         int xx = w.getX() + xOffsetHack + font.getWidth(cut);
         renderLine(xx, yy, substring, r, selectionStart - fittingOffset, selectionEnd - fittingOffset);
       } else {
-        int xx = w.getX() + getStartXWithHorizontalAlign(font.getWidth(line), w.getWidth(), textHAlign);
+        int xx = w.getX() + getStartXWithHorizontalAlign(getLineWidths(font, lines)[i], w.getWidth(), textHAlign);
         renderLine(xx, yy, line, r, selectionStart, selectionEnd);
       }
       y += font.getHeight();
@@ -246,6 +282,19 @@ public class TextRenderer implements ElementRenderer, EventSubscriber<NiftyLocal
     restoreRenderEngine(r, stateSaved);
   }
 
+  @Nonnull
+  private int[] getLineWidths(@Nonnull final RenderFont font, @Nonnull final String[] lines) {
+    if (lineWidths == null || lineWidthsLines != lines || lineWidthsFont != font) {
+      lineWidths = new int[lines.length];
+      for (int i = 0; i < lines.length; i++) {
+        lineWidths[i] = font.getWidth(lines[i]);
+      }
+      lineWidthsLines = lines;
+      lineWidthsFont = font;
+    }
+    return lineWidths;
+  }
+
   private boolean prepareRenderEngine(@Nonnull final NiftyRenderEngine r, RenderFont font) {
     if (!r.isColorChanged()) {
       if (r.isColorAlphaChanged()) {
@@ -385,6 +434,7 @@ public class TextRenderer implements ElementRenderer, EventSubscriber<NiftyLocal
    */
   public void setxOffsetHack(final int newXoffsetHack) {
     this.xOffsetHack = newXoffsetHack;
+    invalidateRender();
   }
 
   /**
@@ -406,6 +456,7 @@ public class TextRenderer implements ElementRenderer, EventSubscriber<NiftyLocal
   public void setSelection(final int selectionStartParam, final int selectionEndParam) {
     this.selectionStart = selectionStartParam;
     this.selectionEnd = selectionEndParam;
+    invalidateRender();
   }
 
   /**
@@ -415,6 +466,8 @@ public class TextRenderer implements ElementRenderer, EventSubscriber<NiftyLocal
    */
   public void setFont(@Nullable final RenderFont fontParam) {
     this.font = fontParam;
+    lineWidths = null;
+    invalidateRender();
   }
 
   /**
@@ -424,6 +477,7 @@ public class TextRenderer implements ElementRenderer, EventSubscriber<NiftyLocal
    */
   public void setTextSelectionColor(@Nonnull final Color textSelectionColorParam) {
     this.textSelectionColor = textSelectionColorParam;
+    invalidateRender();
   }
 
   /**
@@ -433,6 +487,7 @@ public class TextRenderer implements ElementRenderer, EventSubscriber<NiftyLocal
    */
   public void setTextVAlign(@Nonnull final VerticalAlign newTextVAlign) {
     this.textVAlign = newTextVAlign;
+    invalidateRender();
   }
 
   /**
@@ -442,6 +497,7 @@ public class TextRenderer implements ElementRenderer, EventSubscriber<NiftyLocal
    */
   public void setTextHAlign(@Nonnull final HorizontalAlign newTextHAlign) {
     this.textHAlign = newTextHAlign;
+    invalidateRender();
   }
 
   /**
@@ -451,6 +507,13 @@ public class TextRenderer implements ElementRenderer, EventSubscriber<NiftyLocal
    */
   public void setColor(@Nonnull final Color newColor) {
     this.color = newColor;
+    invalidateRender();
+  }
+
+  private void invalidateRender() {
+    if (renderedElement != null) {
+      renderedElement.invalidateRender();
+    }
   }
 
   /**
@@ -483,6 +546,19 @@ public class TextRenderer implements ElementRenderer, EventSubscriber<NiftyLocal
     this.textMinHeight = textMinHeight;
   }
 
+  @Nonnull
+  private String[] getWrappedLines(final int width, @Nonnull final NiftyRenderEngine r) {
+    RenderFont currentFont = ensureFont(r);
+    if (wrappedLines == null || wrappedWidth != width || wrappedFont != currentFont ||
+        !originalText.equals(wrappedText)) {
+      wrappedLines = wrapText(width, r, originalText.split("\n", -1));
+      wrappedText = originalText;
+      wrappedWidth = width;
+      wrappedFont = currentFont;
+    }
+    return wrappedLines;
+  }
+
   @Nonnull
   private String[] wrapText(final int width, @Nonnull final NiftyRenderEngine r, @Nonnull final String... textLines) {
     RenderFont font = ensureFont(r);
@@ -522,7 +598,7 @@ public class TextRenderer implements ElementRenderer, EventSubscriber<NiftyLocal
     // remember some values so that we can correctly do auto word wrapping when someone changes the text
     this.hasBeenLayoutedElement = element;
 
-    this.textLines = wrapText(valueAsInt, renderEngine, originalText.split("\n", -1));
+    this.textLines = getWrappedLines(valueAsInt, renderEngine);
 
     maxWidth = valueAsInt;
 
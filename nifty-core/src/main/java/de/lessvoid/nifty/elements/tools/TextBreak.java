@@ -1,26 +1,72 @@
 package de.lessvoid.nifty.elements.tools;
 
 import de.lessvoid.nifty.spi.render.RenderFont;
+import de.lessvoid.nifty.tools.ColorValueParser;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * Breaks a line of text into lines that fit into a given width. The advance of each character is requested from the
+ * font only once, the width of every part of the line is calculated from the sum of these advances. This keeps the
+ * cost of breaking a line linear to the length of the line.
+ * <p/>
+ * Not every font reports advances that add up to the width it reports for a text. So the sum of the advances is
+ * compared once with the width of the whole line. When they don't match the parts of the line are measured with
+ * {@link RenderFont#getWidth(String)} instead, which is slower but correct for these fonts.
+ * <p/>
+ * Inline color codes don't take any space. Each line that does not start at the beginning of the text is prefixed
+ * with the last color code before the line, so the lines keep the color they had in the original text.
+ */
 public class TextBreak {
+  @Nonnull
+  private final String line;
   @Nonnull
   private final String[] words;
   private final int width;
   private final RenderFont font;
 
+  /**
+   * The sum of the advances of all characters in front of each character. The characters of inline color codes have
+   * no advance.
+   */
+  @Nonnull
+  private final int[] advanceSums;
+
+  /**
+   * The end index of the inline color code each character is part of or 0 for characters outside of color codes.
+   */
+  @Nonnull
+  private final int[] colorCodeEnds;
+
+  /**
+   * Whether the sum of the character advances matches the width the font reports for the line.
+   */
+  private boolean advancesMatchWidth;
+
+  /**
+   * The start and end index of each inline color code in the line.
+   */
+  @Nonnull
+  private final List<int[]> colorCodes = new ArrayList<int[]>();
+  private int nextColorCode;
+  @Nullable
+  private String lastColorValue;
+
   public TextBreak(@Nonnull final String line, final int width, final RenderFont font) {
+    this.line = line;
     this.words = line.split(" ", -1);
     this.width = width;
     this.font = font;
+    this.advanceSums = new int[line.length() + 1];
+    this.colorCodeEnds = new int[line.length()];
   }
 
   @Nonnull
   public List<String> split() {
+    measure();
     if (isSingleLine()) {
       return singleResult();
     }
@@ -37,57 +83,68 @@ public class TextBreak {
   @Nonnull
   private List<String> processWords() {
     List<String> result = new ArrayList<String>();
-    int i = 0, length;
-    String currentWord = "";
-    String lastColorValue = null;
+    nextColorCode = 0;
+    lastColorValue = null;
     StringBuilder currentLine = new StringBuilder();
+    int i = 0;
+    int wordStart = 0;
     while (isValidIndex(i)) {
-      //Empty StringBuffer
       currentLine.setLength(0);
-      length = 0;
-      while (isBelowLimit(length) && isValidIndex(i)) {
-        currentWord = getWord(i, length == 0);
-        String colorValue = extractColorValue(currentWord);
-        if (colorValue != null) {
-          lastColorValue = colorValue;
-        }
-        length += font.getWidth(currentWord);
-        if (isBelowLimit(length)) {
-          currentLine.append(currentWord);
+      int lineStart = wordStart;
+      int length = 0;
+      int firstWord = i;
+      boolean fits = true;
+      while (fits && isValidIndex(i)) {
+        int wordEnd = wordStart + words[i].length();
+        boolean withSpace = i > 0 && length > 0;
+        length += getWidth(withSpace ? wordStart - 1 : wordStart, wordEnd);
+        fits = isBelowLimit(length);
+        if (fits) {
+          if (withSpace) {
+            currentLine.append(' ');
+          } else if (currentLine.length() == 0) {
+            lineStart = wordStart;
+          }
+          currentLine.append(words[i]);
           i++;
+          wordStart = wordEnd + 1;
         }
       }
-      if (currentLine.length() > 0) {
-        addResult(result, lastColorValue, currentLine.toString());
-      } else { //If we get here the word itself is longer than the wrapping width
-        //We break it up
-        String wordPart = currentWord;
-        int p;
-        do {
-          p = 0;
-          while (!isBelowLimit(font.getWidth(wordPart)) && wordPart.length() > 0) {
-            //Remove one character from the end and see if the new word fits
-            wordPart = wordPart.substring(0, wordPart.length() - 1);
-            p++;
-          }
-          addResult(result, lastColorValue, wordPart);
-          //Set the new word part to the rest of the word
-          wordPart = currentWord.substring(currentWord.length() - p);
-          String colorValue = extractColorValue(wordPart);
-          if (colorValue != null) {
-            lastColorValue = colorValue;
-          }
-        } while (p > 0);
+      if (i > firstWord) {
+        addResult(result, lineStart, currentLine.toString());
+      } else {
+        // If we get here the word itself is longer than the wrapping width, we break it up
+        breakWord(result, wordStart, wordStart + words[i].length());
+        wordStart += words[i].length() + 1;
         i++;
       }
     }
     return result;
   }
 
-  private void addResult(
-      @Nonnull final List<String> result,
-      @Nullable final String lastColorValue,
-      final String currentLine) {
+  private void breakWord(@Nonnull final List<String> result, final int wordStart, final int wordEnd) {
+    int partStart = wordStart;
+    while (partStart < wordEnd) {
+      // color codes at the start of a part are skipped, each part contains at least one visible character
+      int partEnd = partStart;
+      while (partEnd < wordEnd && colorCodeEnds[partEnd] > 0) {
+        partEnd = colorCodeEnds[partEnd];
+      }
+      partEnd = Math.min(partEnd + 1, wordEnd);
+      while (partEnd < wordEnd && isBelowLimit(getWidth(partStart, partEnd + 1))) {
+        partEnd++;
+      }
+      if (partEnd < wordEnd && colorCodeEnds[partEnd] > 0) {
+        // a color code must not be split, it does not take any space so it stays in this part
+        partEnd = Math.min(colorCodeEnds[partEnd], wordEnd);
+      }
+      addResult(result, partStart, line.substring(partStart, partEnd));
+      partStart = partEnd;
+    }
+  }
+
+  private void addResult(@Nonnull final List<String> result, final int lineStart, @Nonnull final String currentLine) {
+    updateColorValue(lineStart);
     if (lastColorValue != null) {
       result.add(lastColorValue + currentLine);
     } else {
@@ -95,6 +152,15 @@ public class TextBreak {
     }
   }
 
+  // Finds the last color code that ends in front of the given index.
+  private void updateColorValue(final int index) {
+    while (nextColorCode < colorCodes.size() && colorCodes.get(nextColorCode)[1] <= index) {
+      int[] code = colorCodes.get(nextColorCode);
+      lastColorValue = line.substring(code[0], code[1]);
+      nextColorCode++;
+    }
+  }
+
   private boolean isValidIndex(final int i) {
     return i < words.length;
   }
@@ -103,17 +169,63 @@ public class TextBreak {
     return currentLineLength < width;
   }
 
-  private String getWord(final int i, final boolean newLine) {
-    String currentWord = words[i];
-    if (i > 0 && !newLine) {
-      currentWord = " " + currentWord;
+  private boolean isSingleLine() {
+    //Check if there is only one word and it fits in one line
+    return (words.length == 1 && isBelowLimit(getWidth(0, line.length())));
+  }
+
+  /**
+   * Get the width of a part of the line. This is the same width the font reports when it measures the part as a
+   * separate text.
+   */
+  private int getWidth(final int start, final int end) {
+    if (end <= start) {
+      return 0;
+    }
+    if (!advancesMatchWidth) {
+      return font.getWidth(line.substring(start, end));
     }
-    return currentWord;
+    int last = end - 1;
+    int result = advanceSums[last] - advanceSums[start];
+    if (colorCodeEnds[last] == 0) {
+      // the last character has no following character within the part, so the kerning is different
+      result += getAdvance(line.charAt(last), (char) 0);
+    }
+    return result;
   }
 
-  private boolean isSingleLine() {
-    //Check if there is only one word and it fits in one line
-    return (words.length == 1 && isBelowLimit(font.getWidth(words[0])));
+  private int getAdvance(final char currentCharacter, final char nextCharacter) {
+    int advance = font.getCharacterAdvance(currentCharacter, nextCharacter, 1.0f);
+    return advance == -1 ? 0 : advance;
+  }
+
+  private void measure() {
+    int length = line.length();
+    colorCodes.clear();
+    ColorValueParser colorValueParser = new ColorValueParser();
+    StringBuilder visibleText = new StringBuilder(length);
+    int sum = 0;
+    for (int i = 0; i < length; i++) {
+      advanceSums[i] = sum;
+      if (line.charAt(i) == '\\' && colorValueParser.isColor(line, i)) {
+        int end = colorValueParser.getNextIndex();
+        colorCodes.add(new int[]{i, end});
+        for (int j = i; j < end; j++) {
+          advanceSums[j] = sum;
+          colorCodeEnds[j] = end;
+        }
+        i = end - 1;
+        continue;
+      }
+      visibleText.append(line.charAt(i));
+      sum += getAdvance(line.charAt(i), FontHelper.getNextCharacter(line, i));
+    }
+    advanceSums[length] = sum;
+
+    advancesMatchWidth = true;
+    if (visibleText.length() > 0) {
+      advancesMatchWidth = getWidth(0, length) == font.getWidth(visibleText.toString());
+    }
   }
 
   @Nullable
@@ -18,6 +18,8 @@ public class MouseInputEventProcessor {
   private boolean lastButtonDown1 = false;
   private boolean lastButtonDown2 = false;
   private boolean hadAnyEvents = false;
+  @Nonnull
+  private final NiftyMouseInputEvent lastMouseDownEvent = new NiftyMouseInputEvent();
 
   public void reset() {
     lastButtonDown0 = false;
@@ -45,14 +47,36 @@ public class MouseInputEventProcessor {
     lastButtonDown2 = mouse.isButton2Down();
   }
 
+  /**
+   * Checks if an event with the given state would be a plain mouse move. That is an event that does not change the
+   * state of any button and does not carry a wheel delta. Such events only differ in the mouse position and it is
+   * therefore safe to skip all but the last of them.
+   *
+   * @return true if the event would only move the mouse and false if it changes any button or the mouse wheel
+   */
+  public boolean isMoveOnly(
+      final int mouseWheel,
+      final boolean button0Down,
+      final boolean button1Down,
+      final boolean button2Down) {
+    return mouseWheel == 0 &&
+        button0Down == lastButtonDown0 &&
+        button1Down == lastButtonDown1 &&
+        button2Down == lastButtonDown2;
+  }
+
   public boolean hasLastMouseDownEvent() {
     return !hadAnyEvents && (lastButtonDown0 || lastButtonDown1 || lastButtonDown2);
   }
 
+  /**
+   * Get an event that repeats the last mouse down state. The returned instance is reused by every call so it must
+   * not be kept around by the caller.
+   */
   @Nonnull
   public NiftyMouseInputEvent getLastMouseDownEvent() {
-    NiftyMouseInputEvent result = new NiftyMouseInputEvent();
-    result.initialize(lastMouseX, lastMouseY, lastMouseWheel, lastButtonDown0, lastButtonDown1, lastButtonDown2);
-    return result;
+    lastMouseDownEvent.initialize(
+        lastMouseX, lastMouseY, lastMouseWheel, lastButtonDown0, lastButtonDown1, lastButtonDown2);
+    return lastMouseDownEvent;
   }
 }
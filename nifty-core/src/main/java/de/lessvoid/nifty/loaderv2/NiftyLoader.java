@@ -6,6 +6,8 @@ import de.lessvoid.nifty.loaderv2.types.NiftyStylesType;
 import de.lessvoid.nifty.loaderv2.types.NiftyType;
 import de.lessvoid.nifty.spi.time.TimeProvider;
 import de.lessvoid.xml.lwxs.Schema;
+import de.lessvoid.xml.xpp3.BinaryXmlCompiler;
+import de.lessvoid.xml.xpp3.BinaryXmlPullParser;
 import de.lessvoid.xml.xpp3.XmlParser;
 import org.w3c.dom.Document;
 import org.xmlpull.v1.XmlPullParserException;
@@ -14,6 +16,7 @@ import org.xmlpull.v1.XmlPullParserFactory;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.annotation.WillClose;
+import javax.annotation.WillNotClose;
 import javax.xml.XMLConstants;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
@@ -21,6 +24,8 @@ import javax.xml.transform.Source;
 import javax.xml.transform.dom.DOMSource;
 import javax.xml.transform.stream.StreamSource;
 import javax.xml.validation.SchemaFactory;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
 import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStream;
@@ -102,8 +107,7 @@ public class NiftyLoader {
       long start = timeProvider.getMsTime();
       log.fine("loading new nifty xml file with schemaId [" + schemaId + "]");
 
-      XmlParser parser = new XmlParser(parserFactory.newPullParser());
-      parser.read(inputStreamXml);
+      XmlParser parser = createParser(inputStreamXml);
 
       NiftyType niftyType = (NiftyType) getSchema(schemaId).loadXml(parser);
       niftyType.loadStyles(this, nifty);
@@ -167,16 +171,19 @@ public class NiftyLoader {
       @Nonnull final Nifty nifty) throws Exception {
     log.fine("loading new nifty style xml file [" + styleFilename + "] with schemaId [" + schemaId + "]");
 
-    XmlParser parser = new XmlParser(parserFactory.newPullParser());
     InputStream stream = null;
     try {
-      stream = nifty.getResourceAsStream(styleFilename);
+      long start = timeProvider.getMsTime();
+      stream = openResource(styleFilename);
       if (stream == null) {
         throw new IOException("Failed to load style. Resource \"" + styleFilename + "\" not found");
       }
-      parser.read(stream);
+      XmlParser parser = createParser(stream);
       NiftyStylesType niftyStylesType = (NiftyStylesType) getSchema(schemaId).loadXml(parser);
       niftyStylesType.loadStyles(this, niftyType, nifty, log);
+
+      long end = timeProvider.getMsTime();
+      log.fine("loaded nifty style xml file [" + styleFilename + "] took [" + (end - start) + " ms]");
     } finally {
       closeSilently(stream);
     }
@@ -188,16 +195,19 @@ public class NiftyLoader {
       @Nonnull final NiftyType niftyType) throws Exception {
     log.fine("loading new nifty controls xml file [" + controlFilename + "] with schemaId [" + schemaId + "]");
 
-    XmlParser parser = new XmlParser(parserFactory.newPullParser());
     InputStream stream = null;
     try {
-      stream = nifty.getResourceAsStream(controlFilename);
+      long start = timeProvider.getMsTime();
+      stream = openResource(controlFilename);
       if (stream == null) {
         throw new IOException("Failed to load control. Resource \"" + controlFilename + "\" not found");
       }
-      parser.read(stream);
+      XmlParser parser = createParser(stream);
       NiftyControlsType niftyControlsType = (NiftyControlsType) getSchema(schemaId).loadXml(parser);
       niftyControlsType.loadControls(this, niftyType);
+
+      long end = timeProvider.getMsTime();
+      log.fine("loaded nifty controls xml file [" + controlFilename + "] took [" + (end - start) + " ms]");
     } finally {
       closeSilently(stream);
     }
@@ -218,6 +228,67 @@ public class NiftyLoader {
     }
   }
 
+  /**
+   * Open the resource with the given name for loading. In case the name refers to a binary file created by the
+   * {@link BinaryXmlCompiler} and the XML file it was created from is available as well, the checksum stored in the
+   * binary file is compared with the XML. When the XML changed after the binary file was created, the XML is
+   * returned instead of the outdated binary file.
+   *
+   * @param filename the name of the resource
+   * @return the stream of the resource or {@code null} in case the resource was not found
+   * @throws IOException in case reading the resources fails
+   */
+  @Nullable
+  public InputStream openResource(@Nonnull final String filename) throws IOException {
+    InputStream stream = nifty.getResourceAsStream(filename);
+    if (stream == null || !filename.endsWith(BinaryXmlCompiler.FILE_EXTENSION)) {
+      return stream;
+    }
+    String xmlFilename = filename.substring(0, filename.length() - BinaryXmlCompiler.FILE_EXTENSION.length());
+    InputStream xmlStream = nifty.getResourceAsStream(xmlFilename);
+    if (xmlStream == null) {
+      return stream;
+    }
+
+    byte[] binary;
+    byte[] xml;
+    try {
+      binary = BinaryXmlCompiler.readFully(stream);
+      xml = BinaryXmlCompiler.readFully(xmlStream);
+    } finally {
+      closeSilently(stream);
+      closeSilently(xmlStream);
+    }
+    if (BinaryXmlCompiler.isUpToDate(binary, xml)) {
+      return new ByteArrayInputStream(binary);
+    }
+    log.warning("[" + filename + "] is outdated, loading [" + xmlFilename + "] instead");
+    return new ByteArrayInputStream(xml);
+  }
+
+  /**
+   * Create the parser for the given stream. The stream may contain XML or the pre-baked binary format created by the
+   * {@link BinaryXmlCompiler}. Only the first bytes are looked at to tell them apart, XML is parsed from the stream
+   * as it is read.
+   *
+   * @param stream the stream to read, it is not closed
+   * @return the parser that is ready to read the data
+   * @throws Exception in case reading the data fails
+   */
+  @Nonnull
+  private XmlParser createParser(@Nonnull @WillNotClose final InputStream stream) throws Exception {
+    InputStream in = stream.markSupported() ? stream : new BufferedInputStream(stream);
+    if (BinaryXmlCompiler.isBinaryXml(in)) {
+      BinaryXmlPullParser binaryParser = new BinaryXmlPullParser();
+      binaryParser.setInput(in, null);
+      return new XmlParser(binaryParser);
+    }
+
+    XmlParser parser = new XmlParser(parserFactory.newPullParser());
+    parser.read(in);
+    return parser;
+  }
+
   @Nonnull
   private Schema getSchema(@Nonnull final String schemaId) throws Exception {
     Schema niftyXmlSchema = schemes.get(schemaId);
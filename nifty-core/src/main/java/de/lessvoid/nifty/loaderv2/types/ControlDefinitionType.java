@@ -1,5 +1,6 @@
 package de.lessvoid.nifty.loaderv2.types;
 
+import de.lessvoid.nifty.Nifty;
 import de.lessvoid.nifty.loaderv2.types.helper.NullElementRendererCreator;
 import de.lessvoid.xml.xpp3.Attributes;
 
@@ -32,6 +33,22 @@ public class ControlDefinitionType extends ElementType {
     setElementRendererCreator(new NullElementRendererCreator());
   }
 
+  /**
+   * Create the template that instances of this control are created from. The template is a copy of this definition
+   * with all controls that are used inside of it already applied.
+   *
+   * @param nifty the Nifty instance to resolve the nested controls with
+   * @return the new template
+   */
+  @Nonnull
+  public ElementType createTemplate(@Nonnull final Nifty nifty) {
+    ElementType template = copy();
+    for (ElementType element : template.elements) {
+      element.applyControls(nifty);
+    }
+    return template;
+  }
+
   @Nullable
   public String getName() {
     return getAttributes().get("name");
@@ -51,8 +51,8 @@ public class ControlType extends ElementType {
 
   @Override
   void internalApplyControl(@Nonnull final Nifty nifty) {
-    ControlDefinitionType controlDefinition = nifty.resolveControlDefinition(getType());
-    if (controlDefinition == null) {
+    ElementType controlTemplate = nifty.resolveControlTemplate(getType());
+    if (controlTemplate == null) {
       log.warning("controlDefinition [" + getType() + "] missing.");
       return;
     }
@@ -60,7 +60,10 @@ public class ControlType extends ElementType {
     Collection<ElementType> childCopy = new ArrayList<ElementType>();
     childCopy.addAll(elements);
 
-    mergeFromElementType(controlDefinition);
+    mergeFromElementType(controlTemplate);
+    for (ElementType element : elements) {
+      element.markControlsApplied();
+    }
 
     String childRootId = getAttributes().get("childRootId");
     if (childRootId != null) {
@@ -39,6 +39,12 @@ public class ElementType extends XmlBaseType {
   @Nullable
   protected Controller controller;
 
+  /**
+   * Set for elements copied from a control template. Their controls have already been applied, so the next call to
+   * applyControls() can skip them.
+   */
+  private boolean controlsApplied;
+
   public ElementType() {
     super();
   }
@@ -371,7 +377,11 @@ public class ElementType extends XmlBaseType {
   }
 
   void applyControls(@Nonnull final Nifty nifty) {
-    internalApplyControl(nifty);
+    if (controlsApplied) {
+      controlsApplied = false;
+    } else {
+      internalApplyControl(nifty);
+    }
     for (int i = 0; i < elements.size(); i++) {
       elements.get(i).applyControls(nifty);
     }
@@ -380,6 +390,16 @@ public class ElementType extends XmlBaseType {
   void internalApplyControl(@Nonnull final Nifty nifty) {
   }
 
+  /**
+   * Mark this element and all of its children as copied from a control template.
+   */
+  void markControlsApplied() {
+    controlsApplied = true;
+    for (ElementType elementType : elements) {
+      elementType.markControlsApplied();
+    }
+  }
+
   void makeFlatControls() {
     for (ElementType elementType : elements) {
       elementType.makeFlatControls();
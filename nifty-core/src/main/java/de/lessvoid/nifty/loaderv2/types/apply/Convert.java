@@ -46,15 +46,15 @@ public class Convert {
 
   @Nonnull
   public SizeValue sizeValue(@Nullable final String value) {
-    return new SizeValue(value);
+    return SizeValue.valueOf(value);
   }
 
   @Nonnull
   public SizeValue paddingSizeValue(@Nullable final String value, @Nonnull final String defaultValue) {
     if (value == null) {
-      return new SizeValue(defaultValue);
+      return SizeValue.valueOf(defaultValue);
     }
-    return new SizeValue(value);
+    return SizeValue.valueOf(value);
   }
 
   @Nonnull
@@ -159,7 +159,7 @@ public class Convert {
     if (value == null) {
       return 0;
     }
-    SizeValue sizeValue = new SizeValue(value);
+    SizeValue sizeValue = SizeValue.valueOf(value);
     return sizeValue.getValueAsInt(imageHeight);
   }
 }
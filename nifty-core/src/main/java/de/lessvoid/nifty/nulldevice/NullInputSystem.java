@@ -0,0 +1,25 @@
+package de.lessvoid.nifty.nulldevice;
+
+import de.lessvoid.nifty.NiftyInputConsumer;
+import de.lessvoid.nifty.spi.input.InputSystem;
+import de.lessvoid.nifty.tools.resourceloader.NiftyResourceLoader;
+
+import javax.annotation.Nonnull;
+
+/**
+ * This is an input system that never creates any input events. In case Nifty runs without a window, for instance
+ * when screens are rendered in automated tests, this input system works.
+ */
+public class NullInputSystem implements InputSystem {
+  @Override
+  public void setResourceLoader(@Nonnull NiftyResourceLoader niftyResourceLoader) {
+  }
+
+  @Override
+  public void forwardEvents(@Nonnull NiftyInputConsumer inputEventConsumer) {
+  }
+
+  @Override
+  public void setMousePosition(int x, int y) {
+  }
+}
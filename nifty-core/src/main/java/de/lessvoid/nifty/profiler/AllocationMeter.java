@@ -0,0 +1,53 @@
+package de.lessvoid.nifty.profiler;
+
+import javax.annotation.Nullable;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Reads the number of bytes allocated by the current thread. This uses the extended thread bean of the HotSpot
+ * virtual machine. The extended bean is looked up once and then called directly, so reading the value does not
+ * allocate anything itself. On platforms that don't provide the extended bean the value is not available.
+ *
+ * @author void
+ */
+final class AllocationMeter {
+  private static final Logger log = Logger.getLogger(AllocationMeter.class.getName());
+
+  @Nullable
+  private final com.sun.management.ThreadMXBean threadBean;
+
+  AllocationMeter() {
+    com.sun.management.ThreadMXBean extendedBean = null;
+    try {
+      ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+      if (bean instanceof com.sun.management.ThreadMXBean) {
+        extendedBean = (com.sun.management.ThreadMXBean) bean;
+        if (!extendedBean.isThreadAllocatedMemorySupported()) {
+          extendedBean = null;
+        } else if (!extendedBean.isThreadAllocatedMemoryEnabled()) {
+          extendedBean.setThreadAllocatedMemoryEnabled(true);
+        }
+      }
+    } catch (Throwable e) {
+      // the extended bean is not available on all platforms, the class might not even exist
+      log.log(Level.FINE, "Measuring the allocated memory is not supported.", e);
+      extendedBean = null;
+    }
+    threadBean = extendedBean;
+  }
+
+  /**
+   * Get the number of bytes the current thread allocated so far.
+   *
+   * @return the allocated bytes or -1 in case the value is not available
+   */
+  long getAllocatedBytes() {
+    if (threadBean == null) {
+      return -1;
+    }
+    return threadBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+  }
+}
@@ -0,0 +1,105 @@
+package de.lessvoid.nifty.profiler;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Writes profiled frames in the JSON Trace Event Format that is understood by the tracing tools of Chrome
+ * ({@code chrome://tracing}) and compatible viewers. Each frame and each timed interval becomes a complete event and
+ * the counters of each frame are written as counter events. All times are written relative to the start of the first
+ * frame.
+ *
+ * @author void
+ */
+public final class ChromeTraceWriter {
+  private static final String CATEGORY = "nifty";
+
+  private ChromeTraceWriter() {
+  }
+
+  /**
+   * Write the given frames.
+   *
+   * @param frames the frames to write
+   * @param out    the target to write the trace to
+   * @throws IOException in case writing to the target fails
+   */
+  public static void write(@Nonnull final List<ProfilerFrame> frames, @Nonnull final Appendable out)
+      throws IOException {
+    out.append("{\"traceEvents\":[");
+    long origin = frames.isEmpty() ? 0 : frames.get(0).getStartNanos();
+    boolean first = true;
+    for (int i = 0; i < frames.size(); i++) {
+      ProfilerFrame frame = frames.get(i);
+      first = writeCompleteEvent(out, first, "frame", frame.getStartNanos() - origin, frame.getDurationNanos());
+      for (int j = 0; j < frame.getIntervalCount(); j++) {
+        first = writeCompleteEvent(
+            out,
+            first,
+            frame.getIntervalSection(j).getDisplayName(),
+            frame.getIntervalStartNanos(j) - origin,
+            frame.getIntervalDurationNanos(j));
+      }
+      first = writeCounterEvent(out, first, frame, frame.getStartNanos() - origin);
+    }
+    out.append("],\"displayTimeUnit\":\"ms\"}");
+  }
+
+  private static boolean writeCompleteEvent(
+      @Nonnull final Appendable out,
+      final boolean first,
+      @Nonnull final String name,
+      final long startNanos,
+      final long durationNanos) throws IOException {
+    if (!first) {
+      out.append(',');
+    }
+    out.append("{\"name\":\"").append(name).append("\",\"cat\":\"").append(CATEGORY).append("\",\"ph\":\"X\",\"ts\":");
+    appendMicros(out, startNanos);
+    out.append(",\"dur\":");
+    appendMicros(out, durationNanos);
+    out.append(",\"pid\":1,\"tid\":1}");
+    return false;
+  }
+
+  private static boolean writeCounterEvent(
+      @Nonnull final Appendable out,
+      final boolean first,
+      @Nonnull final ProfilerFrame frame,
+      final long startNanos) throws IOException {
+    if (!first) {
+      out.append(',');
+    }
+    out.append("{\"name\":\"counters\",\"cat\":\"").append(CATEGORY).append("\",\"ph\":\"C\",\"ts\":");
+    appendMicros(out, startNanos);
+    out.append(",\"pid\":1,\"tid\":1,\"args\":{");
+    ProfilerCounter[] counters = ProfilerCounter.values();
+    for (int i = 0; i < counters.length; i++) {
+      if (i > 0) {
+        out.append(',');
+      }
+      out.append('"').append(counters[i].getDisplayName()).append("\":")
+          .append(Long.toString(frame.getCount(counters[i])));
+    }
+    out.append("}}");
+    return false;
+  }
+
+  // Chrome expects microseconds, the fraction keeps the precision of the nanosecond values
+  private static void appendMicros(@Nonnull final Appendable out, final long nanos) throws IOException {
+    long micros = nanos / 1000;
+    long fraction = Math.abs(nanos % 1000);
+    if (nanos < 0 && micros == 0) {
+      out.append('-');
+    }
+    out.append(Long.toString(micros)).append('.');
+    if (fraction < 100) {
+      out.append('0');
+    }
+    if (fraction < 10) {
+      out.append('0');
+    }
+    out.append(Long.toString(fraction));
+  }
+}
@@ -0,0 +1,284 @@
+package de.lessvoid.nifty.profiler;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The NiftyProfiler measures how much time each frame spends in the different parts of Nifty and counts some values
+ * that are interesting to judge the cost of a frame. The profiler is disabled by default, enable it with
+ * {@link #setEnabled(boolean)}. Recording a frame does not allocate any objects, so it can stay enabled in production
+ * as well. Counting the bytes allocated by each frame is more expensive and needs to be enabled separately with
+ * {@link #setAllocationCountingEnabled(boolean)}. The measurements of the last frames are kept and can be queried with
+ * {@link #getLastFrame()} and {@link #getFrames()}, shown by Nifty with {@code Nifty.showProfilerOverlay(String)} or
+ * exported with {@link #writeChromeTrace(Appendable)}.
+ * <p/>
+ * A frame starts with {@link #beginFrame()} (or the first section that is entered outside of a frame) and ends with
+ * {@link #endFrame()}. Nifty calls both on its own in {@code Nifty.update()} and {@code Nifty.render()}. A section
+ * is timed between {@link #begin(ProfilerSection)} and {@link #end(ProfilerSection)}. In case a section is entered
+ * again while it's active already only the outer call is timed, so recursive code can be instrumented directly.
+ * <p/>
+ * Like the {@link de.lessvoid.nifty.NiftyStopwatch} the profiler is shared by all Nifty instances and must only be
+ * used from the thread that runs Nifty.
+ *
+ * @author void
+ */
+public final class NiftyProfiler {
+  /**
+   * The default number of finished frames that are kept.
+   */
+  public static final int DEFAULT_HISTORY_SIZE = 60;
+
+  /**
+   * The default number of timed intervals that are kept for each frame.
+   */
+  public static final int DEFAULT_MAX_INTERVALS = 512;
+
+  @Nonnull
+  private static final ProfilerSection[] SECTIONS = ProfilerSection.values();
+  private static final int SECTION_COUNT = SECTIONS.length;
+
+  private static boolean enabled = false;
+  private static boolean allocationCountingEnabled = false;
+
+  @Nonnull
+  private static ProfilerFrame[] frames = createFrames(DEFAULT_HISTORY_SIZE, DEFAULT_MAX_INTERVALS);
+  private static int currentIndex;
+  private static int finishedFrames;
+  private static long frameCounter;
+  private static boolean frameActive;
+  private static long frameStartAllocatedBytes;
+
+  @Nonnull
+  private static final int[] activeDepth = new int[SECTION_COUNT];
+  @Nonnull
+  private static final int[] stackSections = new int[SECTION_COUNT];
+  @Nonnull
+  private static final long[] stackStarts = new long[SECTION_COUNT];
+  @Nonnull
+  private static final long[] stackResumes = new long[SECTION_COUNT];
+  private static int stackDepth;
+
+  @Nullable
+  private static AllocationMeter allocationMeter;
+
+  private NiftyProfiler() {
+  }
+
+  /**
+   * Enable or disable the profiler. While it's disabled all calls to record data return right away. Changing the
+   * state discards all frames recorded so far.
+   */
+  public static void setEnabled(final boolean newEnabled) {
+    enabled = newEnabled;
+    reset();
+  }
+
+  public static boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Enable or disable counting the bytes allocated by each frame in {@link ProfilerCounter#ALLOCATED_BYTES}. This is
+   * disabled by default because reading the allocated bytes of a thread is not free, even on the virtual machines
+   * that support it.
+   */
+  public static void setAllocationCountingEnabled(final boolean newAllocationCountingEnabled) {
+    allocationCountingEnabled = newAllocationCountingEnabled;
+  }
+
+  public static boolean isAllocationCountingEnabled() {
+    return allocationCountingEnabled;
+  }
+
+  /**
+   * Change the number of frames that are kept and the number of timed intervals kept for each of them. This
+   * discards all frames recorded so far.
+   *
+   * @param historySize  the number of finished frames to keep
+   * @param maxIntervals the number of timed intervals to keep for each frame
+   */
+  public static void setCapacity(final int historySize, final int maxIntervals) {
+    if (historySize < 1) {
+      throw new IllegalArgumentException("historySize must be at least 1");
+    }
+    if (maxIntervals < 0) {
+      throw new IllegalArgumentException("maxIntervals must not be negative");
+    }
+    frames = createFrames(historySize, maxIntervals);
+    reset();
+  }
+
+  /**
+   * Discard all frames recorded so far.
+   */
+  public static void reset() {
+    currentIndex = 0;
+    finishedFrames = 0;
+    frameCounter = 0;
+    frameActive = false;
+    stackDepth = 0;
+    for (int i = 0; i < SECTION_COUNT; i++) {
+      activeDepth[i] = 0;
+    }
+  }
+
+  /**
+   * Start a new frame. This does nothing in case a frame is active already.
+   */
+  public static void beginFrame() {
+    if (!enabled || frameActive) {
+      return;
+    }
+    frameActive = true;
+    frames[currentIndex].reset(frameCounter++, System.nanoTime());
+    frameStartAllocatedBytes = allocationCountingEnabled ? getAllocationMeter().getAllocatedBytes() : -1;
+  }
+
+  /**
+   * End the current frame. Sections that are still active are ended as well.
+   */
+  public static void endFrame() {
+    if (!enabled || !frameActive) {
+      return;
+    }
+    while (stackDepth > 0) {
+      end(SECTIONS[stackSections[stackDepth - 1]]);
+    }
+    ProfilerFrame frame = frames[currentIndex];
+    if (allocationCountingEnabled && frameStartAllocatedBytes >= 0) {
+      long allocatedBytes = getAllocationMeter().getAllocatedBytes();
+      if (allocatedBytes >= frameStartAllocatedBytes) {
+        frame.addCount(ProfilerCounter.ALLOCATED_BYTES.ordinal(), allocatedBytes - frameStartAllocatedBytes);
+      }
+    }
+    frame.finish(System.nanoTime());
+    frameActive = false;
+    currentIndex = (currentIndex + 1) % frames.length;
+    if (finishedFrames < frames.length - 1) {
+      finishedFrames++;
+    }
+  }
+
+  /**
+   * Enter a section. The time until the matching call of {@link #end(ProfilerSection)} is added to the section.
+   */
+  public static void begin(@Nonnull final ProfilerSection section) {
+    if (!enabled) {
+      return;
+    }
+    int index = section.ordinal();
+    if (activeDepth[index]++ > 0) {
+      return;
+    }
+    beginFrame();
+    long now = System.nanoTime();
+    if (stackDepth > 0) {
+      int parent = stackDepth - 1;
+      frames[currentIndex].addSelfTime(stackSections[parent], now - stackResumes[parent]);
+    }
+    stackSections[stackDepth] = index;
+    stackStarts[stackDepth] = now;
+    stackResumes[stackDepth] = now;
+    stackDepth++;
+  }
+
+  /**
+   * Leave a section that was entered with {@link #begin(ProfilerSection)}.
+   */
+  public static void end(@Nonnull final ProfilerSection section) {
+    if (!enabled) {
+      return;
+    }
+    int index = section.ordinal();
+    if (activeDepth[index] == 0 || --activeDepth[index] > 0) {
+      return;
+    }
+    long now = System.nanoTime();
+    ProfilerFrame frame = frames[currentIndex];
+
+    // sections are expected to be properly nested, in case they are not the sections entered later are ended too
+    while (stackDepth > 0) {
+      stackDepth--;
+      int stackSection = stackSections[stackDepth];
+      frame.addSelfTime(stackSection, now - stackResumes[stackDepth]);
+      frame.addInterval(stackSection, stackStarts[stackDepth], now - stackStarts[stackDepth]);
+      activeDepth[stackSection] = 0;
+      if (stackSection == index) {
+        break;
+      }
+    }
+    if (stackDepth > 0) {
+      stackResumes[stackDepth - 1] = now;
+    }
+  }
+
+  /**
+   * Add to a counter of the current frame.
+   */
+  public static void count(@Nonnull final ProfilerCounter counter, final long amount) {
+    if (!enabled) {
+      return;
+    }
+    beginFrame();
+    frames[currentIndex].addCount(counter.ordinal(), amount);
+  }
+
+  /**
+   * Get the last finished frame.
+   *
+   * @return a copy of the last finished frame or {@code null} in case no frame was finished yet
+   */
+  @Nullable
+  public static ProfilerFrame getLastFrame() {
+    if (finishedFrames == 0) {
+      return null;
+    }
+    return new ProfilerFrame(frames[(currentIndex + frames.length - 1) % frames.length]);
+  }
+
+  /**
+   * Get all finished frames that are still kept.
+   *
+   * @return copies of the frames, the oldest frame first
+   */
+  @Nonnull
+  public static List<ProfilerFrame> getFrames() {
+    List<ProfilerFrame> result = new ArrayList<ProfilerFrame>(finishedFrames);
+    for (int i = finishedFrames; i > 0; i--) {
+      result.add(new ProfilerFrame(frames[(currentIndex + frames.length - i) % frames.length]));
+    }
+    return result;
+  }
+
+  /**
+   * Write all finished frames that are still kept in the Trace Event Format of the Chrome tracing tools.
+   *
+   * @param out the target to write the trace to
+   * @throws IOException in case writing to the target fails
+   * @see ChromeTraceWriter
+   */
+  public static void writeChromeTrace(@Nonnull final Appendable out) throws IOException {
+    ChromeTraceWriter.write(getFrames(), out);
+  }
+
+  @Nonnull
+  private static AllocationMeter getAllocationMeter() {
+    if (allocationMeter == null) {
+      allocationMeter = new AllocationMeter();
+    }
+    return allocationMeter;
+  }
+
+  @Nonnull
+  private static ProfilerFrame[] createFrames(final int historySize, final int maxIntervals) {
+    // one more frame than the history size is required to hold the frame currently recorded
+    ProfilerFrame[] result = new ProfilerFrame[historySize + 1];
+    for (int i = 0; i < result.length; i++) {
+      result[i] = new ProfilerFrame(maxIntervals);
+    }
+    return result;
+  }
+}
@@ -0,0 +1,47 @@
+package de.lessvoid.nifty.profiler;
+
+import javax.annotation.Nonnull;
+
+/**
+ * The values counted for each frame by the {@link NiftyProfiler}.
+ *
+ * @author void
+ */
+public enum ProfilerCounter {
+  /**
+   * The number of elements rendered.
+   */
+  ELEMENTS_VISITED("elementsVisited"),
+
+  /**
+   * The number of quads (including the glyphs of texts) sent to the batch renderer.
+   */
+  QUADS("quads"),
+
+  /**
+   * The number of batches the batch renderer needed to render the frame.
+   */
+  BATCHES("batches"),
+
+  /**
+   * The number of bytes allocated by the thread running Nifty. This is only available on Java virtual machines that
+   * support measuring the allocations of a thread and stays 0 on all others. It also stays 0 as long as counting the
+   * allocations is not enabled with {@link NiftyProfiler#setAllocationCountingEnabled(boolean)}.
+   */
+  ALLOCATED_BYTES("allocatedBytes");
+
+  @Nonnull
+  private final String displayName;
+
+  ProfilerCounter(@Nonnull final String displayName) {
+    this.displayName = displayName;
+  }
+
+  /**
+   * Get the name of this counter as it is shown in the overlay and in exported traces.
+   */
+  @Nonnull
+  public String getDisplayName() {
+    return displayName;
+  }
+}
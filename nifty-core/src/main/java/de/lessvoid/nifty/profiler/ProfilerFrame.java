@@ -0,0 +1,183 @@
+package de.lessvoid.nifty.profiler;
+
+import javax.annotation.Nonnull;
+
+/**
+ * The measurements the {@link NiftyProfiler} took for a single frame. Besides the time spent in each
+ * {@link ProfilerSection} and the value of each {@link ProfilerCounter} a frame stores the individual timed
+ * intervals so the frame can be exported as a trace. The number of stored intervals is limited, intervals that don't
+ * fit anymore are still part of the section times but they are missing in the trace.
+ * <p/>
+ * The instances handed out by the {@link NiftyProfiler} are copies that are not changed anymore.
+ *
+ * @author void
+ */
+public final class ProfilerFrame {
+  @Nonnull
+  private static final ProfilerSection[] SECTIONS = ProfilerSection.values();
+  private static final int SECTION_COUNT = SECTIONS.length;
+  private static final int COUNTER_COUNT = ProfilerCounter.values().length;
+
+  private long frameNumber;
+  private long startNanos;
+  private long durationNanos;
+  @Nonnull
+  private final long[] selfNanos = new long[SECTION_COUNT];
+  @Nonnull
+  private final long[] totalNanos = new long[SECTION_COUNT];
+  @Nonnull
+  private final long[] counters = new long[COUNTER_COUNT];
+
+  @Nonnull
+  private final int[] intervalSections;
+  @Nonnull
+  private final long[] intervalStarts;
+  @Nonnull
+  private final long[] intervalDurations;
+  private int intervalCount;
+  private int droppedIntervals;
+
+  ProfilerFrame(final int maxIntervals) {
+    intervalSections = new int[maxIntervals];
+    intervalStarts = new long[maxIntervals];
+    intervalDurations = new long[maxIntervals];
+  }
+
+  ProfilerFrame(@Nonnull final ProfilerFrame source) {
+    this(source.intervalCount);
+    frameNumber = source.frameNumber;
+    startNanos = source.startNanos;
+    durationNanos = source.durationNanos;
+    System.arraycopy(source.selfNanos, 0, selfNanos, 0, SECTION_COUNT);
+    System.arraycopy(source.totalNanos, 0, totalNanos, 0, SECTION_COUNT);
+    System.arraycopy(source.counters, 0, counters, 0, COUNTER_COUNT);
+    System.arraycopy(source.intervalSections, 0, intervalSections, 0, source.intervalCount);
+    System.arraycopy(source.intervalStarts, 0, intervalStarts, 0, source.intervalCount);
+    System.arraycopy(source.intervalDurations, 0, intervalDurations, 0, source.intervalCount);
+    intervalCount = source.intervalCount;
+    droppedIntervals = source.droppedIntervals;
+  }
+
+  void reset(final long frameNumber, final long startNanos) {
+    this.frameNumber = frameNumber;
+    this.startNanos = startNanos;
+    durationNanos = 0;
+    for (int i = 0; i < SECTION_COUNT; i++) {
+      selfNanos[i] = 0;
+      totalNanos[i] = 0;
+    }
+    for (int i = 0; i < COUNTER_COUNT; i++) {
+      counters[i] = 0;
+    }
+    intervalCount = 0;
+    droppedIntervals = 0;
+  }
+
+  void finish(final long endNanos) {
+    durationNanos = endNanos - startNanos;
+  }
+
+  void addSelfTime(final int section, final long nanos) {
+    selfNanos[section] += nanos;
+  }
+
+  void addInterval(final int section, final long start, final long duration) {
+    totalNanos[section] += duration;
+    if (intervalCount < intervalSections.length) {
+      intervalSections[intervalCount] = section;
+      intervalStarts[intervalCount] = start;
+      intervalDurations[intervalCount] = duration;
+      intervalCount++;
+    } else {
+      droppedIntervals++;
+    }
+  }
+
+  void addCount(final int counter, final long amount) {
+    counters[counter] += amount;
+  }
+
+  /**
+   * The number of this frame. The frames are counted since the profiler was enabled.
+   */
+  public long getFrameNumber() {
+    return frameNumber;
+  }
+
+  /**
+   * The time this frame started at in nanoseconds as reported by {@link System#nanoTime()}.
+   */
+  public long getStartNanos() {
+    return startNanos;
+  }
+
+  /**
+   * The time between the start and the end of this frame in nanoseconds.
+   */
+  public long getDurationNanos() {
+    return durationNanos;
+  }
+
+  /**
+   * The time spent in the section without the time spent in other sections nested in it in nanoseconds.
+   */
+  public long getSelfNanos(@Nonnull final ProfilerSection section) {
+    return selfNanos[section.ordinal()];
+  }
+
+  /**
+   * The time spent in the section including all sections nested in it in nanoseconds.
+   */
+  public long getTotalNanos(@Nonnull final ProfilerSection section) {
+    return totalNanos[section.ordinal()];
+  }
+
+  public long getCount(@Nonnull final ProfilerCounter counter) {
+    return counters[counter.ordinal()];
+  }
+
+  /**
+   * The number of timed intervals stored in this frame.
+   */
+  public int getIntervalCount() {
+    return intervalCount;
+  }
+
+  /**
+   * The number of timed intervals that did not fit into this frame anymore.
+   */
+  public int getDroppedIntervals() {
+    return droppedIntervals;
+  }
+
+  @Nonnull
+  public ProfilerSection getIntervalSection(final int index) {
+    return SECTIONS[intervalSections[index]];
+  }
+
+  /**
+   * The start time of the interval in nanoseconds as reported by {@link System#nanoTime()}.
+   */
+  public long getIntervalStartNanos(final int index) {
+    return intervalStarts[index];
+  }
+
+  public long getIntervalDurationNanos(final int index) {
+    return intervalDurations[index];
+  }
+
+  @Nonnull
+  @Override
+  public String toString() {
+    StringBuilder result = new StringBuilder();
+    result.append("frame ").append(frameNumber).append(": ").append(durationNanos / 1000).append("us");
+    for (ProfilerSection section : ProfilerSection.values()) {
+      result.append(", ").append(section.getDisplayName()).append(' ')
+          .append(selfNanos[section.ordinal()] / 1000).append("us");
+    }
+    for (ProfilerCounter counter : ProfilerCounter.values()) {
+      result.append(", ").append(counter.getDisplayName()).append(' ').append(counters[counter.ordinal()]);
+    }
+    return result.toString();
+  }
+}
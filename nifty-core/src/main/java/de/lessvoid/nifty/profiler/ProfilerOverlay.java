@@ -0,0 +1,94 @@
+package de.lessvoid.nifty.profiler;
+
+import de.lessvoid.nifty.render.NiftyRenderEngine;
+import de.lessvoid.nifty.spi.render.RenderFont;
+import de.lessvoid.nifty.tools.Color;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Renders the measurements of the last frame recorded by the {@link NiftyProfiler} on top of the screen. The text is
+ * only updated a few times per second so it stays readable and so the overlay itself has little impact on the
+ * measurements.
+ *
+ * @author void
+ */
+public class ProfilerOverlay {
+  private static final long REFRESH_INTERVAL_NANOS = 500L * 1000L * 1000L;
+  private static final int MARGIN = 10;
+  private static final int PADDING = 4;
+
+  @Nonnull
+  private static final Color BACKGROUND_COLOR = new Color(0.f, 0.f, 0.f, 0.7f);
+  @Nonnull
+  private static final Color TEXT_COLOR = Color.WHITE;
+  @Nonnull
+  private static final Color NO_SELECTION_COLOR = Color.NONE;
+
+  @Nonnull
+  private final RenderFont font;
+  @Nonnull
+  private final List<String> lines = new ArrayList<String>();
+  private int width;
+  private long lastRefresh;
+  private boolean refreshed;
+
+  public ProfilerOverlay(@Nonnull final RenderFont font) {
+    this.font = font;
+  }
+
+  /**
+   * Render the overlay. This is supposed to be called after everything else of the frame has been rendered.
+   */
+  public void render(@Nonnull final NiftyRenderEngine renderEngine) {
+    long now = System.nanoTime();
+    if (!refreshed || now - lastRefresh >= REFRESH_INTERVAL_NANOS) {
+      refreshed = true;
+      lastRefresh = now;
+      refreshLines();
+    }
+    if (lines.isEmpty()) {
+      return;
+    }
+
+    int lineHeight = font.getHeight();
+    renderEngine.saveStates();
+    renderEngine.setColor(BACKGROUND_COLOR);
+    renderEngine.renderQuad(MARGIN, MARGIN, width + 2 * PADDING, lines.size() * lineHeight + 2 * PADDING);
+    renderEngine.setFont(font);
+    renderEngine.setColor(TEXT_COLOR);
+    for (int i = 0; i < lines.size(); i++) {
+      renderEngine.renderText(
+          lines.get(i), MARGIN + PADDING, MARGIN + PADDING + i * lineHeight, -1, -1, NO_SELECTION_COLOR);
+    }
+    renderEngine.restoreStates();
+  }
+
+  private void refreshLines() {
+    lines.clear();
+    width = 0;
+    ProfilerFrame frame = NiftyProfiler.getLastFrame();
+    if (frame == null) {
+      return;
+    }
+    addLine("frame " + formatMillis(frame.getDurationNanos()));
+    for (ProfilerSection section : ProfilerSection.values()) {
+      addLine(section.getDisplayName() + " " + formatMillis(frame.getSelfNanos(section)));
+    }
+    for (ProfilerCounter counter : ProfilerCounter.values()) {
+      addLine(counter.getDisplayName() + " " + frame.getCount(counter));
+    }
+  }
+
+  private void addLine(@Nonnull final String line) {
+    lines.add(line);
+    width = Math.max(width, font.getWidth(line));
+  }
+
+  @Nonnull
+  private static String formatMillis(final long nanos) {
+    return String.format("%.3f ms", nanos / 1000000.f);
+  }
+}
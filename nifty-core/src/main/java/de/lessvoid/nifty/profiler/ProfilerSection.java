@@ -0,0 +1,56 @@
+package de.lessvoid.nifty.profiler;
+
+import javax.annotation.Nonnull;
+
+/**
+ * The parts of a Nifty frame that are timed by the {@link NiftyProfiler}.
+ *
+ * @author void
+ */
+public enum ProfilerSection {
+  /**
+   * Forwarding the events of the input system to the current screen.
+   */
+  INPUT("input"),
+
+  /**
+   * Laying out element trees.
+   */
+  LAYOUT("layout"),
+
+  /**
+   * Rendering the layers of the current screen. The time spent in nested sections like {@link #EFFECTS} is not
+   * counted as self time of this section.
+   */
+  RENDER("render"),
+
+  /**
+   * Rendering the effects of elements.
+   */
+  EFFECTS("effects"),
+
+  /**
+   * Sending the batched geometry of a frame to the graphics card.
+   */
+  BATCH_FLUSH("batchFlush"),
+
+  /**
+   * Uploading images to the texture atlases.
+   */
+  ATLAS_UPLOAD("atlasUpload");
+
+  @Nonnull
+  private final String displayName;
+
+  ProfilerSection(@Nonnull final String displayName) {
+    this.displayName = displayName;
+  }
+
+  /**
+   * Get the name of this section as it is shown in the overlay and in exported traces.
+   */
+  @Nonnull
+  public String getDisplayName() {
+    return displayName;
+  }
+}
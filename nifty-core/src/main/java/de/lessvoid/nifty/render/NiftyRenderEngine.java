@@ -285,6 +285,29 @@ public interface NiftyRenderEngine {
   @Nonnull
   RenderDevice getRenderDevice();
 
+  /**
+   * Start recording all draw calls that are send to the render device into the given command list. The current clip
+   * and blend mode are remembered as well because the recorded commands can only be replayed in the same state.
+   *
+   * @param commandList the list to record into, all previously recorded commands in this list are discarded
+   */
+  void startRecording(@Nonnull RenderCommandList commandList);
+
+  /**
+   * Stop the recording started with {@link #startRecording(RenderCommandList)}. The command list is valid for
+   * replaying afterwards.
+   */
+  void stopRecording();
+
+  /**
+   * Render all commands of a previously recorded command list again.
+   *
+   * @param commandList the command list to replay
+   * @return true if the commands have been rendered and false if the list is not valid or can't be replayed with
+   *         the current clip and blend mode (the list needs to be recorded again in that case)
+   */
+  boolean replay(@Nonnull RenderCommandList commandList);
+
   /**
    * Dispose image.
    *
@@ -1,8 +1,6 @@
 package de.lessvoid.nifty.render;
 
-import java.util.ArrayDeque;
 import java.util.Collection;
-import java.util.Deque;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.logging.Logger;
@@ -31,7 +29,13 @@ public class NiftyRenderEngineImpl implements NiftyRenderEngine {
    * RenderDevice.
    */
   @Nonnull
-  private final RenderDevice renderDevice;
+  private final RecordingRenderDevice renderDevice;
+
+  /**
+   * The command list currently recorded into or null when no recording is active.
+   */
+  @Nullable
+  private RenderCommandList recordingCommandList;
 
   /**
    * Display width and height. This is always the base resolution (when scaling is enabled).
@@ -111,10 +115,33 @@ public class NiftyRenderEngineImpl implements NiftyRenderEngine {
   private final Map<String, RenderFont> fontCache = new HashMap<String, RenderFont>();
 
   /**
-   * stack to save data.
+   * Bits used to track which parts of the render state have been modified since the last call to saveStates().
+   */
+  private static final int DIRTY_POSITION = 1;
+  private static final int DIRTY_COLOR = 1 << 1;
+  private static final int DIRTY_ALPHA = 1 << 2;
+  private static final int DIRTY_FONT = 1 << 3;
+  private static final int DIRTY_TEXT_SIZE = 1 << 4;
+  private static final int DIRTY_IMAGE_SCALE = 1 << 5;
+  private static final int DIRTY_CLIP = 1 << 6;
+  private static final int DIRTY_BLEND_MODE = 1 << 7;
+
+  /**
+   * stack to save data. The entries are reused between frames so that saving and restoring the render state does not
+   * allocate anything once the stack has grown to the maximum nesting depth of the GUI.
    */
   @Nonnull
-  private final Deque<SavedRenderState> stack = new ArrayDeque<SavedRenderState>(20);
+  private SavedRenderState[] stack = new SavedRenderState[20];
+
+  /**
+   * number of entries currently in use on the stack.
+   */
+  private int stackSize = 0;
+
+  /**
+   * the parts of the render state that have been changed since the last saveStates() call.
+   */
+  private int dirtyStates = 0;
   @Nonnull
   private final Color whiteColor = new Color("#ffff");
 
@@ -135,7 +162,7 @@ public class NiftyRenderEngineImpl implements NiftyRenderEngine {
    * @param renderDeviceParam RenderDevice
    */
   public NiftyRenderEngineImpl(@Nonnull final RenderDevice renderDeviceParam) {
-    renderDevice = new ScalingRenderDevice(this, renderDeviceParam);
+    renderDevice = new RecordingRenderDevice(new ScalingRenderDevice(this, renderDeviceParam));
     displayWidth = renderDevice.getWidth();
     displayHeight = renderDevice.getHeight();
     nativeDisplayWidth = renderDevice.getWidth();
@@ -161,6 +188,7 @@ public class NiftyRenderEngineImpl implements NiftyRenderEngine {
   public void beginFrame() {
     renderDevice.beginFrame();
     colorChanged = false;
+    dirtyStates |= DIRTY_COLOR;
   }
 
   @Override
@@ -402,6 +430,7 @@ public class NiftyRenderEngineImpl implements NiftyRenderEngine {
   @Override
   public void setFont(@Nullable final RenderFont newFont) {
     this.font = newFont;
+    dirtyStates |= DIRTY_FONT;
   }
 
   /**
@@ -423,6 +452,7 @@ public class NiftyRenderEngineImpl implements NiftyRenderEngine {
     color.setAlpha(colorParam.getAlpha());
     colorChanged = true;
     colorAlphaChanged = true;
+    dirtyStates |= DIRTY_COLOR | DIRTY_ALPHA;
   }
 
   /**
@@ -434,6 +464,7 @@ public class NiftyRenderEngineImpl implements NiftyRenderEngine {
   public void setColorAlpha(final float newColorAlpha) {
     color.setAlpha(newColorAlpha);
     colorAlphaChanged = true;
+    dirtyStates |= DIRTY_ALPHA;
   }
 
   /**
@@ -447,10 +478,12 @@ public class NiftyRenderEngineImpl implements NiftyRenderEngine {
     color.setGreen(newColor.getGreen());
     color.setBlue(newColor.getBlue());
     colorChanged = true;
+    dirtyStates |= DIRTY_COLOR;
 
     if (colorAlphaChanged && color.getAlpha() > newColor.getAlpha()) {
       color.setAlpha(newColor.getAlpha());
       colorAlphaChanged = true;
+      dirtyStates |= DIRTY_ALPHA;
     }
   }
 
@@ -473,12 +506,14 @@ public class NiftyRenderEngineImpl implements NiftyRenderEngine {
   public void moveTo(final float xParam, final float yParam) {
     this.currentX = xParam;
     this.currentY = yParam;
+    dirtyStates |= DIRTY_POSITION;
   }
 
   @Override
   public void moveToRelative(final float xParam, final float yParam) {
     currentX = currentX + xParam;
     currentY = currentY + yParam;
+    dirtyStates |= DIRTY_POSITION;
   }
 
   @Override 
@@ -544,6 +579,7 @@ public class NiftyRenderEngineImpl implements NiftyRenderEngine {
   void updateClip(final boolean enabled, final int x0, final int y0, final int x1, final int y1) {
     clipEnabled = enabled;
     clip.init(x0, y0, x1, y1);
+    dirtyStates |= DIRTY_CLIP;
     if (!clipEnabled) {
       renderDevice.disableClip();
     } else {
@@ -554,11 +590,13 @@ public class NiftyRenderEngineImpl implements NiftyRenderEngine {
   @Override
   public void setRenderTextSize(final float size) {
     this.textScale = size;
+    dirtyStates |= DIRTY_TEXT_SIZE;
   }
 
   @Override
   public void setImageScale(final float scale) {
     this.imageScale = scale;
+    dirtyStates |= DIRTY_IMAGE_SCALE;
   }
 
 
@@ -609,20 +647,36 @@ public class NiftyRenderEngineImpl implements NiftyRenderEngine {
 
   @Override
   public void saveStates() {
-    SavedRenderState savedRenderState = new SavedRenderState();
-    savedRenderState.save();
-    stack.push(savedRenderState);
+    if (stackSize == stack.length) {
+      SavedRenderState[] newStack = new SavedRenderState[stack.length * 2];
+      System.arraycopy(stack, 0, newStack, 0, stack.length);
+      stack = newStack;
+    }
+    SavedRenderState savedRenderState = stack[stackSize];
+    if (savedRenderState == null) {
+      savedRenderState = new SavedRenderState();
+      stack[stackSize] = savedRenderState;
+    }
+    stackSize++;
+    savedRenderState.save(dirtyStates);
+    dirtyStates = 0;
   }
 
   @Override
   public void restoreStates() {
-    SavedRenderState restored = stack.pop();
-    restored.restore();
+    if (stackSize == 0) {
+      throw new IllegalStateException("restoreStates() called without matching saveStates()");
+    }
+    stackSize--;
+    SavedRenderState restored = stack[stackSize];
+    restored.restore(dirtyStates);
+    dirtyStates = restored.parentDirtyStates;
   }
 
   @Override
   public void setBlendMode(@Nonnull final BlendMode blendModeParam) {
     blendMode = blendModeParam;
+    dirtyStates |= DIRTY_BLEND_MODE;
     renderDevice.setBlendMode(blendModeParam);
   }
 
@@ -632,6 +686,33 @@ public class NiftyRenderEngineImpl implements NiftyRenderEngine {
     return renderDevice;
   }
 
+  @Override
+  public void startRecording(@Nonnull final RenderCommandList commandList) {
+    // a recording that has not been stopped is simply discarded, the list stays invalid and will be recorded again
+    recordingCommandList = commandList;
+    commandList.beginRecording(clipEnabled, clip.x0, clip.y0, clip.x1, clip.y1, blendMode);
+    renderDevice.startRecording(commandList);
+  }
+
+  @Override
+  public void stopRecording() {
+    if (recordingCommandList == null) {
+      return;
+    }
+    renderDevice.stopRecording();
+    recordingCommandList.endRecording();
+    recordingCommandList = null;
+  }
+
+  @Override
+  public boolean replay(@Nonnull final RenderCommandList commandList) {
+    if (!commandList.isReplayableFrom(clipEnabled, clip.x0, clip.y0, clip.x1, clip.y1, blendMode)) {
+      return false;
+    }
+    renderDevice.replay(commandList);
+    return true;
+  }
+
   @Override
   public void disposeImage(@Nonnull final RenderImage image) {
     imageManager.unregisterImage(image);
@@ -644,6 +725,11 @@ public class NiftyRenderEngineImpl implements NiftyRenderEngine {
   }
 
   private class SavedRenderState {
+    /**
+     * the dirty bits of the enclosing save that were pending when this state was saved.
+     */
+    private int parentDirtyStates;
+
     private float x;
     private float y;
 
@@ -671,7 +757,8 @@ public class NiftyRenderEngineImpl implements NiftyRenderEngine {
     public SavedRenderState() {
     }
 
-    public void save() {
+    public void save(final int dirtyStates) {
+      parentDirtyStates = dirtyStates;
       savePosition();
       saveColor();
       saveColorAlpha();
@@ -682,15 +769,39 @@ public class NiftyRenderEngineImpl implements NiftyRenderEngine {
       saveBlendMode();
     }
 
-    public void restore() {
-      restorePosition();
-      restoreColor();
-      restoreAlpha();
-      restoreFont();
-      restoreTextSize();
-      restoreImageScale();
-      restoreClip();
-      restoreBlend();
+    /**
+     * Restore the saved state. Only the parts that have been changed since the save are restored. Especially the clip
+     * and blend mode are not forwarded to the RenderDevice again when nothing has touched them in between.
+     *
+     * @param dirtyStates the parts of the render state that have been changed since this state has been saved
+     */
+    public void restore(final int dirtyStates) {
+      if ((dirtyStates & DIRTY_POSITION) != 0) {
+        restorePosition();
+      }
+      if ((dirtyStates & DIRTY_COLOR) != 0) {
+        restoreColor();
+      }
+      if ((dirtyStates & DIRTY_ALPHA) != 0) {
+        restoreAlpha();
+      }
+      if ((dirtyStates & DIRTY_FONT) != 0) {
+        restoreFont();
+      }
+      if ((dirtyStates & DIRTY_TEXT_SIZE) != 0) {
+        restoreTextSize();
+      }
+      if ((dirtyStates & DIRTY_IMAGE_SCALE) != 0) {
+        restoreImageScale();
+      }
+      if ((dirtyStates & DIRTY_CLIP) != 0) {
+        restoreClip();
+      }
+      if ((dirtyStates & DIRTY_BLEND_MODE) != 0) {
+        restoreBlend();
+      }
+      // the entry is reused, don't keep the font alive longer than necessary
+      font = null;
     }
 
     private void saveBlendMode() {
@@ -0,0 +1,204 @@
+package de.lessvoid.nifty.render;
+
+import de.lessvoid.nifty.spi.render.MouseCursor;
+import de.lessvoid.nifty.spi.render.RenderDevice;
+import de.lessvoid.nifty.spi.render.RenderFont;
+import de.lessvoid.nifty.spi.render.RenderImage;
+import de.lessvoid.nifty.tools.Color;
+import de.lessvoid.nifty.tools.resourceloader.NiftyResourceLoader;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+
+/**
+ * A RenderDevice that forwards everything to another RenderDevice and additionally records all draw calls into a
+ * RenderCommandList while a recording is active.
+ *
+ * @author void
+ */
+public class RecordingRenderDevice implements RenderDevice {
+  @Nonnull
+  private final RenderDevice internal;
+  @Nullable
+  private RenderCommandList commandList;
+
+  public RecordingRenderDevice(@Nonnull final RenderDevice internal) {
+    this.internal = internal;
+  }
+
+  public void startRecording(@Nonnull final RenderCommandList commandList) {
+    this.commandList = commandList;
+  }
+
+  public void stopRecording() {
+    commandList = null;
+  }
+
+  public boolean isRecording() {
+    return commandList != null;
+  }
+
+  /**
+   * Send the commands of the given list to the RenderDevice this device forwards to.
+   *
+   * @param commands the commands to replay
+   */
+  public void replay(@Nonnull final RenderCommandList commands) {
+    commands.replay(internal);
+  }
+
+  @Override
+  public void setResourceLoader(@Nonnull NiftyResourceLoader niftyResourceLoader) {
+    internal.setResourceLoader(niftyResourceLoader);
+  }
+
+  @Override
+  public RenderImage createImage(@Nonnull String filename, boolean filterLinear) {
+    return internal.createImage(filename, filterLinear);
+  }
+
+  @Override
+  public RenderFont createFont(@Nonnull String filename) {
+    return internal.createFont(filename);
+  }
+
+  @Override
+  public int getWidth() {
+    return internal.getWidth();
+  }
+
+  @Override
+  public int getHeight() {
+    return internal.getHeight();
+  }
+
+  @Override
+  public void beginFrame() {
+    internal.beginFrame();
+  }
+
+  @Override
+  public void endFrame() {
+    internal.endFrame();
+  }
+
+  @Override
+  public void clear() {
+    internal.clear();
+  }
+
+  @Override
+  public void setBlendMode(@Nonnull BlendMode renderMode) {
+    if (commandList != null) {
+      commandList.recordBlendMode(renderMode);
+    }
+    internal.setBlendMode(renderMode);
+  }
+
+  @Override
+  public void renderQuad(int x, int y, int width, int height, @Nonnull Color color) {
+    if (commandList != null) {
+      commandList.recordQuad(x, y, width, height, color);
+    }
+    internal.renderQuad(x, y, width, height, color);
+  }
+
+  @Override
+  public void renderQuad(
+      int x,
+      int y,
+      int width,
+      int height,
+      @Nonnull Color topLeft,
+      @Nonnull Color topRight,
+      @Nonnull Color bottomRight,
+      @Nonnull Color bottomLeft) {
+    if (commandList != null) {
+      commandList.recordQuad(x, y, width, height, topLeft, topRight, bottomRight, bottomLeft);
+    }
+    internal.renderQuad(x, y, width, height, topLeft, topRight, bottomRight, bottomLeft);
+  }
+
+  @Override
+  public void renderImage(
+      @Nonnull RenderImage image,
+      int x,
+      int y,
+      int width,
+      int height,
+      @Nonnull Color color,
+      float imageScale) {
+    if (commandList != null) {
+      commandList.recordImage(image, x, y, width, height, color, imageScale);
+    }
+    internal.renderImage(image, x, y, width, height, color, imageScale);
+  }
+
+  @Override
+  public void renderImage(
+      @Nonnull RenderImage image,
+      int x,
+      int y,
+      int w,
+      int h,
+      int srcX,
+      int srcY,
+      int srcW,
+      int srcH,
+      @Nonnull Color color,
+      float scale,
+      int centerX,
+      int centerY) {
+    if (commandList != null) {
+      commandList.recordImage(image, x, y, w, h, srcX, srcY, srcW, srcH, color, scale, centerX, centerY);
+    }
+    internal.renderImage(image, x, y, w, h, srcX, srcY, srcW, srcH, color, scale, centerX, centerY);
+  }
+
+  @Override
+  public void renderFont(
+      @Nonnull RenderFont font,
+      @Nonnull String text,
+      int x,
+      int y,
+      @Nonnull Color fontColor,
+      float sizeX,
+      float sizeY) {
+    if (commandList != null) {
+      commandList.recordFont(font, text, x, y, fontColor, sizeX, sizeY);
+    }
+    internal.renderFont(font, text, x, y, fontColor, sizeX, sizeY);
+  }
+
+  @Override
+  public void enableClip(int x0, int y0, int x1, int y1) {
+    if (commandList != null) {
+      commandList.recordEnableClip(x0, y0, x1, y1);
+    }
+    internal.enableClip(x0, y0, x1, y1);
+  }
+
+  @Override
+  public void disableClip() {
+    if (commandList != null) {
+      commandList.recordDisableClip();
+    }
+    internal.disableClip();
+  }
+
+  @Override
+  public MouseCursor createMouseCursor(@Nonnull String filename, int hotspotX, int hotspotY) throws IOException {
+    return internal.createMouseCursor(filename, hotspotX, hotspotY);
+  }
+
+  @Override
+  public void enableMouseCursor(@Nonnull MouseCursor mouseCursor) {
+    internal.enableMouseCursor(mouseCursor);
+  }
+
+  @Override
+  public void disableMouseCursor() {
+    internal.disableMouseCursor();
+  }
+}
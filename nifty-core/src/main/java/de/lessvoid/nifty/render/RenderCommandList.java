@@ -0,0 +1,348 @@
+package de.lessvoid.nifty.render;
+
+import de.lessvoid.nifty.spi.render.RenderDevice;
+import de.lessvoid.nifty.spi.render.RenderFont;
+import de.lessvoid.nifty.spi.render.RenderImage;
+import de.lessvoid.nifty.tools.Color;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * A list of draw calls recorded from a RenderDevice that can be sent to a RenderDevice again later. This is used to
+ * render parts of the GUI that did not change since the last frame (retained mode) without walking the element tree
+ * and the effects of the elements again.
+ * <p/>
+ * The commands are stored in flat primitive arrays that are reused when the list is recorded again, so recording
+ * and replaying does not allocate once the arrays have grown to their final size.
+ *
+ * @author void
+ */
+public class RenderCommandList {
+  private static final int CMD_QUAD = 0;
+  private static final int CMD_QUAD_GRADIENT = 1;
+  private static final int CMD_IMAGE = 2;
+  private static final int CMD_IMAGE_SUB = 3;
+  private static final int CMD_FONT = 4;
+  private static final int CMD_ENABLE_CLIP = 5;
+  private static final int CMD_DISABLE_CLIP = 6;
+  private static final int CMD_BLEND_MODE = 7;
+
+  @Nonnull
+  private int[] ints = new int[256];
+  private int intCount;
+  @Nonnull
+  private float[] floats = new float[256];
+  private int floatCount;
+  @Nonnull
+  private Object[] objects = new Object[32];
+  private int objectCount;
+  private int commandCount;
+
+  /**
+   * The render state of the RenderEngine when the recording was started. The commands can only be replayed when the
+   * RenderEngine is in the same state again.
+   */
+  private boolean startClipEnabled;
+  private int startClipX0;
+  private int startClipY0;
+  private int startClipX1;
+  private int startClipY1;
+  @Nullable
+  private BlendMode startBlendMode;
+
+  private boolean valid;
+
+  @Nonnull
+  private final Color color1 = new Color(0.f, 0.f, 0.f, 0.f);
+  @Nonnull
+  private final Color color2 = new Color(0.f, 0.f, 0.f, 0.f);
+  @Nonnull
+  private final Color color3 = new Color(0.f, 0.f, 0.f, 0.f);
+  @Nonnull
+  private final Color color4 = new Color(0.f, 0.f, 0.f, 0.f);
+
+  /**
+   * Check if this list contains a complete recording that can be replayed.
+   *
+   * @return true when the list can be replayed and false if it needs to be recorded again
+   */
+  public boolean isValid() {
+    return valid;
+  }
+
+  /**
+   * Mark the recorded commands as outdated. The list will be recorded again the next time it is rendered.
+   */
+  public void invalidate() {
+    valid = false;
+  }
+
+  /**
+   * Get the number of recorded draw calls.
+   *
+   * @return number of commands
+   */
+  public int getCommandCount() {
+    return commandCount;
+  }
+
+  void beginRecording(
+      final boolean clipEnabled,
+      final int clipX0,
+      final int clipY0,
+      final int clipX1,
+      final int clipY1,
+      @Nonnull final BlendMode blendMode) {
+    // release the references of the last recording so that disposed images and fonts can be collected
+    for (int i = 0; i < objectCount; i++) {
+      objects[i] = null;
+    }
+    intCount = 0;
+    floatCount = 0;
+    objectCount = 0;
+    commandCount = 0;
+    valid = false;
+    startClipEnabled = clipEnabled;
+    startClipX0 = clipX0;
+    startClipY0 = clipY0;
+    startClipX1 = clipX1;
+    startClipY1 = clipY1;
+    startBlendMode = blendMode;
+  }
+
+  void endRecording() {
+    valid = true;
+  }
+
+  boolean isReplayableFrom(
+      final boolean clipEnabled,
+      final int clipX0,
+      final int clipY0,
+      final int clipX1,
+      final int clipY1,
+      @Nonnull final BlendMode blendMode) {
+    if (!valid || startBlendMode != blendMode || startClipEnabled != clipEnabled) {
+      return false;
+    }
+    return !clipEnabled ||
+        (startClipX0 == clipX0 && startClipY0 == clipY0 && startClipX1 == clipX1 && startClipY1 == clipY1);
+  }
+
+  void recordQuad(final int x, final int y, final int width, final int height, @Nonnull final Color color) {
+    ensureCapacity(5, 4, 0);
+    addInt(CMD_QUAD);
+    addRect(x, y, width, height);
+    addColor(color);
+    commandCount++;
+  }
+
+  void recordQuad(
+      final int x,
+      final int y,
+      final int width,
+      final int height,
+      @Nonnull final Color topLeft,
+      @Nonnull final Color topRight,
+      @Nonnull final Color bottomRight,
+      @Nonnull final Color bottomLeft) {
+    ensureCapacity(5, 16, 0);
+    addInt(CMD_QUAD_GRADIENT);
+    addRect(x, y, width, height);
+    addColor(topLeft);
+    addColor(topRight);
+    addColor(bottomRight);
+    addColor(bottomLeft);
+    commandCount++;
+  }
+
+  void recordImage(
+      @Nonnull final RenderImage image,
+      final int x,
+      final int y,
+      final int width,
+      final int height,
+      @Nonnull final Color color,
+      final float imageScale) {
+    ensureCapacity(5, 5, 1);
+    addInt(CMD_IMAGE);
+    addRect(x, y, width, height);
+    addColor(color);
+    floats[floatCount++] = imageScale;
+    objects[objectCount++] = image;
+    commandCount++;
+  }
+
+  void recordImage(
+      @Nonnull final RenderImage image,
+      final int x,
+      final int y,
+      final int w,
+      final int h,
+      final int srcX,
+      final int srcY,
+      final int srcW,
+      final int srcH,
+      @Nonnull final Color color,
+      final float scale,
+      final int centerX,
+      final int centerY) {
+    ensureCapacity(11, 5, 1);
+    addInt(CMD_IMAGE_SUB);
+    addRect(x, y, w, h);
+    addRect(srcX, srcY, srcW, srcH);
+    addInt(centerX);
+    addInt(centerY);
+    addColor(color);
+    floats[floatCount++] = scale;
+    objects[objectCount++] = image;
+    commandCount++;
+  }
+
+  void recordFont(
+      @Nonnull final RenderFont font,
+      @Nonnull final String text,
+      final int x,
+      final int y,
+      @Nonnull final Color fontColor,
+      final float sizeX,
+      final float sizeY) {
+    ensureCapacity(3, 6, 2);
+    addInt(CMD_FONT);
+    addInt(x);
+    addInt(y);
+    addColor(fontColor);
+    floats[floatCount++] = sizeX;
+    floats[floatCount++] = sizeY;
+    objects[objectCount++] = font;
+    objects[objectCount++] = text;
+    commandCount++;
+  }
+
+  void recordEnableClip(final int x0, final int y0, final int x1, final int y1) {
+    ensureCapacity(5, 0, 0);
+    addInt(CMD_ENABLE_CLIP);
+    addRect(x0, y0, x1, y1);
+    commandCount++;
+  }
+
+  void recordDisableClip() {
+    ensureCapacity(1, 0, 0);
+    addInt(CMD_DISABLE_CLIP);
+    commandCount++;
+  }
+
+  void recordBlendMode(@Nonnull final BlendMode blendMode) {
+    ensureCapacity(1, 0, 1);
+    addInt(CMD_BLEND_MODE);
+    objects[objectCount++] = blendMode;
+    commandCount++;
+  }
+
+  /**
+   * Send all recorded commands to the given RenderDevice.
+   *
+   * @param renderDevice the RenderDevice to render to
+   */
+  void replay(@Nonnull final RenderDevice renderDevice) {
+    int i = 0;
+    int f = 0;
+    int o = 0;
+    while (i < intCount) {
+      switch (ints[i++]) {
+        case CMD_QUAD:
+          f = readColor(f, color1);
+          renderDevice.renderQuad(ints[i], ints[i + 1], ints[i + 2], ints[i + 3], color1);
+          i += 4;
+          break;
+        case CMD_QUAD_GRADIENT:
+          f = readColor(f, color1);
+          f = readColor(f, color2);
+          f = readColor(f, color3);
+          f = readColor(f, color4);
+          renderDevice.renderQuad(ints[i], ints[i + 1], ints[i + 2], ints[i + 3], color1, color2, color3, color4);
+          i += 4;
+          break;
+        case CMD_IMAGE:
+          f = readColor(f, color1);
+          renderDevice.renderImage(
+              (RenderImage) objects[o++], ints[i], ints[i + 1], ints[i + 2], ints[i + 3], color1, floats[f++]);
+          i += 4;
+          break;
+        case CMD_IMAGE_SUB:
+          f = readColor(f, color1);
+          renderDevice.renderImage(
+              (RenderImage) objects[o++],
+              ints[i], ints[i + 1], ints[i + 2], ints[i + 3],
+              ints[i + 4], ints[i + 5], ints[i + 6], ints[i + 7],
+              color1, floats[f++], ints[i + 8], ints[i + 9]);
+          i += 10;
+          break;
+        case CMD_FONT:
+          f = readColor(f, color1);
+          renderDevice.renderFont(
+              (RenderFont) objects[o], (String) objects[o + 1], ints[i], ints[i + 1], color1, floats[f], floats[f + 1]);
+          o += 2;
+          f += 2;
+          i += 2;
+          break;
+        case CMD_ENABLE_CLIP:
+          renderDevice.enableClip(ints[i], ints[i + 1], ints[i + 2], ints[i + 3]);
+          i += 4;
+          break;
+        case CMD_DISABLE_CLIP:
+          renderDevice.disableClip();
+          break;
+        case CMD_BLEND_MODE:
+          renderDevice.setBlendMode((BlendMode) objects[o++]);
+          break;
+        default:
+          throw new IllegalStateException("Unknown render command in command list");
+      }
+    }
+  }
+
+  private int readColor(final int f, @Nonnull final Color color) {
+    color.setRed(floats[f]);
+    color.setGreen(floats[f + 1]);
+    color.setBlue(floats[f + 2]);
+    color.setAlpha(floats[f + 3]);
+    return f + 4;
+  }
+
+  private void addInt(final int value) {
+    ints[intCount++] = value;
+  }
+
+  private void addRect(final int a, final int b, final int c, final int d) {
+    ints[intCount++] = a;
+    ints[intCount++] = b;
+    ints[intCount++] = c;
+    ints[intCount++] = d;
+  }
+
+  private void addColor(@Nonnull final Color color) {
+    floats[floatCount++] = color.getRed();
+    floats[floatCount++] = color.getGreen();
+    floats[floatCount++] = color.getBlue();
+    floats[floatCount++] = color.getAlpha();
+  }
+
+  private void ensureCapacity(final int intsNeeded, final int floatsNeeded, final int objectsNeeded) {
+    if (intCount + intsNeeded > ints.length) {
+      int[] newInts = new int[Math.max(ints.length * 2, intCount + intsNeeded)];
+      System.arraycopy(ints, 0, newInts, 0, intCount);
+      ints = newInts;
+    }
+    if (floatCount + floatsNeeded > floats.length) {
+      float[] newFloats = new float[Math.max(floats.length * 2, floatCount + floatsNeeded)];
+      System.arraycopy(floats, 0, newFloats, 0, floatCount);
+      floats = newFloats;
+    }
+    if (objectCount + objectsNeeded > objects.length) {
+      Object[] newObjects = new Object[Math.max(objects.length * 2, objectCount + objectsNeeded)];
+      System.arraycopy(objects, 0, newObjects, 0, objectCount);
+      objects = newObjects;
+    }
+  }
+}
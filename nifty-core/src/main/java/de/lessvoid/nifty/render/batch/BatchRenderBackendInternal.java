@@ -130,7 +130,7 @@ public class BatchRenderBackendInternal implements BatchRenderBackend {
   @Override
   public void endFrame() {
     log.fine("endFrame()");
-    CheckGL.checkGLError(gl);
+    CheckGL.checkGLErrorOfFrame(gl);
   }
 
   @Override
@@ -327,6 +327,14 @@ public class BatchRenderBackendInternal implements BatchRenderBackend {
     shouldFillRemovedImagesInAtlas = shouldFill;
   }
 
+  @Override
+  public void useTextureArrayAtlas(final int maxLayers) {
+    log.fine("useTextureArrayAtlas()");
+    if (maxLayers > 0) {
+      log.info("Array textures are not supported in this implementation, using regular textures for the atlases.");
+    }
+  }
+
   // Internal implementations
 
   private void initializeOpenGL() {
@@ -433,7 +441,7 @@ public class BatchRenderBackendInternal implements BatchRenderBackend {
             gl.GL_RGBA(),
             gl.GL_UNSIGNED_BYTE(),
             imageData);
-    CheckGL.checkGLError(gl);
+    CheckGL.checkGLCall(gl, "glTexImage2D");
   }
 
   private void updateCurrentlyBoundGlTexture(
@@ -456,7 +464,7 @@ public class BatchRenderBackendInternal implements BatchRenderBackend {
             gl.GL_RGBA(),
             gl.GL_UNSIGNED_BYTE(),
             imageData);
-    CheckGL.checkGLError(gl);
+    CheckGL.checkGLCall(gl, "glTexSubImage2D");
   }
 
   private void setCurrentlyBoundGlTextureFilteringQuality(final boolean isHighQuality) {
@@ -467,7 +475,7 @@ public class BatchRenderBackendInternal implements BatchRenderBackend {
       gl.glTexParameterf(gl.GL_TEXTURE_2D(), gl.GL_TEXTURE_MIN_FILTER(), gl.GL_NEAREST());
       gl.glTexParameterf(gl.GL_TEXTURE_2D(), gl.GL_TEXTURE_MAG_FILTER(), gl.GL_NEAREST());
     }
-    CheckGL.checkGLError(gl);
+    CheckGL.checkGLCall(gl, "glTexParameterf");
   }
 
   private void saveAtlasSize(final int atlasTextureId, final int atlasWidth, final int atlasHeight) {
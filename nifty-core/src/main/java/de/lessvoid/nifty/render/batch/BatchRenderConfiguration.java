@@ -1,5 +1,9 @@
 package de.lessvoid.nifty.render.batch;
 
+import de.lessvoid.nifty.tools.Factory;
+
+import javax.annotation.Nonnull;
+
 /**
  * @author Aaron Mahan &lt;aaron@forerunnergames.com&gt;
  */
@@ -14,6 +18,15 @@ public class BatchRenderConfiguration {
   public static final boolean DEFAULT_DISPOSE_IMAGES_BETWEEN_SCREENS = true;
   public static final boolean DEFAULT_USE_HIGH_QUALITY_TEXTURES = false;
   public static final boolean DEFAULT_FILL_REMOVED_IMAGES_IN_ATLAS = false;
+  public static final int DEFAULT_GLYPH_RUN_CACHE_SIZE = 0;
+  public static final int DEFAULT_IMAGE_DECODE_THREADS = 0;
+  public static final int DEFAULT_MAX_IMAGE_UPLOADS_PER_FRAME = 0;
+  public static final int DEFAULT_TEXTURE_ARRAY_ATLAS_LAYERS = 0;
+  @Nonnull
+  public static final Factory<TextureAtlasPackingStrategy> DEFAULT_ATLAS_PACKING_STRATEGY =
+      BinaryTreePackingStrategy.FACTORY;
+  public static final int DEFAULT_MAX_ATLAS_RELOCATIONS_PER_FRAME = 0;
+  public static final float DEFAULT_ATLAS_DEFRAGMENTATION_THRESHOLD = 0.5f;
 
   /**
    * The width that any and all texture atlases will be created at. The size of any given atlas is constant; that is,
@@ -78,4 +91,65 @@ public class BatchRenderConfiguration {
    * of old images visible in currently unused atlas space.
    */
   public boolean fillRemovedImagesInAtlas = DEFAULT_FILL_REMOVED_IMAGES_IN_ATLAS;
+
+  /**
+   * The number of rendered texts whose glyph quads are kept so that rendering the same text again (with the same font
+   * and size) only needs to translate the quads instead of laying out the text again. The least recently used texts
+   * are dropped first. The cache is disabled by default (0): it only pays off when the same texts are rendered frame
+   * after frame, for texts that change often each miss only adds the cost of recording the quads. Once the cache is
+   * full the dropped entries are reused, so a miss doesn't allocate new entries.
+   */
+  public int glyphRunCacheSize = DEFAULT_GLYPH_RUN_CACHE_SIZE;
+
+  /**
+   * The number of background threads used to decode image files. With the default of 0 the images are decoded right
+   * away when they are created. With more threads creating an image returns immediately and nothing is rendered for
+   * the image until it has been decoded, which keeps screen transitions with lots of images from blocking the render
+   * thread. The size of these images is read from the image header, so the layout doesn't wait for the decoding.
+   * Images ImageIO can't read the header of, like TGA files, and font bitmaps are still decoded right away. Only use
+   * this when {@link de.lessvoid.nifty.render.batch.spi.BatchRenderBackend#loadImage(String)} of your backend can be
+   * called from another thread; the backends in nifty-core don't make any OpenGL calls there.
+   */
+  public int imageDecodeThreads = DEFAULT_IMAGE_DECODE_THREADS;
+
+  /**
+   * The maximum number of images that are uploaded into the texture atlases while rendering a single frame. Images
+   * that don't fit into the budget of a frame are not rendered and uploaded in one of the next frames instead. Set to
+   * 0 (the default) for no limit.
+   */
+  public int maxImageUploadsPerFrame = DEFAULT_MAX_IMAGE_UPLOADS_PER_FRAME;
+
+  /**
+   * The number of texture atlases that are stored as layers of a single array texture. Switching between atlases
+   * stored in the array texture doesn't start a new batch, so all images in these atlases can be rendered with a
+   * single draw call. Atlases beyond this number are created as regular textures. OpenGL 3.2 guarantees support for at
+   * least 256 layers, but keep in mind that the memory for all layers is allocated when the first atlas is created.
+   * Only supported by {@link de.lessvoid.nifty.render.batch.spi.BatchRenderBackend} implementations that render with
+   * the OpenGL core profile. Set to 0 (the default) to use regular textures for all atlases.
+   */
+  public int textureArrayAtlasLayers = DEFAULT_TEXTURE_ARRAY_ATLAS_LAYERS;
+
+  /**
+   * Creates the strategy that decides where the images are placed in a texture atlas. Each atlas gets its own strategy
+   * instance. The default is {@link BinaryTreePackingStrategy#FACTORY}, the simple packing that splits the free space
+   * into two parts for each image. Use {@link MaxRectsPackingStrategy#FACTORY} for the best use of the atlas space or
+   * {@link SkylinePackingStrategy#FACTORY} for the fastest packing. Both join the space of removed images with the
+   * surrounding free space again, which the binary tree doesn't do, so choose one of them when you enable
+   * {@link #maxAtlasRelocationsPerFrame}.
+   */
+  @Nonnull
+  public Factory<TextureAtlasPackingStrategy> atlasPackingStrategy = DEFAULT_ATLAS_PACKING_STRATEGY;
+
+  /**
+   * The maximum number of images that are moved to other places in their texture atlas each frame to join the free
+   * space of the atlas again. This makes room for bigger images when images are removed from and added to the atlases
+   * over a long time, without starting over with an empty atlas. Set to 0 (the default) to never move images.
+   */
+  public int maxAtlasRelocationsPerFrame = DEFAULT_MAX_ATLAS_RELOCATIONS_PER_FRAME;
+
+  /**
+   * The fragmentation (see {@link TextureAtlasGenerator#getFragmentation()}) above which the images of an atlas are
+   * moved, if {@link #maxAtlasRelocationsPerFrame} allows it.
+   */
+  public float atlasDefragmentationThreshold = DEFAULT_ATLAS_DEFRAGMENTATION_THRESHOLD;
 }
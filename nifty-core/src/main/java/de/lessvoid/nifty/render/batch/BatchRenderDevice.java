@@ -1,5 +1,9 @@
 package de.lessvoid.nifty.render.batch;
 
+import de.lessvoid.nifty.profiler.NiftyProfiler;
+import de.lessvoid.nifty.profiler.ProfilerCounter;
+import de.lessvoid.nifty.profiler.ProfilerSection;
+import de.lessvoid.nifty.render.batch.TextureAtlasGenerator.Relocation;
 import de.lessvoid.nifty.render.batch.spi.BatchRenderBackend;
 import de.lessvoid.nifty.render.BlendMode;
 import de.lessvoid.nifty.spi.render.MouseCursor;
@@ -16,16 +20,27 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 import java.util.logging.Logger;
 
 import javax.annotation.Nullable;
 import javax.annotation.Nonnull;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
 
 import org.jglfont.JGLFontFactory;
 import org.jglfont.spi.JGLFontRenderer;
@@ -101,6 +116,9 @@ public class BatchRenderDevice implements RenderDevice {
   private Rect clippedQuadTexture = new Rect(0, 0, 0, 0);
   @Nonnull
   private final Map<Integer, TextureAtlasGenerator> textureAtlasGenerators = new HashMap<Integer, TextureAtlasGenerator>();
+  // the images uploaded to each atlas by their name, used to update the images moved when defragmenting the atlas
+  @Nonnull
+  private final Map<Integer, Map<String, BatchRenderImage>> atlasImages = new HashMap<Integer, Map<String, BatchRenderImage>>();
   @Nonnull
   private final Map<String, BatchRenderImage> imageCache = new HashMap<String, BatchRenderImage>();
   @Nullable
@@ -118,6 +136,24 @@ public class BatchRenderDevice implements RenderDevice {
   private List<Integer> atlasTextureIds = new ArrayList<Integer>();
   @Nonnull
   private ListIterator<Integer> atlasTextureIdIterator = atlasTextureIds.listIterator();
+  @Nonnull
+  private final Map<GlyphRunKey, GlyphRun> glyphRunCache;
+  @Nonnull
+  private final GlyphRunKey glyphRunLookupKey = new GlyphRunKey();
+  @Nonnull
+  private final Color glyphRunColor = new Color(0.f, 0.f, 0.f, 0.f);
+  // the glyph run that is currently recorded while jglfont renders a text, null if nothing is recorded
+  @Nullable
+  private GlyphRun recordingGlyphRun = null;
+  // the last entry dropped from the full glyph run cache, reused for the next text that is not cached yet
+  @Nullable
+  private GlyphRunKey recycledGlyphRunKey = null;
+  @Nullable
+  private GlyphRun recycledGlyphRun = null;
+  // the threads that decode images in the background, created when the first image is decoded this way
+  @Nullable
+  private ExecutorService imageDecoder = null;
+  private int imageUploadsThisFrame = 0;
 
   /**
    * This is a convenience constructor that creates a BatchRenderDevice using the default values specified in
@@ -136,8 +172,20 @@ public class BatchRenderDevice implements RenderDevice {
     this.renderBackend = renderBackend;
     renderBackend.useHighQualityTextures(renderConfig.useHighQualityTextures);
     renderBackend.fillRemovedImagesInAtlas(renderConfig.fillRemovedImagesInAtlas);
+    renderBackend.useTextureArrayAtlas(renderConfig.textureArrayAtlasLayers);
     this.renderConfig = renderConfig;
     time = timeProvider.getMsTime();
+    glyphRunCache = new LinkedHashMap<GlyphRunKey, GlyphRun>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(final Map.Entry<GlyphRunKey, GlyphRun> eldest) {
+        if (size() > BatchRenderDevice.this.renderConfig.glyphRunCacheSize) {
+          recycledGlyphRunKey = eldest.getKey();
+          recycledGlyphRun = eldest.getValue();
+          return true;
+        }
+        return false;
+      }
+    };
     fontRenderer = new FontRenderer(this);
     factory = new JGLFontFactory(fontRenderer, new ResourceLoader() {
       @Override
@@ -218,6 +266,10 @@ public class BatchRenderDevice implements RenderDevice {
     shouldStartNewBatch = true;
     quadCount = 0;
     glyphCount = 0;
+    imageUploadsThisFrame = 0;
+    NiftyProfiler.begin(ProfilerSection.ATLAS_UPLOAD);
+    defragmentTextureAtlases();
+    NiftyProfiler.end(ProfilerSection.ATLAS_UPLOAD);
   }
 
   @Override
@@ -229,8 +281,12 @@ public class BatchRenderDevice implements RenderDevice {
       renderFont(fpsFont, buffer.toString(), 10, getHeight() - fpsFont.getHeight() - 10, fontColor, 1.0f, 1.0f);
     }
 
+    NiftyProfiler.begin(ProfilerSection.BATCH_FLUSH);
     int batches = renderBackend.render();
     renderBackend.endFrame();
+    NiftyProfiler.end(ProfilerSection.BATCH_FLUSH);
+    NiftyProfiler.count(ProfilerCounter.QUADS, quadCount);
+    NiftyProfiler.count(ProfilerCounter.BATCHES, batches);
 
     frames++;
     long diff = timeProvider.getMsTime() - time;
@@ -279,23 +335,105 @@ public class BatchRenderDevice implements RenderDevice {
   @Nullable
   @Override
   public RenderImage createImage(@Nonnull final String filename, final boolean filterLinear) {
+    return createBatchRenderImage(filename, renderConfig.imageDecodeThreads > 0);
+  }
+
+  @Nonnull
+  private BatchRenderImage createBatchRenderImage(@Nonnull final String filename, final boolean decodeInBackground) {
     if(!renderConfig.disposeImagesBetweenScreens && imageCache.containsKey(filename)) {
       return imageCache.get(filename);
     }
     log.finest("createImage()");
-    BatchRenderImage batchRenderImage = new BatchRenderImage(
-            renderBackend.loadImage(filename),
-            filename,
-            renderBackend,
-            getCurrentTextureAtlasGenerator(),
-            getCurrentAtlasTextureId(),
-            renderConfig.disposeImagesBetweenScreens);
+    BatchRenderImage batchRenderImage;
+    // the size of the image must be known without decoding it, otherwise the layout would need to wait for the
+    // decoding anyway. images with a format ImageIO can't read the size of are decoded right away.
+    int[] size = decodeInBackground ? readImageSize(filename) : null;
+    if (size != null) {
+      batchRenderImage = new BatchRenderImage(
+              decodeImageInBackground(filename),
+              size[0],
+              size[1],
+              filename,
+              renderBackend,
+              getCurrentTextureAtlasGenerator(),
+              getCurrentAtlasTextureId(),
+              renderConfig.disposeImagesBetweenScreens);
+    } else {
+      batchRenderImage = new BatchRenderImage(
+              renderBackend.loadImage(filename),
+              filename,
+              renderBackend,
+              getCurrentTextureAtlasGenerator(),
+              getCurrentAtlasTextureId(),
+              renderConfig.disposeImagesBetweenScreens);
+    }
     if (!renderConfig.disposeImagesBetweenScreens) {
       imageCache.put(filename, batchRenderImage);
     }
     return batchRenderImage;
   }
 
+  // Reads the width and height of the image from the image header. Returns null if the size could not be read.
+  @Nullable
+  private int[] readImageSize(@Nonnull final String filename) {
+    if (resourceLoader == null) {
+      return null;
+    }
+    InputStream stream = resourceLoader.getResourceAsStream(filename);
+    if (stream == null) {
+      return null;
+    }
+    try {
+      ImageInputStream imageStream = ImageIO.createImageInputStream(stream);
+      if (imageStream == null) {
+        return null;
+      }
+      try {
+        Iterator<ImageReader> readers = ImageIO.getImageReaders(imageStream);
+        if (!readers.hasNext()) {
+          return null;
+        }
+        ImageReader reader = readers.next();
+        try {
+          reader.setInput(imageStream, true, true);
+          return new int[] {reader.getWidth(0), reader.getHeight(0)};
+        } finally {
+          reader.dispose();
+        }
+      } finally {
+        imageStream.close();
+      }
+    } catch (IOException e) {
+      log.fine("Could not read the size of image [" + filename + "], decoding it right away: " + e.getMessage());
+      return null;
+    } finally {
+      try {
+        stream.close();
+      } catch (IOException ignored) {
+      }
+    }
+  }
+
+  @Nonnull
+  private Future<BatchRenderBackend.Image> decodeImageInBackground(@Nonnull final String filename) {
+    if (imageDecoder == null) {
+      imageDecoder = Executors.newFixedThreadPool(renderConfig.imageDecodeThreads, new ThreadFactory() {
+        @Override
+        public Thread newThread(@Nonnull final Runnable runnable) {
+          Thread thread = new Thread(runnable, "nifty-image-decoder");
+          thread.setDaemon(true);
+          return thread;
+        }
+      });
+    }
+    return imageDecoder.submit(new Callable<BatchRenderBackend.Image>() {
+      @Override
+      public BatchRenderBackend.Image call() {
+        return renderBackend.loadImage(filename);
+      }
+    });
+  }
+
   @Nonnull
   @Override
   public RenderFont createFont(@Nonnull final String filename) {
@@ -387,7 +525,9 @@ public class BatchRenderDevice implements RenderDevice {
       return;
     }
     BatchRenderImage img = (BatchRenderImage) image;
-    uploadImageInternal(img);
+    if (!uploadImageForRendering(img)) {
+      return;
+    }
     float centerX = x + width / 2.f;
     float centerY = y + height / 2.f;
     int ix = Math.round(centerX - (width * scale) / 2.f);
@@ -426,7 +566,9 @@ public class BatchRenderDevice implements RenderDevice {
     int iw = Math.round(w * scale);
     int ih = Math.round(h * scale);
     BatchRenderImage img = (BatchRenderImage) image;
-    uploadImageInternal(img);
+    if (!uploadImageForRendering(img)) {
+      return;
+    }
     addQuad(ix, iy, iw, ih, c, c, c, c, img.getX() + srcX, img.getY() + srcY, srcW, srcH, img.getTextureId());
   }
 
@@ -441,6 +583,46 @@ public class BatchRenderDevice implements RenderDevice {
       final float sizeY) {
     log.finest("renderFont()");
     BatchRenderFont renderFont = (BatchRenderFont) font;
+    if (renderConfig.glyphRunCacheSize <= 0) {
+      renderText(renderFont, text, x, y, color, sizeX, sizeY);
+      return;
+    }
+
+    glyphRunLookupKey.set(renderFont, text, sizeX, sizeY);
+    GlyphRun glyphRun = glyphRunCache.get(glyphRunLookupKey);
+    if (glyphRun != null) {
+      fontRenderer.uploadBitmaps();
+      renderGlyphRun(glyphRun, x, y, color);
+      return;
+    }
+
+    GlyphRunKey key;
+    if (recycledGlyphRun != null && recycledGlyphRunKey != null) {
+      key = recycledGlyphRunKey;
+      glyphRun = recycledGlyphRun.reset(x, y);
+      recycledGlyphRunKey = null;
+      recycledGlyphRun = null;
+    } else {
+      key = new GlyphRunKey();
+      glyphRun = new GlyphRun(x, y);
+    }
+    recordingGlyphRun = glyphRun;
+    try {
+      renderText(renderFont, text, x, y, color, sizeX, sizeY);
+    } finally {
+      recordingGlyphRun = null;
+    }
+    glyphRunCache.put(key.set(renderFont, text, sizeX, sizeY), glyphRun);
+  }
+
+  private void renderText(
+      @Nonnull final BatchRenderFont renderFont,
+      @Nonnull final String text,
+      final int x,
+      final int y,
+      @Nonnull final Color color,
+      final float sizeX,
+      final float sizeY) {
     renderFont.getBitmapFont().renderText(
         x,
         y,
@@ -453,6 +635,45 @@ public class BatchRenderDevice implements RenderDevice {
         color.getAlpha());
   }
 
+  /**
+   * Render a text again from the quads recorded when it was rendered before. Only the position and the color (for all
+   * the glyphs not colored by color codes inside the text) can change in between.
+   */
+  private void renderGlyphRun(@Nonnull final GlyphRun glyphRun, final int x, final int y, @Nonnull final Color color) {
+    final int dx = x - glyphRun.originX;
+    final int dy = y - glyphRun.originY;
+    for (int i = 0; i < glyphRun.count; i++) {
+      if (glyphRun.inlineColor[i]) {
+        glyphRunColor.setRed(glyphRun.colors[i * 3]);
+        glyphRunColor.setGreen(glyphRun.colors[i * 3 + 1]);
+        glyphRunColor.setBlue(glyphRun.colors[i * 3 + 2]);
+      } else {
+        glyphRunColor.setRed(color.getRed());
+        glyphRunColor.setGreen(color.getGreen());
+        glyphRunColor.setBlue(color.getBlue());
+      }
+      glyphRunColor.setAlpha(color.getAlpha());
+
+      final int quad = i * 4;
+      final int texture = i * 5;
+      glyphCount++;
+      addQuad(
+          glyphRun.quads[quad] + dx,
+          glyphRun.quads[quad + 1] + dy,
+          glyphRun.quads[quad + 2],
+          glyphRun.quads[quad + 3],
+          glyphRunColor,
+          glyphRunColor,
+          glyphRunColor,
+          glyphRunColor,
+          glyphRun.textures[texture],
+          glyphRun.textures[texture + 1],
+          glyphRun.textures[texture + 2],
+          glyphRun.textures[texture + 3],
+          glyphRun.textures[texture + 4]);
+    }
+  }
+
   @Override
   public void enableClip(final int x0, final int y0, final int x1, final int y1) {
     log.finest("enableClip()");
@@ -509,6 +730,7 @@ public class BatchRenderDevice implements RenderDevice {
     }
     resetTextureAtlasGenerators();
     clearTextureAtlases();
+    atlasImages.clear();
     fontRenderer.unload();
   }
 
@@ -531,7 +753,8 @@ public class BatchRenderDevice implements RenderDevice {
 
   private void createTextureAtlasGenerator(final int atlasTextureId) {
     textureAtlasGenerators.put(atlasTextureId, new TextureAtlasGenerator(renderConfig.atlasWidth,
-            renderConfig.atlasHeight, renderConfig.atlasPadding, renderConfig.atlasTolerance));
+            renderConfig.atlasHeight, renderConfig.atlasPadding, renderConfig.atlasTolerance,
+            renderConfig.atlasPackingStrategy.createNew()));
   }
 
   private void resetCurrentTextureAtlas() {
@@ -562,7 +785,7 @@ public class BatchRenderDevice implements RenderDevice {
   @Nonnull
   private BatchRenderImage getPlainImage() {
     if (thePlainImage == null) {
-      thePlainImage = (BatchRenderImage) createImage("de/lessvoid/nifty/render/batch/nifty.png", true);
+      thePlainImage = createBatchRenderImage("de/lessvoid/nifty/render/batch/nifty.png", false);
       if (thePlainImage == null) {
         throw new RuntimeException("The batch renderer requires the plain image in the resources, but its not there.");
       }
@@ -571,10 +794,29 @@ public class BatchRenderDevice implements RenderDevice {
     return thePlainImage;
   }
 
-  private void uploadImageInternal(final BatchRenderImage image) {
+  // Makes sure that the image is uploaded before it's rendered. Returns false when the image can't be rendered in this
+  // frame because it's still being decoded in the background or because the upload budget of the frame is used up.
+  private boolean uploadImageForRendering(@Nonnull final BatchRenderImage image) {
     if (image.isUploaded()) {
+      return true;
+    }
+    if (!image.isImageAvailable()) {
+      return false;
+    }
+    if (renderConfig.maxImageUploadsPerFrame > 0 && imageUploadsThisFrame >= renderConfig.maxImageUploadsPerFrame) {
+      return false;
+    }
+    imageUploadsThisFrame++;
+    uploadImageInternal(image);
+    return true;
+  }
+
+  private void uploadImageInternal(final BatchRenderImage image) {
+    // an image that is still being decoded can't be uploaded yet. this must not be mistaken for a full atlas.
+    if (image.isUploaded() || !image.isImageAvailable()) {
       return;
     }
+    NiftyProfiler.begin(ProfilerSection.ATLAS_UPLOAD);
 
     // First attempt
     image.upload();
@@ -583,6 +825,59 @@ public class BatchRenderDevice implements RenderDevice {
     if (! image.isUploaded()) {
       reattemptUpload(image);
     }
+
+    if (image.isInAtlas()) {
+      registerAtlasImage(image);
+    }
+    NiftyProfiler.end(ProfilerSection.ATLAS_UPLOAD);
+  }
+
+  private void registerAtlasImage(@Nonnull final BatchRenderImage image) {
+    Map<String, BatchRenderImage> images = atlasImages.get(image.getTextureId());
+    if (images == null) {
+      images = new HashMap<String, BatchRenderImage>();
+      atlasImages.put(image.getTextureId(), images);
+    }
+    images.put(image.getFilename(), image);
+  }
+
+  // Moves a limited number of images in fragmented atlases so that the free space of the atlases is joined again.
+  private void defragmentTextureAtlases() {
+    int remainingRelocations = renderConfig.maxAtlasRelocationsPerFrame;
+    if (remainingRelocations <= 0) {
+      return;
+    }
+    boolean relocated = false;
+    for (Map.Entry<Integer, TextureAtlasGenerator> entry : textureAtlasGenerators.entrySet()) {
+      TextureAtlasGenerator generator = entry.getValue();
+      if (generator.getFragmentation() < renderConfig.atlasDefragmentationThreshold) {
+        continue;
+      }
+      List<Relocation> relocations = generator.defragment(remainingRelocations);
+      for (int i = 0; i < relocations.size(); i++) {
+        relocateImage(entry.getKey(), relocations.get(i));
+      }
+      relocated |= !relocations.isEmpty();
+      remainingRelocations -= relocations.size();
+      if (remainingRelocations <= 0) {
+        break;
+      }
+    }
+    if (relocated) {
+      // the cached glyph runs contain the texture coordinates of the glyphs
+      glyphRunCache.clear();
+    }
+  }
+
+  private void relocateImage(final int atlasTextureId, @Nonnull final Relocation relocation) {
+    Map<String, BatchRenderImage> images = atlasImages.get(atlasTextureId);
+    BatchRenderImage image = images == null ? null : images.get(relocation.getImageName());
+    if (image == null || image.getTextureId() != atlasTextureId || !image.isInAtlas()) {
+      log.warning("Image [" + relocation.getImageName() + "] was moved in the texture atlas (atlas texture id: " +
+          atlasTextureId + ") but it's not known which image it belongs to.");
+      return;
+    }
+    image.relocate(relocation);
   }
 
   private void reattemptUpload(final BatchRenderImage image) {
@@ -940,6 +1235,7 @@ public class BatchRenderDevice implements RenderDevice {
     private final BatchRenderDevice batchRenderDevice;
     private final Color textColor = Color.BLACK;
     private boolean hasColor;
+    private boolean bitmapsUploaded;
 
     public FontRenderer(final BatchRenderDevice batchRenderDevice) {
       this.batchRenderDevice = batchRenderDevice;
@@ -949,6 +1245,8 @@ public class BatchRenderDevice implements RenderDevice {
       for (BitmapInfo info : textureInfos.values()) {
         info.unload();
       }
+      bitmapsUploaded = false;
+      glyphRunCache.clear();
     }
 
     @Override
@@ -956,7 +1254,10 @@ public class BatchRenderDevice implements RenderDevice {
         @Nonnull final String bitmapId,
         final InputStream data,
         @Nonnull final String filename) throws IOException {
-      textureInfos.put(bitmapId, new BitmapInfo((BatchRenderImage) batchRenderDevice.createImage(filename, true)));
+      // font bitmaps are needed to render any text, so they are always decoded right away
+      textureInfos.put(bitmapId, new BitmapInfo(batchRenderDevice.createBatchRenderImage(filename, false)));
+      bitmapsUploaded = false;
+      glyphRunCache.clear();
     }
 
     @Override
@@ -979,6 +1280,8 @@ public class BatchRenderDevice implements RenderDevice {
                 renderConfig.disposeImagesBetweenScreens);
       }
       textureInfos.put(bitmapId, new BitmapInfo(batchRenderImage));
+      bitmapsUploaded = false;
+      glyphRunCache.clear();
     }
 
     @Override
@@ -1004,8 +1307,19 @@ public class BatchRenderDevice implements RenderDevice {
     @Override
     public void beforeRender (final Object customRenderState) {
       hasColor = false;
-      for (BitmapInfo info : textureInfos.values()) {
-        info.upload();
+      uploadBitmaps();
+    }
+
+    public void uploadBitmaps() {
+      // the bitmaps only need to be uploaded again when a new font has been registered or the texture atlases have
+      // been reset in between. a bitmap that could not be uploaded yet is tried again the next time.
+      if (!bitmapsUploaded) {
+        boolean allUploaded = true;
+        for (BitmapInfo info : textureInfos.values()) {
+          info.upload();
+          allUploaded = allUploaded && info.isUploadDone();
+        }
+        bitmapsUploaded = allUploaded;
       }
     }
 
@@ -1105,26 +1419,169 @@ public class BatchRenderDevice implements RenderDevice {
         final int textureHeight,
         final int textureId) {
       glyphCount++;
+      final float quadX = x + (float) Math.floor(xoff * sx);
+      final float quadY = y + (float) Math.floor(yoff * sy);
+      final int quadTextureX = (int) (textureX + u0 * textureWidth);
+      final int quadTextureY = (int) (textureY + v0 * textureHeight);
+      if (recordingGlyphRun != null) {
+        recordingGlyphRun.add(
+            quadX, quadY, w * sx, h * sy, quadTextureX, quadTextureY, w, h, textureId, fontRenderer.hasColor, textColor);
+      }
       addQuad(
-          x + (float) Math.floor(xoff * sx),
-          y + (float) Math.floor(yoff * sy),
+          quadX,
+          quadY,
           w * sx,
           h * sy,
           textColor,
           textColor,
           textColor,
           textColor,
-          (int) (textureX + u0 * textureWidth),
-          (int) (textureY + v0 * textureHeight),
+          quadTextureX,
+          quadTextureY,
           w,
           h,
           textureId);
     }
   }
 
+  /**
+   * The quads of a text rendered once. This allows to render the same text again without asking jglfont to lay out
+   * the text and without parsing the color codes again.
+   */
+  private static class GlyphRun {
+    private int originX;
+    private int originY;
+    private int count;
+    @Nonnull
+    private float[] quads = new float[16 * 4];
+    @Nonnull
+    private int[] textures = new int[16 * 5];
+    @Nonnull
+    private float[] colors = new float[16 * 3];
+    @Nonnull
+    private boolean[] inlineColor = new boolean[16];
+
+    public GlyphRun(final int originX, final int originY) {
+      this.originX = originX;
+      this.originY = originY;
+    }
+
+    /**
+     * Drop all recorded quads so this instance can record another text. The arrays are kept.
+     */
+    @Nonnull
+    public GlyphRun reset(final int originX, final int originY) {
+      this.originX = originX;
+      this.originY = originY;
+      count = 0;
+      return this;
+    }
+
+    public void add(
+        final float x,
+        final float y,
+        final float width,
+        final float height,
+        final int textureX,
+        final int textureY,
+        final int textureWidth,
+        final int textureHeight,
+        final int textureId,
+        final boolean hasInlineColor,
+        @Nonnull final Color color) {
+      if (count == inlineColor.length) {
+        final int newSize = count * 2;
+        quads = Arrays.copyOf(quads, newSize * 4);
+        textures = Arrays.copyOf(textures, newSize * 5);
+        colors = Arrays.copyOf(colors, newSize * 3);
+        inlineColor = Arrays.copyOf(inlineColor, newSize);
+      }
+      quads[count * 4] = x;
+      quads[count * 4 + 1] = y;
+      quads[count * 4 + 2] = width;
+      quads[count * 4 + 3] = height;
+      textures[count * 5] = textureX;
+      textures[count * 5 + 1] = textureY;
+      textures[count * 5 + 2] = textureWidth;
+      textures[count * 5 + 3] = textureHeight;
+      textures[count * 5 + 4] = textureId;
+      colors[count * 3] = color.getRed();
+      colors[count * 3 + 1] = color.getGreen();
+      colors[count * 3 + 2] = color.getBlue();
+      inlineColor[count] = hasInlineColor;
+      count++;
+    }
+  }
+
+  /**
+   * Key of the glyph run cache. The same instance is reused for all lookups to keep renderFont() free of allocations.
+   * The keys of entries dropped from the full cache are reused for new entries.
+   */
+  private static class GlyphRunKey {
+    @Nullable
+    private BatchRenderFont font;
+    @Nullable
+    private String text;
+    private float sizeX;
+    private float sizeY;
+
+    @Nonnull
+    public GlyphRunKey set(
+        @Nonnull final BatchRenderFont font,
+        @Nonnull final String text,
+        final float sizeX,
+        final float sizeY) {
+      this.font = font;
+      this.text = text;
+      this.sizeX = sizeX;
+      this.sizeY = sizeY;
+      return this;
+    }
+
+    @Override
+    public boolean equals(@Nullable final Object obj) {
+      if (this == obj) {
+        return true;
+      }
+      if (!(obj instanceof GlyphRunKey)) {
+        return false;
+      }
+      GlyphRunKey other = (GlyphRunKey) obj;
+      return font == other.font &&
+          sizeX == other.sizeX &&
+          sizeY == other.sizeY &&
+          (text == null ? other.text == null : text.equals(other.text));
+    }
+
+    @Override
+    public int hashCode() {
+      int result = System.identityHashCode(font);
+      result = 31 * result + (text == null ? 0 : text.hashCode());
+      result = 31 * result + Float.floatToIntBits(sizeX);
+      result = 31 * result + Float.floatToIntBits(sizeY);
+      return result;
+    }
+  }
+
   private class BitmapInfo {
+    /**
+     * Glyphs with a code point below this value are stored in a plain array indexed by the code point.
+     */
+    private static final int DIRECT_GLYPH_COUNT = 256;
+
     private final BatchRenderImage image;
-    private final Map<Integer, CharRenderInfo> characterIndices = new HashMap<Integer, CharRenderInfo>();
+
+    /**
+     * Render information for the most common glyphs (Latin-1), indexed by the code point.
+     */
+    private final CharRenderInfo[] directGlyphs = new CharRenderInfo[DIRECT_GLYPH_COUNT];
+
+    /**
+     * Open addressing hash table (linear probing) for all the other code points. A key of -1 marks an empty slot.
+     */
+    private int[] glyphKeys = createGlyphKeys(16);
+    private CharRenderInfo[] glyphValues = new CharRenderInfo[16];
+    private int hashedGlyphCount;
 
     public BitmapInfo(final BatchRenderImage image) {
       this.image = image;
@@ -1134,12 +1591,24 @@ public class BatchRenderDevice implements RenderDevice {
       uploadImageInternal(image);
     }
 
+    /**
+     * Check if the bitmap does not need to be uploaded again. This is the case when it is uploaded or when it can
+     * never be uploaded because it does not fit into any texture atlas.
+     */
+    private boolean isUploadDone() {
+      return image.isUploaded() || image.uploadFailedPermanently();
+    }
+
     private void unload() {
       image.markAsUnloaded();
     }
 
     public void renderCharacter(int c, int x, int y, float sx, float sy, @Nonnull Color textColor) {
-      characterIndices.get(c).renderQuad(
+      CharRenderInfo charRenderInfo = getCharRenderInfo(c);
+      if (charRenderInfo == null) {
+        return;
+      }
+      charRenderInfo.renderQuad(
           x,
           y,
           sx,
@@ -1152,8 +1621,79 @@ public class BatchRenderDevice implements RenderDevice {
           image.getTextureId());
     }
 
-    public void addCharRenderInfo(final Integer c, final CharRenderInfo renderInfo) {
-      this.characterIndices.put(c, renderInfo);
+    public void addCharRenderInfo(final int c, @Nonnull final CharRenderInfo renderInfo) {
+      if (c >= 0 && c < DIRECT_GLYPH_COUNT) {
+        directGlyphs[c] = renderInfo;
+        return;
+      }
+      if ((hashedGlyphCount + 1) * 2 > glyphKeys.length) {
+        resizeGlyphTable(glyphKeys.length * 2);
+      }
+      if (putGlyph(glyphKeys, glyphValues, c, renderInfo)) {
+        hashedGlyphCount++;
+      }
+    }
+
+    @Nullable
+    private CharRenderInfo getCharRenderInfo(final int c) {
+      if (c >= 0 && c < DIRECT_GLYPH_COUNT) {
+        return directGlyphs[c];
+      }
+      final int mask = glyphKeys.length - 1;
+      int index = hashGlyph(c) & mask;
+      while (glyphKeys[index] != -1) {
+        if (glyphKeys[index] == c) {
+          return glyphValues[index];
+        }
+        index = (index + 1) & mask;
+      }
+      return null;
+    }
+
+    private void resizeGlyphTable(final int newSize) {
+      int[] newKeys = createGlyphKeys(newSize);
+      CharRenderInfo[] newValues = new CharRenderInfo[newSize];
+      for (int i = 0; i < glyphKeys.length; i++) {
+        if (glyphKeys[i] != -1) {
+          putGlyph(newKeys, newValues, glyphKeys[i], glyphValues[i]);
+        }
+      }
+      glyphKeys = newKeys;
+      glyphValues = newValues;
+    }
+
+    /**
+     * @return true if a new entry was added and false if an existing entry was replaced
+     */
+    private boolean putGlyph(
+        @Nonnull final int[] keys,
+        @Nonnull final CharRenderInfo[] values,
+        final int c,
+        @Nonnull final CharRenderInfo renderInfo) {
+      final int mask = keys.length - 1;
+      int index = hashGlyph(c) & mask;
+      while (keys[index] != -1) {
+        if (keys[index] == c) {
+          values[index] = renderInfo;
+          return false;
+        }
+        index = (index + 1) & mask;
+      }
+      keys[index] = c;
+      values[index] = renderInfo;
+      return true;
+    }
+
+    private int hashGlyph(final int c) {
+      // spread the code points a bit since glyphs of a font usually come in continuous blocks
+      return ((c * 0x9E3779B9) >>> 16) ^ c;
+    }
+
+    @Nonnull
+    private int[] createGlyphKeys(final int size) {
+      int[] keys = new int[size];
+      Arrays.fill(keys, -1);
+      return keys;
     }
   }
 }
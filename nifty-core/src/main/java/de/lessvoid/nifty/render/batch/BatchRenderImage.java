@@ -1,5 +1,6 @@
 package de.lessvoid.nifty.render.batch;
 
+import de.lessvoid.nifty.render.batch.TextureAtlasGenerator.Relocation;
 import de.lessvoid.nifty.render.batch.TextureAtlasGenerator.Result;
 import de.lessvoid.nifty.render.batch.spi.BatchRenderBackend;
 import de.lessvoid.nifty.render.batch.spi.BatchRenderBackend.Image;
@@ -7,6 +8,9 @@ import de.lessvoid.nifty.spi.render.RenderImage;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -19,8 +23,12 @@ public class BatchRenderImage implements RenderImage {
   private static final Logger log = Logger.getLogger(BatchRenderImage.class.getName());
   @Nonnull
   private static Map<Integer, TextureSize> textureSizes = new HashMap<Integer, TextureSize>(); // provides the size of a texture represented by a specific texture id
-  @Nonnull
-  private final Image image; // the image in the format needed by the rendering backend
+  @Nullable
+  private Image image; // the image in the format needed by the rendering backend, null while it's still being decoded
+  @Nullable
+  private Future<Image> pendingImage; // the image that is decoded in the background or null when it's available
+  private int width; // the width of the image, known from the image header before the image is decoded
+  private int height; // the height of the image, known from the image header before the image is decoded
   @Nonnull
   private final String filename; // the filename associated with this image
   @Nonnull
@@ -51,7 +59,45 @@ public class BatchRenderImage implements RenderImage {
       @Nonnull final TextureAtlasGenerator generator,
       final int atlasTextureId,
       final boolean shouldUnload) {
+    this(filename, renderBackend, generator, atlasTextureId, shouldUnload);
     this.image = image;
+  }
+
+  /**
+   * Create an image that is still being decoded in the background. The image can't be uploaded until the decoding
+   * has finished, see {@link #isImageAvailable()}. The size of the image is known from the image header already, so
+   * the image can be laid out without waiting for the decoding.
+   *
+   * @param pendingImage The image in the format needed by the rendering backend once it has been decoded
+   * @param width The width of the image as stored in the image header
+   * @param height The height of the image as stored in the image header
+   * @param filename The filename associated with this image
+   * @param renderBackend The rendering backend to delegate low level texture handling to
+   * @param generator Mainly used to determine whether the image will fit in the specified atlas (the "brain" of the texture atlas)
+   * @param atlasTextureId The texture id of the atlas to use to attempt to upload the image to.
+   * @param shouldUnload Whether or not to unload the image between screens.
+   */
+  public BatchRenderImage(
+      @Nonnull final Future<Image> pendingImage,
+      final int width,
+      final int height,
+      @Nonnull final String filename,
+      @Nonnull final BatchRenderBackend renderBackend,
+      @Nonnull final TextureAtlasGenerator generator,
+      final int atlasTextureId,
+      final boolean shouldUnload) {
+    this(filename, renderBackend, generator, atlasTextureId, shouldUnload);
+    this.pendingImage = pendingImage;
+    this.width = width;
+    this.height = height;
+  }
+
+  private BatchRenderImage(
+      @Nonnull final String filename,
+      @Nonnull final BatchRenderBackend renderBackend,
+      @Nonnull final TextureAtlasGenerator generator,
+      final int atlasTextureId,
+      final boolean shouldUnload) {
     this.filename = filename;
     this.generator = generator;
     this.renderBackend = renderBackend;
@@ -89,12 +135,12 @@ public class BatchRenderImage implements RenderImage {
 
   @Override
   public int getWidth() {
-    return image.getWidth();
+    return image != null ? image.getWidth() : width;
   }
 
   @Override
   public int getHeight() {
-    return image.getHeight();
+    return image != null ? image.getHeight() : height;
   }
 
   @Override
@@ -117,6 +163,51 @@ public class BatchRenderImage implements RenderImage {
     return isUploaded;
   }
 
+  @Nonnull
+  public String getFilename() {
+    return filename;
+  }
+
+  /**
+   * Check if the image is uploaded into a texture atlas, in contrast to images that are not uploaded yet or that got
+   * their own texture.
+   */
+  public boolean isInAtlas() {
+    return isUploaded && result != null;
+  }
+
+  /**
+   * Moves the image to another place in its texture atlas.
+   *
+   * @param relocation the new place of the image as calculated by {@link TextureAtlasGenerator#defragment(int)}
+   */
+  public void relocate(@Nonnull final Relocation relocation) {
+    Result from = relocation.getFrom();
+    Result to = relocation.getTo();
+    renderBackend.addImageToAtlas(getImage(), to.getX(), to.getY(), textureId);
+    renderBackend.removeImageFromAtlas(
+            getImage(),
+            from.getX(),
+            from.getY(),
+            from.getOriginalImageWidth(),
+            from.getOriginalImageHeight(),
+            textureId);
+    x = to.getX();
+    y = to.getY();
+    result = to;
+    log.fine("Image [" + filename + "] moved in texture atlas (atlas texture id: " + textureId + ").");
+  }
+
+  /**
+   * Check if the image data is available. This is always the case unless the image is decoded in the background and
+   * the decoding has not finished yet.
+   *
+   * @return true if the image can be uploaded and false if it's still being decoded
+   */
+  public boolean isImageAvailable() {
+    return pendingImage == null || pendingImage.isDone();
+  }
+
   public void markAsUnloaded() {
     if (shouldUnload) {
       isUploaded = false;
@@ -132,7 +223,7 @@ public class BatchRenderImage implements RenderImage {
   // You can only call this once. After that, the image will either be uploaded or will have failed to upload.
   // In either case, calling it again has no effect. Try the reUpload method if the upload fails.
   public void upload() {
-    if (isUploaded || uploadFailed) {
+    if (isUploaded || uploadFailed || !isImageAvailable()) {
       return;
     }
 
@@ -184,8 +275,31 @@ public class BatchRenderImage implements RenderImage {
 
   // Internal implementations
 
+  @Nonnull
+  private Image getImage() {
+    if (image == null) {
+      image = waitForPendingImage();
+      pendingImage = null;
+    }
+    return image;
+  }
+
+  @Nonnull
+  private Image waitForPendingImage() {
+    assert pendingImage != null;
+    try {
+      return pendingImage.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      log.warning("Interrupted while waiting for image [" + filename + "] to be decoded, loading it directly.");
+    } catch (ExecutionException e) {
+      log.log(Level.WARNING, "Decoding image [" + filename + "] in the background failed, loading it directly.", e);
+    }
+    return renderBackend.loadImage(filename);
+  }
+
   private void preProcessImageUpload() {
-    result = generator.addImage(image.getWidth(), image.getHeight(), filename);
+    result = generator.addImage(getWidth(), getHeight(), filename);
   }
 
   private boolean imageWillFitInAtlas() {
@@ -194,7 +308,7 @@ public class BatchRenderImage implements RenderImage {
 
   private void uploadImageToAtlas() {
     assert result != null;
-    renderBackend.addImageToAtlas(image, result.getX(), result.getY(), textureId);
+    renderBackend.addImageToAtlas(getImage(), result.getX(), result.getY(), textureId);
     BatchRenderImage.registerTextureSize(textureId, generator.getAtlasWidth(), generator.getAtlasHeight());
     x = result.getX();
     y = result.getY();
@@ -207,7 +321,7 @@ public class BatchRenderImage implements RenderImage {
   }
 
   private boolean imageExceedsAtlasTolerance() {
-    return ! generator.shouldAddImage(image.getWidth(), image.getHeight());
+    return ! generator.shouldAddImage(getWidth(), getHeight());
   }
 
   private void uploadNonAtlasImage() {
@@ -221,7 +335,7 @@ public class BatchRenderImage implements RenderImage {
   }
 
   private int createNonAtlasTexture() {
-    return renderBackend.createNonAtlasTexture(image);
+    return renderBackend.createNonAtlasTexture(getImage());
   }
 
   private boolean isCreatedNonAtlasTexture(final int textureId) {
@@ -265,7 +379,7 @@ public class BatchRenderImage implements RenderImage {
   private void unloadImageFromAtlas() {
     assert result != null;
     renderBackend.removeImageFromAtlas(
-            image,
+            getImage(),
             result.getX(),
             result.getY(),
             result.getOriginalImageWidth(),
@@ -0,0 +1,148 @@
+package de.lessvoid.nifty.render.batch;
+
+import de.lessvoid.nifty.tools.Factory;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Packs the images by recursively splitting the free space into two parts.
+ * <p/>
+ * This work is based on https://github.com/lukaszpaczkowski/texture-atlas-generator by lukaszpaczkowski which is based
+ * on the popular packing algorithm http://www.blackpawn.com/texts/lightmaps/ by jimscott@blackpawn.com.
+ * <p/>
+ * The splits are never joined again, so the space of removed images can only be used by images that fit into exactly
+ * that space.
+ *
+ * @author void
+ */
+public class BinaryTreePackingStrategy implements TextureAtlasPackingStrategy {
+  @Nonnull
+  public static final Factory<TextureAtlasPackingStrategy> FACTORY = new Factory<TextureAtlasPackingStrategy>() {
+    @Nonnull
+    @Override
+    public TextureAtlasPackingStrategy createNew() {
+      return new BinaryTreePackingStrategy();
+    }
+  };
+
+  @Nonnull
+  private final Map<Region, Node> nodes = new IdentityHashMap<Region, Node>();
+  @Nonnull
+  private Node root = new Node(0, 0, 0, 0);
+  private int padding;
+
+  @Override
+  public void reset(final int width, final int height, final int padding) {
+    root = new Node(0, 0, width, height);
+    nodes.clear();
+    this.padding = padding;
+  }
+
+  @Nullable
+  @Override
+  public Region insert(final int width, final int height) {
+    Node node = root.insert(width, height, padding);
+    if (node == null) {
+      return null;
+    }
+    nodes.put(node.rect, node);
+    return node.rect;
+  }
+
+  @Override
+  public void remove(@Nonnull final Region region) {
+    Node node = nodes.remove(region);
+    if (node == null) {
+      return;
+    }
+    node.occupied = false;
+    node.child[0] = null;
+    node.child[1] = null;
+  }
+
+  @Override
+  public int getFreeArea() {
+    return root.getFreeArea();
+  }
+
+  @Override
+  public int getLargestFreeArea() {
+    return root.getLargestFreeArea();
+  }
+
+  private static class Node {
+    @Nonnull
+    public final Region rect;
+    @Nonnull
+    public final Node[] child;
+    public boolean occupied;
+
+    public Node(final int x, final int y, final int width, final int height) {
+      rect = new Region(x, y, width, height);
+      child = new Node[2];
+      child[0] = null;
+      child[1] = null;
+      occupied = false;
+    }
+
+    public boolean isLeaf() {
+      return child[0] == null && child[1] == null;
+    }
+
+    // Algorithm from http://www.blackpawn.com/texts/lightmaps/
+    @Nullable
+    public Node insert(final int imageWidth, final int imageHeight, final int padding) {
+      if (!isLeaf()) {
+        Node newNode = child[0].insert(imageWidth, imageHeight, padding);
+        if (newNode != null) {
+          return newNode;
+        }
+        return child[1].insert(imageWidth, imageHeight, padding);
+      }
+
+      if (occupied) {
+        return null; // occupied
+      }
+
+      if (imageWidth > rect.getWidth() || imageHeight > rect.getHeight()) {
+        return null; // does not fit
+      }
+
+      if (imageWidth == rect.getWidth() && imageHeight == rect.getHeight()) {
+        occupied = true; // perfect fit
+        return this;
+      }
+
+      int dw = rect.getWidth() - imageWidth;
+      int dh = rect.getHeight() - imageHeight;
+
+      if (dw > dh) {
+        child[0] = new Node(rect.getX(), rect.getY(), imageWidth, rect.getHeight());
+        child[1] = new Node(padding + rect.getX() + imageWidth, rect.getY(), rect.getWidth() - imageWidth - padding,
+            rect.getHeight());
+      } else {
+        child[0] = new Node(rect.getX(), rect.getY(), rect.getWidth(), imageHeight);
+        child[1] = new Node(rect.getX(), padding + rect.getY() + imageHeight, rect.getWidth(),
+            rect.getHeight() - imageHeight - padding);
+      }
+      return child[0].insert(imageWidth, imageHeight, padding);
+    }
+
+    public int getFreeArea() {
+      if (isLeaf()) {
+        return occupied ? 0 : Math.max(0, rect.getWidth()) * Math.max(0, rect.getHeight());
+      }
+      return child[0].getFreeArea() + child[1].getFreeArea();
+    }
+
+    public int getLargestFreeArea() {
+      if (isLeaf()) {
+        return occupied ? 0 : Math.max(0, rect.getWidth()) * Math.max(0, rect.getHeight());
+      }
+      return Math.max(child[0].getLargestFreeArea(), child[1].getLargestFreeArea());
+    }
+  }
+}
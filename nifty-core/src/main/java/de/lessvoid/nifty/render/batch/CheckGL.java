@@ -7,6 +7,13 @@ import javax.annotation.Nonnull;
 
 /**
  * Helper class to check for OpenGL errors.
+ * <p/>
+ * Every check calls glGetError(), which forces the driver to synchronize with the GPU. That's why the checks come in
+ * two flavors: {@link #checkGLError(GL)} and its overloads always check. They are used once per frame by the backends
+ * (see {@link #checkGLErrorOfFrame(GL)}) and when resources are created. {@link #checkGLCall(GL, String)} is used
+ * after the GL calls that happen while rendering a frame. These checks are only done in debug mode, which is
+ * disabled by default. In case the frame check reports an error, enable the debug mode with
+ * {@link #setDebugMode(boolean)} to find the call that caused it.
  *
  * @author void
  * @author Martin Karing &lt;nitram@illarion.org&gt;
@@ -15,6 +22,51 @@ import javax.annotation.Nonnull;
 public class CheckGL {
   @Nonnull
   private static final Logger log = Logger.getLogger(CheckGL.class.getName());
+  private static volatile boolean debugMode = false;
+
+  /**
+   * Enable or disable the debug mode. In debug mode each GL call made while rendering is checked for errors right
+   * away, otherwise errors are only detected once at the end of each frame.
+   */
+  public static void setDebugMode(final boolean enabled) {
+    debugMode = enabled;
+  }
+
+  public static boolean isDebugMode() {
+    return debugMode;
+  }
+
+  /**
+   * Check for GL errors that occurred during the whole frame. Backends call this once at the end of every frame.
+   */
+  public static void checkGLErrorOfFrame(@Nonnull final GL gl) {
+    checkGLError(gl, debugMode ? "end of frame" : "end of frame - enable CheckGL.setDebugMode(true) to find the call");
+  }
+
+  /**
+   * Check for GL errors after a call made while rendering. This does nothing unless the debug mode is enabled.
+   *
+   * @param message a message to log (can be used to log additional information for instance what call was executed
+   *                before)
+   */
+  public static void checkGLCall(@Nonnull final GL gl, @Nonnull final String message) {
+    if (debugMode) {
+      checkGLError(gl, message, false);
+    }
+  }
+
+  /**
+   * Check for GL errors after a call made while rendering. This does nothing unless the debug mode is enabled.
+   *
+   * @param message        a message to log
+   * @param throwException in case this value is set {@code true} and OpenGL reports a error a exception will be thrown
+   * @throws GLException in case the {@code throwException} is set {@code true} and OpenGL reports an error
+   */
+  public static void checkGLCall(@Nonnull final GL gl, @Nonnull final String message, final boolean throwException) {
+    if (debugMode) {
+      checkGLError(gl, message, throwException);
+    }
+  }
 
   /**
    * Check for GL error and log any errors found. You should probably call this once a frame.
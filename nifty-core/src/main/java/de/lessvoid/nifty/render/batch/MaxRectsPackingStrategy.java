@@ -0,0 +1,190 @@
+package de.lessvoid.nifty.render.batch;
+
+import de.lessvoid.nifty.tools.Factory;
+
+import java.util.ArrayList;
+import java.util.List;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Packs the images with the MaxRects algorithm. All maximal free rectangles of the atlas are kept in a list, which
+ * means that free rectangles overlap each other. An image is placed into the free rectangle that leaves the smallest
+ * amount of space along its shorter side (best short side fit). Afterwards all free rectangles that intersect with the
+ * image are split and the ones contained in other free rectangles are dropped.
+ * <p/>
+ * In contrast to the {@link BinaryTreePackingStrategy} the space of removed images is joined with the surrounding free
+ * space again, since the free rectangles are calculated again from the remaining images. This is done once before the
+ * next image is inserted and not for each removed image, so removing all images of an atlas stays cheap.
+ * <p/>
+ * The padding is added to the right and the bottom of each image. To allow images to touch the right and the bottom
+ * border of the atlas the atlas is enlarged by the padding as well.
+ *
+ * @author void
+ */
+public class MaxRectsPackingStrategy implements TextureAtlasPackingStrategy {
+  @Nonnull
+  public static final Factory<TextureAtlasPackingStrategy> FACTORY = new Factory<TextureAtlasPackingStrategy>() {
+    @Nonnull
+    @Override
+    public TextureAtlasPackingStrategy createNew() {
+      return new MaxRectsPackingStrategy();
+    }
+  };
+
+  @Nonnull
+  private final List<Region> freeRegions = new ArrayList<Region>();
+  // the regions of the images including their padding
+  @Nonnull
+  private final List<Region> usedRegions = new ArrayList<Region>();
+  @Nonnull
+  private Region bin = new Region(0, 0, 0, 0);
+  private int padding;
+  private int usedArea;
+  // whether images have been removed since the free rectangles were calculated
+  private boolean freeRegionsChanged;
+
+  @Override
+  public void reset(final int width, final int height, final int padding) {
+    this.padding = padding;
+    bin = new Region(0, 0, width + padding, height + padding);
+    usedRegions.clear();
+    usedArea = 0;
+    freeRegions.clear();
+    freeRegions.add(bin);
+    freeRegionsChanged = false;
+  }
+
+  @Nullable
+  @Override
+  public Region insert(final int width, final int height) {
+    int paddedWidth = width + padding;
+    int paddedHeight = height + padding;
+    updateFreeRegions();
+    Region best = null;
+    int bestShortSide = Integer.MAX_VALUE;
+    int bestLongSide = Integer.MAX_VALUE;
+    for (int i = 0; i < freeRegions.size(); i++) {
+      Region free = freeRegions.get(i);
+      if (paddedWidth > free.getWidth() || paddedHeight > free.getHeight()) {
+        continue;
+      }
+      int leftoverWidth = free.getWidth() - paddedWidth;
+      int leftoverHeight = free.getHeight() - paddedHeight;
+      int shortSide = Math.min(leftoverWidth, leftoverHeight);
+      int longSide = Math.max(leftoverWidth, leftoverHeight);
+      if (shortSide < bestShortSide || (shortSide == bestShortSide && longSide < bestLongSide)) {
+        best = free;
+        bestShortSide = shortSide;
+        bestLongSide = longSide;
+      }
+    }
+    if (best == null) {
+      return null;
+    }
+    Region used = new Region(best.getX(), best.getY(), paddedWidth, paddedHeight);
+    usedRegions.add(used);
+    usedArea += used.getArea();
+    place(used);
+    return new Region(best.getX(), best.getY(), width, height);
+  }
+
+  @Override
+  public void remove(@Nonnull final Region region) {
+    for (int i = 0; i < usedRegions.size(); i++) {
+      Region used = usedRegions.get(i);
+      if (used.getX() == region.getX() && used.getY() == region.getY()) {
+        usedRegions.remove(i);
+        usedArea -= used.getArea();
+        freeRegionsChanged = true;
+        return;
+      }
+    }
+  }
+
+  @Override
+  public int getFreeArea() {
+    return bin.getArea() - usedArea;
+  }
+
+  @Override
+  public int getLargestFreeArea() {
+    updateFreeRegions();
+    int largest = 0;
+    for (int i = 0; i < freeRegions.size(); i++) {
+      largest = Math.max(largest, freeRegions.get(i).getArea());
+    }
+    return largest;
+  }
+
+  private void updateFreeRegions() {
+    if (!freeRegionsChanged) {
+      return;
+    }
+    freeRegionsChanged = false;
+    freeRegions.clear();
+    freeRegions.add(bin);
+    for (int i = 0; i < usedRegions.size(); i++) {
+      place(usedRegions.get(i));
+    }
+  }
+
+  private void place(@Nonnull final Region used) {
+    int count = freeRegions.size();
+    for (int i = 0; i < count; i++) {
+      Region free = freeRegions.get(i);
+      if (!free.intersects(used)) {
+        continue;
+      }
+      // the new parts are added at the end of the list, the split region itself is dropped when pruning
+      if (used.getX() > free.getX()) {
+        freeRegions.add(new Region(free.getX(), free.getY(), used.getX() - free.getX(), free.getHeight()));
+      }
+      if (used.getRight() < free.getRight()) {
+        freeRegions.add(new Region(used.getRight(), free.getY(), free.getRight() - used.getRight(), free.getHeight()));
+      }
+      if (used.getY() > free.getY()) {
+        freeRegions.add(new Region(free.getX(), free.getY(), free.getWidth(), used.getY() - free.getY()));
+      }
+      if (used.getBottom() < free.getBottom()) {
+        freeRegions.add(
+            new Region(free.getX(), used.getBottom(), free.getWidth(), free.getBottom() - used.getBottom()));
+      }
+      freeRegions.set(i, null);
+    }
+    pruneFreeRegions();
+  }
+
+  // removes the split regions and all regions that are contained in another free region
+  private void pruneFreeRegions() {
+    int size = freeRegions.size();
+    for (int i = 0; i < size; i++) {
+      Region a = freeRegions.get(i);
+      if (a == null) {
+        continue;
+      }
+      for (int j = i + 1; j < size; j++) {
+        Region b = freeRegions.get(j);
+        if (b == null) {
+          continue;
+        }
+        if (a.contains(b)) {
+          freeRegions.set(j, null);
+        } else if (b.contains(a)) {
+          freeRegions.set(i, null);
+          break;
+        }
+      }
+    }
+    int target = 0;
+    for (int i = 0; i < size; i++) {
+      Region region = freeRegions.get(i);
+      if (region != null) {
+        freeRegions.set(target++, region);
+      }
+    }
+    for (int i = size - 1; i >= target; i--) {
+      freeRegions.remove(i);
+    }
+  }
+}
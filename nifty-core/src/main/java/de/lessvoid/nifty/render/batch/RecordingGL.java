@@ -0,0 +1,442 @@
+package de.lessvoid.nifty.render.batch;
+
+import de.lessvoid.nifty.render.batch.spi.GL;
+import de.lessvoid.nifty.render.batch.spi.core.CoreGL;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.ShortBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.logging.Logger;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Records the stream of GL calls the batch renderers make. The recorder provides a {@link GL} and {@link CoreGL}
+ * implementation (see {@link #getGL()} and {@link #getCoreGL()}) that can be handed to the
+ * {@link de.lessvoid.nifty.render.batch.BatchRenderBackendInternal} or the core profile backend in place of a real
+ * one.
+ * <p/>
+ * Without a delegate the recorder works as GL stub that doesn't need a GPU: generated and created names start at 1,
+ * GL constants have made up but distinct values (except GL_NO_ERROR, GL_FALSE and GL_TRUE) and errors can be
+ * simulated with {@link #queueError(int)}. With a delegate each call is recorded and then forwarded, so the calls of a
+ * real application can be recorded as well.
+ * <p/>
+ * Besides the calls themselves the recorder keeps the number of draw calls, state changes, error checks and the
+ * number of bytes uploaded to buffers and textures. Buffer arguments are recorded as copies, so the recorded calls can
+ * be replayed with {@link #replay(GL)}, for instance to render a recorded frame again with a different GL.
+ *
+ * @author void
+ */
+public class RecordingGL {
+  @Nonnull
+  private static final Logger log = Logger.getLogger(RecordingGL.class.getName());
+
+  @Nullable
+  private final GL delegate;
+  @Nonnull
+  private final CoreGL gl;
+  @Nonnull
+  private final List<Call> calls = new ArrayList<Call>();
+  @Nonnull
+  private final LinkedList<Integer> queuedErrors = new LinkedList<Integer>();
+  private int nextName = 1;
+  private long uploadedBytes;
+  private int stateChanges;
+  private int drawCalls;
+  private int errorChecks;
+
+  /**
+   * Create a recorder that works as GL stub.
+   */
+  public RecordingGL() {
+    this(null);
+  }
+
+  /**
+   * Create a recorder that forwards all calls to the given GL. In case the delegate is no {@link CoreGL}, calling one
+   * of the core profile methods will fail with an {@link UnsupportedOperationException}.
+   *
+   * @param delegate the GL that executes the calls or {@code null} to create a GL stub
+   */
+  public RecordingGL(@Nullable final GL delegate) {
+    this.delegate = delegate;
+    this.gl = (CoreGL) Proxy.newProxyInstance(
+        RecordingGL.class.getClassLoader(), new Class<?>[]{CoreGL.class}, new Handler());
+  }
+
+  /**
+   * Get the GL that records the calls.
+   */
+  @Nonnull
+  public GL getGL() {
+    return gl;
+  }
+
+  /**
+   * Get the CoreGL that records the calls. This is the same instance as {@link #getGL()}.
+   */
+  @Nonnull
+  public CoreGL getCoreGL() {
+    return gl;
+  }
+
+  /**
+   * Let the next call of glGetError() of the GL stub report the given error. Each queued error is reported once.
+   */
+  public void queueError(final int error) {
+    queuedErrors.add(error);
+  }
+
+  /**
+   * Discard all recorded calls and reset all counters.
+   */
+  public void clear() {
+    calls.clear();
+    uploadedBytes = 0;
+    stateChanges = 0;
+    drawCalls = 0;
+    errorChecks = 0;
+  }
+
+  /**
+   * Get all recorded calls in the order they were made.
+   */
+  @Nonnull
+  public List<Call> getCalls() {
+    return Collections.unmodifiableList(calls);
+  }
+
+  /**
+   * Get all recorded calls of the GL method with the given name, for instance "glBindTexture".
+   */
+  @Nonnull
+  public List<Call> getCalls(@Nonnull final String name) {
+    List<Call> result = new ArrayList<Call>();
+    for (int i = 0; i < calls.size(); i++) {
+      Call call = calls.get(i);
+      if (call.getName().equals(name)) {
+        result.add(call);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Get the number of recorded calls of the GL method with the given name. Calls of the methods that return GL
+   * constants are not counted.
+   */
+  public int getCallCount(@Nonnull final String name) {
+    int result = 0;
+    for (int i = 0; i < calls.size(); i++) {
+      if (calls.get(i).getName().equals(name)) {
+        result++;
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Get the number of bytes passed to glBufferData(), glBufferSubData(), glTexImage2D(), glTexSubImage2D(),
+   * glTexImage3D() and glTexSubImage3D().
+   */
+  public long getUploadedBytes() {
+    return uploadedBytes;
+  }
+
+  /**
+   * Get the number of calls that change the GL state: all glBind*, glEnable* and glDisable* calls as well as
+   * glUseProgram(), glActiveTexture(), glBlendFunc(), glPrimitiveRestartIndex() and glViewport(). Redundant changes
+   * are counted as well since they cost the same in the driver.
+   */
+  public int getStateChanges() {
+    return stateChanges;
+  }
+
+  /**
+   * Get the number of glDraw* calls.
+   */
+  public int getDrawCalls() {
+    return drawCalls;
+  }
+
+  /**
+   * Get the number of glGetError() calls. Each of them synchronizes with the GPU on real drivers.
+   */
+  public int getErrorChecks() {
+    return errorChecks;
+  }
+
+  /**
+   * Make all recorded calls again on the given GL, in the order they were recorded. Calls of the core profile methods
+   * require a {@link CoreGL} as target. Note that the names of textures, buffers and so on are replayed as recorded,
+   * so the target must generate the same names to get the same result, like another recorder does.
+   *
+   * @param target the GL to make the calls on
+   */
+  public void replay(@Nonnull final GL target) {
+    for (int i = 0; i < calls.size(); i++) {
+      Call call = calls.get(i);
+      if (!call.method.getDeclaringClass().isInstance(target)) {
+        throw new UnsupportedOperationException(call.getName() + " requires a " +
+            call.method.getDeclaringClass().getSimpleName());
+      }
+      try {
+        call.method.invoke(target, call.prepareArguments());
+      } catch (IllegalAccessException e) {
+        throw new IllegalStateException(e);
+      } catch (InvocationTargetException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof RuntimeException) {
+          throw (RuntimeException) cause;
+        }
+        throw new IllegalStateException(cause);
+      }
+    }
+  }
+
+  /**
+   * A single recorded GL call.
+   */
+  public static final class Call {
+    @Nonnull
+    private final Method method;
+    @Nonnull
+    private final Object[] arguments;
+
+    private Call(@Nonnull final Method method, @Nonnull final Object[] arguments) {
+      this.method = method;
+      this.arguments = arguments;
+    }
+
+    @Nonnull
+    public String getName() {
+      return method.getName();
+    }
+
+    public int getArgumentCount() {
+      return arguments.length;
+    }
+
+    /**
+     * Get an argument of the call. Buffers are returned as copy of the data that remained in the buffer at the time
+     * of the call, positioned at the start of that data.
+     */
+    @Nullable
+    public Object getArgument(final int index) {
+      return arguments[index];
+    }
+
+    @Nonnull
+    private Object[] prepareArguments() {
+      for (Object argument : arguments) {
+        if (argument instanceof Buffer) {
+          ((Buffer) argument).rewind();
+        }
+      }
+      return arguments;
+    }
+
+    @Nonnull
+    @Override
+    public String toString() {
+      StringBuilder result = new StringBuilder(getName()).append('(');
+      for (int i = 0; i < arguments.length; i++) {
+        if (i > 0) {
+          result.append(", ");
+        }
+        result.append(arguments[i]);
+      }
+      return result.append(')').toString();
+    }
+  }
+
+  // Internal implementations
+
+  private final class Handler implements InvocationHandler {
+    @Nullable
+    @Override
+    public Object invoke(final Object proxy, @Nonnull final Method method, @Nullable final Object[] args)
+        throws Throwable {
+      String name = method.getName();
+      if (method.getDeclaringClass() == Object.class) {
+        return invokeObjectMethod(proxy, method, args);
+      }
+      if (name.startsWith("GL_")) {
+        // constants are not recorded
+        return delegate == null ? stubConstant(name) : forward(method, args);
+      }
+      record(method, args == null ? new Object[0] : args);
+      return delegate == null ? stub(name, method.getReturnType(), args) : forward(method, args);
+    }
+
+    @Nullable
+    private Object forward(@Nonnull final Method method, @Nullable final Object[] args) throws Throwable {
+      if (!method.getDeclaringClass().isInstance(delegate)) {
+        throw new UnsupportedOperationException(method.getName() + " is not supported by " + delegate);
+      }
+      try {
+        return method.invoke(delegate, args);
+      } catch (InvocationTargetException e) {
+        throw e.getCause();
+      }
+    }
+
+    @Nullable
+    private Object invokeObjectMethod(final Object proxy, @Nonnull final Method method, @Nullable final Object[] args) {
+      if (method.getName().equals("equals")) {
+        return args != null && proxy == args[0];
+      } else if (method.getName().equals("hashCode")) {
+        return System.identityHashCode(proxy);
+      }
+      return "RecordingGL";
+    }
+  }
+
+  private void record(@Nonnull final Method method, @Nonnull final Object[] args) {
+    String name = method.getName();
+    Object[] arguments = new Object[args.length];
+    Buffer data = null;
+    for (int i = 0; i < args.length; i++) {
+      if (args[i] instanceof Buffer) {
+        data = (Buffer) args[i];
+        arguments[i] = copy(data);
+      } else {
+        arguments[i] = args[i];
+      }
+    }
+    calls.add(new Call(method, arguments));
+
+    if (name.startsWith("glDraw")) {
+      drawCalls++;
+    } else if (name.equals("glGetError")) {
+      errorChecks++;
+    } else if (isStateChange(name)) {
+      stateChanges++;
+    } else if (data != null && isUpload(name)) {
+      uploadedBytes += (long) data.remaining() * getElementSize(data);
+    }
+  }
+
+  private static boolean isStateChange(@Nonnull final String name) {
+    return name.startsWith("glBind") ||
+        name.startsWith("glEnable") ||
+        name.startsWith("glDisable") ||
+        name.equals("glUseProgram") ||
+        name.equals("glActiveTexture") ||
+        name.equals("glBlendFunc") ||
+        name.equals("glPrimitiveRestartIndex") ||
+        name.equals("glViewport");
+  }
+
+  private static boolean isUpload(@Nonnull final String name) {
+    return name.equals("glBufferData") ||
+        name.equals("glBufferSubData") ||
+        name.equals("glTexImage2D") ||
+        name.equals("glTexSubImage2D") ||
+        name.equals("glTexImage3D") ||
+        name.equals("glTexSubImage3D");
+  }
+
+  private static int getElementSize(@Nonnull final Buffer buffer) {
+    if (buffer instanceof ByteBuffer) {
+      return 1;
+    } else if (buffer instanceof ShortBuffer) {
+      return 2;
+    } else if (buffer instanceof DoubleBuffer) {
+      return 8;
+    }
+    return 4;
+  }
+
+  @Nonnull
+  private static Buffer copy(@Nonnull final Buffer buffer) {
+    int size = buffer.remaining();
+    ByteBuffer bytes = ByteBuffer.allocateDirect(size * getElementSize(buffer)).order(ByteOrder.nativeOrder());
+    if (buffer instanceof ByteBuffer) {
+      bytes.put(((ByteBuffer) buffer).duplicate());
+      bytes.flip();
+      return bytes;
+    } else if (buffer instanceof ShortBuffer) {
+      ShortBuffer result = bytes.asShortBuffer();
+      result.put(((ShortBuffer) buffer).duplicate());
+      result.flip();
+      return result;
+    } else if (buffer instanceof IntBuffer) {
+      IntBuffer result = bytes.asIntBuffer();
+      result.put(((IntBuffer) buffer).duplicate());
+      result.flip();
+      return result;
+    } else if (buffer instanceof FloatBuffer) {
+      FloatBuffer result = bytes.asFloatBuffer();
+      result.put(((FloatBuffer) buffer).duplicate());
+      result.flip();
+      return result;
+    } else if (buffer instanceof DoubleBuffer) {
+      DoubleBuffer result = bytes.asDoubleBuffer();
+      result.put(((DoubleBuffer) buffer).duplicate());
+      result.flip();
+      return result;
+    }
+    log.warning("Unsupported buffer type: " + buffer.getClass().getName());
+    return buffer;
+  }
+
+  private static int stubConstant(@Nonnull final String name) {
+    if (name.equals("GL_NO_ERROR") || name.equals("GL_FALSE")) {
+      return 0;
+    } else if (name.equals("GL_TRUE")) {
+      return 1;
+    }
+    // made up but distinct values that are never 0 or 1
+    return (name.hashCode() & 0xFFFF) | 0x10000;
+  }
+
+  @Nullable
+  private Object stub(@Nonnull final String name, @Nonnull final Class<?> returnType, @Nullable final Object[] args) {
+    if (name.equals("glGenBuffers") || name.equals("glGenVertexArrays") || name.equals("glGenTextures")) {
+      IntBuffer names = (IntBuffer) args[1];
+      for (int i = 0; i < (Integer) args[0]; i++) {
+        names.put(names.position() + i, nextName++);
+      }
+    } else if (name.equals("glGetIntegerv") && args.length == 3) {
+      // the only value requested this way is the maximum texture size
+      ((int[]) args[1])[(Integer) args[2]] = 4096;
+    } else if (name.equals("glGetShaderiv") || name.equals("glGetProgramiv")) {
+      // shaders always compile and link successfully
+      IntBuffer params = (IntBuffer) args[2];
+      params.put(params.position(), 1);
+    } else if (name.equals("glGetError")) {
+      return queuedErrors.isEmpty() ? 0 : queuedErrors.removeFirst();
+    } else if (name.equals("glCreateProgram") || name.equals("glCreateShader")) {
+      return nextName++;
+    } else if (name.equals("glMapBuffer")) {
+      ByteBuffer oldBuffer = (ByteBuffer) args[3];
+      long length = (Long) args[2];
+      if (oldBuffer != null && oldBuffer.capacity() >= length) {
+        oldBuffer.clear();
+        return oldBuffer;
+      }
+      return ByteBuffer.allocateDirect((int) length).order(ByteOrder.nativeOrder());
+    }
+    if (returnType == int.class) {
+      return 0;
+    } else if (returnType == boolean.class) {
+      return false;
+    } else if (returnType == String.class) {
+      return "";
+    }
+    return null;
+  }
+}
@@ -0,0 +1,243 @@
+package de.lessvoid.nifty.render.batch;
+
+import de.lessvoid.nifty.tools.Factory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Packs the images with the skyline bottom-left algorithm. Only the upper outline of the images placed so far (the
+ * skyline) is stored, so placing an image is very cheap. An image is placed on top of the skyline where its top edge
+ * is lowest.
+ * <p/>
+ * The space below the skyline is never used again. Removing an image only lowers the skyline in case no other image
+ * is placed above it, the holes left by other images can only be closed by defragmenting the atlas, see
+ * {@link TextureAtlasGenerator#defragment(int)}.
+ * <p/>
+ * The padding is added to the right and the bottom of each image. To allow images to touch the right and the bottom
+ * border of the atlas the atlas is enlarged by the padding as well.
+ *
+ * @author void
+ */
+public class SkylinePackingStrategy implements TextureAtlasPackingStrategy {
+  @Nonnull
+  public static final Factory<TextureAtlasPackingStrategy> FACTORY = new Factory<TextureAtlasPackingStrategy>() {
+    @Nonnull
+    @Override
+    public TextureAtlasPackingStrategy createNew() {
+      return new SkylinePackingStrategy();
+    }
+  };
+
+  @Nonnull
+  private final List<Segment> skyline = new ArrayList<Segment>();
+  // the regions of the images including their padding
+  @Nonnull
+  private final List<Region> usedRegions = new ArrayList<Region>();
+  private int binWidth;
+  private int binHeight;
+  private int padding;
+  private int usedArea;
+
+  @Override
+  public void reset(final int width, final int height, final int padding) {
+    this.padding = padding;
+    binWidth = width + padding;
+    binHeight = height + padding;
+    usedRegions.clear();
+    usedArea = 0;
+    skyline.clear();
+    skyline.add(new Segment(0, 0, binWidth));
+  }
+
+  @Nullable
+  @Override
+  public Region insert(final int width, final int height) {
+    int paddedWidth = width + padding;
+    int paddedHeight = height + padding;
+    int bestIndex = -1;
+    int bestTop = Integer.MAX_VALUE;
+    int bestY = 0;
+    for (int i = 0; i < skyline.size(); i++) {
+      int y = fit(i, paddedWidth, paddedHeight);
+      if (y >= 0 && y + paddedHeight < bestTop) {
+        bestIndex = i;
+        bestTop = y + paddedHeight;
+        bestY = y;
+      }
+    }
+    if (bestIndex < 0) {
+      return null;
+    }
+    int x = skyline.get(bestIndex).x;
+    Region used = new Region(x, bestY, paddedWidth, paddedHeight);
+    usedRegions.add(used);
+    usedArea += used.getArea();
+    raise(bestIndex, used);
+    return new Region(x, bestY, width, height);
+  }
+
+  @Override
+  public void remove(@Nonnull final Region region) {
+    for (int i = 0; i < usedRegions.size(); i++) {
+      Region used = usedRegions.get(i);
+      if (used.getX() == region.getX() && used.getY() == region.getY()) {
+        usedRegions.remove(i);
+        usedArea -= used.getArea();
+        lower(used);
+        return;
+      }
+    }
+  }
+
+  @Override
+  public int getFreeArea() {
+    return binWidth * binHeight - usedArea;
+  }
+
+  @Override
+  public int getLargestFreeArea() {
+    int largest = 0;
+    for (int i = 0; i < skyline.size(); i++) {
+      int y = skyline.get(i).y;
+      int left = i;
+      while (left > 0 && skyline.get(left - 1).y <= y) {
+        left--;
+      }
+      int right = i;
+      while (right < skyline.size() - 1 && skyline.get(right + 1).y <= y) {
+        right++;
+      }
+      Segment last = skyline.get(right);
+      int width = last.x + last.width - skyline.get(left).x;
+      largest = Math.max(largest, width * (binHeight - y));
+    }
+    return largest;
+  }
+
+  // the y position an image would be placed at when it starts at the segment with the given index or -1
+  private int fit(final int index, final int width, final int height) {
+    int x = skyline.get(index).x;
+    if (x + width > binWidth) {
+      return -1;
+    }
+    int y = 0;
+    int remaining = width;
+    for (int i = index; remaining > 0; i++) {
+      Segment segment = skyline.get(i);
+      y = Math.max(y, segment.y);
+      if (y + height > binHeight) {
+        return -1;
+      }
+      remaining -= segment.width;
+    }
+    return y;
+  }
+
+  private void raise(final int index, @Nonnull final Region used) {
+    if (used.getWidth() == 0) {
+      return;
+    }
+    skyline.add(index, new Segment(used.getX(), used.getBottom(), used.getWidth()));
+    int right = used.getRight();
+    int i = index + 1;
+    while (i < skyline.size()) {
+      Segment segment = skyline.get(i);
+      if (segment.x >= right) {
+        break;
+      }
+      int segmentRight = segment.x + segment.width;
+      if (segmentRight <= right) {
+        skyline.remove(i);
+      } else {
+        segment.width = segmentRight - right;
+        segment.x = right;
+        break;
+      }
+    }
+    mergeSegments();
+  }
+
+  // recalculates the skyline above a removed image from the remaining images
+  private void lower(@Nonnull final Region removed) {
+    List<Integer> edges = new ArrayList<Integer>();
+    edges.add(removed.getX());
+    edges.add(removed.getRight());
+    for (int i = 0; i < usedRegions.size(); i++) {
+      Region used = usedRegions.get(i);
+      if (used.getX() > removed.getX() && used.getX() < removed.getRight()) {
+        edges.add(used.getX());
+      }
+      if (used.getRight() > removed.getX() && used.getRight() < removed.getRight()) {
+        edges.add(used.getRight());
+      }
+    }
+    Collections.sort(edges);
+
+    List<Segment> replacement = new ArrayList<Segment>();
+    for (int e = 0; e < edges.size() - 1; e++) {
+      int left = edges.get(e);
+      int right = edges.get(e + 1);
+      if (left == right) {
+        continue;
+      }
+      int top = 0;
+      for (int i = 0; i < usedRegions.size(); i++) {
+        Region used = usedRegions.get(i);
+        if (used.getX() < right && used.getRight() > left) {
+          top = Math.max(top, used.getBottom());
+        }
+      }
+      replacement.add(new Segment(left, top, right - left));
+    }
+
+    // cut the segments covering the removed image and put the recalculated ones in between
+    List<Segment> result = new ArrayList<Segment>();
+    for (int i = 0; i < skyline.size(); i++) {
+      Segment segment = skyline.get(i);
+      int segmentRight = segment.x + segment.width;
+      if (segment.x < removed.getX()) {
+        result.add(new Segment(segment.x, segment.y, Math.min(segmentRight, removed.getX()) - segment.x));
+      }
+      if (segment.x < removed.getRight() && segmentRight > removed.getX() && segment.x <= removed.getX()) {
+        result.addAll(replacement);
+      }
+      if (segmentRight > removed.getRight()) {
+        int left = Math.max(segment.x, removed.getRight());
+        result.add(new Segment(left, segment.y, segmentRight - left));
+      }
+    }
+    skyline.clear();
+    skyline.addAll(result);
+    mergeSegments();
+  }
+
+  private void mergeSegments() {
+    int i = 0;
+    while (i < skyline.size() - 1) {
+      Segment segment = skyline.get(i);
+      Segment next = skyline.get(i + 1);
+      if (segment.y == next.y) {
+        segment.width += next.width;
+        skyline.remove(i + 1);
+      } else {
+        i++;
+      }
+    }
+  }
+
+  private static final class Segment {
+    private int x;
+    private final int y;
+    private int width;
+
+    private Segment(final int x, final int y, final int width) {
+      this.x = x;
+      this.y = y;
+      this.width = width;
+    }
+  }
+}
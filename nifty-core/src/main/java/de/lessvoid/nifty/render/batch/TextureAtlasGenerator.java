@@ -1,8 +1,14 @@
 package de.lessvoid.nifty.render.batch;
 
+import de.lessvoid.nifty.render.batch.TextureAtlasPackingStrategy.Region;
+
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.TreeMap;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -10,8 +16,9 @@ import javax.annotation.Nullable;
 /**
  * This class tries to fit source texture data into a single destination texture.
  * <p/>
- * This work is based on https://github.com/lukaszpaczkowski/texture-atlas-generator by lukaszpaczkowski which is based
- * on the popular packing algorithm http://www.blackpawn.com/texts/lightmaps/ by jimscott@blackpawn.com.
+ * The actual packing is done by a {@link TextureAtlasPackingStrategy}. This class keeps track of the images by their
+ * names, provides some statistics about how well the atlas is used and moves images around to join the free space
+ * of the atlas again, see {@link #defragment(int)}.
  * <p/>
  * This class tries to separate the actual algorithm from the image manipulating code so that this can be used with
  * different rendering/image frameworks.
@@ -24,10 +31,14 @@ public class TextureAtlasGenerator {
   private final int atlasPadding;
   private final float atlasTolerance;
   @Nonnull
-  private Node root;
-  // for easy access we keep each node in a map with the passed name as the key so we can look up a Node directly
+  private final TextureAtlasPackingStrategy strategy;
+  // for easy access we keep each region in a map with the passed name as the key so we can look up a region directly
+  @Nonnull
+  private Map<String, Region> rectangleMap;
+  // the images that can't be moved to a better place, until the next image is added or removed
   @Nonnull
-  private Map<String, Node> rectangleMap;
+  private final Set<String> settledImages = new HashSet<String>();
+  private int usedImageArea;
 
   /**
    * You'll get an instance of this class back when you add an image. This class will show you where you'll need to
@@ -65,6 +76,67 @@ public class TextureAtlasGenerator {
     }
   }
 
+  /**
+   * An image that has been moved to another place in the atlas by {@link #defragment(int)}. The image data needs to
+   * be copied to the new position and the texture coordinates used for the image need to be updated.
+   */
+  public static class Relocation {
+    @Nonnull
+    private final String imageName;
+    @Nonnull
+    private final Result from;
+    @Nonnull
+    private final Result to;
+
+    public Relocation(@Nonnull final String imageName, @Nonnull final Result from, @Nonnull final Result to) {
+      this.imageName = imageName;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Nonnull
+    public String getImageName() {
+      return imageName;
+    }
+
+    @Nonnull
+    public Result getFrom() {
+      return from;
+    }
+
+    @Nonnull
+    public Result getTo() {
+      return to;
+    }
+  }
+
+  // the images with the lowest bottom edge first, the ones that can be moved the most when defragmenting come last
+  @Nonnull
+  private static final Comparator<Map.Entry<String, Region>> BOTTOM_EDGE_ORDER =
+      new Comparator<Map.Entry<String, Region>>() {
+        @Override
+        public int compare(final Map.Entry<String, Region> o1, final Map.Entry<String, Region> o2) {
+          Region r1 = o1.getValue();
+          Region r2 = o2.getValue();
+          if (r1.getBottom() != r2.getBottom()) {
+            return r1.getBottom() < r2.getBottom() ? -1 : 1;
+          }
+          return r1.getX() < r2.getX() ? -1 : (r1.getX() == r2.getX() ? 0 : 1);
+        }
+      };
+
+  /**
+   * Creates a new TextureAtlasGenerator that packs the images with the {@link BinaryTreePackingStrategy}.
+   *
+   * @see #TextureAtlasGenerator(int, int, int, float, TextureAtlasPackingStrategy)
+   */
+  public TextureAtlasGenerator(final int atlasWidth,
+                               final int atlasHeight,
+                               final int atlasPadding,
+                               final float atlasTolerance) {
+    this(atlasWidth, atlasHeight, atlasPadding, atlasTolerance, new BinaryTreePackingStrategy());
+  }
+
   /**
    * Creates a new TextureAtlasGenerator.
    *
@@ -80,11 +152,14 @@ public class TextureAtlasGenerator {
    *                       of 1 would NOT be added to the atlas when calling {@link #addImage(int, int, String)}
    *                       because it would take up 25% (or 0.25f) of total atlas space, assuming there is even room
    *                       for it in the first place, must be >= 0.0f and <= 1.0f
+   * @param strategy the strategy that decides where the images are placed in the atlas, a strategy instance can
+   *                 only be used by a single generator
    */
   public TextureAtlasGenerator(final int atlasWidth,
                                final int atlasHeight,
                                final int atlasPadding,
-                               final float atlasTolerance) {
+                               final float atlasTolerance,
+                               @Nonnull final TextureAtlasPackingStrategy strategy) {
     if (atlasWidth <= 0) {
       throw new IllegalArgumentException("atlas width must be greater than 0");
     } else if (atlasHeight <= 0) {
@@ -102,6 +177,7 @@ public class TextureAtlasGenerator {
     this.atlasHeight = atlasHeight;
     this.atlasPadding = atlasPadding;
     this.atlasTolerance = atlasTolerance;
+    this.strategy = strategy;
     reset();
   }
 
@@ -132,13 +208,15 @@ public class TextureAtlasGenerator {
       return null;
     }
 
-    Node node = root.insert(imageWidth, imageHeight, atlasPadding);
-    if (node == null) {
+    Region region = strategy.insert(imageWidth, imageHeight);
+    if (region == null) {
       return null;
     }
 
-    rectangleMap.put(imageName, node);
-    return new Result(node.rect.x, node.rect.y, imageWidth, imageHeight);
+    rectangleMap.put(imageName, region);
+    usedImageArea += region.getArea();
+    settledImages.clear();
+    return new Result(region.getX(), region.getY(), imageWidth, imageHeight);
   }
 
   /**
@@ -168,15 +246,87 @@ public class TextureAtlasGenerator {
 
   @Nullable
   public Result removeImage(@Nonnull final String name) {
-    Node node = rectangleMap.remove(name);
-    if (node == null) {
+    Region region = rectangleMap.remove(name);
+    if (region == null) {
       return null;
     }
 
-    node.occupied = false;
-    node.child[0] = null;
-    node.child[1] = null;
-    return new Result(node.rect.x, node.rect.y, node.rect.width, node.rect.height);
+    strategy.remove(region);
+    usedImageArea -= region.getArea();
+    settledImages.clear();
+    return new Result(region.getX(), region.getY(), region.getWidth(), region.getHeight());
+  }
+
+  /**
+   * The part of the atlas area that is covered by images (without the padding).
+   *
+   * @return the occupancy between 0.0f (empty) and 1.0f (full)
+   */
+  public float getOccupancy() {
+    return usedImageArea / (float) (atlasWidth * atlasHeight);
+  }
+
+  /**
+   * How much the free space of the atlas is split into pieces. This is 0.0f in case all free space is available as a
+   * single rectangle. The closer this gets to 1.0f the smaller the largest image is that still fits into the atlas,
+   * compared to the free space of the atlas.
+   *
+   * @return the fragmentation between 0.0f and 1.0f
+   */
+  public float getFragmentation() {
+    int freeArea = strategy.getFreeArea();
+    if (freeArea <= 0) {
+      return 0.0f;
+    }
+    return 1.0f - strategy.getLargestFreeArea() / (float) freeArea;
+  }
+
+  /**
+   * Moves images to better places of the atlas so that the free space is joined again. Images are only moved towards
+   * the top of the atlas and only to places that don't overlap their current place, so the image data can be copied
+   * to the new place directly. Since this only moves a limited number of images it can be called once each frame
+   * until no more images are moved. Calling it again is cheap as long as no images are added or removed.
+   *
+   * @param maxRelocations the maximum number of images to move
+   *
+   * @return the moved images, empty in case no image can be moved to a better place
+   */
+  @Nonnull
+  public List<Relocation> defragment(final int maxRelocations) {
+    if (maxRelocations <= 0 || settledImages.size() == rectangleMap.size()) {
+      return Collections.emptyList();
+    }
+    List<Map.Entry<String, Region>> candidates = new ArrayList<Map.Entry<String, Region>>(rectangleMap.entrySet());
+    Collections.sort(candidates, Collections.reverseOrder(BOTTOM_EDGE_ORDER));
+
+    List<Relocation> relocations = new ArrayList<Relocation>();
+    for (int i = 0; i < candidates.size() && relocations.size() < maxRelocations; i++) {
+      String name = candidates.get(i).getKey();
+      Region from = candidates.get(i).getValue();
+      if (settledImages.contains(name)) {
+        continue;
+      }
+      settledImages.add(name);
+      Region to = strategy.insert(from.getWidth(), from.getHeight());
+      if (to == null) {
+        continue;
+      }
+      if (to.getBottom() < from.getBottom() || (to.getBottom() == from.getBottom() && to.getX() < from.getX())) {
+        strategy.remove(from);
+        rectangleMap.put(name, to);
+        relocations.add(new Relocation(
+            name,
+            new Result(from.getX(), from.getY(), from.getWidth(), from.getHeight()),
+            new Result(to.getX(), to.getY(), to.getWidth(), to.getHeight())));
+      } else {
+        strategy.remove(to);
+      }
+    }
+    // moving an image frees space that other images could be moved to
+    if (!relocations.isEmpty()) {
+      settledImages.clear();
+    }
+    return relocations;
   }
 
   public int getAtlasWidth() {
@@ -192,87 +342,21 @@ public class TextureAtlasGenerator {
       final int width,
       final int height) {
     List<Result> results = new ArrayList<Result>();
-    root = new Node(0, 0, width, height);
-    for (Map.Entry<String, Node> entry : rectangleMap.entrySet()) {
-      Rectangle rect = entry.getValue().rect;
-      results.add(addImage(rect.width, rect.height, entry.getKey()));
+    strategy.reset(width, height, atlasPadding);
+    Map<String, Region> images = rectangleMap;
+    rectangleMap = new TreeMap<String, Region>();
+    usedImageArea = 0;
+    for (Map.Entry<String, Region> entry : images.entrySet()) {
+      Region region = entry.getValue();
+      results.add(addImage(region.getWidth(), region.getHeight(), entry.getKey()));
     }
     return results;
   }
 
-  private static class Rectangle {
-    private final int x;
-    private final int y;
-    private final int width;
-    private final int height;
-
-    public Rectangle(final int x, final int y, final int width, final int height) {
-      this.x = x;
-      this.y = y;
-      this.width = width;
-      this.height = height;
-    }
-  }
-
-  private static class Node {
-    @Nonnull
-    public final Rectangle rect;
-    @Nonnull
-    public final Node[] child;
-    public boolean occupied;
-
-    public Node(final int x, final int y, final int width, final int height) {
-      rect = new Rectangle(x, y, width, height);
-      child = new Node[2];
-      child[0] = null;
-      child[1] = null;
-      occupied = false;
-    }
-
-    public boolean isLeaf() {
-      return child[0] == null && child[1] == null;
-    }
-
-    // Algorithm from http://www.blackpawn.com/texts/lightmaps/
-    @Nullable
-    public Node insert(final int imageWidth, final int imageHeight, final int padding) {
-      if (!isLeaf()) {
-        Node newNode = child[0].insert(imageWidth, imageHeight, padding);
-        if (newNode != null) {
-          return newNode;
-        }
-        return child[1].insert(imageWidth, imageHeight, padding);
-      }
-
-      if (occupied) {
-        return null; // occupied
-      }
-
-      if (imageWidth > rect.width || imageHeight > rect.height) {
-        return null; // does not fit
-      }
-
-      if (imageWidth == rect.width && imageHeight == rect.height) {
-        occupied = true; // perfect fit
-        return this;
-      }
-
-      int dw = rect.width - imageWidth;
-      int dh = rect.height - imageHeight;
-
-      if (dw > dh) {
-        child[0] = new Node(rect.x, rect.y, imageWidth, rect.height);
-        child[1] = new Node(padding + rect.x + imageWidth, rect.y, rect.width - imageWidth - padding, rect.height);
-      } else {
-        child[0] = new Node(rect.x, rect.y, rect.width, imageHeight);
-        child[1] = new Node(rect.x, padding + rect.y + imageHeight, rect.width, rect.height - imageHeight - padding);
-      }
-      return child[0].insert(imageWidth, imageHeight, padding);
-    }
-  }
-
   public void reset() {
-    root = new Node(0, 0, atlasWidth, atlasHeight);
-    rectangleMap = new TreeMap<String, Node>();
+    strategy.reset(atlasWidth, atlasHeight, atlasPadding);
+    rectangleMap = new TreeMap<String, Region>();
+    settledImages.clear();
+    usedImageArea = 0;
   }
 }
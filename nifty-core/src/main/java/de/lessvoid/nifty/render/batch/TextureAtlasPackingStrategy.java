@@ -0,0 +1,101 @@
+package de.lessvoid.nifty.render.batch;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Decides where the images are placed in a texture atlas. The {@link TextureAtlasGenerator} keeps track of the names
+ * of the images and delegates the actual packing to an implementation of this interface.
+ *
+ * @author void
+ */
+public interface TextureAtlasPackingStrategy {
+  /**
+   * Remove all images and start over with an empty atlas.
+   *
+   * @param width   the width of the atlas
+   * @param height  the height of the atlas
+   * @param padding the empty space to keep between the images
+   */
+  void reset(int width, int height, int padding);
+
+  /**
+   * Find a place for an image and mark it as used.
+   *
+   * @return the region of the atlas the image was placed in (exactly the size of the image) or {@code null} in case
+   * there is no space left for the image
+   */
+  @Nullable
+  Region insert(int width, int height);
+
+  /**
+   * Free the space of an image.
+   *
+   * @param region the region returned by {@link #insert(int, int)} when the image was added
+   */
+  void remove(@Nonnull Region region);
+
+  /**
+   * The area in pixels that is not used by any image, including the padding around the images.
+   */
+  int getFreeArea();
+
+  /**
+   * The area in pixels of the largest free rectangle that can still be used for new images. In case this is a lot
+   * smaller than {@link #getFreeArea()} the free space is split into many small pieces.
+   */
+  int getLargestFreeArea();
+
+  /**
+   * A rectangular region of the atlas.
+   */
+  final class Region {
+    private final int x;
+    private final int y;
+    private final int width;
+    private final int height;
+
+    public Region(final int x, final int y, final int width, final int height) {
+      this.x = x;
+      this.y = y;
+      this.width = width;
+      this.height = height;
+    }
+
+    public int getX() {
+      return x;
+    }
+
+    public int getY() {
+      return y;
+    }
+
+    public int getWidth() {
+      return width;
+    }
+
+    public int getHeight() {
+      return height;
+    }
+
+    public int getRight() {
+      return x + width;
+    }
+
+    public int getBottom() {
+      return y + height;
+    }
+
+    public int getArea() {
+      return width * height;
+    }
+
+    boolean contains(@Nonnull final Region other) {
+      return other.x >= x && other.y >= y && other.getRight() <= getRight() && other.getBottom() <= getBottom();
+    }
+
+    boolean intersects(@Nonnull final Region other) {
+      return other.x < getRight() && other.getRight() > x && other.y < getBottom() && other.getBottom() > y;
+    }
+  }
+}
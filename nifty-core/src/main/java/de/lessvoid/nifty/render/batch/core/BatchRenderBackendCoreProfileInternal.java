@@ -49,8 +49,12 @@ import javax.annotation.Nullable;
 public class BatchRenderBackendCoreProfileInternal implements BatchRenderBackend {
   @Nonnull
   private static final Logger log = Logger.getLogger(BatchRenderBackendInternal.class.getName());
-  private static final int PRIMITIVE_RESTART_INDEX = 0xFFFF;
+  // the indices of all batches of a frame are stored in one GL_UNSIGNED_INT index buffer so they can grow beyond 0xFFFF
+  private static final int PRIMITIVE_RESTART_INDEX = 0xFFFFFFFF;
   private static final int INVALID_TEXTURE_ID = -1;
+  // the array texture atlas uses its own texture unit, the batches without an atlas layer still use GL_TEXTURE0
+  private static final int TEXTURE_ARRAY_UNIT = 1;
+  private static final int NO_LAYER = -1;
   @Nonnull
   private final CoreGL gl;
   @Nonnull
@@ -59,11 +63,15 @@ public class BatchRenderBackendCoreProfileInternal implements BatchRenderBackend
   private final ImageFactory imageFactory;
   @Nonnull
   private final MouseCursorFactory mouseCursorFactory;
-  @Nonnull
-  private final CoreShader shader;
+  @Nullable
+  private CoreShader shader;
   @Nonnull
   private final IntBuffer viewportBuffer;
   @Nonnull
+  private final IntBuffer textureIdBuffer;
+  @Nullable
+  private CoreBatchArena arena;
+  @Nonnull
   private final ObjectPool<CoreBatch> batchPool;
   @Nonnull
   private final CoreProfileSaveGLState saveGLState;
@@ -74,6 +82,11 @@ public class BatchRenderBackendCoreProfileInternal implements BatchRenderBackend
   @Nonnull
   private final Map<Integer, CoreTexture2D> nonAtlasTextures = new HashMap<Integer, CoreTexture2D>();
   @Nonnull
+  private final Map<Integer, Integer> atlasLayers = new HashMap<Integer, Integer>();
+  @Nullable
+  private CoreTexture2DArray atlasArray;
+  private int maxAtlasLayers;
+  @Nonnull
   private final Map<String, MouseCursor> cursorCache = new HashMap<String, MouseCursor>();
   @Nullable
   private MouseCursor mouseCursor;
@@ -81,6 +94,8 @@ public class BatchRenderBackendCoreProfileInternal implements BatchRenderBackend
   private NiftyResourceLoader resourceLoader;
   @Nullable
   private CoreBatch currentBatch;
+  @Nullable
+  private CoreTexture currentTexture;
   private int viewportWidth;
   private int viewportHeight;
   private boolean shouldUseHighQualityTextures = false;
@@ -97,17 +112,12 @@ public class BatchRenderBackendCoreProfileInternal implements BatchRenderBackend
     this.mouseCursorFactory = mouseCursorFactory;
     this.saveGLState = new CoreProfileSaveGLState(gl, bufferFactory);
     viewportBuffer = bufferFactory.createNativeOrderedIntBuffer(16);
-    shader = CoreShader.createShaderWithVertexAttributes(gl, bufferFactory, "aVertex", "aColor", "aTexture");
-    shader.fragmentShader("nifty.fs");
-    shader.vertexShader("nifty.vs");
-    shader.link();
-    shader.activate();
-    shader.setUniformi("uTex", 0);
+    textureIdBuffer = bufferFactory.createNativeOrderedIntBuffer(1);
     batchPool = new ObjectPool<CoreBatch>(new Factory<CoreBatch>() {
       @Nonnull
       @Override
       public CoreBatch createNew() {
-        return new CoreBatchInternal(gl, shader, bufferFactory, PRIMITIVE_RESTART_INDEX);
+        return new CoreBatchInternal(getArena());
       }
     });
   }
@@ -136,16 +146,20 @@ public class BatchRenderBackendCoreProfileInternal implements BatchRenderBackend
   public void beginFrame() {
     log.fine("beginFrame()");
     saveGLState.saveCore();
-    shader.activate();
-    shader.setUniformMatrix4f("uModelViewProjectionMatrix", CoreMatrixFactory.createOrthoMatrix(0, getWidth(), getHeight(), 0));
+    CoreBatchArena currentArena = getArena();
+    CoreShader currentShader = shader;
+    assert currentShader != null; // created together with the arena
+    currentShader.activate();
+    currentShader.setUniformMatrix4f("uModelViewProjectionMatrix", CoreMatrixFactory.createOrthoMatrix(0, getWidth(), getHeight(), 0));
     deleteBatches();
+    currentArena.beginFrame();
   }
 
   @Override
   public void endFrame() {
     log.fine("endFrame()");
     saveGLState.restoreCore();
-    CheckGL.checkGLError(gl);
+    CheckGL.checkGLErrorOfFrame(gl);
   }
 
   @Override
@@ -291,20 +305,62 @@ public class BatchRenderBackendCoreProfileInternal implements BatchRenderBackend
   @Override
   public void beginBatch(@Nonnull final BlendMode blendMode, final int textureId) {
     log.fine("beginBatch()");
+    CoreTexture texture = findTexture(textureId);
+    getArena().setLayer(getAtlasLayer(textureId));
+    if (currentBatch != null && texture == currentTexture && blendMode == currentBatch.getBlendMode()) {
+      // switching to another layer of the atlas array texture doesn't need a new batch
+      return;
+    }
     currentBatch = createNewBatch();
+    currentTexture = texture;
     addBatch(currentBatch);
-    currentBatch.begin(blendMode, findTexture(textureId));
+    currentBatch.begin(blendMode, texture);
   }
 
   @Override
   public int render() {
     log.fine("render()");
     beginRendering();
+    CoreBatchArena currentArena = getArena();
+    currentArena.upload();
     renderBatches();
+    currentArena.endRendering();
     endRendering();
+    if (log.isLoggable(Level.FINE)) {
+      log.fine("batches: " + getBatchCount() + ", draw calls: " + getDrawCalls() + ", uploaded bytes: " +
+              getUploadedBytes());
+    }
+    return getTotalBatchesRendered();
+  }
+
+  /**
+   * Get the amount of batches of the last rendered frame.
+   *
+   * @return the amount of batches
+   */
+  public int getBatchCount() {
     return getTotalBatchesRendered();
   }
 
+  /**
+   * Get the amount of draw calls of the last rendered frame. Consecutive batches using the same texture and blend mode
+   * are drawn with a single draw call, so this can be less than the amount of batches.
+   *
+   * @return the amount of draw calls
+   */
+  public int getDrawCalls() {
+    return arena == null ? 0 : arena.getDrawCalls();
+  }
+
+  /**
+   * Get the amount of vertex and index data uploaded to the GPU for the last rendered frame.
+   *
+   * @return the uploaded data in bytes
+   */
+  public int getUploadedBytes() {
+    return arena == null ? 0 : arena.getUploadedBytes();
+  }
+
   @Override
   public void removeImageFromAtlas(
           @Nonnull final Image image,
@@ -343,8 +399,62 @@ public class BatchRenderBackendCoreProfileInternal implements BatchRenderBackend
     shouldFillRemovedImagesInAtlas = shouldFill;
   }
 
+  @Override
+  public void useTextureArrayAtlas(final int maxLayers) {
+    log.fine("useTextureArrayAtlas()");
+    if (maxLayers <= 0 || maxAtlasLayers > 0) {
+      return;
+    }
+    if (arena != null) {
+      log.warning("The array texture atlas can only be enabled before the first frame is rendered.");
+      return;
+    }
+    log.info("Using an array texture with up to " + maxLayers + " layers for the texture atlases.");
+    maxAtlasLayers = maxLayers;
+  }
+
   // Internal implementations
 
+  /**
+   * Get the arena that stores the vertex data of all batches. The arena and its shader are created on first use, once
+   * it is known if the atlases are stored in an array texture, so only the shader that is actually used is created.
+   */
+  @Nonnull
+  private CoreBatchArena getArena() {
+    if (arena == null) {
+      CoreBatchArena newArena;
+      if (maxAtlasLayers > 0) {
+        CoreShader newShader = createShader("nifty-array.vs", "nifty-array.fs");
+        newShader.setUniformi("uTexArray", TEXTURE_ARRAY_UNIT);
+        newArena = new CoreBatchArena(gl, newShader, bufferFactory, PRIMITIVE_RESTART_INDEX, true);
+        shader = newShader;
+      } else {
+        CoreShader newShader = createShader("nifty.vs", "nifty.fs");
+        newArena = new CoreBatchArena(gl, newShader, bufferFactory, PRIMITIVE_RESTART_INDEX);
+        shader = newShader;
+      }
+      arena = newArena;
+      return newArena;
+    }
+    return arena;
+  }
+
+  @Nonnull
+  private CoreShader createShader(@Nonnull final String vertexShader, @Nonnull final String fragmentShader) {
+    CoreShader newShader = CoreShader.createShaderWithVertexAttributes(
+            gl,
+            bufferFactory,
+            "aVertex",
+            "aColor",
+            "aTexture");
+    newShader.fragmentShader(fragmentShader);
+    newShader.vertexShader(vertexShader);
+    newShader.link();
+    newShader.activate();
+    newShader.setUniformi("uTex", 0);
+    return newShader;
+  }
+
   private void updateViewport() {
     viewportBuffer.clear();
     gl.glGetIntegerv(gl.GL_VIEWPORT(), viewportBuffer);
@@ -364,10 +474,18 @@ public class BatchRenderBackendCoreProfileInternal implements BatchRenderBackend
   }
 
   private int getAtlasWidth(final int atlasTextureId) {
+    if (isAtlasLayer(atlasTextureId)) {
+      assert atlasArray != null;
+      return atlasArray.getWidth();
+    }
     return getAtlasTexture(atlasTextureId).getWidth();
   }
 
   private int getAtlasHeight(final int atlasTextureId) {
+    if (isAtlasLayer(atlasTextureId)) {
+      assert atlasArray != null;
+      return atlasArray.getHeight();
+    }
     return getAtlasTexture(atlasTextureId).getHeight();
   }
 
@@ -376,6 +494,8 @@ public class BatchRenderBackendCoreProfileInternal implements BatchRenderBackend
       batchPool.free(batch);
     }
     batches.clear();
+    currentBatch = null;
+    currentTexture = null;
   }
 
   private void clearGlColorBufferWithBlack() {
@@ -384,12 +504,60 @@ public class BatchRenderBackendCoreProfileInternal implements BatchRenderBackend
   }
 
   private int createAtlasTextureInternal(final int width, final int height) throws Exception {
+    if (canCreateAtlasLayer(width, height)) {
+      return createAtlasLayer(width, height);
+    }
     CoreTexture2D atlasTexture = createTexture(createBlankImageData(width, height), width, height);
     log.warning("createAtlasTextureInternal with atlas texture id: " + atlasTexture.getId()); // TODO Remove this debugging statement.
     atlasTextures.put(atlasTexture.getId(), atlasTexture);
     return atlasTexture.getId();
   }
 
+  private boolean canCreateAtlasLayer(final int width, final int height) {
+    if (maxAtlasLayers <= 0) {
+      return false;
+    }
+    if (atlasArray == null) {
+      return true;
+    }
+    // atlases that don't fit into the array texture fall back to regular textures
+    return atlasArray.getWidth() == width &&
+            atlasArray.getHeight() == height &&
+            atlasLayers.size() < atlasArray.getLayers();
+  }
+
+  private int createAtlasLayer(final int width, final int height) {
+    if (atlasArray == null) {
+      atlasArray = new CoreTexture2DArray(
+              gl,
+              bufferFactory,
+              width,
+              height,
+              maxAtlasLayers,
+              TEXTURE_ARRAY_UNIT,
+              shouldUseHighQualityTextures);
+    }
+    // The texture name is never bound, it only provides an id for the layer that can't be mistaken for any other
+    // texture.
+    textureIdBuffer.clear();
+    gl.glGenTextures(1, textureIdBuffer);
+    CheckGL.checkGLError(gl, "glGenTextures");
+    int atlasTextureId = textureIdBuffer.get(0);
+    int layer = atlasLayers.size();
+    atlasLayers.put(atlasTextureId, layer);
+    atlasArray.updateLayerSection(layer, 0, 0, width, height, createBlankImageData(width, height));
+    return atlasTextureId;
+  }
+
+  private boolean isAtlasLayer(final int textureId) {
+    return atlasLayers.containsKey(textureId);
+  }
+
+  private int getAtlasLayer(final int textureId) {
+    Integer layer = atlasLayers.get(textureId);
+    return layer == null ? NO_LAYER : layer;
+  }
+
   private void textureCreationFailed(
           final int textureWidth,
           final int textureHeight,
@@ -419,6 +587,16 @@ public class BatchRenderBackendCoreProfileInternal implements BatchRenderBackend
   }
 
   private void updateAtlasTexture(final int atlasTextureId, @Nullable final ByteBuffer imageData) {
+    if (isAtlasLayer(atlasTextureId)) {
+      updateAtlasTextureSection(
+              atlasTextureId,
+              imageData,
+              0,
+              0,
+              getAtlasWidth(atlasTextureId),
+              getAtlasHeight(atlasTextureId));
+      return;
+    }
     bindAtlasTexture(atlasTextureId);
     getAtlasTexture(atlasTextureId).updateTextureData(imageData);
   }
@@ -435,6 +613,17 @@ public class BatchRenderBackendCoreProfileInternal implements BatchRenderBackend
       return;
     }
     log.warning("updateAtlasTextureSection with atlas texture id: " + atlasTextureId); // TODO Remove this debugging statement.
+    if (isAtlasLayer(atlasTextureId)) {
+      assert atlasArray != null;
+      atlasArray.updateLayerSection(
+              getAtlasLayer(atlasTextureId),
+              atlasSectionX,
+              atlasSectionY,
+              atlasSectionWidth,
+              atlasSectionHeight,
+              imageData);
+      return;
+    }
     bindAtlasTexture(atlasTextureId);
     // TODO Move this OpenGL call and error check to CoreTexture2D!
     gl.glTexSubImage2D(
@@ -447,8 +636,10 @@ public class BatchRenderBackendCoreProfileInternal implements BatchRenderBackend
             gl.GL_RGBA(),
             gl.GL_UNSIGNED_BYTE(),
             imageData);
-    CheckGL.checkGLError(gl, "Failed to update section [x, y, w, h]: [" + atlasSectionX + ", " + atlasSectionY + ", " +
-            atlasSectionWidth + ", " + atlasSectionHeight + "] of atlas texture with id: " + atlasTextureId + ".");
+    if (CheckGL.isDebugMode()) {
+      CheckGL.checkGLCall(gl, "Failed to update section [x, y, w, h]: [" + atlasSectionX + ", " + atlasSectionY + ", " +
+              atlasSectionWidth + ", " + atlasSectionHeight + "] of atlas texture with id: " + atlasTextureId + ".");
+    }
   }
 
   private void bindAtlasTexture(final int atlasTextureId) {
@@ -485,8 +676,12 @@ public class BatchRenderBackendCoreProfileInternal implements BatchRenderBackend
     log.log(Level.WARNING, "Failed to delete texture width id: " + textureId + ".", exception);
   }
 
-  private CoreTexture2D findTexture(final int textureId) {
-    if (atlasTextures.containsKey(textureId)) {
+  @Nonnull
+  private CoreTexture findTexture(final int textureId) {
+    if (isAtlasLayer(textureId)) {
+      assert atlasArray != null;
+      return atlasArray;
+    } else if (atlasTextures.containsKey(textureId)) {
       return atlasTextures.get(textureId);
     } else if (nonAtlasTextures.containsKey(textureId)) {
       return nonAtlasTextures.get(textureId);
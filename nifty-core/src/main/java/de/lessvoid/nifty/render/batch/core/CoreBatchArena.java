@@ -0,0 +1,405 @@
+package de.lessvoid.nifty.render.batch.core;
+
+import de.lessvoid.nifty.render.BlendMode;
+import de.lessvoid.nifty.render.batch.CheckGL;
+import de.lessvoid.nifty.render.batch.spi.BufferFactory;
+import de.lessvoid.nifty.render.batch.spi.core.CoreGL;
+import de.lessvoid.nifty.tools.Color;
+
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Shared vertex and index storage for all {@link CoreBatchInternal} instances of a frame. All batches of a frame write
+ * their quads into the same buffers, so the whole frame is uploaded with a single glBufferSubData call for the
+ * vertices and a single one for the indices. Consecutive batches that use the same texture and blend mode are drawn
+ * with one draw call since their indices follow each other in the index buffer.
+ *
+ * The arena cycles through {@link #RING_SIZE} sets of buffers, one set per frame. The buffers written in a frame are
+ * not the ones the GPU might still read from for the frames before, so the upload does not need to wait for them. The
+ * GL buffers are only created again in case a frame needs more space than the buffers provide. Persistent mapped
+ * buffers would need OpenGL 4.4 while this renderer only requires OpenGL 3.2, so the buffers are updated with
+ * glBufferSubData.
+ *
+ * A layered arena adds the layer set with {@link #setLayer(int)} as third texture coordinate to each vertex. This
+ * allows batches that use different layers of a {@link CoreTexture2DArray} to be joined into one draw call as well.
+ *
+ * Note: Requires OpenGL 3.2 or higher.
+ *
+ * @author void
+ */
+public class CoreBatchArena {
+  // 4 vertices per quad and 8 vertex attributes per vertex:
+  // - 2 x pos
+  // - 2 x texture
+  // - 4 x color
+  private static final int VERTEX_SIZE = 8;
+  // the texture coordinates of layered vertices have a third component, the layer of the array texture
+  private static final int LAYERED_VERTEX_SIZE = VERTEX_SIZE + 1;
+  // 4 vertex indices and the primitive restart index per quad
+  private static final int PRIMITIVE_INDEX_SIZE = 5;
+  private static final int INITIAL_QUAD_CAPACITY = 2 * 1024;
+  private static final int RING_SIZE = 3;
+  @Nonnull
+  private final CoreGL gl;
+  @Nonnull
+  private final BufferFactory bufferFactory;
+  private final int vertexLocation;
+  private final int colorLocation;
+  private final int textureLocation;
+  private final int primitiveRestartIndex;
+  private final boolean layered;
+  private final int vertexSize;
+  private final int primitiveSize;
+  @Nonnull
+  private final Slot[] slots = new Slot[RING_SIZE];
+  @Nonnull
+  private final float[] primitiveBuffer;
+  @Nonnull
+  private final int[] elementIndexBuffer = new int[PRIMITIVE_INDEX_SIZE];
+  @Nonnull
+  private Slot slot;
+  private int slotIndex;
+  private int primitiveCount;
+  private int indexCount;
+  private int globalIndex;
+  private float layer;
+
+  @Nullable
+  private CoreTexture pendingTexture;
+  @Nullable
+  private BlendMode pendingBlendMode;
+  private int pendingFirstIndex;
+  private int pendingIndexCount;
+  @Nullable
+  private CoreTexture boundTexture;
+  @Nullable
+  private BlendMode activeBlendMode;
+
+  private int uploadedBytes;
+  private int drawCalls;
+
+  public CoreBatchArena(
+          @Nonnull final CoreGL gl,
+          @Nonnull final CoreShader shader,
+          @Nonnull final BufferFactory bufferFactory,
+          final int primitiveRestartIndex) {
+    this(gl, shader, bufferFactory, primitiveRestartIndex, false);
+  }
+
+  /**
+   * Creates an arena.
+   *
+   * @param layered {@code true} in case the texture coordinates of the vertices should contain the layer set with
+   *                {@link #setLayer(int)} as third component, {@code false} for plain 2D texture coordinates
+   */
+  public CoreBatchArena(
+          @Nonnull final CoreGL gl,
+          @Nonnull final CoreShader shader,
+          @Nonnull final BufferFactory bufferFactory,
+          final int primitiveRestartIndex,
+          final boolean layered) {
+    this.gl = gl;
+    this.bufferFactory = bufferFactory;
+    this.primitiveRestartIndex = primitiveRestartIndex;
+    this.layered = layered;
+    vertexSize = layered ? LAYERED_VERTEX_SIZE : VERTEX_SIZE;
+    primitiveSize = 4 * vertexSize;
+    primitiveBuffer = new float[primitiveSize];
+    vertexLocation = shader.getAttribLocation("aVertex");
+    colorLocation = shader.getAttribLocation("aColor");
+    textureLocation = shader.getAttribLocation("aTexture");
+    for (int i = 0; i < RING_SIZE; i++) {
+      slots[i] = createSlot(INITIAL_QUAD_CAPACITY);
+    }
+    slot = slots[0];
+  }
+
+  /**
+   * Starts a new frame. This switches to the next set of buffers and discards all quads of the last frame.
+   */
+  public void beginFrame() {
+    slotIndex = (slotIndex + 1) % RING_SIZE;
+    slot = slots[slotIndex];
+    slot.vbo.getBuffer().clear();
+    slot.elementVbo.getBuffer().clear();
+    primitiveCount = 0;
+    indexCount = 0;
+    globalIndex = 0;
+    pendingTexture = null;
+    pendingBlendMode = null;
+    pendingIndexCount = 0;
+    uploadedBytes = 0;
+    drawCalls = 0;
+  }
+
+  /**
+   * The amount of indices added to the arena in this frame. This is the index of the first index of the next quad.
+   */
+  public int getIndexCount() {
+    return indexCount;
+  }
+
+  /**
+   * The amount of bytes uploaded to the GPU by the last call of {@link #upload()}.
+   */
+  public int getUploadedBytes() {
+    return uploadedBytes;
+  }
+
+  /**
+   * The amount of draw calls executed in this frame.
+   */
+  public int getDrawCalls() {
+    return drawCalls;
+  }
+
+  /**
+   * Set the array texture layer written into the texture coordinates of the quads added after this call. This is
+   * only used by layered arenas.
+   *
+   * @param layer the layer or -1 for quads that don't use the array texture
+   */
+  public void setLayer(final int layer) {
+    this.layer = layer;
+  }
+
+  public void addQuad(
+          final float x,
+          final float y,
+          final float width,
+          final float height,
+          final @Nonnull Color color1,
+          final @Nonnull Color color2,
+          final @Nonnull Color color3,
+          final @Nonnull Color color4,
+          final float textureX,
+          final float textureY,
+          final float textureWidth,
+          final float textureHeight) {
+    if (primitiveCount == slot.quadCapacity) {
+      growSlot();
+    }
+
+    int bufferIndex = 0;
+    int elementIndexBufferIndex = 0;
+
+    primitiveBuffer[bufferIndex++] = x;
+    primitiveBuffer[bufferIndex++] = y + height;
+    primitiveBuffer[bufferIndex++] = color3.getRed();
+    primitiveBuffer[bufferIndex++] = color3.getGreen();
+    primitiveBuffer[bufferIndex++] = color3.getBlue();
+    primitiveBuffer[bufferIndex++] = color3.getAlpha();
+    primitiveBuffer[bufferIndex++] = textureX;
+    primitiveBuffer[bufferIndex++] = textureY + textureHeight;
+    if (layered) {
+      primitiveBuffer[bufferIndex++] = layer;
+    }
+    elementIndexBuffer[elementIndexBufferIndex++] = globalIndex++;
+
+    primitiveBuffer[bufferIndex++] = x + width;
+    primitiveBuffer[bufferIndex++] = y + height;
+    primitiveBuffer[bufferIndex++] = color4.getRed();
+    primitiveBuffer[bufferIndex++] = color4.getGreen();
+    primitiveBuffer[bufferIndex++] = color4.getBlue();
+    primitiveBuffer[bufferIndex++] = color4.getAlpha();
+    primitiveBuffer[bufferIndex++] = textureX + textureWidth;
+    primitiveBuffer[bufferIndex++] = textureY + textureHeight;
+    if (layered) {
+      primitiveBuffer[bufferIndex++] = layer;
+    }
+    elementIndexBuffer[elementIndexBufferIndex++] = globalIndex++;
+
+    primitiveBuffer[bufferIndex++] = x;
+    primitiveBuffer[bufferIndex++] = y;
+    primitiveBuffer[bufferIndex++] = color1.getRed();
+    primitiveBuffer[bufferIndex++] = color1.getGreen();
+    primitiveBuffer[bufferIndex++] = color1.getBlue();
+    primitiveBuffer[bufferIndex++] = color1.getAlpha();
+    primitiveBuffer[bufferIndex++] = textureX;
+    primitiveBuffer[bufferIndex++] = textureY;
+    if (layered) {
+      primitiveBuffer[bufferIndex++] = layer;
+    }
+    elementIndexBuffer[elementIndexBufferIndex++] = globalIndex++;
+
+    primitiveBuffer[bufferIndex++] = x + width;
+    primitiveBuffer[bufferIndex++] = y;
+    primitiveBuffer[bufferIndex++] = color2.getRed();
+    primitiveBuffer[bufferIndex++] = color2.getGreen();
+    primitiveBuffer[bufferIndex++] = color2.getBlue();
+    primitiveBuffer[bufferIndex++] = color2.getAlpha();
+    primitiveBuffer[bufferIndex++] = textureX + textureWidth;
+    primitiveBuffer[bufferIndex++] = textureY;
+    if (layered) {
+      primitiveBuffer[bufferIndex] = layer;
+    }
+    elementIndexBuffer[elementIndexBufferIndex++] = globalIndex++;
+    elementIndexBuffer[elementIndexBufferIndex] = primitiveRestartIndex;
+
+    indexCount += PRIMITIVE_INDEX_SIZE;
+
+    slot.vbo.getBuffer().put(primitiveBuffer);
+    slot.elementVbo.getBuffer().put(elementIndexBuffer);
+    primitiveCount++;
+  }
+
+  /**
+   * Sends all quads of this frame to the GPU and binds the vertex array for drawing. Call this once per frame before
+   * any batch is rendered.
+   */
+  public void upload() {
+    boundTexture = null;
+    activeBlendMode = null;
+    slot.vao.bind();
+    if (primitiveCount == 0) {
+      return;
+    }
+    FloatBuffer vertices = slot.vbo.getBuffer();
+    vertices.flip();
+    slot.vbo.bind();
+    slot.vbo.sendSubData();
+    IntBuffer indices = slot.elementVbo.getBuffer();
+    indices.flip();
+    slot.elementVbo.bind();
+    slot.elementVbo.sendSubData();
+    uploadedBytes += (vertices.remaining() + indices.remaining()) * 4;
+  }
+
+  /**
+   * Draws a range of the indices of this frame. The draw call is delayed so that it can be joined with the following
+   * range in case that range uses the same texture and blend mode and directly follows this range.
+   *
+   * @param texture    the texture of the range
+   * @param blendMode  the blend mode of the range
+   * @param firstIndex the first index of the range
+   * @param count      the amount of indices in the range
+   */
+  public void draw(
+          @Nonnull final CoreTexture texture,
+          @Nonnull final BlendMode blendMode,
+          final int firstIndex,
+          final int count) {
+    if (count == 0) {
+      return;
+    }
+    if (pendingIndexCount > 0 &&
+            texture == pendingTexture &&
+            blendMode == pendingBlendMode &&
+            firstIndex == pendingFirstIndex + pendingIndexCount) {
+      pendingIndexCount += count;
+      return;
+    }
+    flush();
+    pendingTexture = texture;
+    pendingBlendMode = blendMode;
+    pendingFirstIndex = firstIndex;
+    pendingIndexCount = count;
+  }
+
+  /**
+   * Executes the remaining draw call and unbinds the vertex array. Call this once per frame after all batches are
+   * rendered.
+   */
+  public void endRendering() {
+    flush();
+    slot.vao.unbind();
+  }
+
+  private void flush() {
+    if (pendingIndexCount == 0) {
+      return;
+    }
+    assert pendingTexture != null;
+    assert pendingBlendMode != null;
+    if (pendingTexture != boundTexture) {
+      pendingTexture.bind();
+      boundTexture = pendingTexture;
+    }
+    if (pendingBlendMode != activeBlendMode) {
+      if (pendingBlendMode.equals(BlendMode.BLEND)) {
+        gl.glBlendFunc(gl.GL_SRC_ALPHA(), gl.GL_ONE_MINUS_SRC_ALPHA());
+      } else if (pendingBlendMode.equals(BlendMode.MULIPLY)) {
+        gl.glBlendFunc(gl.GL_DST_COLOR(), gl.GL_ZERO());
+      }
+      activeBlendMode = pendingBlendMode;
+    }
+    gl.glDrawElements(gl.GL_TRIANGLE_STRIP(), pendingIndexCount, gl.GL_UNSIGNED_INT(), pendingFirstIndex * 4);
+    CheckGL.checkGLCall(gl, "glDrawElements(GL_TRIANGLE_STRIP)");
+    drawCalls++;
+    pendingIndexCount = 0;
+  }
+
+  /**
+   * Deletes all GL buffers of the arena. The arena can't be used anymore afterwards.
+   */
+  public void delete() {
+    for (Slot ringSlot : slots) {
+      ringSlot.delete();
+    }
+  }
+
+  private void growSlot() {
+    Slot grownSlot = createSlot(slot.quadCapacity * 2);
+    slot.vbo.getBuffer().flip();
+    grownSlot.vbo.getBuffer().put(slot.vbo.getBuffer());
+    slot.elementVbo.getBuffer().flip();
+    grownSlot.elementVbo.getBuffer().put(slot.elementVbo.getBuffer());
+    slot.delete();
+    slot = grownSlot;
+    slots[slotIndex] = grownSlot;
+  }
+
+  @Nonnull
+  private Slot createSlot(final int quadCapacity) {
+    CoreVAO vao = new CoreVAO(gl, bufferFactory);
+    vao.bind();
+
+    CoreElementVBO elementVbo = CoreElementVBO.createStreamVBO(
+            gl,
+            bufferFactory,
+            new int[quadCapacity * PRIMITIVE_INDEX_SIZE]);
+    elementVbo.bind();
+
+    CoreVBO vbo = CoreVBO.createStreamVBO(gl, bufferFactory, new float[quadCapacity * primitiveSize]);
+    vbo.bind();
+
+    vao.enableVertexAttributef(vertexLocation, 2, vertexSize, 0);
+    vao.enableVertexAttributef(colorLocation, 4, vertexSize, 2);
+    vao.enableVertexAttributef(textureLocation, layered ? 3 : 2, vertexSize, 6);
+    vao.unbind();
+
+    vbo.getBuffer().clear();
+    elementVbo.getBuffer().clear();
+    return new Slot(vao, vbo, elementVbo, quadCapacity);
+  }
+
+  private static final class Slot {
+    @Nonnull
+    private final CoreVAO vao;
+    @Nonnull
+    private final CoreVBO vbo;
+    @Nonnull
+    private final CoreElementVBO elementVbo;
+    private final int quadCapacity;
+
+    private Slot(
+            @Nonnull final CoreVAO vao,
+            @Nonnull final CoreVBO vbo,
+            @Nonnull final CoreElementVBO elementVbo,
+            final int quadCapacity) {
+      this.vao = vao;
+      this.vbo = vbo;
+      this.elementVbo = elementVbo;
+      this.quadCapacity = quadCapacity;
+    }
+
+    private void delete() {
+      vao.delete();
+      vbo.delete();
+      elementVbo.delete();
+    }
+  }
+}
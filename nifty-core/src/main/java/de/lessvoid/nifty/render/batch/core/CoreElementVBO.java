@@ -109,12 +109,12 @@ public class CoreElementVBO {
    */
   public void bind() {
     gl.glBindBuffer(gl.GL_ELEMENT_ARRAY_BUFFER(), id);
-    CheckGL.checkGLError(gl, "glBindBuffer(GL_ELEMENT_ARRAY_BUFFER)");
+    CheckGL.checkGLCall(gl, "glBindBuffer(GL_ELEMENT_ARRAY_BUFFER)");
   }
 
   public void unbind() {
     gl.glBindBuffer(gl.GL_ELEMENT_ARRAY_BUFFER(), 0);
-    CheckGL.checkGLError(gl, "glBindBuffer(GL_ELEMENT_ARRAY_BUFFER -> unbind)");
+    CheckGL.checkGLCall(gl, "glBindBuffer(GL_ELEMENT_ARRAY_BUFFER -> unbind)");
   }
 
   /**
@@ -122,7 +122,16 @@ public class CoreElementVBO {
    */
   public void send() {
     gl.glBufferData(gl.GL_ELEMENT_ARRAY_BUFFER(), indexBuffer, usage);
-    CheckGL.checkGLError(gl, "glBufferData(GL_ELEMENT_ARRAY_BUFFER)");
+    CheckGL.checkGLCall(gl, "glBufferData(GL_ELEMENT_ARRAY_BUFFER)");
+  }
+
+  /**
+   * Sends the current index data to the start of the existing buffer on the GPU without specifying the buffer again.
+   * The buffer on the GPU is as large as the index data this VBO was created with.
+   */
+  public void sendSubData() {
+    gl.glBufferSubData(gl.GL_ELEMENT_ARRAY_BUFFER(), 0, indexBuffer);
+    CheckGL.checkGLCall(gl, "glBufferSubData(GL_ELEMENT_ARRAY_BUFFER)");
   }
 
   /**
@@ -72,7 +72,7 @@ public class CoreProfileSaveGLState {
     gl.glBlendFunc(blendingSrcFactor, blendingDstFactor);
     enable(gl.GL_PRIMITIVE_RESTART(), primitiveRestart);
     gl.glPrimitiveRestartIndex(primitiveRestartIndex);
-    CheckGL.checkGLError(gl, "Failed to restore OpenGL Core Profile state!", true);
+    CheckGL.checkGLCall(gl, "Failed to restore OpenGL Core Profile state!", true);
   }
 
   private void enable(final int state, final boolean value) {
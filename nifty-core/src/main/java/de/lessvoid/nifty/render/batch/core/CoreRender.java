@@ -22,7 +22,7 @@ public class CoreRender {
    */
   public static void renderTriangleStrip(@Nonnull final CoreGL gl, final int count) {
     gl.glDrawArrays(gl.GL_TRIANGLE_STRIP(), 0, count);
-    CheckGL.checkGLError(gl, "glDrawArrays");
+    CheckGL.checkGLCall(gl, "glDrawArrays");
   }
 
   /**
@@ -32,7 +32,7 @@ public class CoreRender {
    */
   public static void renderTriangleFan(@Nonnull final CoreGL gl, final int count) {
     gl.glDrawArrays(gl.GL_TRIANGLE_FAN(), 0, count);
-    CheckGL.checkGLError(gl, "glDrawArrays");
+    CheckGL.checkGLCall(gl, "glDrawArrays");
   }
 
   /**
@@ -44,7 +44,7 @@ public class CoreRender {
    */
   public static void renderTriangleStripInstances(@Nonnull final CoreGL gl, final int count, int primCount) {
     gl.glDrawArraysInstanced(gl.GL_TRIANGLE_STRIP(), 0, count, primCount);
-    CheckGL.checkGLError(gl, "glDrawArraysInstanced(GL_TRIANGLE_STRIP)");
+    CheckGL.checkGLCall(gl, "glDrawArraysInstanced(GL_TRIANGLE_STRIP)");
   }
 
   /**
@@ -54,7 +54,7 @@ public class CoreRender {
    */
   public static void renderTriangleStripIndexed(@Nonnull final CoreGL gl, final int count) {
     gl.glDrawElements(gl.GL_TRIANGLE_STRIP(), count, gl.GL_UNSIGNED_INT(), 0);
-    CheckGL.checkGLError(gl, "glDrawElements(GL_TRIANGLE_STRIP)");
+    CheckGL.checkGLCall(gl, "glDrawElements(GL_TRIANGLE_STRIP)");
   }
 
   /**
@@ -64,7 +64,7 @@ public class CoreRender {
    */
   public static void renderTriangleFanIndexed(@Nonnull final CoreGL gl, final int count) {
     gl.glDrawElements(gl.GL_TRIANGLE_FAN(), count, gl.GL_UNSIGNED_INT(), 0);
-    CheckGL.checkGLError(gl, "glDrawElements(GL_TRIANGLE_FAN)");
+    CheckGL.checkGLCall(gl, "glDrawElements(GL_TRIANGLE_FAN)");
   }
 
   /**
@@ -74,7 +74,7 @@ public class CoreRender {
    */
   public static void renderTriangles(@Nonnull final CoreGL gl, final int vertexCount) {
     gl.glDrawArrays(gl.GL_TRIANGLES(), 0, vertexCount);
-    CheckGL.checkGLError(gl, "glDrawArrays");
+    CheckGL.checkGLCall(gl, "glDrawArrays");
   }
 
   /**
@@ -84,7 +84,7 @@ public class CoreRender {
    */
   public static void renderTrianglesIndexed(@Nonnull final CoreGL gl, final int count) {
     gl.glDrawElements(gl.GL_TRIANGLES(), count, gl.GL_UNSIGNED_INT(), 0);
-    CheckGL.checkGLError(gl, "glDrawElements");
+    CheckGL.checkGLCall(gl, "glDrawElements");
   }
 
   /**
@@ -94,7 +94,7 @@ public class CoreRender {
    */
   public static void renderPoints(@Nonnull final CoreGL gl, final int count) {
     gl.glDrawArrays(gl.GL_POINTS(), 0, count);
-    CheckGL.checkGLError(gl, "glDrawArrays(GL_POINTS)");
+    CheckGL.checkGLCall(gl, "glDrawArrays(GL_POINTS)");
   }
 
   /**
@@ -105,6 +105,6 @@ public class CoreRender {
    */
   public static void renderPointsInstances(@Nonnull final CoreGL gl, final int count, int primCount) {
     gl.glDrawArraysInstanced(gl.GL_POINTS(), 0, count, primCount);
-    CheckGL.checkGLError(gl, "glDrawArraysInstanced(GL_POINTS)");
+    CheckGL.checkGLCall(gl, "glDrawArraysInstanced(GL_POINTS)");
   }
 }
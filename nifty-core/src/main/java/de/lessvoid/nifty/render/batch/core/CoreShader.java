@@ -294,7 +294,7 @@ public class CoreShader {
    */
   public void setUniformf(@Nonnull final String name, final float value) {
     gl.glUniform1f(getLocation(name), value);
-    checkGLError("glUniform1f");
+    checkGLCall("glUniform1f");
   }
 
   /**
@@ -306,7 +306,7 @@ public class CoreShader {
    */
   public void setUniformf(@Nonnull final String name, final float v1, final float v2) {
     gl.glUniform2f(getLocation(name), v1, v2);
-    checkGLError("glUniform2f");
+    checkGLCall("glUniform2f");
   }
 
   /**
@@ -319,7 +319,7 @@ public class CoreShader {
    */
   public void setUniformf(@Nonnull final String name, final float v1, final float v2, final float v3) {
     gl.glUniform3f(getLocation(name), v1, v2, v3);
-    checkGLError("glUniform3f");
+    checkGLCall("glUniform3f");
   }
 
   /**
@@ -333,7 +333,7 @@ public class CoreShader {
    */
   public void setUniformf(@Nonnull final String name, final float x, final float y, final float z, final float w) {
     gl.glUniform4f(getLocation(name), x, y, z, w);
-    checkGLError("glUniform4f");
+    checkGLCall("glUniform4f");
   }
 
   /**
@@ -344,7 +344,7 @@ public class CoreShader {
    */
   public void setUniformi(@Nonnull final String name, final int v1) {
     gl.glUniform1i(getLocation(name), v1);
-    checkGLError("glUniform1i");
+    checkGLCall("glUniform1i");
   }
 
   /**
@@ -356,7 +356,7 @@ public class CoreShader {
    */
   public void setUniformi(@Nonnull final String name, final int v1, final int v2) {
     gl.glUniform2i(getLocation(name), v1, v2);
-    checkGLError("glUniform2i");
+    checkGLCall("glUniform2i");
   }
 
   /**
@@ -369,7 +369,7 @@ public class CoreShader {
    */
   public void setUniformi(@Nonnull final String name, final int v1, final int v2, final int v3) {
     gl.glUniform3i(getLocation(name), v1, v2, v3);
-    checkGLError("glUniform3i");
+    checkGLCall("glUniform3i");
   }
 
   /**
@@ -383,7 +383,7 @@ public class CoreShader {
    */
   public void setUniformi(@Nonnull final String name, final int v1, final int v2, final int v3, final int v4) {
     gl.glUniform4i(getLocation(name), v1, v2, v3, v4);
-    checkGLError("glUniform4i");
+    checkGLCall("glUniform4i");
   }
 
   /**
@@ -397,7 +397,7 @@ public class CoreShader {
     matrix.store(matrixBuffer);
     matrixBuffer.rewind();
     gl.glUniformMatrix4(getLocation(name), false, matrixBuffer);
-    checkGLError("glUniformMatrix4");
+    checkGLCall("glUniformMatrix4");
   }
 
   /**
@@ -411,7 +411,7 @@ public class CoreShader {
     buffer.put(values);
     buffer.rewind();
     gl.glUniform1(getLocation(name), buffer);
-    checkGLError("glUniform1");
+    checkGLCall("glUniform1");
   }
 
   /**
@@ -444,7 +444,7 @@ public class CoreShader {
    */
   public void activate() {
     gl.glUseProgram(program);
-    checkGLError("glUseProgram");
+    checkGLCall("glUseProgram");
   }
 
   private CoreShader(
@@ -535,6 +535,12 @@ public class CoreShader {
     CheckGL.checkGLError(gl, getLoggingPrefix() + message);
   }
 
+  private void checkGLCall(@Nonnull final String message) {
+    if (CheckGL.isDebugMode()) {
+      CheckGL.checkGLCall(gl, getLoggingPrefix() + message);
+    }
+  }
+
   @Nonnull
   private String getLoggingPrefix() {
     return "[" + program + "] ";
@@ -0,0 +1,15 @@
+package de.lessvoid.nifty.render.batch.core;
+
+/**
+ * A texture that can be used to render a {@link de.lessvoid.nifty.render.batch.spi.core.CoreBatch}.
+ *
+ * Note: Requires OpenGL 3.2 or greater.
+ *
+ * @author void
+ */
+public interface CoreTexture {
+  /**
+   * Binds the texture so that the following draw calls use it.
+   */
+  void bind();
+}
@@ -27,7 +27,7 @@ import javax.annotation.Nullable;
  * @author Martin Karing &lt;nitram@illarion.org&gt;
  * @author Aaron Mahan &lt;aaron@forerunnergames.com&gt;
  */
-public class CoreTexture2D {
+public class CoreTexture2D implements CoreTexture {
   /**
    * Image resizing mode. This enumerator is simple to use and defines the filters for the magnifying and
    * minimizing the texture automatically.
@@ -444,12 +444,13 @@ public class CoreTexture2D {
    *
    * @throws de.lessvoid.nifty.render.batch.GLException In case binding the texture fails.
    */
+  @Override
   public void bind() {
     if (isDisposed) {
       throw new GLException("This texture was disposed. You can't bind it anymore. It's gone for good.");
     }
     gl.glBindTexture(textureTarget, textureId);
-    checkGLError("glBindTexture", true);
+    checkGLCall("glBindTexture", true);
   }
 
   /**
@@ -630,6 +631,19 @@ public class CoreTexture2D {
     }
   }
 
+  /**
+   * Checks OpenGL errors of a call made while rendering if error checking and the debug mode of {@link CheckGL} are
+   * enabled.
+   *
+   * @param message        The message in case an error is detected.
+   * @param throwException {@code true} In case an exception is supposed to be thrown in case a error is detected.
+   */
+  private void checkGLCall(@Nonnull final String message, final boolean throwException) {
+    if (errorChecks) {
+      CheckGL.checkGLCall(gl, message, throwException);
+    }
+  }
+
   /**
    * Checks if the target ID is valid to be used with this class.
    *
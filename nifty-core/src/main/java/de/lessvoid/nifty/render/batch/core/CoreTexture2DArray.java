@@ -0,0 +1,137 @@
+package de.lessvoid.nifty.render.batch.core;
+
+import de.lessvoid.nifty.render.batch.CheckGL;
+import de.lessvoid.nifty.render.batch.spi.BufferFactory;
+import de.lessvoid.nifty.render.batch.spi.core.CoreGL;
+
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import javax.annotation.Nonnull;
+
+/**
+ * A 2D array texture in OpenGL space. Each layer of the array has the same size and is used as a separate texture
+ * atlas. Since all layers belong to the same texture, quads that use different layers can still be rendered with a
+ * single draw call, the layer is part of the texture coordinates of a vertex.
+ *
+ * The array texture is bound to its own texture unit so that it can be used together with a regular 2D texture.
+ * Mipmaps are not supported.
+ *
+ * Note: Requires OpenGL 3.2 or greater.
+ *
+ * @author void
+ */
+public class CoreTexture2DArray implements CoreTexture {
+  @Nonnull
+  private final CoreGL gl;
+  @Nonnull
+  private final IntBuffer textureIdBuffer;
+  private final int textureId;
+  private final int textureUnit;
+  private final int width;
+  private final int height;
+  private final int layers;
+
+  /**
+   * Creates a new array texture. The content of all layers is undefined until it is updated.
+   *
+   * @param textureUnit the index of the texture unit (0 for GL_TEXTURE0, 1 for GL_TEXTURE1 and so on) the texture is
+   *                    bound to
+   * @param linear      {@code true} to use linear filtering, {@code false} to use nearest filtering
+   */
+  public CoreTexture2DArray(
+          @Nonnull final CoreGL gl,
+          @Nonnull final BufferFactory bufferFactory,
+          final int width,
+          final int height,
+          final int layers,
+          final int textureUnit,
+          final boolean linear) {
+    this.gl = gl;
+    this.width = width;
+    this.height = height;
+    this.layers = layers;
+    this.textureUnit = textureUnit;
+    textureIdBuffer = bufferFactory.createNativeOrderedIntBuffer(1);
+    gl.glGenTextures(1, textureIdBuffer);
+    CheckGL.checkGLError(gl, "glGenTextures");
+    textureId = textureIdBuffer.get(0);
+
+    int target = gl.GL_TEXTURE_2D_ARRAY();
+    int filter = linear ? gl.GL_LINEAR() : gl.GL_NEAREST();
+    gl.glActiveTexture(gl.GL_TEXTURE0() + textureUnit);
+    gl.glBindTexture(target, textureId);
+    gl.glTexParameteri(target, gl.GL_TEXTURE_MIN_FILTER(), filter);
+    gl.glTexParameteri(target, gl.GL_TEXTURE_MAG_FILTER(), filter);
+    gl.glTexImage3D(target, 0, gl.GL_RGBA(), width, height, layers, 0, gl.GL_RGBA(), gl.GL_UNSIGNED_BYTE(), null);
+    gl.glActiveTexture(gl.GL_TEXTURE0());
+    CheckGL.checkGLError(gl, "Failed to create array texture [" + width + "x" + height + "x" + layers + "]");
+  }
+
+  /**
+   * Binds the texture to its texture unit. GL_TEXTURE0 is the active texture unit again afterwards.
+   */
+  @Override
+  public void bind() {
+    gl.glActiveTexture(gl.GL_TEXTURE0() + textureUnit);
+    gl.glBindTexture(gl.GL_TEXTURE_2D_ARRAY(), textureId);
+    gl.glActiveTexture(gl.GL_TEXTURE0());
+    CheckGL.checkGLCall(gl, "glBindTexture(GL_TEXTURE_2D_ARRAY)");
+  }
+
+  /**
+   * Replaces a section of a single layer with new RGBA data.
+   */
+  public void updateLayerSection(
+          final int layer,
+          final int x,
+          final int y,
+          final int sectionWidth,
+          final int sectionHeight,
+          @Nonnull final ByteBuffer data) {
+    gl.glActiveTexture(gl.GL_TEXTURE0() + textureUnit);
+    gl.glBindTexture(gl.GL_TEXTURE_2D_ARRAY(), textureId);
+    gl.glTexSubImage3D(
+            gl.GL_TEXTURE_2D_ARRAY(),
+            0,
+            x,
+            y,
+            layer,
+            sectionWidth,
+            sectionHeight,
+            1,
+            gl.GL_RGBA(),
+            gl.GL_UNSIGNED_BYTE(),
+            data);
+    gl.glActiveTexture(gl.GL_TEXTURE0());
+    if (CheckGL.isDebugMode()) {
+      CheckGL.checkGLCall(gl, "Failed to update section [x, y, w, h]: [" + x + ", " + y + ", " + sectionWidth + ", " +
+              sectionHeight + "] of layer " + layer + " of array texture with id: " + textureId + ".");
+    }
+  }
+
+  /**
+   * Deletes the texture.
+   */
+  public void dispose() {
+    textureIdBuffer.clear();
+    textureIdBuffer.put(0, textureId);
+    gl.glDeleteTextures(1, textureIdBuffer);
+    CheckGL.checkGLError(gl, "glDeleteTextures");
+  }
+
+  public int getId() {
+    return textureId;
+  }
+
+  public int getWidth() {
+    return width;
+  }
+
+  public int getHeight() {
+    return height;
+  }
+
+  public int getLayers() {
+    return layers;
+  }
+}
@@ -36,7 +36,7 @@ public class CoreVAO {
    */
   public void bind() {
     gl.glBindVertexArray(vao);
-    CheckGL.checkGLError(gl, "glBindVertexArray");
+    CheckGL.checkGLCall(gl, "glBindVertexArray");
   }
 
   /**
@@ -44,7 +44,7 @@ public class CoreVAO {
    */
   public void unbind() {
     gl.glBindVertexArray(0);
-    CheckGL.checkGLError(gl, "glBindVertexArray(0)");
+    CheckGL.checkGLCall(gl, "glBindVertexArray(0)");
   }
 
   /**
@@ -67,7 +67,9 @@ public class CoreVAO {
   public void enableVertexAttributef(final int index, final int size, final int stride, final int offset) {
     gl.glVertexAttribPointer(index, size, gl.GL_FLOAT(), false, stride * 4, offset * 4);
     gl.glEnableVertexAttribArray(index);
-    CheckGL.checkGLError(gl, "glVertexAttribPointer (" + index + ")");
+    if (CheckGL.isDebugMode()) {
+      CheckGL.checkGLCall(gl, "glVertexAttribPointer (" + index + ")");
+    }
   }
 
   private void init() {
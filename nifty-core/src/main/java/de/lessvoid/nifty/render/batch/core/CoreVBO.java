@@ -142,7 +142,7 @@ public class CoreVBO {
   @Nonnull
   public FloatBuffer getMappedBuffer() {
     ByteBuffer dataBuffer = gl.glMapBuffer(gl.GL_ARRAY_BUFFER(), gl.GL_WRITE_ONLY(), byteLength, mappedBufferCache);
-    CheckGL.checkGLError(gl, "getMappedBuffer(GL_ARRAY_BUFFER)");
+    CheckGL.checkGLCall(gl, "getMappedBuffer(GL_ARRAY_BUFFER)");
     mappedBufferCache = dataBuffer;
     return dataBuffer.order(ByteOrder.nativeOrder()).asFloatBuffer();
   }
@@ -160,7 +160,7 @@ public class CoreVBO {
    */
   public void bind() {
     gl.glBindBuffer(gl.GL_ARRAY_BUFFER(), id);
-    CheckGL.checkGLError(gl, "glBindBuffer(GL_ARRAY_BUFFER)");
+    CheckGL.checkGLCall(gl, "glBindBuffer(GL_ARRAY_BUFFER)");
   }
 
   /**
@@ -168,7 +168,16 @@ public class CoreVBO {
    */
   public void send() {
     gl.glBufferData(gl.GL_ARRAY_BUFFER(), vertexBuffer, usage);
-    CheckGL.checkGLError(gl, "glBufferData(GL_ARRAY_BUFFER)");
+    CheckGL.checkGLCall(gl, "glBufferData(GL_ARRAY_BUFFER)");
+  }
+
+  /**
+   * Sends the current vertex data to the start of the existing buffer on the GPU without specifying the buffer again.
+   * The buffer on the GPU is as large as the vertex data this VBO was created with.
+   */
+  public void sendSubData() {
+    gl.glBufferSubData(gl.GL_ARRAY_BUFFER(), 0, vertexBuffer);
+    CheckGL.checkGLCall(gl, "glBufferSubData(GL_ARRAY_BUFFER)");
   }
 
   /**
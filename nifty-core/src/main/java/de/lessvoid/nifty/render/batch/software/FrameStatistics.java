@@ -0,0 +1,190 @@
+package de.lessvoid.nifty.render.batch.software;
+
+import de.lessvoid.nifty.profiler.ProfilerCounter;
+import de.lessvoid.nifty.profiler.ProfilerFrame;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * The cost of rendering a screen, averaged over a number of frames measured by the {@link HeadlessRenderHarness}.
+ * The statistics can be stored as baseline in a {@link Properties} file and later runs can be checked against that
+ * baseline with {@link #findRegressions(FrameStatistics, float)}.
+ *
+ * @author void
+ */
+public final class FrameStatistics {
+  private static final String FRAMES = "frames";
+  private static final String FRAME_NANOS = "frameNanos";
+  private static final String MAX_FRAME_NANOS = "maxFrameNanos";
+  private static final String QUADS = "quads";
+  private static final String BATCHES = "batches";
+  private static final String ALLOCATED_BYTES = "allocatedBytes";
+
+  private final int frames;
+  private final long frameNanos;
+  private final long maxFrameNanos;
+  private final long quads;
+  private final long batches;
+  private final long allocatedBytes;
+
+  public FrameStatistics(
+      final int frames,
+      final long frameNanos,
+      final long maxFrameNanos,
+      final long quads,
+      final long batches,
+      final long allocatedBytes) {
+    this.frames = frames;
+    this.frameNanos = frameNanos;
+    this.maxFrameNanos = maxFrameNanos;
+    this.quads = quads;
+    this.batches = batches;
+    this.allocatedBytes = allocatedBytes;
+  }
+
+  /**
+   * Average the given profiler frames.
+   */
+  @Nonnull
+  public static FrameStatistics of(@Nonnull final List<ProfilerFrame> profilerFrames) {
+    int count = profilerFrames.size();
+    if (count == 0) {
+      return new FrameStatistics(0, 0, 0, 0, 0, 0);
+    }
+    long nanos = 0;
+    long maxNanos = 0;
+    long quadSum = 0;
+    long batchSum = 0;
+    long allocatedSum = 0;
+    for (int i = 0; i < count; i++) {
+      ProfilerFrame frame = profilerFrames.get(i);
+      nanos += frame.getDurationNanos();
+      maxNanos = Math.max(maxNanos, frame.getDurationNanos());
+      quadSum += frame.getCount(ProfilerCounter.QUADS);
+      batchSum += frame.getCount(ProfilerCounter.BATCHES);
+      allocatedSum += frame.getCount(ProfilerCounter.ALLOCATED_BYTES);
+    }
+    return new FrameStatistics(
+        count, nanos / count, maxNanos, quadSum / count, batchSum / count, allocatedSum / count);
+  }
+
+  /**
+   * Read statistics that have been written with {@link #store(Properties, String)}.
+   *
+   * @return the statistics or {@code null} in case the properties don't contain statistics with this prefix
+   */
+  @Nullable
+  public static FrameStatistics load(@Nonnull final Properties properties, @Nonnull final String prefix) {
+    if (properties.getProperty(prefix + FRAMES) == null) {
+      return null;
+    }
+    return new FrameStatistics(
+        Integer.parseInt(properties.getProperty(prefix + FRAMES)),
+        getLong(properties, prefix + FRAME_NANOS),
+        getLong(properties, prefix + MAX_FRAME_NANOS),
+        getLong(properties, prefix + QUADS),
+        getLong(properties, prefix + BATCHES),
+        getLong(properties, prefix + ALLOCATED_BYTES));
+  }
+
+  /**
+   * Write these statistics to the properties. All keys start with the prefix, so the statistics of several screens
+   * can be kept in the same properties, for instance by using the screen id followed by a dot as prefix.
+   */
+  public void store(@Nonnull final Properties properties, @Nonnull final String prefix) {
+    properties.setProperty(prefix + FRAMES, Integer.toString(frames));
+    properties.setProperty(prefix + FRAME_NANOS, Long.toString(frameNanos));
+    properties.setProperty(prefix + MAX_FRAME_NANOS, Long.toString(maxFrameNanos));
+    properties.setProperty(prefix + QUADS, Long.toString(quads));
+    properties.setProperty(prefix + BATCHES, Long.toString(batches));
+    properties.setProperty(prefix + ALLOCATED_BYTES, Long.toString(allocatedBytes));
+  }
+
+  /**
+   * Compare these statistics with a baseline. The number of quads and batches is deterministic for a screen, so any
+   * increase is reported. The frame time and the allocated bytes vary between runs, they are only reported when they
+   * are more than the given tolerance above the baseline.
+   *
+   * @param baseline the statistics to compare with
+   * @param tolerance the allowed relative increase of the frame time and the allocations, 0.2f allows 20% more
+   * @return a description of each value that got worse, an empty list if there is none
+   */
+  @Nonnull
+  public List<String> findRegressions(@Nonnull final FrameStatistics baseline, final float tolerance) {
+    List<String> result = new ArrayList<String>();
+    check(result, QUADS, quads, baseline.quads, 0.0f);
+    check(result, BATCHES, batches, baseline.batches, 0.0f);
+    check(result, FRAME_NANOS, frameNanos, baseline.frameNanos, tolerance);
+    check(result, ALLOCATED_BYTES, allocatedBytes, baseline.allocatedBytes, tolerance);
+    return result;
+  }
+
+  /**
+   * The number of frames these statistics are based on.
+   */
+  public int getFrames() {
+    return frames;
+  }
+
+  /**
+   * The average time of a frame (update and render) in nanoseconds.
+   */
+  public long getFrameNanos() {
+    return frameNanos;
+  }
+
+  /**
+   * The time of the slowest frame in nanoseconds.
+   */
+  public long getMaxFrameNanos() {
+    return maxFrameNanos;
+  }
+
+  /**
+   * The average number of quads rendered in a frame.
+   */
+  public long getQuads() {
+    return quads;
+  }
+
+  /**
+   * The average number of batches rendered in a frame.
+   */
+  public long getBatches() {
+    return batches;
+  }
+
+  /**
+   * The average number of bytes allocated in a frame or 0 in case the JVM does not support measuring allocations.
+   */
+  public long getAllocatedBytes() {
+    return allocatedBytes;
+  }
+
+  @Nonnull
+  @Override
+  public String toString() {
+    return "frames=" + frames + ", frameNanos=" + frameNanos + ", maxFrameNanos=" + maxFrameNanos + ", quads=" +
+        quads + ", batches=" + batches + ", allocatedBytes=" + allocatedBytes;
+  }
+
+  private static void check(
+      @Nonnull final List<String> result,
+      @Nonnull final String name,
+      final long value,
+      final long baseline,
+      final float tolerance) {
+    if (value > baseline + (long) (baseline * tolerance)) {
+      result.add(name + " increased from " + baseline + " to " + value);
+    }
+  }
+
+  private static long getLong(@Nonnull final Properties properties, @Nonnull final String key) {
+    String value = properties.getProperty(key);
+    return value == null ? 0 : Long.parseLong(value);
+  }
+}
@@ -0,0 +1,157 @@
+package de.lessvoid.nifty.render.batch.software;
+
+import de.lessvoid.nifty.Nifty;
+import de.lessvoid.nifty.nulldevice.NullInputSystem;
+import de.lessvoid.nifty.nulldevice.NullSoundDevice;
+import de.lessvoid.nifty.profiler.NiftyProfiler;
+import de.lessvoid.nifty.profiler.ProfilerFrame;
+import de.lessvoid.nifty.render.batch.BatchRenderConfiguration;
+import de.lessvoid.nifty.render.batch.BatchRenderDevice;
+import de.lessvoid.nifty.spi.time.impl.AccurateTimeProvider;
+
+import javax.annotation.Nonnull;
+import javax.annotation.WillNotClose;
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs Nifty without a window on top of the {@link SoftwareBatchRenderBackend}. This is meant for automated tests:
+ * load a screen with {@link #getNifty()}, render some frames with {@link #renderFrames(int, int)} to get the cost of
+ * the screen as {@link FrameStatistics} and compare the rendered image with a reference image using
+ * {@link #compareWithGolden(java.awt.image.BufferedImage, int)}.
+ * <p/>
+ * The statistics are taken from the {@link NiftyProfiler}. {@link #renderFrames(int, int)} enables the profiler and
+ * the counting of allocated bytes in case they are disabled. Like Nifty itself the harness must only be used from a single thread.
+ *
+ * @author void
+ */
+public class HeadlessRenderHarness {
+  @Nonnull
+  private final SoftwareBatchRenderBackend backend;
+  @Nonnull
+  private final Nifty nifty;
+
+  /**
+   * Create a harness that renders into a framebuffer of the given size using the default configuration.
+   */
+  public HeadlessRenderHarness(final int width, final int height) {
+    this(new SoftwareBatchRenderBackend(width, height), new BatchRenderConfiguration());
+  }
+
+  public HeadlessRenderHarness(
+      @Nonnull final SoftwareBatchRenderBackend backend,
+      @Nonnull final BatchRenderConfiguration renderConfig) {
+    this.backend = backend;
+    this.nifty = new Nifty(
+        new BatchRenderDevice(backend, renderConfig),
+        new NullSoundDevice(),
+        new NullInputSystem(),
+        new AccurateTimeProvider());
+  }
+
+  @Nonnull
+  public Nifty getNifty() {
+    return nifty;
+  }
+
+  @Nonnull
+  public SoftwareBatchRenderBackend getBackend() {
+    return backend;
+  }
+
+  /**
+   * Update and render a single frame.
+   */
+  public void renderFrame() {
+    nifty.update();
+    nifty.render(true);
+  }
+
+  /**
+   * Render a number of frames and measure them. The warmup frames are rendered first and not measured, they give
+   * the screen the time to load its images and the JIT the time to compile the code.
+   *
+   * @param warmupFrames the number of frames rendered before measuring starts
+   * @param frames the number of frames to measure
+   * @return the averaged statistics of the measured frames
+   */
+  @Nonnull
+  public FrameStatistics renderFrames(final int warmupFrames, final int frames) {
+    if (!NiftyProfiler.isEnabled()) {
+      NiftyProfiler.setEnabled(true);
+    }
+    NiftyProfiler.setAllocationCountingEnabled(true);
+    for (int i = 0; i < warmupFrames; i++) {
+      renderFrame();
+    }
+    List<ProfilerFrame> measured = new ArrayList<ProfilerFrame>(frames);
+    for (int i = 0; i < frames; i++) {
+      renderFrame();
+      ProfilerFrame frame = NiftyProfiler.getLastFrame();
+      if (frame != null) {
+        measured.add(frame);
+      }
+    }
+    return FrameStatistics.of(measured);
+  }
+
+  /**
+   * Compare the last rendered frame with a reference image.
+   *
+   * @param golden the reference image
+   * @param tolerance the maximum difference of each color channel of a pixel (0 - 255) that still counts as equal
+   * @return the number of pixels that differ, all pixels are counted as different when the size doesn't match
+   */
+  public int compareWithGolden(@Nonnull final BufferedImage golden, final int tolerance) {
+    int width = backend.getWidth();
+    int height = backend.getHeight();
+    if (golden.getWidth() != width || golden.getHeight() != height) {
+      return width * height;
+    }
+    int[] expected = golden.getRGB(0, 0, width, height, null, 0, width);
+    int[] actual = backend.getPixels();
+    int result = 0;
+    for (int i = 0; i < actual.length; i++) {
+      if (!isSimilar(expected[i], actual[i], tolerance)) {
+        result++;
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Compare the last rendered frame with a reference image read from the stream, for instance a PNG file that has
+   * been written with {@link #writeImage(java.io.File)} earlier.
+   *
+   * @see #compareWithGolden(java.awt.image.BufferedImage, int)
+   */
+  public int compareWithGolden(@Nonnull @WillNotClose final InputStream golden, final int tolerance)
+      throws IOException {
+    BufferedImage image = ImageIO.read(golden);
+    if (image == null) {
+      throw new IOException("Could not read golden image!");
+    }
+    return compareWithGolden(image, tolerance);
+  }
+
+  /**
+   * Write the last rendered frame as PNG file.
+   */
+  public void writeImage(@Nonnull final File file) throws IOException {
+    ImageIO.write(backend.createImage(), "png", file);
+  }
+
+  private static boolean isSimilar(final int expected, final int actual, final int tolerance) {
+    for (int shift = 0; shift < 32; shift += 8) {
+      if (Math.abs(((expected >>> shift) & 0xff) - ((actual >>> shift) & 0xff)) > tolerance) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
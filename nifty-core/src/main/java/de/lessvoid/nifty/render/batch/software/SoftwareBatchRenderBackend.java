@@ -0,0 +1,524 @@
+package de.lessvoid.nifty.render.batch.software;
+
+import de.lessvoid.nifty.render.BlendMode;
+import de.lessvoid.nifty.render.batch.spi.BatchRenderBackend;
+import de.lessvoid.nifty.render.io.ImageLoader;
+import de.lessvoid.nifty.render.io.ImageLoaderFactory;
+import de.lessvoid.nifty.spi.render.MouseCursor;
+import de.lessvoid.nifty.tools.Color;
+import de.lessvoid.nifty.tools.resourceloader.NiftyResourceLoader;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * A {@link de.lessvoid.nifty.render.batch.spi.BatchRenderBackend} that does not need a GPU or any window system. All
+ * quads are rasterized in Java into an in-memory ARGB framebuffer of a fixed size. Together with the
+ * {@link de.lessvoid.nifty.render.batch.BatchRenderDevice}, which takes care of clipping and the texture atlases,
+ * this allows to run Nifty headless, for instance to render screens in automated tests and compare the result with
+ * reference images (see {@link HeadlessRenderHarness}).
+ * <p/>
+ * The rasterizer follows the OpenGL backends: the vertex colors are interpolated across the quad and multiplied with
+ * the texel, fragments with an alpha of 0 are discarded, {@link BlendMode#BLEND} blends with the source alpha and
+ * {@link BlendMode#MULIPLY} multiplies with the framebuffer. Textures are sampled with nearest neighbour filtering or
+ * with bilinear filtering when high quality textures are requested. Mouse cursors are not supported.
+ *
+ * {@inheritDoc}
+ *
+ * @author void
+ */
+public class SoftwareBatchRenderBackend implements BatchRenderBackend {
+  @Nonnull
+  private static final Logger log = Logger.getLogger(SoftwareBatchRenderBackend.class.getName());
+  private static final int INVALID_TEXTURE_ID = -1;
+  private static final int FLOATS_PER_QUAD = 24;
+  private static final int INITIAL_QUAD_CAPACITY = 256;
+  private static final int INITIAL_BATCH_CAPACITY = 16;
+
+  private final int width;
+  private final int height;
+  @Nonnull
+  private final int[] framebuffer;
+
+  @Nonnull
+  private final Map<Integer, SoftwareTexture> textures = new HashMap<Integer, SoftwareTexture>();
+  @Nonnull
+  private final Set<Integer> nonAtlasTextureIds = new HashSet<Integer>();
+  private int nextTextureId = 1;
+
+  // the quads of the current frame, FLOATS_PER_QUAD values for each: position, size, the four vertex colors as RGBA
+  // and the texture coordinates
+  @Nonnull
+  private float[] quads = new float[INITIAL_QUAD_CAPACITY * FLOATS_PER_QUAD];
+  private int quadCount;
+
+  // the batches of the current frame, each batch renders the quads from its first quad up to the first quad of the
+  // next batch
+  @Nonnull
+  private int[] batchFirstQuads = new int[INITIAL_BATCH_CAPACITY];
+  @Nonnull
+  private int[] batchTextureIds = new int[INITIAL_BATCH_CAPACITY];
+  @Nonnull
+  private BlendMode[] batchBlendModes = new BlendMode[INITIAL_BATCH_CAPACITY];
+  private int batchCount;
+
+  @Nullable
+  private NiftyResourceLoader resourceLoader;
+  private boolean shouldUseHighQualityTextures = false;
+  private boolean shouldFillRemovedImagesInAtlas = false;
+
+  /**
+   * Create a new backend that renders into a framebuffer of the given size.
+   *
+   * @param width the width of the framebuffer and the display
+   * @param height the height of the framebuffer and the display
+   */
+  public SoftwareBatchRenderBackend(final int width, final int height) {
+    if (width <= 0 || height <= 0) {
+      throw new IllegalArgumentException("Invalid framebuffer size: " + width + "x" + height);
+    }
+    this.width = width;
+    this.height = height;
+    this.framebuffer = new int[width * height];
+  }
+
+  @Override
+  public void setResourceLoader(@Nonnull final NiftyResourceLoader resourceLoader) {
+    log.fine("setResourceLoader()");
+    this.resourceLoader = resourceLoader;
+  }
+
+  @Override
+  public int getWidth() {
+    return width;
+  }
+
+  @Override
+  public int getHeight() {
+    return height;
+  }
+
+  @Override
+  public void beginFrame() {
+    log.fine("beginFrame()");
+    quadCount = 0;
+    batchCount = 0;
+  }
+
+  @Override
+  public void endFrame() {
+    log.fine("endFrame()");
+  }
+
+  @Override
+  public void clear() {
+    log.fine("clear()");
+    for (int i = 0; i < framebuffer.length; i++) {
+      framebuffer[i] = 0;
+    }
+  }
+
+  @Nullable
+  @Override
+  public MouseCursor createMouseCursor(@Nonnull final String filename, final int hotspotX, final int hotspotY)
+          throws IOException {
+    log.fine("createMouseCursor() - mouse cursors are not supported by the software renderer");
+    return null;
+  }
+
+  @Override
+  public void enableMouseCursor(@Nonnull final MouseCursor mouseCursor) {
+    log.fine("enableMouseCursor()");
+  }
+
+  @Override
+  public void disableMouseCursor() {
+    log.fine("disableMouseCursor()");
+  }
+
+  @Override
+  public int createTextureAtlas(final int atlasWidth, final int atlasHeight) {
+    log.fine("createTextureAtlas()");
+    return createTexture(atlasWidth, atlasHeight);
+  }
+
+  @Override
+  public void clearTextureAtlas(final int atlasTextureId) {
+    log.fine("clearTextureAtlas()");
+    SoftwareTexture texture = textures.get(atlasTextureId);
+    if (texture != null) {
+      texture.clear();
+    }
+  }
+
+  @Nonnull
+  @Override
+  public Image loadImage(@Nonnull final String filename) {
+    log.fine("loadImage()");
+    return createImageFromFile(filename);
+  }
+
+  @Nullable
+  @Override
+  public Image loadImage(@Nonnull final ByteBuffer imageData, final int imageWidth, final int imageHeight) {
+    log.fine("loadImage2()");
+    return new ByteBufferedImage(imageData, imageWidth, imageHeight);
+  }
+
+  @Override
+  public void addImageToAtlas(
+          @Nonnull final Image image,
+          final int atlasX,
+          final int atlasY,
+          final int atlasTextureId) {
+    log.fine("addImageToAtlas()");
+    SoftwareTexture texture = textures.get(atlasTextureId);
+    if (texture == null) {
+      log.warning("Attempted to add image to unknown texture atlas: " + atlasTextureId);
+      return;
+    }
+    updateTexture(texture, image, atlasX, atlasY);
+  }
+
+  @Override
+  public int createNonAtlasTexture(@Nonnull final Image image) {
+    log.fine("createNonAtlasTexture()");
+    int textureId = createTexture(image.getWidth(), image.getHeight());
+    if (textureId != INVALID_TEXTURE_ID) {
+      updateTexture(textures.get(textureId), image, 0, 0);
+      nonAtlasTextureIds.add(textureId);
+    }
+    return textureId;
+  }
+
+  @Override
+  public void deleteNonAtlasTexture(final int textureId) {
+    log.fine("deleteNonAtlasTexture()");
+    if (nonAtlasTextureIds.remove(textureId)) {
+      textures.remove(textureId);
+    }
+  }
+
+  @Override
+  public boolean existsNonAtlasTexture(final int textureId) {
+    log.fine("existsNonAtlasTexture()");
+    return nonAtlasTextureIds.contains(textureId);
+  }
+
+  @Override
+  public void addQuad(
+          final float x,
+          final float y,
+          final float width,
+          final float height,
+          @Nonnull final Color color1,
+          @Nonnull final Color color2,
+          @Nonnull final Color color3,
+          @Nonnull final Color color4,
+          final float textureX,
+          final float textureY,
+          final float textureWidth,
+          final float textureHeight,
+          final int textureId) {
+    log.fine("addQuad()");
+    if (batchCount == 0) {
+      beginBatch(BlendMode.BLEND, textureId);
+    }
+    ensureQuadCapacity(quadCount + 1);
+    int offset = quadCount * FLOATS_PER_QUAD;
+    quads[offset] = x;
+    quads[offset + 1] = y;
+    quads[offset + 2] = width;
+    quads[offset + 3] = height;
+    putColor(offset + 4, color1);
+    putColor(offset + 8, color2);
+    putColor(offset + 12, color3);
+    putColor(offset + 16, color4);
+    quads[offset + 20] = textureX;
+    quads[offset + 21] = textureY;
+    quads[offset + 22] = textureWidth;
+    quads[offset + 23] = textureHeight;
+    quadCount++;
+  }
+
+  @Override
+  public void beginBatch(@Nonnull final BlendMode blendMode, final int textureId) {
+    log.fine("beginBatch()");
+    ensureBatchCapacity(batchCount + 1);
+    batchFirstQuads[batchCount] = quadCount;
+    batchTextureIds[batchCount] = textureId;
+    batchBlendModes[batchCount] = blendMode;
+    batchCount++;
+  }
+
+  @Override
+  public int render() {
+    log.fine("render()");
+    for (int batch = 0; batch < batchCount; batch++) {
+      int lastQuad = batch + 1 < batchCount ? batchFirstQuads[batch + 1] : quadCount;
+      SoftwareTexture texture = textures.get(batchTextureIds[batch]);
+      if (texture == null) {
+        continue;
+      }
+      for (int quad = batchFirstQuads[batch]; quad < lastQuad; quad++) {
+        renderQuad(quad * FLOATS_PER_QUAD, texture, batchBlendModes[batch]);
+      }
+    }
+    return batchCount;
+  }
+
+  @Override
+  public void removeImageFromAtlas(
+          @Nonnull final Image image,
+          final int atlasX,
+          final int atlasY,
+          final int imageWidth,
+          final int imageHeight,
+          final int atlasTextureId) {
+    log.fine("removeImageFromAtlas()");
+    if (!shouldFillRemovedImagesInAtlas) {
+      return;
+    }
+    SoftwareTexture texture = textures.get(atlasTextureId);
+    if (texture != null) {
+      texture.clear(atlasX, atlasY, imageWidth, imageHeight);
+    }
+  }
+
+  @Override
+  public void useHighQualityTextures(final boolean shouldUseHighQualityTextures) {
+    log.info(shouldUseHighQualityTextures ? "Using high quality textures (bilinear filtering)." :
+            "Using low quality textures (no filtering).");
+    this.shouldUseHighQualityTextures = shouldUseHighQualityTextures;
+  }
+
+  @Override
+  public void fillRemovedImagesInAtlas(final boolean shouldFill) {
+    log.info(shouldFill ? "Filling in removed images in atlas." : "Not filling in removed images in atlas.");
+    shouldFillRemovedImagesInAtlas = shouldFill;
+  }
+
+  @Override
+  public void useTextureArrayAtlas(final int maxLayers) {
+    if (maxLayers > 0) {
+      log.info("Array textures are not supported in this implementation, using regular textures for the atlases.");
+    }
+  }
+
+  /**
+   * Get the framebuffer. Each pixel is stored as a non-premultiplied ARGB int, row by row starting with the top row.
+   * The array is the framebuffer itself and not a copy, so it changes with every rendered frame.
+   *
+   * @return the framebuffer
+   */
+  @Nonnull
+  public int[] getPixels() {
+    return framebuffer;
+  }
+
+  /**
+   * Get a single pixel of the framebuffer as ARGB value.
+   */
+  public int getPixel(final int x, final int y) {
+    return framebuffer[y * width + x];
+  }
+
+  /**
+   * Create a copy of the current framebuffer content as an image, for instance to write it to a file.
+   *
+   * @return a new image of type {@link BufferedImage#TYPE_INT_ARGB}
+   */
+  @Nonnull
+  public BufferedImage createImage() {
+    BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+    image.setRGB(0, 0, width, height, framebuffer, 0, width);
+    return image;
+  }
+
+  // Internal implementations
+
+  private int createTexture(final int textureWidth, final int textureHeight) {
+    if (textureWidth <= 0 || textureHeight <= 0) {
+      log.warning("Failed to create texture of width: " + textureWidth + " & height: " + textureHeight + ".");
+      return INVALID_TEXTURE_ID;
+    }
+    int textureId = nextTextureId++;
+    textures.put(textureId, new SoftwareTexture(textureWidth, textureHeight));
+    return textureId;
+  }
+
+  private void updateTexture(
+          @Nonnull final SoftwareTexture texture,
+          @Nonnull final Image image,
+          final int x,
+          final int y) {
+    if (!(image instanceof ByteBufferedImage)) {
+      log.warning("Unsupported image type: " + image.getClass().getName());
+      return;
+    }
+    ByteBuffer data = ((ByteBufferedImage) image).getBuffer();
+    if (data == null) {
+      log.warning("Attempted to update texture with null image data!");
+      return;
+    }
+    texture.update(data, x, y, image.getWidth(), image.getHeight());
+  }
+
+  private void putColor(final int offset, @Nonnull final Color color) {
+    quads[offset] = color.getRed();
+    quads[offset + 1] = color.getGreen();
+    quads[offset + 2] = color.getBlue();
+    quads[offset + 3] = color.getAlpha();
+  }
+
+  private void ensureQuadCapacity(final int count) {
+    if (count * FLOATS_PER_QUAD > quads.length) {
+      float[] newQuads = new float[Math.max(count, quads.length / FLOATS_PER_QUAD * 2) * FLOATS_PER_QUAD];
+      System.arraycopy(quads, 0, newQuads, 0, quadCount * FLOATS_PER_QUAD);
+      quads = newQuads;
+    }
+  }
+
+  private void ensureBatchCapacity(final int count) {
+    if (count > batchFirstQuads.length) {
+      int capacity = Math.max(count, batchFirstQuads.length * 2);
+      int[] newFirstQuads = new int[capacity];
+      int[] newTextureIds = new int[capacity];
+      BlendMode[] newBlendModes = new BlendMode[capacity];
+      System.arraycopy(batchFirstQuads, 0, newFirstQuads, 0, batchCount);
+      System.arraycopy(batchTextureIds, 0, newTextureIds, 0, batchCount);
+      System.arraycopy(batchBlendModes, 0, newBlendModes, 0, batchCount);
+      batchFirstQuads = newFirstQuads;
+      batchTextureIds = newTextureIds;
+      batchBlendModes = newBlendModes;
+    }
+  }
+
+  /**
+   * Rasterize a single quad. A pixel is covered when its center is inside the quad. The vertex colors and texture
+   * coordinates are interpolated at the pixel center.
+   */
+  private void renderQuad(final int offset, @Nonnull final SoftwareTexture texture, @Nonnull final BlendMode blendMode) {
+    float x = quads[offset];
+    float y = quads[offset + 1];
+    float w = quads[offset + 2];
+    float h = quads[offset + 3];
+    if (w <= 0 || h <= 0) {
+      return;
+    }
+    int x0 = Math.max(pixelEdge(x), 0);
+    int x1 = Math.min(pixelEdge(x + w), width);
+    int y0 = Math.max(pixelEdge(y), 0);
+    int y1 = Math.min(pixelEdge(y + h), height);
+    float textureX = quads[offset + 20];
+    float textureY = quads[offset + 21];
+    float textureWidth = quads[offset + 22];
+    float textureHeight = quads[offset + 23];
+    boolean multiply = blendMode == BlendMode.MULIPLY;
+
+    for (int py = y0; py < y1; py++) {
+      float t = (py + 0.5f - y) / h;
+      float v = textureY + t * textureHeight;
+      // colors at the left (color1 to color3) and at the right edge (color2 to color4) of this row
+      float lr = lerp(quads[offset + 4], quads[offset + 12], t);
+      float lg = lerp(quads[offset + 5], quads[offset + 13], t);
+      float lb = lerp(quads[offset + 6], quads[offset + 14], t);
+      float la = lerp(quads[offset + 7], quads[offset + 15], t);
+      float rr = lerp(quads[offset + 8], quads[offset + 16], t);
+      float rg = lerp(quads[offset + 9], quads[offset + 17], t);
+      float rb = lerp(quads[offset + 10], quads[offset + 18], t);
+      float ra = lerp(quads[offset + 11], quads[offset + 19], t);
+      int row = py * width;
+      for (int px = x0; px < x1; px++) {
+        float s = (px + 0.5f - x) / w;
+        float u = textureX + s * textureWidth;
+        int texel = shouldUseHighQualityTextures ? texture.sampleLinear(u, v) : texture.sampleNearest(u, v);
+        float sa = ((texel >>> 24) & 0xff) / 255.0f * lerp(la, ra, s);
+        if (sa <= 0.0f && !multiply) {
+          // blending a transparent texel leaves the framebuffer as it is, multiplying with it does not
+          continue;
+        }
+        float sr = ((texel >>> 16) & 0xff) / 255.0f * lerp(lr, rr, s);
+        float sg = ((texel >>> 8) & 0xff) / 255.0f * lerp(lg, rg, s);
+        float sb = (texel & 0xff) / 255.0f * lerp(lb, rb, s);
+        int destination = framebuffer[row + px];
+        if (multiply) {
+          framebuffer[row + px] = multiply(destination, sr, sg, sb, sa);
+        } else {
+          framebuffer[row + px] = blend(destination, sr, sg, sb, sa);
+        }
+      }
+    }
+  }
+
+  // GL_SRC_ALPHA, GL_ONE_MINUS_SRC_ALPHA applied to all four channels
+  private static int blend(final int destination, final float sr, final float sg, final float sb, final float sa) {
+    float da = 1.0f - sa;
+    return (toByte(sa * sa + ((destination >>> 24) & 0xff) / 255.0f * da) << 24) |
+        (toByte(sr * sa + ((destination >>> 16) & 0xff) / 255.0f * da) << 16) |
+        (toByte(sg * sa + ((destination >>> 8) & 0xff) / 255.0f * da) << 8) |
+        toByte(sb * sa + (destination & 0xff) / 255.0f * da);
+  }
+
+  // GL_DST_COLOR, GL_ZERO applied to all four channels
+  private static int multiply(final int destination, final float sr, final float sg, final float sb, final float sa) {
+    return (toByte(sa * ((destination >>> 24) & 0xff) / 255.0f) << 24) |
+        (toByte(sr * ((destination >>> 16) & 0xff) / 255.0f) << 16) |
+        (toByte(sg * ((destination >>> 8) & 0xff) / 255.0f) << 8) |
+        toByte(sb * (destination & 0xff) / 255.0f);
+  }
+
+  private static int toByte(final float value) {
+    if (value <= 0.0f) {
+      return 0;
+    }
+    if (value >= 1.0f) {
+      return 255;
+    }
+    return (int) (value * 255.0f + 0.5f);
+  }
+
+  private static float lerp(final float from, final float to, final float t) {
+    return from + (to - from) * t;
+  }
+
+  // the index of the first pixel whose center is at or behind the given coordinate
+  private static int pixelEdge(final float coordinate) {
+    return (int) Math.ceil(coordinate - 0.5f);
+  }
+
+  @Nonnull
+  private Image createImageFromFile(@Nonnull final String filename) {
+    ImageLoader loader = ImageLoaderFactory.createImageLoader(filename);
+    InputStream imageStream = null;
+    try {
+      assert resourceLoader != null;
+      imageStream = resourceLoader.getResourceAsStream(filename);
+      if (imageStream != null) {
+        ByteBuffer image = loader.loadAsByteBufferRGBA(imageStream);
+        image.rewind();
+        return new ByteBufferedImage(image, loader.getImageWidth(), loader.getImageHeight());
+      }
+    } catch (Exception e) {
+      log.log(Level.WARNING, "Could not load image from file: [" + filename + "]", e);
+    } finally {
+      if (imageStream != null) {
+        try {
+          imageStream.close();
+        } catch (IOException ignored) {
+        }
+      }
+    }
+    return new ByteBufferedImage();
+  }
+}
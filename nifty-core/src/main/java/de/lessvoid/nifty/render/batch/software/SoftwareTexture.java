@@ -0,0 +1,138 @@
+package de.lessvoid.nifty.render.batch.software;
+
+import javax.annotation.Nonnull;
+import java.nio.ByteBuffer;
+
+/**
+ * A texture of the {@link SoftwareBatchRenderBackend}. The texels are stored as non-premultiplied ARGB ints.
+ *
+ * @author void
+ */
+final class SoftwareTexture {
+  private final int width;
+  private final int height;
+  @Nonnull
+  private final int[] texels;
+
+  SoftwareTexture(final int width, final int height) {
+    this.width = width;
+    this.height = height;
+    this.texels = new int[width * height];
+  }
+
+  int getWidth() {
+    return width;
+  }
+
+  int getHeight() {
+    return height;
+  }
+
+  @Nonnull
+  int[] getTexels() {
+    return texels;
+  }
+
+  void clear() {
+    clear(0, 0, width, height);
+  }
+
+  void clear(final int x, final int y, final int w, final int h) {
+    int x0 = Math.max(x, 0);
+    int x1 = Math.min(x + w, width);
+    int y1 = Math.min(y + h, height);
+    for (int row = Math.max(y, 0); row < y1; row++) {
+      int offset = row * width;
+      for (int column = x0; column < x1; column++) {
+        texels[offset + column] = 0;
+      }
+    }
+  }
+
+  /**
+   * Copy RGBA image data into this texture at the given position. Parts of the image outside of the texture are
+   * ignored.
+   */
+  void update(@Nonnull final ByteBuffer rgba, final int x, final int y, final int w, final int h) {
+    int base = rgba.position();
+    for (int row = 0; row < h; row++) {
+      int ty = y + row;
+      if (ty < 0 || ty >= height) {
+        continue;
+      }
+      int src = base + row * w * 4;
+      for (int column = 0; column < w; column++, src += 4) {
+        int tx = x + column;
+        if (tx < 0 || tx >= width) {
+          continue;
+        }
+        int r = rgba.get(src) & 0xff;
+        int g = rgba.get(src + 1) & 0xff;
+        int b = rgba.get(src + 2) & 0xff;
+        int a = rgba.get(src + 3) & 0xff;
+        texels[ty * width + tx] = (a << 24) | (r << 16) | (g << 8) | b;
+      }
+    }
+  }
+
+  /**
+   * Get the texel closest to the given texture coordinate. Coordinates outside of the texture are clamped to the
+   * edge.
+   */
+  int sampleNearest(final float u, final float v) {
+    int x = clamp((int) Math.floor(u * width), width);
+    int y = clamp((int) Math.floor(v * height), height);
+    return texels[y * width + x];
+  }
+
+  /**
+   * Bilinear filtered sample at the given texture coordinate. Coordinates outside of the texture are clamped to the
+   * edge.
+   */
+  int sampleLinear(final float u, final float v) {
+    float fx = u * width - 0.5f;
+    float fy = v * height - 0.5f;
+    int x0 = (int) Math.floor(fx);
+    int y0 = (int) Math.floor(fy);
+    float wx = fx - x0;
+    float wy = fy - y0;
+    int xa = clamp(x0, width);
+    int xb = clamp(x0 + 1, width);
+    int ya = clamp(y0, height) * width;
+    int yb = clamp(y0 + 1, height) * width;
+    int c00 = texels[ya + xa];
+    int c10 = texels[ya + xb];
+    int c01 = texels[yb + xa];
+    int c11 = texels[yb + xb];
+    if (c00 == c10 && c00 == c01 && c00 == c11) {
+      return c00;
+    }
+    return (mix(c00, c10, c01, c11, 24, wx, wy) << 24) |
+        (mix(c00, c10, c01, c11, 16, wx, wy) << 16) |
+        (mix(c00, c10, c01, c11, 8, wx, wy) << 8) |
+        mix(c00, c10, c01, c11, 0, wx, wy);
+  }
+
+  private static int mix(
+      final int c00,
+      final int c10,
+      final int c01,
+      final int c11,
+      final int shift,
+      final float wx,
+      final float wy) {
+    float top = ((c00 >>> shift) & 0xff) * (1.0f - wx) + ((c10 >>> shift) & 0xff) * wx;
+    float bottom = ((c01 >>> shift) & 0xff) * (1.0f - wx) + ((c11 >>> shift) & 0xff) * wx;
+    return (int) (top * (1.0f - wy) + bottom * wy + 0.5f);
+  }
+
+  private static int clamp(final int value, final int size) {
+    if (value < 0) {
+      return 0;
+    }
+    if (value >= size) {
+      return size - 1;
+    }
+    return value;
+  }
+}
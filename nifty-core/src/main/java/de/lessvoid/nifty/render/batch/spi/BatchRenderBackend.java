@@ -188,8 +188,8 @@ public interface BatchRenderBackend {
    * @param height the height of the quad to render
    * @param color1 the color of the left upper quad vertex
    * @param color2 the color of the right upper quad vertex
-   * @param color3 the color of the right bottom quad vertex
-   * @param color4 the color of the left bottom quad vertex
+   * @param color3 the color of the left bottom quad vertex
+   * @param color4 the color of the right bottom quad vertex
    * @param textureX x coordinate of the top left corner of the sub-texture within the atlas texture, or, for non-atlas
    *                 textures, of a sub-texture within the non-atlas texture (already normalized in the range 0 to 1 in
    *                 uv texture atlas coordinates, or for non-atlas textures, in local uv texture coordinates)
@@ -272,6 +272,15 @@ public interface BatchRenderBackend {
    */
   void fillRemovedImagesInAtlas(final boolean shouldFill);
 
+  /**
+   * Whether or not to store the texture atlases as layers of a single array texture. Batches that only differ in the
+   * atlas they use can then be rendered with a single draw call. This is called once, before the first texture atlas
+   * is created. Implementations that don't support array textures should simply ignore this.
+   *
+   * @param maxLayers the maximum number of atlases stored in the array texture, 0 to not use an array texture
+   */
+  void useTextureArrayAtlas(final int maxLayers);
+
   /**
    * Helper interface to pass the image size and any other custom data from {@link #loadImage(String)} to
    * {@link #addImageToAtlas(de.lessvoid.nifty.render.batch.spi.BatchRenderBackend.Image, int, int, int)}.
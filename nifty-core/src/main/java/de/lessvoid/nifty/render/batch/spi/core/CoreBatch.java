@@ -1,6 +1,6 @@
 package de.lessvoid.nifty.render.batch.spi.core;
 
-import de.lessvoid.nifty.render.batch.core.CoreTexture2D;
+import de.lessvoid.nifty.render.batch.core.CoreTexture;
 import de.lessvoid.nifty.render.BlendMode;
 import de.lessvoid.nifty.tools.Color;
 
@@ -11,8 +11,8 @@ import javax.annotation.Nonnull;
  * {@link #addQuad(float, float, float, float, de.lessvoid.nifty.tools.Color, de.lessvoid.nifty.tools.Color, de.lessvoid.nifty.tools.Color, de.lessvoid.nifty.tools.Color, float, float, float, float)}
  * method. A batch can only hold so many quads; the {@link #canAddQuad()} method should tell you when the batch is
  * full. The amount of vertex data that a batch can hold is implementation-specific. Place initialization routines in
- * {@link #begin(de.lessvoid.nifty.render.BlendMode, de.lessvoid.nifty.render.batch.core.CoreTexture2D)}. When starting a new
- * batch, you should call {@link #begin(de.lessvoid.nifty.render.BlendMode, de.lessvoid.nifty.render.batch.core.CoreTexture2D)}
+ * {@link #begin(de.lessvoid.nifty.render.BlendMode, de.lessvoid.nifty.render.batch.core.CoreTexture)}. When starting a new
+ * batch, you should call {@link #begin(de.lessvoid.nifty.render.BlendMode, de.lessvoid.nifty.render.batch.core.CoreTexture)}
  * to initialize the batch before calling {@link #render()}.
  *
  * @author void
@@ -25,11 +25,11 @@ public interface CoreBatch {
    * @param blendMode The {@link de.lessvoid.nifty.render.BlendMode} to render the batch with.
    * @param texture The texture that this batch's vertex data belongs to.
    */
-  public void begin(@Nonnull BlendMode blendMode, final CoreTexture2D texture);
+  public void begin(@Nonnull BlendMode blendMode, final CoreTexture texture);
 
   /**
    * Gets the {@link de.lessvoid.nifty.render.BlendMode} that will be used to render this batch, that was specified in
-   * {@link #begin(de.lessvoid.nifty.render.BlendMode, de.lessvoid.nifty.render.batch.core.CoreTexture2D)}.
+   * {@link #begin(de.lessvoid.nifty.render.BlendMode, de.lessvoid.nifty.render.batch.core.CoreTexture)}.
    */
   @Nonnull
   public BlendMode getBlendMode();
@@ -38,7 +38,7 @@ public interface CoreBatch {
    * Renders the batch's vertex data that was added with
    * {@link #addQuad(float, float, float, float, de.lessvoid.nifty.tools.Color, de.lessvoid.nifty.tools.Color, de.lessvoid.nifty.tools.Color, de.lessvoid.nifty.tools.Color, float, float, float, float)},
    * using the blend mode and texture id specified in
-   * {@link #begin(de.lessvoid.nifty.render.BlendMode, de.lessvoid.nifty.render.batch.core.CoreTexture2D)}.
+   * {@link #begin(de.lessvoid.nifty.render.BlendMode, de.lessvoid.nifty.render.batch.core.CoreTexture)}.
    */
   public void render();
 
@@ -45,6 +45,7 @@ public interface CoreGL extends GL {
   public int GL_RED();
   public int GL_STATIC_DRAW();
   public int GL_STREAM_DRAW();
+  public int GL_TEXTURE_2D_ARRAY();
   public int GL_TEXTURE0();
   public int GL_TEXTURE_CUBE_MAP_NEGATIVE_X();
   public int GL_TEXTURE_CUBE_MAP_NEGATIVE_Y();
@@ -73,6 +74,8 @@ public interface CoreGL extends GL {
   public void glBindVertexArray(int array);
   public void glBufferData(int target, IntBuffer data, int usage);
   public void glBufferData(int target, FloatBuffer data, int usage);
+  public void glBufferSubData(int target, long offset, IntBuffer data);
+  public void glBufferSubData(int target, long offset, FloatBuffer data);
   public void glCompileShader(int shader);
   public int glCreateProgram();
   public int glCreateShader(int type);
@@ -93,6 +96,8 @@ public interface CoreGL extends GL {
   public ByteBuffer glMapBuffer(int target, int access, long length, ByteBuffer oldBuffer);
   public void glPrimitiveRestartIndex(int index);
   public void glShaderSource(int shader, String string);
+  public void glTexImage3D(int target, int level, int internalFormat, int width, int height, int depth, int border, int format, int type, ByteBuffer pixels);
+  public void glTexSubImage3D(int target, int level, int xoffset, int yoffset, int zoffset, int width, int height, int depth, int format, int type, ByteBuffer pixels);
   public void glUniform1(int location, FloatBuffer values);
   public void glUniform1f(int location, float v0);
   public void glUniform2f(int location, float v0, float v1);
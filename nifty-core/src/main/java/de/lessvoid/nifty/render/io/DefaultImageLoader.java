@@ -122,6 +122,15 @@ public class DefaultImageLoader implements ImageLoader {
             shouldFlipVertically);
 
     imageProperties = originalImageProperties;
+
+    byte[] directImageData = convertDirectly(originalImage, originalImageProperties);
+    if (directImageData != null) {
+      if (shouldUseARGB) {
+        convertImageToARGB(directImageData);
+      }
+      return createByteBuffer(directImageData);
+    }
+
     BufferedImage openGlImage = createImageWithProperties(originalImageProperties);
     Graphics2D openGlImageGraphics = (Graphics2D) openGlImage.getGraphics();
     blankImageForMacOsXCompatibility(openGlImageGraphics, originalImageProperties);
@@ -140,6 +149,110 @@ public class DefaultImageLoader implements ImageLoader {
     return openGlImageByteBuffer;
   }
 
+  /**
+   * Convert the pixels of the common image types ImageIO creates for PNG and JPG files straight into RGBA bytes. This
+   * avoids drawing the image into a second BufferedImage.
+   *
+   * @return the RGBA data or null if the image type is not supported by this fast path
+   */
+  @Nullable
+  private byte[] convertDirectly(
+          @Nonnull final BufferedImage image,
+          @Nonnull final ImageProperties imageProperties) {
+    WritableRaster raster = image.getRaster();
+    if (raster.getParent() != null || raster.getSampleModelTranslateX() != 0 || raster.getSampleModelTranslateY() != 0) {
+      return null;
+    }
+    int width = imageProperties.getWidth();
+    int height = imageProperties.getHeight();
+    DataBuffer dataBuffer = raster.getDataBuffer();
+    switch (image.getType()) {
+      case BufferedImage.TYPE_4BYTE_ABGR:
+        return convertInterleavedBytes(dataBuffer, width, height, 4, imageProperties.isFlipped());
+      case BufferedImage.TYPE_3BYTE_BGR:
+        return convertInterleavedBytes(dataBuffer, width, height, 3, imageProperties.isFlipped());
+      case BufferedImage.TYPE_INT_ARGB:
+        return convertPackedInts(dataBuffer, width, height, true, imageProperties.isFlipped());
+      case BufferedImage.TYPE_INT_RGB:
+        return convertPackedInts(dataBuffer, width, height, false, imageProperties.isFlipped());
+      default:
+        return null;
+    }
+  }
+
+  @Nullable
+  private byte[] convertInterleavedBytes(
+          @Nonnull final DataBuffer dataBuffer,
+          final int width,
+          final int height,
+          final int bands,
+          final boolean flip) {
+    if (!(dataBuffer instanceof DataBufferByte) || dataBuffer.getNumBanks() != 1 || dataBuffer.getOffset() != 0) {
+      return null;
+    }
+    byte[] source = ((DataBufferByte) dataBuffer).getData();
+    if (source.length < width * height * bands) {
+      return null;
+    }
+    byte[] result = new byte[width * height * 4];
+    int dst = 0;
+    for (int y = 0; y < height; y++) {
+      int src = (flip ? height - 1 - y : y) * width * bands;
+      for (int x = 0; x < width; x++) {
+        if (bands == 4) {
+          // ABGR, fully transparent pixels are stored as transparent black like the Graphics2D copy does
+          if (source[src] != 0) {
+            result[dst] = source[src + 3];
+            result[dst + 1] = source[src + 2];
+            result[dst + 2] = source[src + 1];
+            result[dst + 3] = source[src];
+          }
+        } else {
+          // BGR
+          result[dst] = source[src + 2];
+          result[dst + 1] = source[src + 1];
+          result[dst + 2] = source[src];
+          result[dst + 3] = (byte) 0xff;
+        }
+        src += bands;
+        dst += 4;
+      }
+    }
+    return result;
+  }
+
+  @Nullable
+  private byte[] convertPackedInts(
+          @Nonnull final DataBuffer dataBuffer,
+          final int width,
+          final int height,
+          final boolean hasAlpha,
+          final boolean flip) {
+    if (!(dataBuffer instanceof DataBufferInt) || dataBuffer.getNumBanks() != 1 || dataBuffer.getOffset() != 0) {
+      return null;
+    }
+    int[] source = ((DataBufferInt) dataBuffer).getData();
+    if (source.length < width * height) {
+      return null;
+    }
+    byte[] result = new byte[width * height * 4];
+    int dst = 0;
+    for (int y = 0; y < height; y++) {
+      int src = (flip ? height - 1 - y : y) * width;
+      for (int x = 0; x < width; x++) {
+        int argb = source[src++];
+        if (!hasAlpha || (argb >>> 24) != 0) {
+          result[dst] = (byte) (argb >> 16);
+          result[dst + 1] = (byte) (argb >> 8);
+          result[dst + 2] = (byte) argb;
+          result[dst + 3] = hasAlpha ? (byte) (argb >>> 24) : (byte) 0xff;
+        }
+        dst += 4;
+      }
+    }
+    return result;
+  }
+
   private void blankImageForMacOsXCompatibility(
           @Nonnull final Graphics2D imageGraphics,
           @Nonnull final ImageProperties imageProperties) {
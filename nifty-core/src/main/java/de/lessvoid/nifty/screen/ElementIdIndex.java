@@ -0,0 +1,223 @@
+package de.lessvoid.nifty.screen;
+
+import de.lessvoid.nifty.elements.Element;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Logger;
+
+/**
+ * The ElementIdIndex maps the ids of the elements of a screen to the elements. Elements with an id that contains a
+ * '#' are registered with each part of the id that starts with a '#' as well. This way the "#childId" lookups that
+ * are used to find elements of a screen can be answered from the index too.
+ * <p/>
+ * The index is kept up to date when elements are added, removed or change their id. Since the same id can be used
+ * more than once (and the same index is used for the layers and the popups of a screen) a lookup checks that the
+ * elements found are really part of the element tree that is searched and returns the first of them in the same order
+ * a depth first search of the element tree would have found them.
+ * <p/>
+ * A "#childId" lookup inside of an element, like the lookups controls use to find their own parts, is answered from
+ * the index as well. The same "#childId" is usually used by every instance of a control, so the elements registered
+ * with it are filtered by walking up from each of them to the element searched in. That's a walk over the depth of
+ * the tree for each instance instead of a walk over all the elements below the element searched in.
+ *
+ * @author void
+ */
+class ElementIdIndex {
+  @Nonnull
+  private static final Logger log = Logger.getLogger(ElementIdIndex.class.getName());
+
+  @Nonnull
+  private final Map<String, Set<Element>> elements = new HashMap<String, Set<Element>>();
+
+  /**
+   * Add a single element to the index.
+   *
+   * @param element the element to add
+   */
+  public void register(@Nonnull final Element element) {
+    final String id = element.getId();
+    if (id == null) {
+      return;
+    }
+    Set<Element> sameId = elements.get(id);
+    if (sameId != null && !sameId.contains(element)) {
+      for (Element e : sameId) {
+        if (id.equals(e.getId())) {
+          log.warning("Possible conflicting id [" + id + "] detected. Consider making all Ids unique or use #id in " +
+              "control-definitions.");
+          break;
+        }
+      }
+    }
+    add(id, element);
+    for (int i = id.indexOf('#', 1); i != -1; i = id.indexOf('#', i + 1)) {
+      add(id.substring(i), element);
+    }
+  }
+
+  /**
+   * Remove a single element from the index.
+   *
+   * @param element the element to remove
+   * @param id      the id the element has been registered with
+   */
+  public void unregister(@Nonnull final Element element, @Nullable final String id) {
+    if (id == null) {
+      return;
+    }
+    remove(id, element);
+    for (int i = id.indexOf('#', 1); i != -1; i = id.indexOf('#', i + 1)) {
+      remove(id.substring(i), element);
+    }
+  }
+
+  /**
+   * Add the element and all of its children to the index.
+   *
+   * @param element the root of the element tree to add
+   */
+  public void registerTree(@Nonnull final Element element) {
+    register(element);
+    final List<Element> children = element.getChildren();
+    for (int i = 0; i < children.size(); i++) {
+      registerTree(children.get(i));
+    }
+  }
+
+  /**
+   * Remove the element and all of its children from the index.
+   *
+   * @param element the root of the element tree to remove
+   */
+  public void unregisterTree(@Nonnull final Element element) {
+    unregister(element, element.getId());
+    final List<Element> children = element.getChildren();
+    for (int i = 0; i < children.size(); i++) {
+      unregisterTree(children.get(i));
+    }
+  }
+
+  /**
+   * Find an element. This returns the same element a depth first search would have returned.
+   *
+   * @param findId   the id to look for, either a complete id or "#childId"
+   * @param ancestor only elements inside of this element (including the element itself) are returned, when
+   *                 {@code null} only elements that are part of one of the layers are returned
+   * @param layers   the layers of the screen in the order they are searched
+   * @return the element or {@code null} if there is no such element
+   */
+  @Nullable
+  public Element find(
+      @Nonnull final String findId,
+      @Nullable final Element ancestor,
+      @Nonnull final List<Element> layers) {
+    final Set<Element> candidates = elements.get(findId);
+    if (candidates == null) {
+      return null;
+    }
+    Element found = null;
+    for (Element candidate : candidates) {
+      if (!matches(findId, candidate.getId()) || !isPartOfTree(candidate, ancestor, layers)) {
+        continue;
+      }
+      if (found == null || isBefore(candidate, found, layers)) {
+        found = candidate;
+      }
+    }
+    return found;
+  }
+
+  private void add(@Nonnull final String key, @Nonnull final Element element) {
+    Set<Element> set = elements.get(key);
+    if (set == null) {
+      set = Collections.newSetFromMap(new IdentityHashMap<Element, Boolean>(1));
+      elements.put(key, set);
+    }
+    set.add(element);
+  }
+
+  private void remove(@Nonnull final String key, @Nonnull final Element element) {
+    Set<Element> set = elements.get(key);
+    if (set != null) {
+      set.remove(element);
+      if (set.isEmpty()) {
+        elements.remove(key);
+      }
+    }
+  }
+
+  private static boolean matches(@Nonnull final String findId, @Nullable final String id) {
+    if (id == null) {
+      return false;
+    }
+    return id.equals(findId) || (findId.startsWith("#") && id.endsWith(findId));
+  }
+
+  private static boolean isPartOfTree(
+      @Nonnull final Element element,
+      @Nullable final Element ancestor,
+      @Nonnull final List<Element> layers) {
+    // the layers are usually children of the root element of the screen, so each element on the way up is checked
+    Element current = element;
+    while (true) {
+      if (ancestor == null ? layers.contains(current) : current == ancestor) {
+        return true;
+      }
+      if (!current.hasParent()) {
+        return false;
+      }
+      current = current.getParent();
+    }
+  }
+
+  /**
+   * Check if the element a is visited before the element b by a depth first search of the layers.
+   */
+  private static boolean isBefore(
+      @Nonnull final Element a,
+      @Nonnull final Element b,
+      @Nonnull final List<Element> layers) {
+    int depthA = depth(a);
+    int depthB = depth(b);
+    Element currentA = a;
+    Element currentB = b;
+    while (depthA > depthB) {
+      currentA = currentA.getParent();
+      depthA--;
+    }
+    while (depthB > depthA) {
+      currentB = currentB.getParent();
+      depthB--;
+    }
+    if (currentA == currentB) {
+      // one element is an ancestor of the other one, the ancestor is visited first
+      return currentA == a;
+    }
+    while (currentA.hasParent() && currentA.getParent() != currentB.getParent()) {
+      currentA = currentA.getParent();
+      currentB = currentB.getParent();
+    }
+    if (!currentA.hasParent()) {
+      return layers.indexOf(currentA) < layers.indexOf(currentB);
+    }
+    List<Element> siblings = currentA.getParent().getChildren();
+    return siblings.indexOf(currentA) < siblings.indexOf(currentB);
+  }
+
+  private static int depth(@Nonnull final Element element) {
+    int depth = 0;
+    Element current = element;
+    while (current.hasParent()) {
+      current = current.getParent();
+      depth++;
+    }
+    return depth;
+  }
+}
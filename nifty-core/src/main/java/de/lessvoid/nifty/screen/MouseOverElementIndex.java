@@ -0,0 +1,88 @@
+package de.lessvoid.nifty.screen;
+
+import de.lessvoid.nifty.elements.Element;
+import de.lessvoid.nifty.input.NiftyMouseInputEvent;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The MouseOverElementIndex keeps a flat list of all elements of a list of layers that are able to take part in mouse
+ * event processing at all. The list is in the same front to back order a full walk of the element tree would visit
+ * the elements in. This way the MouseOverHandler can be filled without visiting all the elements that are not visible
+ * to the mouse anyway (most panels, texts and images of a screen).
+ * <p/>
+ * Which elements are part of the list only depends on the structure of the element tree, the visibility of the
+ * elements and the visibleToMouse flag. Everything else (position, size, enabled state, active effects) is still
+ * checked for each mouse event. The index is rebuilt lazily after it has been invalidated.
+ *
+ * @author void
+ */
+class MouseOverElementIndex {
+  @Nonnull
+  private final ArrayList<Element> candidates = new ArrayList<Element>();
+  private boolean valid = false;
+
+  /**
+   * Mark the index as outdated. It will be rebuilt the next time it is used.
+   */
+  public void invalidate() {
+    valid = false;
+  }
+
+  public boolean isValid() {
+    return valid;
+  }
+
+  /**
+   * Get the amount of elements currently in the index.
+   *
+   * @return number of elements that are checked for each mouse event
+   */
+  public int size() {
+    return candidates.size();
+  }
+
+  /**
+   * Fill the MouseOverHandler with the elements of the given layers. This gives the same result as calling
+   * Element.buildMouseOverElements() for all the layers.
+   *
+   * @param layerList        the layers to process
+   * @param mouseEvent       the current mouse event
+   * @param mouseOverHandler the handler to fill
+   */
+  public void buildMouseOverElements(
+      @Nonnull final List<Element> layerList,
+      @Nonnull final NiftyMouseInputEvent mouseEvent,
+      @Nonnull final MouseOverHandler mouseOverHandler) {
+    if (!valid) {
+      rebuild(layerList);
+    }
+    final int candidateCount = candidates.size();
+    for (int i = 0; i < candidateCount; i++) {
+      candidates.get(i).addToMouseOverHandler(mouseEvent, mouseOverHandler);
+    }
+  }
+
+  private void rebuild(@Nonnull final List<Element> layerList) {
+    candidates.clear();
+    for (int i = 0; i < layerList.size(); i++) {
+      collect(layerList.get(i));
+    }
+    valid = true;
+  }
+
+  private void collect(@Nonnull final Element element) {
+    if (element.isVisibleToMouseEvents()) {
+      candidates.add(element);
+    }
+    if (element.isVisible()) {
+      final List<Element> children = element.getChildren();
+      final int childrenCount = children.size();
+      for (int i = 0; i < childrenCount; i++) {
+        collect(children.get(i));
+      }
+    }
+  }
+}
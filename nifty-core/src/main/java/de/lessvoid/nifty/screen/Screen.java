@@ -13,6 +13,7 @@ import de.lessvoid.nifty.input.NiftyInputMapping;
 import de.lessvoid.nifty.input.NiftyMouseInputEvent;
 import de.lessvoid.nifty.input.keyboard.KeyboardInputEvent;
 import de.lessvoid.nifty.render.NiftyRenderEngine;
+import de.lessvoid.nifty.render.RenderCommandList;
 import de.lessvoid.nifty.spi.time.TimeProvider;
 import de.lessvoid.nifty.tools.StringHelper;
 
@@ -63,6 +64,13 @@ public class Screen {
   @Nonnull
   private final MouseOverHandler mouseOverHandler;
   @Nonnull
+  private final MouseOverHandler hitTestHandler = new MouseOverHandler();
+  @Nonnull
+  private final MouseOverElementIndex layerMouseOverIndex = new MouseOverElementIndex();
+  @Nonnull
+  private final MouseOverElementIndex popupMouseOverIndex = new MouseOverElementIndex();
+  private boolean mouseOverIndexEnabled = true;
+  @Nonnull
   private final Nifty nifty;
   @Nonnull
   private final List<InputHandlerWithMapping> postInputHandlers = new ArrayList<InputHandlerWithMapping>();
@@ -74,10 +82,32 @@ public class Screen {
   private String defaultFocusElementId;
   private boolean running = false;
   @Nonnull
-  private final Set<String> registeredIds = new HashSet<String>();
+  private final ElementIdIndex elementIdIndex = new ElementIdIndex();
 
   private boolean bound;
 
+  /**
+   * The maximal amount of times the invalidated elements of a single layer are laid out in one go. Each round moves
+   * the layout up the tree in case the size of an invalidated element changed.
+   */
+  private static final int MAX_LAYOUT_ROUNDS = 16;
+
+  /**
+   * The amount of elements laid out in the current frame.
+   */
+  private int layoutElementCount;
+
+  /**
+   * The amount of elements laid out in the last frame.
+   */
+  private int lastFrameLayoutElementCount;
+
+  /**
+   * The recorded render commands of each layer, used when retained rendering is enabled in Nifty.
+   */
+  @Nonnull
+  private final Map<Element, RenderCommandList> layerRenderCommands = new HashMap<Element, RenderCommandList>();
+
   public Screen(
       @Nonnull final Nifty newNifty,
       @Nonnull final String newId,
@@ -91,17 +121,42 @@ public class Screen {
     mouseOverHandler = new MouseOverHandler();
   }
 
-  public void registerElementId(@Nonnull final String id) {
-    if (registeredIds.contains(id)) {
-      log.warning("Possible conflicting id [" + id + "] detected. Consider making all Ids unique or use #id in " +
-          "control-definitions.");
-    } else {
-      registeredIds.add(id);
-    }
+  /**
+   * Register a single element with the id index of this screen.
+   *
+   * @param element the element
+   */
+  public void registerElement(@Nonnull final Element element) {
+    elementIdIndex.register(element);
+  }
+
+  /**
+   * Register the element and all of its children with the id index of this screen.
+   *
+   * @param element the root element of the tree to register
+   */
+  public void registerElementTree(@Nonnull final Element element) {
+    elementIdIndex.registerTree(element);
+  }
+
+  /**
+   * Remove the element and all of its children from the id index of this screen.
+   *
+   * @param element the root element of the tree to unregister
+   */
+  public void unregisterElementTree(@Nonnull final Element element) {
+    elementIdIndex.unregisterTree(element);
   }
 
-  public void unregisterElementId(@Nonnull final String id) {
-    registeredIds.remove(id);
+  /**
+   * Update the id index of this screen after the id of an element has changed.
+   *
+   * @param element the element
+   * @param oldId   the id the element had before
+   */
+  public void elementIdChanged(@Nonnull final Element element, @Nullable final String oldId) {
+    elementIdIndex.unregister(element, oldId);
+    elementIdIndex.register(element);
   }
 
   @Nonnull
@@ -217,6 +272,7 @@ public class Screen {
 
     focusHandler.resetFocusElements();
     resetLayers();
+    invalidateRender();
     layoutLayers();
     bindControls();
 
@@ -246,10 +302,14 @@ public class Screen {
     startLayers(EffectEventId.onEndScreen, endNotify);
   }
 
+  /**
+   * Layout all elements of all layers. This is used when the screen is started, when the resolution changed and when
+   * elements are added with the builders. Everything that changes while the screen is running is laid out once per
+   * frame by {@link #updateLayout()} instead, which only lays out the invalidated elements.
+   */
   public void layoutLayers() {
     NiftyStopwatch.start();
     layoutLayersCallCount++;
-
     for (int i = 0; i < layerElements.size(); i++) {
       Element w = layerElements.get(i);
       w.layoutElements();
@@ -257,6 +317,44 @@ public class Screen {
     NiftyStopwatch.stop("Screen.layoutLayers()");
   }
 
+  /**
+   * This is called once per frame by Nifty to layout all elements that have been invalidated during the frame. This
+   * also finishes the layout element count of the frame.
+   */
+  public void updateLayout() {
+    layoutInvalidatedLayers();
+    lastFrameLayoutElementCount = layoutElementCount;
+    layoutElementCount = 0;
+  }
+
+  private void layoutInvalidatedLayers() {
+    for (int i = 0; i < layerElements.size(); i++) {
+      Element w = layerElements.get(i);
+      for (int round = 0; round < MAX_LAYOUT_ROUNDS && w.isLayoutInvalid(); round++) {
+        w.layoutInvalidatedElements();
+      }
+    }
+  }
+
+  /**
+   * Add elements to the amount of laid out elements of the current frame. This is called by the elements of this
+   * screen when they are laid out.
+   *
+   * @param count the amount of elements that have been laid out
+   */
+  public void addLayoutElementCount(final int count) {
+    layoutElementCount += count;
+  }
+
+  /**
+   * Get the amount of elements that have been laid out in the last frame. Each layout pass over an element counts.
+   *
+   * @return the amount of elements laid out in the last frame
+   */
+  public int getLayoutElementCount() {
+    return lastFrameLayoutElementCount;
+  }
+
   private void resetLayers() {
     nifty.resetMouseInputEvents();
 
@@ -327,12 +425,81 @@ public class Screen {
    * @param renderDevice the renderDevice to use
    */
   public final void renderLayers(@Nonnull final NiftyRenderEngine renderDevice) {
+    if (nifty.isRetainedRendering()) {
+      for (int i = 0; i < layerElements.size(); i++) {
+        renderLayerRetained(layerElements.get(i), renderDevice);
+      }
+      return;
+    }
     for (int i = 0; i < layerElements.size(); i++) {
       Element layer = layerElements.get(i);
       layer.render(renderDevice);
     }
   }
 
+  /**
+   * Render a layer by replaying the commands recorded when the layer was rendered the last time. The layer is only
+   * rendered again when it has been invalidated since. Layers with active effects are always rendered directly
+   * because the effects change the output of each frame. Once the effects have ended the layer is recorded again.
+   */
+  private void renderLayerRetained(@Nonnull final Element layer, @Nonnull final NiftyRenderEngine renderDevice) {
+    RenderCommandList commands = layerRenderCommands.get(layer);
+    if (layer.hasActiveEffects()) {
+      if (commands != null) {
+        commands.invalidate();
+      }
+      layer.render(renderDevice);
+      return;
+    }
+    if (commands == null) {
+      commands = new RenderCommandList();
+      layerRenderCommands.put(layer, commands);
+    } else if (renderDevice.replay(commands)) {
+      return;
+    }
+    renderDevice.startRecording(commands);
+    layer.render(renderDevice);
+    renderDevice.stopRecording();
+  }
+
+  /**
+   * Mark the recorded render commands of all layers as outdated so that they are rendered again in the next frame.
+   * This is only relevant when retained rendering is enabled in Nifty. Use {@link #invalidateRender(Element)} when
+   * only a single element changed.
+   */
+  public void invalidateRender() {
+    for (RenderCommandList commands : layerRenderCommands.values()) {
+      commands.invalidate();
+    }
+  }
+
+  /**
+   * Mark the recorded render commands of the layer the given element belongs to as outdated so that the layer is
+   * rendered again in the next frame. The other layers keep replaying their commands. This is only relevant when
+   * retained rendering is enabled in Nifty. The elements of this screen call this (through
+   * {@link Element#invalidateRender()}) when they are laid out, added, removed, shown or hidden and the standard
+   * element renderers call it when their content changes. Custom code that changes the appearance of an element in
+   * another way (a custom ElementRenderer or modifying a NiftyImage that is already displayed) needs to call this
+   * method itself.
+   *
+   * @param element the element that changed
+   */
+  public void invalidateRender(@Nonnull final Element element) {
+    // the layers are the children of the root element, so walk up until an element with recorded commands is found
+    Element current = element;
+    while (true) {
+      RenderCommandList commands = layerRenderCommands.get(current);
+      if (commands != null) {
+        commands.invalidate();
+        return;
+      }
+      if (!current.hasParent() || current == rootElement) {
+        return;
+      }
+      current = current.getParent();
+    }
+  }
+
   public void resetLayout() {
     for (int i = 0; i < layerElements.size(); i++) {
       Element layer = layerElements.get(i);
@@ -357,6 +524,22 @@ public class Screen {
     }
   }
 
+  /**
+   * Check if the given mouse event would be processed by this screen without actually forwarding it to any element.
+   * This gives the same result {@link #mouseEvent(NiftyMouseInputEvent)} returns for the event, but no element is
+   * notified and no effect is started or stopped.
+   *
+   * @param inputEvent the mouse event to check
+   * @return true when the event would be processed and false when not
+   */
+  public boolean hitsElement(@Nonnull final NiftyMouseInputEvent inputEvent) {
+    List<Element> layerList = popupElements.isEmpty() ? layerElements : popupElements;
+    buildMouseOverElements(layerList, inputEvent, timeProvider.getMsTime(), hitTestHandler);
+    boolean result = hitTestHandler.hitsElement();
+    hitTestHandler.reset();
+    return result;
+  }
+
   /**
    * forward mouse event to the given layer list.
    *
@@ -370,25 +553,60 @@ public class Screen {
     mouseOverHandler.reset();
 
     long eventTime = timeProvider.getMsTime();
+    buildMouseOverElements(layerList, inputEvent, eventTime, mouseOverHandler);
+
+    if (log.isLoggable(Level.FINER)) {
+      log.fine(mouseOverHandler.getInfoString());
+    }
 
+    mouseOverHandler.processMouseOverEvent(rootElement, inputEvent, eventTime);
+    mouseOverHandler.processMouseEvent(inputEvent, eventTime);
+
+    return mouseOverHandler.hitsElement();
+  }
+
+  private void buildMouseOverElements(
+      @Nonnull final List<Element> layerList,
+      @Nonnull final NiftyMouseInputEvent inputEvent,
+      final long eventTime,
+      @Nonnull final MouseOverHandler handler) {
     if (focusHandler.hasAnyElementTheMouseFocus()) {
       Element e = focusHandler.getMouseFocusElement();
-      mouseOverHandler.addMouseOverElement(e);
+      handler.addMouseOverElement(e);
+    } else if (mouseOverIndexEnabled) {
+      MouseOverElementIndex index = layerList == popupElements ? popupMouseOverIndex : layerMouseOverIndex;
+      index.buildMouseOverElements(layerList, inputEvent, handler);
     } else {
       for (int i = 0; i < layerList.size(); i++) {
         Element layer = layerList.get(i);
-        layer.buildMouseOverElements(inputEvent, eventTime, mouseOverHandler);
+        layer.buildMouseOverElements(inputEvent, eventTime, handler);
       }
     }
+  }
 
-    if (log.isLoggable(Level.FINER)) {
-      log.fine(mouseOverHandler.getInfoString());
-    }
+  /**
+   * Mark the elements that are able to receive mouse events as changed. This is called by the elements of this screen
+   * when they are added, removed, shown or hidden or when they change their visibleToMouse flag.
+   */
+  public void invalidateMouseOverIndex() {
+    layerMouseOverIndex.invalidate();
+    popupMouseOverIndex.invalidate();
+  }
 
-    mouseOverHandler.processMouseOverEvent(rootElement, inputEvent, eventTime);
-    mouseOverHandler.processMouseEvent(inputEvent, eventTime);
+  /**
+   * Enable or disable the use of the mouse over index. When disabled each mouse event walks the complete element tree
+   * of all layers to find the elements that should process the mouse event. The result is the same in both cases, so
+   * this is mainly useful to compare both ways.
+   *
+   * @param enabled true to use the index (default), false to walk all elements for each mouse event
+   */
+  public void setMouseOverIndexEnabled(final boolean enabled) {
+    mouseOverIndexEnabled = enabled;
+    invalidateMouseOverIndex();
+  }
 
-    return mouseOverHandler.hitsElement();
+  public boolean isMouseOverIndexEnabled() {
+    return mouseOverIndexEnabled;
   }
 
   /**
@@ -416,6 +634,9 @@ public class Screen {
     if (findId == null) {
       return null;
     }
+    if (bound) {
+      return elementIdIndex.find(findId, null, layerElements);
+    }
     for (int i = 0; i < layerElements.size(); i++) {
       Element layer = layerElements.get(i);
       Element found = layer.findElementById(findId);
@@ -659,9 +880,16 @@ public class Screen {
    * Do things when the current frame has ended.
    */
   public void processAddAndRemoveLayerElements() {
+    if (!layerElementsToAdd.isEmpty() || !layerElementsToRemove.isEmpty() || !popupElementsToAdd.isEmpty()) {
+      invalidateMouseOverIndex();
+    }
+
     // add/remove layer elements
     layerElements.addAll(layerElementsToAdd);
     layerElements.removeAll(layerElementsToRemove);
+    for (Element removedLayer : layerElementsToRemove) {
+      layerRenderCommands.remove(removedLayer);
+    }
     layerElementsToAdd.clear();
     layerElementsToRemove.clear();
 
@@ -933,6 +1161,7 @@ public class Screen {
 
     public void remove() {
       popupElements.remove(element);
+      invalidateMouseOverIndex();
       focusHandler.popState();
       if (closeNotify != null) {
         closeNotify.perform();
@@ -951,6 +1180,19 @@ public class Screen {
     }
   }
 
+  /**
+   * Find an element inside of the given parent element (including the parent itself) using the id index of this
+   * screen. This is only possible once the screen has been bound.
+   *
+   * @param parent the element to search in
+   * @param findId the id to find
+   * @return the element or null
+   */
+  @Nullable
+  public Element findElementById(@Nonnull final Element parent, @Nonnull final String findId) {
+    return elementIdIndex.find(findId, parent, layerElements);
+  }
+
   public boolean isBound() {
     return bound;
   }
@@ -64,6 +64,12 @@ public class Color {
   private float alpha = 0.0f;
   private String colorString;
 
+  /**
+   * The four hex digits of the color string packed into one int. The color string of colors created from their
+   * components is only build when it is requested. This is -1 when {@link #colorString} is up to date.
+   */
+  private int colorStringDigits = -1;
+
   /**
    * Create a color from a color String formated like in html
    * code but with alpha, e.g.: "#ff00ffff".
@@ -87,7 +93,7 @@ public class Color {
     this.green = newGreen;
     this.blue = newBlue;
     this.alpha = newAlpha;
-    this.colorString = fromRGBA(red, green, blue, alpha);
+    updateColorString();
   }
 
   /**
@@ -100,7 +106,7 @@ public class Color {
     this.red = (color >> 16) & 0xFF;
     this.green = (color >> 8) & 0xFF;
     this.blue = (color) & 0xFF;
-    this.colorString = fromRGBA(red, green, blue, alpha);
+    updateColorString();
   }
 
   /**
@@ -114,7 +120,7 @@ public class Color {
     this.green = newColor.getGreen();
     this.blue = newColor.getBlue();
     this.alpha = newAlpha;
-    this.colorString = fromRGBA(red, green, blue, alpha);
+    updateColorString();
   }
 
   public Color(@Nonnull final Color colorParam) {
@@ -122,7 +128,23 @@ public class Color {
     this.green = colorParam.getGreen();
     this.blue = colorParam.getBlue();
     this.alpha = colorParam.getAlpha();
-    this.colorString = colorParam.getColorString();
+    this.colorString = colorParam.colorString;
+    this.colorStringDigits = colorParam.colorStringDigits;
+  }
+
+  private void updateColorString() {
+    final int r = (int) (red * 15);
+    final int g = (int) (green * 15);
+    final int b = (int) (blue * 15);
+    final int a = (int) (alpha * 15);
+    final int allDigits = r | g | b | a;
+    if (allDigits >= 0 && allDigits < HEX_BASE) {
+      colorString = null;
+      colorStringDigits = (r << 12) | (g << 8) | (b << 4) | a;
+    } else {
+      colorString = fromRGBA(red, green, blue, alpha);
+      colorStringDigits = -1;
+    }
   }
 
   @Nonnull
@@ -135,16 +157,27 @@ public class Color {
   }
 
   public String getColorString() {
+    if (colorStringDigits != -1) {
+      final char[] chars = new char[5];
+      chars[0] = '#';
+      for (int i = 0; i < 4; i++) {
+        chars[i + 1] = Character.forDigit((colorStringDigits >> (12 - i * 4)) & 0xF, HEX_BASE);
+      }
+      colorString = new String(chars);
+      colorStringDigits = -1;
+    }
     return colorString;
   }
 
   public void setColorString(final String colorString) {
     this.colorString = colorString;
+    colorStringDigits = -1;
   }
 
   @Nonnull
   public String getColorStringWithoutAlpha() {
-    return colorString.substring(0, colorString.length() - 1);
+    final String color = getColorString();
+    return color.substring(0, color.length() - 1);
   }
 
   /**
@@ -205,9 +238,9 @@ public class Color {
    */
   private float getRFromString(@Nonnull final String color) {
     if (isShortMode(color)) {
-      return (Integer.parseInt(color.substring(1, 2), HEX_BASE) * SCALE_SHORT_MODE) / MAX_INT_VALUE;
+      return (hexDigit(color, 1) * SCALE_SHORT_MODE) / MAX_INT_VALUE;
     } else {
-      return Integer.parseInt(color.substring(1, 3), HEX_BASE) / MAX_INT_VALUE;
+      return hexByte(color, 1) / MAX_INT_VALUE;
     }
   }
 
@@ -219,9 +252,9 @@ public class Color {
    */
   private float getGFromString(@Nonnull final String color) {
     if (isShortMode(color)) {
-      return (Integer.parseInt(color.substring(2, 3), HEX_BASE) * SCALE_SHORT_MODE) / MAX_INT_VALUE;
+      return (hexDigit(color, 2) * SCALE_SHORT_MODE) / MAX_INT_VALUE;
     } else {
-      return Integer.parseInt(color.substring(3, 5), HEX_BASE) / MAX_INT_VALUE;
+      return hexByte(color, 3) / MAX_INT_VALUE;
     }
   }
 
@@ -233,9 +266,9 @@ public class Color {
    */
   private float getBFromString(@Nonnull final String color) {
     if (isShortMode(color)) {
-      return (Integer.parseInt(color.substring(3, 4), HEX_BASE) * SCALE_SHORT_MODE) / MAX_INT_VALUE;
+      return (hexDigit(color, 3) * SCALE_SHORT_MODE) / MAX_INT_VALUE;
     } else {
-      return Integer.parseInt(color.substring(5, 7), HEX_BASE) / MAX_INT_VALUE;
+      return hexByte(color, 5) / MAX_INT_VALUE;
     }
   }
 
@@ -247,12 +280,34 @@ public class Color {
    */
   private float getAFromString(@Nonnull final String color) {
     if (isShortMode(color)) {
-      return (Integer.parseInt(color.substring(4, 5), HEX_BASE) * SCALE_SHORT_MODE) / MAX_INT_VALUE;
+      return (hexDigit(color, 4) * SCALE_SHORT_MODE) / MAX_INT_VALUE;
     } else {
-      return Integer.parseInt(color.substring(7, 9), HEX_BASE) / MAX_INT_VALUE;
+      return hexByte(color, 7) / MAX_INT_VALUE;
     }
   }
 
+  /**
+   * helper to get the value of a two digit hex number in a string without creating a substring.
+   *
+   * @param color color string
+   * @param index the index of the first digit
+   * @return the value of the two digits
+   */
+  private static int hexByte(@Nonnull final String color, final int index) {
+    return hexDigit(color, index) * HEX_BASE + hexDigit(color, index + 1);
+  }
+
+  /**
+   * helper to get the value of a single hex digit in a string.
+   *
+   * @param color color string
+   * @param index the index of the digit
+   * @return the value of the digit
+   */
+  private static int hexDigit(@Nonnull final String color, final int index) {
+    return Character.digit(color.charAt(index), HEX_BASE);
+  }
+
   /**
    * Returns true when the given string is from format: #ffff and false when #ffffffff.
    *
@@ -349,6 +404,7 @@ public class Color {
 
   public void fromString(@Nonnull final String color) {
     colorString = color;
+    colorStringDigits = -1;
     if (ColorValidator.isShortModeWithoutAlpha(color)) {
       red = getRFromString(color);
       green = getGFromString(color);
@@ -382,6 +438,7 @@ public class Color {
 
   public void fromStringWithoutAlpha(@Nonnull final String color) {
     colorString = color + toHex(alpha);
+    colorStringDigits = -1;
     if (ColorValidator.isShortModeWithoutAlpha(color)) {
       red = getRFromString(color);
       green = getGFromString(color);
@@ -2,7 +2,6 @@ package de.lessvoid.nifty.tools;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
-import java.util.regex.Pattern;
 
 /**
  * This checks a given String that represents a color for being valid. Supported
@@ -12,12 +11,6 @@ import java.util.regex.Pattern;
  * @author Martin Karing &lt;nitram@illarion.org&gt;
  */
 public class ColorValidator {
-  /**
-   * The pattern used to check if the string is valid to be a color definition.
-   */
-  @Nonnull
-  private static final Pattern colorPattern = Pattern.compile("#\\p{XDigit}{3,8}");
-
   /**
    * Check if a string fits any type of color definition string.
    *
@@ -105,13 +98,23 @@ public class ColorValidator {
 
   /**
    * Check if the general syntax of the color string fits. That test does not
-   * validate that the string has the required length.
+   * validate that the string has the required length. The string has to be a "#" followed by 3 to 8 hex digits.
    *
    * @param toCheck the text to check
    * @return {@code true} in case the text matches the required syntax
    */
   private static boolean checkSyntax(@Nonnull final String toCheck) {
-    return colorPattern.matcher(toCheck).matches();
+    final int length = toCheck.length();
+    if (length < 4 || length > 9 || toCheck.charAt(0) != '#') {
+      return false;
+    }
+    for (int i = 1; i < length; i++) {
+      final char c = toCheck.charAt(i);
+      if (!((c >= '0' && c <= '9') || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F'))) {
+        return false;
+      }
+    }
+    return true;
   }
 
   private ColorValidator() {
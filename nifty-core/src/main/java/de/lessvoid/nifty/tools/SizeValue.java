@@ -4,6 +4,8 @@ package de.lessvoid.nifty.tools;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.annotation.concurrent.Immutable;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * The SizeValue class stores and manages size value strings. Such strings are used to store size representations.
@@ -20,6 +22,43 @@ public final class SizeValue {
    */
   public static final float MAX_PERCENT = 100.0f;
 
+  /**
+   * All size value types in the order they are checked when a string is parsed. Stored once because
+   * {@link SizeValueType#values()} creates a new array with each call.
+   */
+  @Nonnull
+  private static final SizeValueType[] TYPES = SizeValueType.values();
+
+  /**
+   * The size values in the range {@code 0..CACHED_VALUES - 1} that are created by the layout over and over again are
+   * shared. The instances are created on first use.
+   */
+  private static final int CACHED_VALUES = 4096;
+
+  @Nonnull
+  private static final SizeValue[] PX_VALUES = new SizeValue[CACHED_VALUES];
+  @Nonnull
+  private static final SizeValue[] PERCENT_VALUES = new SizeValue[(int) MAX_PERCENT + 1];
+  @Nonnull
+  private static final SizeValue[] DEF_VALUES = new SizeValue[CACHED_VALUES];
+  @Nonnull
+  private static final SizeValue[] WILDCARD_VALUES = new SizeValue[CACHED_VALUES];
+  @Nonnull
+  private static final SizeValue[] SUM_VALUES = new SizeValue[CACHED_VALUES];
+  @Nonnull
+  private static final SizeValue[] MAX_VALUES = new SizeValue[CACHED_VALUES];
+
+  /**
+   * The maximal amount of parsed strings that are remembered by {@link #valueOf(String)}.
+   */
+  private static final int MAX_PARSED_VALUES = 1024;
+
+  /**
+   * The size values that got parsed by {@link #valueOf(String)}, stored by the string they were parsed from.
+   */
+  @Nonnull
+  private static final Map<String, SizeValue> PARSED_VALUES = new ConcurrentHashMap<String, SizeValue>();
+
   /**
    * The shared instance of the default size value.
    */
@@ -167,7 +206,7 @@ public final class SizeValue {
     }
 
     SizeValueType selectedType = null;
-    for (@Nonnull final SizeValueType currentType : SizeValueType.values()) {
+    for (@Nonnull final SizeValueType currentType : TYPES) {
       if (valueParam.endsWith(currentType.getExtension())) {
         selectedType = currentType;
         break;
@@ -178,7 +217,7 @@ public final class SizeValue {
       // no suffix -> falling back to px
       type = SizeValueType.Pixel;
       try {
-        value = Float.valueOf(valueParam);
+        value = parseValue(valueParam, valueParam.length());
         hasValue = true;
       } catch (NumberFormatException e) {
         throw new IllegalArgumentException("String value [" + valueParam + "] does not fit the required format.", e);
@@ -199,7 +238,7 @@ public final class SizeValue {
             throw new IllegalArgumentException("The size type " + type.name() + " does not allow any values.");
         }
         try {
-          value = Float.valueOf(valueParam.substring(0, paramLength - extensionLength));
+          value = parseValue(valueParam, paramLength - extensionLength);
           hasValue = true;
         } catch (NumberFormatException e) {
           throw new IllegalArgumentException("String value [" + valueParam + "] does not fit the required format.", e);
@@ -214,6 +253,92 @@ public final class SizeValue {
     }
   }
 
+  /**
+   * Parse the number at the start of the string. Plain integer values are parsed directly from the characters of the
+   * string. Everything else is handed to {@link Float#parseFloat(String)}.
+   *
+   * @param text the text that contains the number
+   * @param end  the index of the first character after the number
+   * @return the parsed number
+   * @throws NumberFormatException in case the text does not contain a valid number
+   */
+  private static float parseValue(@Nonnull final String text, final int end) {
+    final boolean negative = end > 0 && text.charAt(0) == '-';
+    final int start = negative ? 1 : 0;
+    if (end > start && end - start <= 9) {
+      int result = 0;
+      int i = start;
+      while (i < end) {
+        final char c = text.charAt(i);
+        if (c < '0' || c > '9') {
+          break;
+        }
+        result = result * 10 + (c - '0');
+        i++;
+      }
+      if (i == end) {
+        return negative ? -(float) result : (float) result;
+      }
+    }
+    return Float.parseFloat(text.substring(0, end));
+  }
+
+  /**
+   * Get the size value for a string. This returns the same result as the {@link #SizeValue(String)} constructor but
+   * shares the instances for the strings parsed before. As the size values are immutable, this is the preferred way
+   * to get the size value of a attribute or a effect parameter.
+   *
+   * @param valueParam the size value as string
+   * @return the size value
+   * @throws java.lang.IllegalArgumentException in case its not possible to parse the value
+   */
+  @Nonnull
+  public static SizeValue valueOf(@Nullable final String valueParam) {
+    if (valueParam == null) {
+      return DEF;
+    }
+    SizeValue result = PARSED_VALUES.get(valueParam);
+    if (result == null) {
+      result = new SizeValue(valueParam);
+      if (PARSED_VALUES.size() < MAX_PARSED_VALUES) {
+        PARSED_VALUES.put(valueParam, result);
+      }
+    }
+    return result;
+  }
+
+  @Nonnull
+  private static SizeValue cachedValue(
+      @Nonnull final SizeValue[] cache,
+      final int value,
+      @Nonnull final SizeValueType type) {
+    if (value < 0 || value >= cache.length) {
+      return new SizeValue(value, type);
+    }
+    SizeValue result = cache[value];
+    if (result == null) {
+      result = new SizeValue(value, type);
+      cache[value] = result;
+    }
+    return result;
+  }
+
+  @Nonnull
+  private static SizeValue cachedCalculatedValue(
+      @Nonnull final SizeValue[] cache,
+      @Nonnull final SizeValueType type,
+      final int calculatedValue) {
+    if (calculatedValue < 0 || calculatedValue >= cache.length) {
+      return new SizeValue(type, calculatedValue);
+    }
+    SizeValue result = cache[calculatedValue];
+    if (result == null) {
+      result = new SizeValue(type, calculatedValue);
+      cache[calculatedValue] = result;
+    }
+    return result;
+  }
+
   /**
    * Get the default size value.
    *
@@ -234,7 +359,7 @@ public final class SizeValue {
    */
   @Nonnull
   public static SizeValue def(final int pixelValue) {
-    return new SizeValue(SizeValueType.Default, pixelValue);
+    return cachedCalculatedValue(DEF_VALUES, SizeValueType.Default, pixelValue);
   }
 
   /**
@@ -249,7 +374,7 @@ public final class SizeValue {
     if (pixelValue == 0) {
       return NULL_PX;
     }
-    return new SizeValue(pixelValue, SizeValueType.Pixel);
+    return cachedValue(PX_VALUES, pixelValue, SizeValueType.Pixel);
   }
 
   /**
@@ -261,7 +386,7 @@ public final class SizeValue {
    */
   @Nonnull
   public static SizeValue percent(final int percentage) {
-    return new SizeValue(percentage, SizeValueType.Percent);
+    return cachedValue(PERCENT_VALUES, percentage, SizeValueType.Percent);
   }
 
   /**
@@ -310,7 +435,7 @@ public final class SizeValue {
    */
   @Nonnull
   public static SizeValue wildcard(final int computedValue) {
-    return new SizeValue(SizeValueType.Wildcard, computedValue);
+    return cachedCalculatedValue(WILDCARD_VALUES, SizeValueType.Wildcard, computedValue);
   }
 
   /**
@@ -333,7 +458,7 @@ public final class SizeValue {
    */
   @Nonnull
   public static SizeValue sum(final int computedValue) {
-    return new SizeValue(SizeValueType.Sum, computedValue);
+    return cachedCalculatedValue(SUM_VALUES, SizeValueType.Sum, computedValue);
   }
 
   /**
@@ -356,7 +481,7 @@ public final class SizeValue {
    */
   @Nonnull
   public static SizeValue max(final int computedValue) {
-    return new SizeValue(SizeValueType.Maximum, computedValue);
+    return cachedCalculatedValue(MAX_VALUES, SizeValueType.Maximum, computedValue);
   }
 
   /**
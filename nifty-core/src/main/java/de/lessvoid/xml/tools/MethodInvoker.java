@@ -20,12 +20,25 @@ public class MethodInvoker {
   @Nullable
   private final String methodWithName;
 
+  /**
+   * The resolved method for each target object. The entries are in the same order as the target objects.
+   */
+  @Nullable
+  private ResolvedMethod[] resolvedMethods;
+
+  /**
+   * The parameters encoded in the method name. They don't change so we extract them only once.
+   */
+  @Nonnull
+  private final Object[] encodedParameters;
+
   /**
    * create null MethodInvoker.
    */
   public MethodInvoker() {
     this.methodWithName = null;
     this.target = null;
+    this.encodedParameters = new Object[0];
   }
 
   /**
@@ -45,6 +58,17 @@ public class MethodInvoker {
         idx--;
       }
     }
+    if (methodParam == null) {
+      this.encodedParameters = new Object[0];
+    } else {
+      this.encodedParameters = MethodResolver.extractParameters(methodParam);
+      if (target != null) {
+        resolvedMethods = new ResolvedMethod[target.length];
+        for (int i = 0; i < resolvedMethods.length; i++) {
+          resolvedMethods[i] = new ResolvedMethod(methodParam);
+        }
+      }
+    }
   }
 
   /**
@@ -52,12 +76,22 @@ public class MethodInvoker {
    * @param object object
    */
   public void setFirst(@Nonnull final Object object) {
-    if (methodWithName == null) {
+    final String method = methodWithName;
+    if (method == null) {
+      return;
+    }
+    // resolve the method first, an object without the method would never be called anyway
+    ResolvedMethod resolvedMethod = new ResolvedMethod(method);
+    if (resolvedMethod.getMethod(object.getClass()) == null) {
+      if (log.isLoggable(Level.FINE)) {
+        log.fine("method [" + method + "] not found at object class [" + object.getClass() + "], object ignored");
+      }
       return;
     }
     if (target == null) {
       target = new Object[1];
       target[0] = object;
+      resolvedMethods = new ResolvedMethod[] { resolvedMethod };
     } else {
       // scan current target array for the given object (is this already attached to the param object?)
       for (Object o : target) {
@@ -72,6 +106,13 @@ public class MethodInvoker {
       System.arraycopy(target, 0, copy, 0, target.length);
       copy[copy.length - 1] = object;
       target = copy;
+
+      ResolvedMethod[] resolvedCopy = new ResolvedMethod[copy.length];
+      if (resolvedMethods != null) {
+        System.arraycopy(resolvedMethods, 0, resolvedCopy, 0, resolvedMethods.length);
+      }
+      resolvedCopy[resolvedCopy.length - 1] = resolvedMethod;
+      resolvedMethods = resolvedCopy;
     }
   }
 
@@ -83,14 +124,16 @@ public class MethodInvoker {
   @Nullable
   public Object invoke(@Nonnull final Object ... invokeParametersParam) {
     // nothing to do?
-    if (target == null || target.length == 0 || methodWithName == null) {
+    if (target == null || target.length == 0 || methodWithName == null || resolvedMethods == null) {
       return null;
     }
 
     // process all methods (first one wins)
-    for (Object object : target) {
+    for (int i = 0; i < target.length; i++) {
+      Object object = target[i];
       if (object != null) {
-        Method method = MethodResolver.findMethod(object.getClass(), methodWithName);
+        ResolvedMethod resolvedMethod = resolvedMethods[i];
+        Method method = resolvedMethod.getMethod(object.getClass());
         if (method != null) {
           // we've found a method with the given name. now we need to match the parameters.
           //
@@ -100,11 +143,11 @@ public class MethodInvoker {
           //    2a) invokeParametersParam are given, in this case we'll try to forward them to the method
           //        if this is not possible we fall back to 2b)
           //    2b) just call the method without any parameters
-          Object[] invokeParameters = MethodResolver.extractParameters(methodWithName);
+          Object[] invokeParameters = encodedParameters;
           if (invokeParameters.length > 0) {
             // does the method supports the parameters?
             // TODO: not only check for the count but check the type too
-            if (getMethodParameterCount(method) == invokeParameters.length) {
+            if (resolvedMethod.getParameterCount() == invokeParameters.length) {
               if (log.isLoggable(Level.FINE)) {
                 log.fine("invoking method '" + methodWithName + "' with (" + debugParaString(invokeParameters) + ")");
               }
@@ -118,7 +161,7 @@ public class MethodInvoker {
           } else {
             // no invokeParameters encoded. this means we can call the method as is or with the invokeParametersParam
             if (invokeParametersParam.length > 0) {
-              if (getMethodParameterCount(method) == invokeParametersParam.length) {
+              if (resolvedMethod.getParameterCount() == invokeParametersParam.length) {
                 if (log.isLoggable(Level.FINE)) {
                   log.fine("invoking method '" + methodWithName + "' with the actual parameters ("
                     + debugParaString(invokeParametersParam) + ")");
@@ -185,16 +228,6 @@ public class MethodInvoker {
     }
   }
 
-  /**
-   * return count of actual method parameters.
-   * @param method method
-   * @return count of parameters the method needs
-   */
-  private int getMethodParameterCount(@Nonnull final Method method) {
-    Class < ? > [] parameterTypes = method.getParameterTypes();
-    return parameterTypes.length;
-  }
-
   /**
    * helper method to convert the given parameter object array into a string for debugging.
    * @param invokeParameters parameter array
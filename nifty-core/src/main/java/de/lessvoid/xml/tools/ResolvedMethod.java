@@ -0,0 +1,52 @@
+package de.lessvoid.xml.tools;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.lang.reflect.Method;
+
+/**
+ * Remembers the Method that MethodResolver.findMethod() returned for a method name and the class of the object the
+ * method is called on. The method is only looked up again when it is requested for a different class. This way the
+ * event handlers of the method invokers don't scan the methods of the target class with each call.
+ * @author void
+ */
+public class ResolvedMethod {
+  @Nonnull
+  private final String methodWithName;
+  @Nullable
+  private Class<?> resolvedClass;
+  @Nullable
+  private Method method;
+  private int parameterCount;
+
+  /**
+   * Create a new ResolvedMethod for the given method.
+   * @param methodWithName the method name including the parameter list, e.g. "onClick()"
+   */
+  public ResolvedMethod(@Nonnull final String methodWithName) {
+    this.methodWithName = methodWithName;
+  }
+
+  /**
+   * Get the method for the given class.
+   * @param c the class of the object the method should be called on
+   * @return the method or null when the class does not have a method with the name
+   */
+  @Nullable
+  public Method getMethod(@Nonnull final Class<?> c) {
+    if (c != resolvedClass) {
+      method = MethodResolver.findMethod(c, methodWithName);
+      parameterCount = method == null ? 0 : method.getParameterTypes().length;
+      resolvedClass = c;
+    }
+    return method;
+  }
+
+  /**
+   * Get the amount of parameters of the method returned by the last call to {@link #getMethod(Class)}.
+   * @return parameter count
+   */
+  public int getParameterCount() {
+    return parameterCount;
+  }
+}
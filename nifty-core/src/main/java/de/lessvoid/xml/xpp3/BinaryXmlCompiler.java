@@ -0,0 +1,274 @@
+package de.lessvoid.xml.xpp3;
+
+import org.xmlpull.v1.XmlPullParser;
+import org.xmlpull.v1.XmlPullParserFactory;
+
+import javax.annotation.Nonnull;
+import javax.annotation.WillNotClose;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+/**
+ * Converts a XML file into the pre-baked binary format that is read by the BinaryXmlPullParser. The binary format
+ * only keeps the start and end tags together with their attributes because that is all the XmlParser looks at. All
+ * names and values are stored once in a string table and the tags only refer to them by index.
+ * <p>
+ * The binary file stores a checksum of the XML it was created from, see {@link BinaryXmlPullParser#getChecksum()}.
+ * When the XML file is available next to the binary file the NiftyLoader compares the checksum and loads the XML
+ * instead of the outdated binary file, see {@link #isUpToDate(byte[], byte[])}.
+ * <p>
+ * Meant to be run at build time: {@code java de.lessvoid.xml.xpp3.BinaryXmlCompiler screen.xml styles.xml} writes
+ * "screen.xml.nbx" and "styles.xml.nbx" next to the XML files. The NiftyLoader reads the binary format whenever it is
+ * given a binary file instead of the XML, so load "screen.xml.nbx" and refer to "styles.xml.nbx" in the screen to
+ * use them.
+ *
+ * @author void
+ */
+public class BinaryXmlCompiler {
+  @Nonnull
+  private static final Logger log = Logger.getLogger(BinaryXmlCompiler.class.getName());
+
+  /**
+   * The file extension that is appended to the name of the XML file to get the name of the binary file.
+   */
+  @Nonnull
+  public static final String FILE_EXTENSION = ".nbx";
+
+  /**
+   * The first bytes of each binary file.
+   */
+  static final byte[] MAGIC = {'N', 'B', 'X', 'M', 'L'};
+
+  /**
+   * The version of the binary format. Binary files with a different version are not read.
+   */
+  static final int VERSION = 1;
+
+  @Nonnull
+  private final XmlPullParserFactory parserFactory;
+
+  /**
+   * Create a new compiler.
+   *
+   * @param parserFactory the factory of the parser that reads the XML, this should be configured the same way the
+   *                      factory used to load the XML is configured
+   */
+  public BinaryXmlCompiler(@Nonnull final XmlPullParserFactory parserFactory) {
+    this.parserFactory = parserFactory;
+  }
+
+  /**
+   * Read the XML from the input stream and write the binary representation of it to the output stream.
+   *
+   * @param xml the XML data
+   * @param out the stream the binary data is written to
+   * @throws Exception in case reading the XML fails
+   */
+  public void compile(@Nonnull @WillNotClose final InputStream xml, @Nonnull @WillNotClose final OutputStream out)
+      throws Exception {
+    compile(readFully(xml), out);
+  }
+
+  /**
+   * Write the binary representation of the given XML data to the output stream.
+   *
+   * @param xml the XML data
+   * @param out the stream the binary data is written to
+   * @throws Exception in case reading the XML fails
+   */
+  public void compile(@Nonnull final byte[] xml, @Nonnull @WillNotClose final OutputStream out) throws Exception {
+    XmlPullParser xpp = parserFactory.newPullParser();
+    xpp.setInput(new ByteArrayInputStream(xml), null);
+
+    List<String> strings = new ArrayList<String>();
+    Map<String, Integer> stringIndices = new HashMap<String, Integer>();
+    ByteArrayOutputStream eventBytes = new ByteArrayOutputStream(xml.length / 2);
+    DataOutputStream events = new DataOutputStream(eventBytes);
+
+    int eventType = xpp.next();
+    while (eventType != XmlPullParser.END_DOCUMENT) {
+      if (eventType == XmlPullParser.START_TAG) {
+        events.writeByte(XmlPullParser.START_TAG);
+        events.writeInt(stringIndex(xpp.getName(), strings, stringIndices));
+        int attributeCount = xpp.getAttributeCount();
+        events.writeInt(attributeCount);
+        for (int i = 0; i < attributeCount; i++) {
+          events.writeInt(stringIndex(xpp.getAttributeName(i), strings, stringIndices));
+          events.writeInt(stringIndex(xpp.getAttributeValue(i), strings, stringIndices));
+        }
+      } else if (eventType == XmlPullParser.END_TAG) {
+        events.writeByte(XmlPullParser.END_TAG);
+      }
+      eventType = xpp.next();
+    }
+    events.writeByte(XmlPullParser.END_DOCUMENT);
+    events.flush();
+
+    DataOutputStream data = new DataOutputStream(out);
+    data.write(MAGIC);
+    data.writeInt(VERSION);
+    data.writeLong(checksum(xml));
+    data.writeInt(strings.size());
+    for (String s : strings) {
+      byte[] bytes = s.getBytes("UTF-8");
+      data.writeInt(bytes.length);
+      data.write(bytes);
+    }
+    eventBytes.writeTo(data);
+    data.flush();
+  }
+
+  /**
+   * Calculate the checksum of XML data that is stored in the binary files.
+   *
+   * @param xml the XML data
+   * @return the checksum
+   */
+  public static long checksum(@Nonnull final byte[] xml) {
+    CRC32 crc = new CRC32();
+    crc.update(xml, 0, xml.length);
+    return crc.getValue();
+  }
+
+  /**
+   * Check if the binary data was created from the given XML data by this version of the compiler.
+   *
+   * @param binary the binary data
+   * @param xml    the XML data the binary data is supposed to be created from
+   * @return true if the binary data can be used instead of the XML and false if the XML changed since the binary
+   * data was created or the binary data is not readable
+   */
+  public static boolean isUpToDate(@Nonnull final byte[] binary, @Nonnull final byte[] xml) {
+    if (!isBinaryXml(binary)) {
+      return false;
+    }
+    try {
+      DataInputStream in = new DataInputStream(new ByteArrayInputStream(binary));
+      in.skipBytes(MAGIC.length);
+      return in.readInt() == VERSION && in.readLong() == checksum(xml);
+    } catch (IOException e) {
+      return false;
+    }
+  }
+
+  /**
+   * Check if the given data starts like a binary file created by this compiler.
+   *
+   * @param data the data to check
+   * @return true if the data is in the binary format and false if not
+   */
+  public static boolean isBinaryXml(@Nonnull final byte[] data) {
+    if (data.length < MAGIC.length) {
+      return false;
+    }
+    for (int i = 0; i < MAGIC.length; i++) {
+      if (data[i] != MAGIC[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Check if the given stream starts like a binary file created by this compiler. The stream is reset to its current
+   * position afterwards.
+   *
+   * @param in the stream to check, it needs to support {@link InputStream#mark(int)}
+   * @return true if the stream is in the binary format and false if not
+   * @throws IOException in case reading fails
+   */
+  public static boolean isBinaryXml(@Nonnull @WillNotClose final InputStream in) throws IOException {
+    byte[] start = new byte[MAGIC.length];
+    in.mark(start.length);
+    try {
+      int count = 0;
+      while (count < start.length) {
+        int read = in.read(start, count, start.length - count);
+        if (read == -1) {
+          return false;
+        }
+        count += read;
+      }
+      return isBinaryXml(start);
+    } finally {
+      in.reset();
+    }
+  }
+
+  /**
+   * Read the complete content of the stream.
+   *
+   * @param in the stream to read
+   * @return the content of the stream
+   * @throws IOException in case reading fails
+   */
+  @Nonnull
+  public static byte[] readFully(@Nonnull @WillNotClose final InputStream in) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    byte[] buffer = new byte[8192];
+    int read;
+    while ((read = in.read(buffer)) != -1) {
+      out.write(buffer, 0, read);
+    }
+    return out.toByteArray();
+  }
+
+  private static int stringIndex(
+      @Nonnull final String value,
+      @Nonnull final List<String> strings,
+      @Nonnull final Map<String, Integer> stringIndices) {
+    Integer index = stringIndices.get(value);
+    if (index == null) {
+      index = strings.size();
+      strings.add(value);
+      stringIndices.put(value, index);
+    }
+    return index;
+  }
+
+  /**
+   * Compile all XML files given on the command line. The binary files are written next to the XML files.
+   *
+   * @param args the names of the XML files
+   * @throws Exception in case a file can't be compiled
+   */
+  public static void main(@Nonnull final String[] args) throws Exception {
+    if (args.length == 0) {
+      log.warning("usage: BinaryXmlCompiler <xml file> [<xml file> ...]");
+      return;
+    }
+    XmlPullParserFactory factory = XmlPullParserFactory.newInstance();
+    factory.setValidating(false);
+    factory.setNamespaceAware(true);
+    BinaryXmlCompiler compiler = new BinaryXmlCompiler(factory);
+    for (String filename : args) {
+      byte[] xml;
+      InputStream in = new FileInputStream(filename);
+      try {
+        xml = readFully(in);
+      } finally {
+        in.close();
+      }
+      OutputStream out = new FileOutputStream(filename + FILE_EXTENSION);
+      try {
+        compiler.compile(xml, out);
+      } finally {
+        out.close();
+      }
+      log.info(filename + " -> " + filename + FILE_EXTENSION);
+    }
+  }
+}
@@ -0,0 +1,374 @@
+package de.lessvoid.xml.xpp3;
+
+import org.xmlpull.v1.XmlPullParser;
+import org.xmlpull.v1.XmlPullParserException;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+
+/**
+ * A XmlPullParser that reads the pre-baked binary format written by the BinaryXmlCompiler instead of XML. The whole
+ * file is read into a string table and an int array of events when the input is set, so walking the events later on
+ * does not need to tokenize or decode anything.
+ * <p>
+ * The binary format only contains start and end tags with their attributes. There is no text, no namespace
+ * information and no position information available. This is all the XmlParser requires.
+ *
+ * @author void
+ */
+public class BinaryXmlPullParser implements XmlPullParser {
+  @Nonnull
+  private static final String[] NO_STRINGS = new String[0];
+
+  @Nonnull
+  private String[] strings = NO_STRINGS;
+  @Nonnull
+  private int[] events = new int[] { END_DOCUMENT };
+  private long checksum;
+
+  private int eventType = START_DOCUMENT;
+  private int eventPos = -1;
+  private int depth;
+  @Nonnull
+  private String[] elementNames = new String[16];
+
+  /**
+   * Get the checksum of the XML the current input was created from.
+   *
+   * @return the checksum as calculated by {@link BinaryXmlCompiler#checksum(byte[])}
+   */
+  public long getChecksum() {
+    return checksum;
+  }
+
+  @Override
+  public void setInput(@Nonnull final InputStream inputStream, @Nullable final String inputEncoding)
+      throws XmlPullParserException {
+    try {
+      setInput(BinaryXmlCompiler.readFully(inputStream));
+    } catch (IOException e) {
+      throw new XmlPullParserException("Failed to read binary xml", this, e);
+    }
+  }
+
+  /**
+   * Set the binary data to read.
+   *
+   * @param data the binary data as written by the BinaryXmlCompiler
+   * @throws XmlPullParserException in case the data is not in the expected format
+   */
+  public void setInput(@Nonnull final byte[] data) throws XmlPullParserException {
+    if (!BinaryXmlCompiler.isBinaryXml(data)) {
+      throw new XmlPullParserException("Input is not in the binary xml format", this, null);
+    }
+    try {
+      DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+      in.skipBytes(BinaryXmlCompiler.MAGIC.length);
+      int version = in.readInt();
+      if (version != BinaryXmlCompiler.VERSION) {
+        throw new XmlPullParserException("Unsupported binary xml version [" + version + "]", this, null);
+      }
+      long newChecksum = in.readLong();
+
+      String[] newStrings = new String[in.readInt()];
+      for (int i = 0; i < newStrings.length; i++) {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        newStrings[i] = new String(bytes, "UTF-8");
+      }
+
+      int[] newEvents = new int[data.length / 4 + 1];
+      int count = 0;
+      int type;
+      do {
+        type = in.readByte();
+        newEvents = ensureCapacity(newEvents, count + 1);
+        newEvents[count++] = type;
+        if (type == START_TAG) {
+          int name = in.readInt();
+          int attributeCount = in.readInt();
+          newEvents = ensureCapacity(newEvents, count + 2 + attributeCount * 2);
+          newEvents[count++] = name;
+          newEvents[count++] = attributeCount;
+          for (int i = 0; i < attributeCount * 2; i++) {
+            newEvents[count++] = in.readInt();
+          }
+        } else if (type != END_TAG && type != END_DOCUMENT) {
+          throw new XmlPullParserException("Unexpected event [" + type + "] in binary xml", this, null);
+        }
+      } while (type != END_DOCUMENT);
+
+      strings = newStrings;
+      events = newEvents;
+      checksum = newChecksum;
+      eventType = START_DOCUMENT;
+      eventPos = -1;
+      depth = 0;
+    } catch (IOException e) {
+      throw new XmlPullParserException("Failed to read binary xml", this, e);
+    }
+  }
+
+  @Nonnull
+  private static int[] ensureCapacity(@Nonnull final int[] array, final int size) {
+    if (size <= array.length) {
+      return array;
+    }
+    int[] result = new int[Math.max(size, array.length * 2)];
+    System.arraycopy(array, 0, result, 0, array.length);
+    return result;
+  }
+
+  @Override
+  public void setInput(final Reader in) throws XmlPullParserException {
+    throw new XmlPullParserException("The binary xml format can only be read from an InputStream", this, null);
+  }
+
+  @Override
+  public int getEventType() {
+    return eventType;
+  }
+
+  @Override
+  public int next() {
+    if (eventType == END_DOCUMENT) {
+      return eventType;
+    }
+    if (eventType == START_TAG) {
+      eventPos += 3 + events[eventPos + 2] * 2;
+    } else {
+      if (eventType == END_TAG) {
+        depth--;
+      }
+      eventPos++;
+    }
+    eventType = events[eventPos];
+    if (eventType == START_TAG) {
+      if (depth == elementNames.length) {
+        String[] names = new String[depth * 2];
+        System.arraycopy(elementNames, 0, names, 0, depth);
+        elementNames = names;
+      }
+      elementNames[depth++] = strings[events[eventPos + 1]];
+    }
+    return eventType;
+  }
+
+  @Override
+  public int nextToken() {
+    return next();
+  }
+
+  @Override
+  public int nextTag() throws XmlPullParserException {
+    int type = next();
+    if (type != START_TAG && type != END_TAG) {
+      throw new XmlPullParserException("expected start or end tag", this, null);
+    }
+    return type;
+  }
+
+  @Override
+  public void require(final int type, @Nullable final String namespace, @Nullable final String name)
+      throws XmlPullParserException {
+    if (type != eventType || (name != null && !name.equals(getName()))) {
+      throw new XmlPullParserException("expected event [" + type + "] with name [" + name + "]", this, null);
+    }
+  }
+
+  @Nullable
+  @Override
+  public String nextText() throws XmlPullParserException {
+    if (eventType != START_TAG) {
+      throw new XmlPullParserException("parser must be on a start tag to read text", this, null);
+    }
+    if (next() != END_TAG) {
+      throw new XmlPullParserException("element content is not supported by the binary xml format", this, null);
+    }
+    return "";
+  }
+
+  @Override
+  public int getDepth() {
+    return depth;
+  }
+
+  @Nullable
+  @Override
+  public String getName() {
+    if (eventType == START_TAG || eventType == END_TAG) {
+      return elementNames[depth - 1];
+    }
+    return null;
+  }
+
+  @Override
+  public int getAttributeCount() {
+    return eventType == START_TAG ? events[eventPos + 2] : -1;
+  }
+
+  @Override
+  public String getAttributeName(final int index) {
+    return strings[events[attributeOffset(index)]];
+  }
+
+  @Override
+  public String getAttributeValue(final int index) {
+    return strings[events[attributeOffset(index) + 1]];
+  }
+
+  @Nullable
+  @Override
+  public String getAttributeValue(@Nullable final String namespace, @Nonnull final String name) {
+    int count = getAttributeCount();
+    for (int i = 0; i < count; i++) {
+      if (name.equals(getAttributeName(i))) {
+        return getAttributeValue(i);
+      }
+    }
+    return null;
+  }
+
+  private int attributeOffset(final int index) {
+    if (eventType != START_TAG || index < 0 || index >= events[eventPos + 2]) {
+      throw new IndexOutOfBoundsException("no attribute with index [" + index + "]");
+    }
+    return eventPos + 3 + index * 2;
+  }
+
+  @Override
+  public String getAttributeNamespace(final int index) {
+    attributeOffset(index);
+    return NO_NAMESPACE;
+  }
+
+  @Nullable
+  @Override
+  public String getAttributePrefix(final int index) {
+    attributeOffset(index);
+    return null;
+  }
+
+  @Override
+  public String getAttributeType(final int index) {
+    attributeOffset(index);
+    return "CDATA";
+  }
+
+  @Override
+  public boolean isAttributeDefault(final int index) {
+    return false;
+  }
+
+  @Override
+  public boolean isEmptyElementTag() {
+    return false;
+  }
+
+  @Override
+  public boolean isWhitespace() {
+    return false;
+  }
+
+  @Nullable
+  @Override
+  public String getText() {
+    return null;
+  }
+
+  @Nullable
+  @Override
+  public char[] getTextCharacters(final int[] holderForStartAndLength) {
+    holderForStartAndLength[0] = -1;
+    holderForStartAndLength[1] = -1;
+    return null;
+  }
+
+  @Nullable
+  @Override
+  public String getNamespace() {
+    return getName() == null ? null : NO_NAMESPACE;
+  }
+
+  @Nullable
+  @Override
+  public String getNamespace(final String prefix) {
+    return null;
+  }
+
+  @Nullable
+  @Override
+  public String getPrefix() {
+    return null;
+  }
+
+  @Override
+  public int getNamespaceCount(final int depth) {
+    return 0;
+  }
+
+  @Override
+  public String getNamespacePrefix(final int pos) throws XmlPullParserException {
+    throw new XmlPullParserException("no namespace information available in binary xml", this, null);
+  }
+
+  @Override
+  public String getNamespaceUri(final int pos) throws XmlPullParserException {
+    throw new XmlPullParserException("no namespace information available in binary xml", this, null);
+  }
+
+  @Nonnull
+  @Override
+  public String getPositionDescription() {
+    String name = getName();
+    return "binary xml event " + eventPos + (name == null ? "" : " <" + name + ">");
+  }
+
+  @Override
+  public int getLineNumber() {
+    return -1;
+  }
+
+  @Override
+  public int getColumnNumber() {
+    return -1;
+  }
+
+  @Nullable
+  @Override
+  public String getInputEncoding() {
+    return null;
+  }
+
+  @Override
+  public void defineEntityReplacementText(final String entityName, final String replacementText) {
+  }
+
+  @Override
+  public void setFeature(final String name, final boolean state) throws XmlPullParserException {
+    if (state) {
+      throw new XmlPullParserException("unsupported feature [" + name + "]", this, null);
+    }
+  }
+
+  @Override
+  public boolean getFeature(final String name) {
+    return false;
+  }
+
+  @Override
+  public void setProperty(final String name, final Object value) throws XmlPullParserException {
+    throw new XmlPullParserException("unsupported property [" + name + "]", this, null);
+  }
+
+  @Nullable
+  @Override
+  public Object getProperty(final String name) {
+    return null;
+  }
+}
@@ -0,0 +1,261 @@
+package de.lessvoid.nifty;
+
+import org.bushe.swing.event.EventTopicSubscriber;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class NiftyEventBusTest {
+  private final NiftyEventBus eventBus = new NiftyEventBus();
+
+  @Test
+  public void testPublishToTopic() {
+    Recorder recorder = new Recorder();
+    eventBus.subscribe("id", recorder);
+    eventBus.publish("id", "event");
+    eventBus.publish("other", "ignored");
+
+    assertEquals(1, recorder.events.size());
+    assertEquals("id", recorder.topics.get(0));
+    assertEquals("event", recorder.events.get(0));
+  }
+
+  @Test
+  public void testPublishToPattern() {
+    Recorder recorder = new Recorder();
+    eventBus.subscribe(Pattern.compile("button-.*"), recorder);
+    eventBus.publish("button-1", "first");
+    eventBus.publish("label-1", "ignored");
+    eventBus.publish("button-2", "second");
+
+    assertEquals(2, recorder.events.size());
+    assertEquals("button-1", recorder.topics.get(0));
+    assertEquals("button-2", recorder.topics.get(1));
+  }
+
+  @Test
+  public void testSubscriptionAfterPublishIsUsed() {
+    eventBus.publish("id", "before");
+    assertFalse(eventBus.hasSubscribers("id"));
+
+    Recorder recorder = new Recorder();
+    eventBus.subscribe("id", recorder);
+    eventBus.publish("id", "after");
+
+    assertTrue(eventBus.hasSubscribers("id"));
+    assertEquals(1, recorder.events.size());
+    assertEquals("after", recorder.events.get(0));
+  }
+
+  @Test
+  public void testTopicsWithoutSubscribersAreNotCached() {
+    eventBus.subscribe("id", new Recorder());
+    for (int i = 0; i < 100; i++) {
+      eventBus.publish("#element-" + i, "event");
+    }
+    eventBus.publish("id", "event");
+
+    assertEquals(1, eventBus.getCachedTopicCount());
+  }
+
+  @Test
+  public void testCacheIsBounded() {
+    Recorder recorder = new Recorder();
+    eventBus.subscribe(Pattern.compile("element-.*"), recorder);
+    for (int i = 0; i < 5000; i++) {
+      eventBus.publish("element-" + i, "event");
+    }
+
+    assertEquals(5000, recorder.events.size());
+    assertTrue(eventBus.getCachedTopicCount() <= 1024);
+  }
+
+  @Test
+  public void testPatternSubscriptionAfterPublishIsUsed() {
+    Recorder exact = new Recorder();
+    eventBus.subscribe("id", exact);
+    eventBus.publish("id", "before");
+
+    Recorder pattern = new Recorder();
+    eventBus.subscribe(Pattern.compile("i."), pattern);
+    eventBus.publish("id", "after");
+
+    assertEquals(2, exact.events.size());
+    assertEquals(1, pattern.events.size());
+  }
+
+  @Test
+  public void testUnsubscribe() {
+    Recorder recorder = new Recorder();
+    eventBus.subscribe("id", recorder);
+    eventBus.publish("id", "first");
+    assertTrue(eventBus.unsubscribe("id", recorder));
+    assertFalse(eventBus.unsubscribe("id", recorder));
+    eventBus.publish("id", "second");
+
+    assertEquals(1, recorder.events.size());
+  }
+
+  @Test
+  public void testUnsubscribeByOwner() {
+    Recorder recorder = new Recorder();
+    Object owner = new Object();
+    eventBus.subscribe("id", recorder, owner, false);
+    eventBus.subscribe(Pattern.compile("id"), recorder, owner, false);
+    assertTrue(eventBus.unsubscribe("id", owner));
+    assertTrue(eventBus.unsubscribe(Pattern.compile("id"), owner));
+    eventBus.publish("id", "event");
+
+    assertTrue(recorder.events.isEmpty());
+  }
+
+  @Test
+  public void testCoalescableEventsAreDeliveredAtEndOfFrame() {
+    Recorder recorder = new Recorder();
+    eventBus.subscribe("slider", recorder);
+    eventBus.subscribe("other", recorder);
+    CoalescableEvent first = new CoalescableEvent();
+    CoalescableEvent second = new CoalescableEvent();
+    CoalescableEvent third = new CoalescableEvent();
+
+    eventBus.beginFrame();
+    eventBus.publish("slider", first);
+    eventBus.publish("other", second);
+    eventBus.publish("slider", third);
+
+    assertTrue(recorder.events.isEmpty());
+
+    eventBus.endFrame();
+
+    assertEquals(2, recorder.events.size());
+    assertEquals("other", recorder.topics.get(0));
+    assertSame(second, recorder.events.get(0));
+    assertEquals("slider", recorder.topics.get(1));
+    assertSame(third, recorder.events.get(1));
+  }
+
+  @Test
+  public void testCoalescableEventsKeepPublishOrder() {
+    Recorder recorder = new Recorder();
+    eventBus.subscribe("slider", recorder);
+    eventBus.subscribe("button", recorder);
+    CoalescableEvent first = new CoalescableEvent();
+    CoalescableEvent second = new CoalescableEvent();
+    CoalescableEvent third = new CoalescableEvent();
+
+    eventBus.beginFrame();
+    eventBus.publish("slider", first);
+    eventBus.publish("slider", second);
+    eventBus.publish("button", "clicked");
+    eventBus.publish("slider", third);
+
+    assertEquals(2, recorder.events.size());
+    assertSame(second, recorder.events.get(0));
+    assertEquals("clicked", recorder.events.get(1));
+
+    eventBus.endFrame();
+
+    assertEquals(3, recorder.events.size());
+    assertSame(third, recorder.events.get(2));
+  }
+
+  @Test
+  public void testCoalescableEventsOutsideOfFrameAreDeliveredRightAway() {
+    Recorder recorder = new Recorder();
+    eventBus.subscribe("slider", recorder);
+    eventBus.publish("slider", new CoalescableEvent());
+    eventBus.publish("slider", new CoalescableEvent());
+
+    assertEquals(2, recorder.events.size());
+  }
+
+  @Test
+  public void testAsyncSubscriberUsesExecutor() {
+    RecordingExecutor executor = new RecordingExecutor();
+    Recorder sync = new Recorder();
+    Recorder async = new Recorder();
+    eventBus.subscribe("id", sync);
+    eventBus.subscribe("id", async, true);
+
+    eventBus.publish("id", "without executor");
+    assertEquals(1, async.events.size());
+
+    eventBus.setAsyncExecutor(executor);
+    eventBus.publish("id", "with executor");
+
+    assertEquals(2, sync.events.size());
+    assertEquals(1, async.events.size());
+    assertEquals(1, executor.tasks.size());
+
+    executor.tasks.get(0).run();
+    assertEquals(2, async.events.size());
+    assertEquals("with executor", async.events.get(1));
+  }
+
+  @Test
+  public void testAnnotations() {
+    AnnotatedSubscriber subscriber = new AnnotatedSubscriber();
+    NiftyEventAnnotationProcessor.process(subscriber, eventBus);
+    eventBus.publish("id", "event");
+    eventBus.publish("pattern-1", "pattern event");
+    eventBus.publish("id", Integer.valueOf(1));
+
+    assertEquals(1, subscriber.idEvents.size());
+    assertEquals("event", subscriber.idEvents.get(0));
+    assertEquals(1, subscriber.patternEvents.size());
+    assertEquals("pattern event", subscriber.patternEvents.get(0));
+
+    NiftyEventAnnotationProcessor.unprocess(subscriber, eventBus);
+    eventBus.publish("id", "event");
+    eventBus.publish("pattern-1", "pattern event");
+
+    assertEquals(1, subscriber.idEvents.size());
+    assertEquals(1, subscriber.patternEvents.size());
+  }
+
+  private static class Recorder implements EventTopicSubscriber<Object> {
+    private final List<String> topics = new ArrayList<String>();
+    private final List<Object> events = new ArrayList<Object>();
+
+    @Override
+    public void onEvent(final String topic, final Object data) {
+      topics.add(topic);
+      events.add(data);
+    }
+  }
+
+  private static class CoalescableEvent implements NiftyCoalescableEvent {
+  }
+
+  private static class RecordingExecutor implements Executor {
+    private final List<Runnable> tasks = new ArrayList<Runnable>();
+
+    @Override
+    public void execute(final Runnable command) {
+      tasks.add(command);
+    }
+  }
+
+  public static class AnnotatedSubscriber {
+    private final List<String> idEvents = new ArrayList<String>();
+    private final List<String> patternEvents = new ArrayList<String>();
+
+    @NiftyEventSubscriber(id = "id")
+    public void onId(final String topic, final String event) {
+      idEvents.add(event);
+    }
+
+    @NiftyEventSubscriber(pattern = "pattern-.*")
+    public void onPattern(final String topic, final String event) {
+      patternEvents.add(event);
+    }
+  }
+}
@@ -0,0 +1,131 @@
+package de.lessvoid.nifty;
+
+import de.lessvoid.nifty.builder.LayerBuilder;
+import de.lessvoid.nifty.builder.PanelBuilder;
+import de.lessvoid.nifty.builder.ScreenBuilder;
+import de.lessvoid.nifty.nulldevice.NullSoundDevice;
+import de.lessvoid.nifty.render.RecordingRenderDevice;
+import de.lessvoid.nifty.screen.Screen;
+import de.lessvoid.nifty.screen.ScreenController;
+import de.lessvoid.nifty.spi.input.InputSystem;
+import de.lessvoid.nifty.spi.render.RenderDevice;
+import de.lessvoid.nifty.spi.time.impl.AccurateTimeProvider;
+import de.lessvoid.nifty.tools.resourceloader.NiftyResourceLoader;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.easymock.EasyMock.createNiceMock;
+import static org.easymock.EasyMock.replay;
+import static org.junit.Assert.assertEquals;
+
+public class NiftyMouseCoalescingTest {
+  private ScriptedInputSystem inputSystem;
+  private ClickController controller;
+  private Nifty nifty;
+
+  @Before
+  public void before() {
+    RenderDevice internal = createNiceMock(RenderDevice.class);
+    replay(internal);
+    inputSystem = new ScriptedInputSystem();
+    controller = new ClickController();
+    nifty = new Nifty(new FixedSizeRenderDevice(internal), new NullSoundDevice(), inputSystem,
+        new AccurateTimeProvider());
+
+    new ScreenBuilder("screen", controller) {{
+      layer(new LayerBuilder("layer") {{
+        childLayoutHorizontal();
+        panel(new PanelBuilder("left") {{
+          width("50%");
+          height("100%");
+          visibleToMouse();
+          interactOnClick("clicked(left)");
+        }});
+        panel(new PanelBuilder("right") {{
+          width("50%");
+          height("100%");
+          visibleToMouse();
+          interactOnClick("clicked(right)");
+        }});
+      }});
+    }}.build(nifty);
+    nifty.gotoScreen("screen");
+    nifty.update();
+    nifty.render(true);
+  }
+
+  @Test
+  public void testPressAfterCoalescedMovesClicksTheElementBelowThePress() {
+    inputSystem.add(100, 100, false);
+    inputSystem.add(120, 100, false);
+    inputSystem.add(600, 100, true);
+    nifty.update();
+
+    assertEquals(1, controller.clicked.size());
+    assertEquals("right", controller.clicked.get(0));
+  }
+
+  public static class ClickController implements ScreenController {
+    private final List<String> clicked = new ArrayList<String>();
+
+    public void clicked(final String id) {
+      clicked.add(id);
+    }
+
+    @Override
+    public void bind(@Nonnull final Nifty nifty, @Nonnull final Screen screen) {
+    }
+
+    @Override
+    public void onStartScreen() {
+    }
+
+    @Override
+    public void onEndScreen() {
+    }
+  }
+
+  private static class ScriptedInputSystem implements InputSystem {
+    private final List<int[]> events = new ArrayList<int[]>();
+
+    void add(final int x, final int y, final boolean button0Down) {
+      events.add(new int[]{x, y, button0Down ? 1 : 0});
+    }
+
+    @Override
+    public void setResourceLoader(@Nonnull final NiftyResourceLoader niftyResourceLoader) {
+    }
+
+    @Override
+    public void forwardEvents(@Nonnull final NiftyInputConsumer inputEventConsumer) {
+      for (int[] event : events) {
+        inputEventConsumer.processMouseEvent(event[0], event[1], 0, 0, event[2] == 1);
+      }
+      events.clear();
+    }
+
+    @Override
+    public void setMousePosition(final int x, final int y) {
+    }
+  }
+
+  private static class FixedSizeRenderDevice extends RecordingRenderDevice {
+    private FixedSizeRenderDevice(final RenderDevice internal) {
+      super(internal);
+    }
+
+    @Override
+    public int getWidth() {
+      return 800;
+    }
+
+    @Override
+    public int getHeight() {
+      return 600;
+    }
+  }
+}
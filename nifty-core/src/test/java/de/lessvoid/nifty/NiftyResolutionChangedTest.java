@@ -0,0 +1,88 @@
+package de.lessvoid.nifty;
+
+import de.lessvoid.nifty.builder.LayerBuilder;
+import de.lessvoid.nifty.builder.PanelBuilder;
+import de.lessvoid.nifty.builder.ScreenBuilder;
+import de.lessvoid.nifty.elements.Element;
+import de.lessvoid.nifty.nulldevice.NullInputSystem;
+import de.lessvoid.nifty.nulldevice.NullSoundDevice;
+import de.lessvoid.nifty.render.RecordingRenderDevice;
+import de.lessvoid.nifty.screen.Screen;
+import de.lessvoid.nifty.spi.render.RenderDevice;
+import de.lessvoid.nifty.spi.time.impl.AccurateTimeProvider;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.easymock.EasyMock.createNiceMock;
+import static org.easymock.EasyMock.replay;
+import static org.junit.Assert.assertEquals;
+
+public class NiftyResolutionChangedTest {
+  private ResizableRenderDevice renderDevice;
+  private Nifty nifty;
+
+  @Before
+  public void before() {
+    RenderDevice internal = createNiceMock(RenderDevice.class);
+    replay(internal);
+    renderDevice = new ResizableRenderDevice(internal);
+    renderDevice.width = 800;
+    renderDevice.height = 600;
+    nifty = new Nifty(renderDevice, new NullSoundDevice(), new NullInputSystem(), new AccurateTimeProvider());
+
+    new ScreenBuilder("screen") {{
+      layer(new LayerBuilder("layer") {{
+        childLayoutVertical();
+        panel(new PanelBuilder("panel") {{
+          width("50%");
+          height("50%");
+        }});
+      }});
+    }}.build(nifty);
+    nifty.gotoScreen("screen");
+    renderFrame();
+  }
+
+  @Test
+  public void testLayersAreLaidOutAgainAfterResolutionChanged() {
+    Screen screen = nifty.getCurrentScreen();
+    Element layer = screen.findElementById("layer");
+    Element panel = screen.findElementById("panel");
+    assertEquals(800, layer.getWidth());
+    assertEquals(400, panel.getWidth());
+
+    renderDevice.width = 1024;
+    renderDevice.height = 768;
+    nifty.resolutionChanged();
+    renderFrame();
+
+    assertEquals(1024, layer.getWidth());
+    assertEquals(768, layer.getHeight());
+    assertEquals(512, panel.getWidth());
+    assertEquals(384, panel.getHeight());
+  }
+
+  private void renderFrame() {
+    nifty.update();
+    nifty.render(true);
+  }
+
+  private static class ResizableRenderDevice extends RecordingRenderDevice {
+    private int width;
+    private int height;
+
+    private ResizableRenderDevice(final RenderDevice internal) {
+      super(internal);
+    }
+
+    @Override
+    public int getWidth() {
+      return width;
+    }
+
+    @Override
+    public int getHeight() {
+      return height;
+    }
+  }
+}
@@ -0,0 +1,191 @@
+package de.lessvoid.nifty.effects;
+
+import de.lessvoid.nifty.Nifty;
+import de.lessvoid.nifty.elements.Element;
+import de.lessvoid.nifty.render.NiftyRenderEngine;
+import de.lessvoid.nifty.spi.time.TimeProvider;
+import org.easymock.EasyMock;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.LinkedList;
+import java.util.Properties;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class EffectManagerTest {
+  private Nifty nifty;
+  private Element element;
+  private NiftyRenderEngine renderEngine;
+  private ManualTimeProvider timeProvider;
+  private EffectManager effectManager;
+
+  @Before
+  public void before() {
+    nifty = EasyMock.createMock(Nifty.class);
+    element = EasyMock.createMock(Element.class);
+    renderEngine = EasyMock.createMock(NiftyRenderEngine.class);
+    timeProvider = new ManualTimeProvider();
+    effectManager = new EffectManager(new EffectManager.Notify() {
+      @Override
+      public void effectStateChanged(@Nonnull final EffectEventId eventId, final boolean active) {
+      }
+    });
+  }
+
+  @Test
+  public void testIdleManagerDoesNotRender() {
+    CountingEffect hover = registerEffect(EffectEventId.onHover, false);
+
+    assertFalse(effectManager.isEmpty());
+    assertFalse(effectManager.isRendering());
+    assertFalse(effectManager.isAnyEffectActive());
+
+    renderFrame();
+    assertEquals(0, hover.executed);
+  }
+
+  @Test
+  public void testOnlyActiveProcessorIsRendered() {
+    CountingEffect click = registerEffect(EffectEventId.onClick, false);
+    CountingEffect focus = registerEffect(EffectEventId.onFocus, false);
+
+    effectManager.startEffect(EffectEventId.onClick, element, timeProvider, null);
+    assertTrue(effectManager.isRendering());
+    assertTrue(effectManager.isAnyEffectActive());
+
+    renderFrame();
+    assertEquals(1, click.executed);
+    assertEquals(0, focus.executed);
+  }
+
+  @Test
+  public void testFinishedEffectStopsRendering() {
+    CountingEffect click = registerEffect(EffectEventId.onClick, false);
+    effectManager.startEffect(EffectEventId.onClick, element, timeProvider, null);
+    renderFrame();
+
+    timeProvider.time = 200;
+    renderFrame();
+
+    assertFalse(effectManager.isAnyEffectActive());
+    assertFalse(effectManager.isRendering());
+    renderFrame();
+    assertEquals(1, click.executed);
+  }
+
+  @Test
+  public void testNeverStopRenderingEffectKeepsRendering() {
+    CountingEffect show = registerEffect(EffectEventId.onShow, true);
+    effectManager.startEffect(EffectEventId.onShow, element, timeProvider, null);
+    renderFrame();
+
+    timeProvider.time = 200;
+    renderFrame();
+    renderFrame();
+
+    assertFalse(effectManager.isAnyEffectActive());
+    assertTrue(effectManager.isRendering());
+    assertEquals(3, show.executed);
+
+    effectManager.resetSingleEffect(EffectEventId.onShow);
+    assertFalse(effectManager.isRendering());
+  }
+
+  @Test
+  public void testProcessorThatNeverStopsRenderingKeepsRenderingFinishedEffects() {
+    // the effect itself stops rendering, but the onHover processor never stops rendering its active effects
+    CountingEffect hover = registerEffect(EffectEventId.onHover, false);
+    effectManager.startEffect(EffectEventId.onHover, element, timeProvider, null);
+    renderFrame();
+
+    timeProvider.time = 200;
+    renderFrame();
+    renderFrame();
+
+    assertFalse(effectManager.isAnyEffectActive());
+    assertTrue(effectManager.isRendering());
+    assertEquals(3, hover.executed);
+
+    effectManager.resetSingleEffect(EffectEventId.onHover);
+    assertFalse(effectManager.isRendering());
+  }
+
+  @Test
+  public void testStopEffect() {
+    registerEffect(EffectEventId.onCustom, false);
+    effectManager.startEffect(EffectEventId.onCustom, element, timeProvider, null);
+    assertTrue(effectManager.isRendering());
+
+    effectManager.stopEffect(EffectEventId.onCustom);
+    assertFalse(effectManager.isRendering());
+    assertFalse(effectManager.isAnyEffectActive());
+  }
+
+  private void renderFrame() {
+    effectManager.renderPre(renderEngine, element);
+    effectManager.renderPost(renderEngine, element);
+    effectManager.renderOverlay(renderEngine, element);
+  }
+
+  @Nonnull
+  private CountingEffect registerEffect(@Nonnull final EffectEventId eventId, final boolean neverStopRendering) {
+    Properties properties = new Properties();
+    properties.setProperty("length", "100");
+    CountingEffect effectImpl = new CountingEffect();
+    effectManager.registerEffect(eventId, new Effect(
+        nifty,
+        false,
+        false,
+        false,
+        null,
+        null,
+        null,
+        neverStopRendering,
+        eventId,
+        element,
+        effectImpl,
+        new EffectProperties(properties),
+        timeProvider,
+        new LinkedList<Object>()));
+    return effectImpl;
+  }
+
+  private static class ManualTimeProvider implements TimeProvider {
+    private long time;
+
+    @Override
+    public long getMsTime() {
+      return time;
+    }
+  }
+
+  private static class CountingEffect implements EffectImpl {
+    private int executed;
+
+    @Override
+    public void activate(
+        @Nonnull final Nifty nifty,
+        @Nonnull final Element element,
+        @Nonnull final EffectProperties parameter) {
+    }
+
+    @Override
+    public void execute(
+        @Nonnull final Element element,
+        final float effectTime,
+        @Nullable final Falloff falloff,
+        @Nonnull final NiftyRenderEngine r) {
+      executed++;
+    }
+
+    @Override
+    public void deactivate() {
+    }
+  }
+}
@@ -1,5 +1,8 @@
 package de.lessvoid.nifty.effects;
 
+import de.lessvoid.nifty.spi.time.TimeProvider;
+import de.lessvoid.nifty.spi.time.impl.AccurateTimeProvider;
+import de.lessvoid.nifty.tools.SizeValue;
 import de.lessvoid.xml.xpp3.Attributes;
 import org.junit.Before;
 import org.junit.Test;
@@ -42,4 +45,63 @@ public class EffectPropertiesTest {
     assertFalse(effectProperties.isTimeInterpolator());
     assertNull(effectProperties.getInterpolator());
   }
+
+  @Test
+  public void testInterpolatorIsCreatedOnce() {
+    Attributes p = new Attributes();
+    p.set("time", "1");
+    p.set("value", "2");
+    effectProperties.addEffectValue(p);
+    assertSame(effectProperties.getInterpolator(), effectProperties.getInterpolator());
+  }
+
+  @Test
+  public void testTypedValuesWithDefaults() {
+    assertEquals(1.0f, effectProperties.getColor("color", "#f00f").getRed(), 0.0f);
+    assertEquals(SizeValue.percent(100), effectProperties.getSizeValue("width", "100%"));
+    assertTrue(effectProperties.getBoolean("flag", true));
+    assertEquals(42, effectProperties.getInt("int", 42));
+    assertEquals(1.5f, effectProperties.getFloat("float", 1.5f), 0.0f);
+  }
+
+  @Test
+  public void testTypedValues() {
+    effectProperties.setProperty("color", "#0f0f");
+    effectProperties.setProperty("width", "10px");
+    effectProperties.setProperty("flag", "TRUE");
+    effectProperties.setProperty("int", "7");
+    effectProperties.setProperty("float", "2.5");
+
+    assertEquals(0.0f, effectProperties.getColor("color", "#f00f").getRed(), 0.0f);
+    assertEquals(1.0f, effectProperties.getColor("color", "#f00f").getGreen(), 0.0f);
+    assertEquals(SizeValue.px(10), effectProperties.getSizeValue("width"));
+    assertTrue(effectProperties.getBoolean("flag", false));
+    assertEquals(7, effectProperties.getInt("int", 42));
+    assertEquals(2.5f, effectProperties.getFloat("float", 1.5f), 0.0f);
+  }
+
+  @Test
+  public void testTypedValuesAreParsedOnce() {
+    effectProperties.setProperty("color", "#0f0f");
+    assertSame(effectProperties.getColor("color", "#f00f"), effectProperties.getColor("color", "#f00f"));
+  }
+
+  @Test
+  public void testChangedPropertyIsParsedAgain() {
+    effectProperties.setProperty("color", "#0f0f");
+    effectProperties.setProperty("int", "7");
+    effectProperties.getColor("color", "#f00f");
+    effectProperties.getInt("int", 42);
+
+    effectProperties.setProperty("color", "#00ff");
+    effectProperties.remove("int");
+    assertEquals(1.0f, effectProperties.getColor("color", "#f00f").getBlue(), 0.0f);
+    assertEquals(42, effectProperties.getInt("int", 42));
+  }
+
+  @Test
+  public void testPulsatorIsCreatedOnce() {
+    TimeProvider timeProvider = new AccurateTimeProvider();
+    assertSame(effectProperties.getPulsator(timeProvider), effectProperties.getPulsator(timeProvider));
+  }
 }
@@ -0,0 +1,41 @@
+package de.lessvoid.nifty.effects;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ElementEffectStateCacheTest {
+  private final ElementEffectStateCache cache = new ElementEffectStateCache();
+
+  @Test
+  public void testNothingIsActiveInitially() {
+    assertFalse(cache.get(EffectEventId.onHover));
+    assertFalse(cache.isAnyActive());
+  }
+
+  @Test
+  public void testAnyActive() {
+    cache.set(EffectEventId.onHover, true);
+    cache.set(EffectEventId.onFocus, true);
+    assertTrue(cache.isAnyActive());
+
+    cache.set(EffectEventId.onHover, false);
+    assertTrue(cache.isAnyActive());
+
+    cache.set(EffectEventId.onFocus, false);
+    assertFalse(cache.isAnyActive());
+  }
+
+  @Test
+  public void testSettingTheSameStateTwice() {
+    cache.set(EffectEventId.onHover, true);
+    cache.set(EffectEventId.onHover, true);
+    cache.set(EffectEventId.onHover, false);
+    assertFalse(cache.isAnyActive());
+
+    cache.set(EffectEventId.onHover, false);
+    cache.set(EffectEventId.onHover, true);
+    assertTrue(cache.isAnyActive());
+  }
+}
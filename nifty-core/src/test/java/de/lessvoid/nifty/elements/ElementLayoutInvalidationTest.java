@@ -0,0 +1,88 @@
+package de.lessvoid.nifty.elements;
+
+import de.lessvoid.nifty.Nifty;
+import de.lessvoid.nifty.layout.manager.HorizontalLayout;
+import de.lessvoid.nifty.tools.SizeValue;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.easymock.EasyMock.createNiceMock;
+import static org.easymock.EasyMock.replay;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ElementLayoutInvalidationTest {
+  private Element root;
+  private Element a;
+  private Element b;
+  private Element c;
+
+  @Before
+  public void before() {
+    Nifty niftyMock = createNiceMock(Nifty.class);
+    replay(niftyMock);
+
+    root = new Element(niftyMock, null, null, null, null, false, null);
+    root.setConstraintWidth(SizeValue.px(100));
+    root.setConstraintHeight(SizeValue.px(100));
+    root.setWidth(100);
+    root.setHeight(100);
+    root.setLayoutManager(new HorizontalLayout());
+    a = new Element(niftyMock, null, null, root, null, false, null);
+    a.setLayoutManager(new HorizontalLayout());
+    b = new Element(niftyMock, null, null, a, null, false, null);
+    c = new Element(niftyMock, null, null, a, null, false, null);
+    b.setConstraintWidth(SizeValue.px(20));
+    c.setConstraintWidth(SizeValue.px(30));
+
+    root.addChild(a);
+    a.addChild(b);
+    a.addChild(c);
+  }
+
+  @Test
+  public void testNewElementsHaveInvalidLayout() {
+    assertTrue(root.isLayoutInvalid());
+    root.layoutElements();
+    assertFalse(root.isLayoutInvalid());
+    assertFalse(a.isLayoutInvalid());
+    assertFalse(b.isLayoutInvalid());
+    assertEquals(50, a.getConstraintWidth().getValueAsInt(0));
+    assertEquals(20, c.getX());
+  }
+
+  @Test
+  public void testChangedConstraintInvalidatesParents() {
+    root.layoutElements();
+    b.setConstraintWidth(SizeValue.px(40));
+
+    assertTrue(a.isLayoutInvalid());
+    assertTrue(root.isLayoutInvalid());
+    assertFalse(b.isLayoutInvalid());
+    assertFalse(c.isLayoutInvalid());
+  }
+
+  @Test
+  public void testUnchangedConstraintKeepsLayoutValid() {
+    root.layoutElements();
+    b.setConstraintWidth(SizeValue.px(20));
+
+    assertFalse(root.isLayoutInvalid());
+  }
+
+  @Test
+  public void testLayoutInvalidatedElements() {
+    root.layoutElements();
+    b.setConstraintWidth(SizeValue.px(40));
+
+    root.layoutInvalidatedElements();
+    assertEquals(40, c.getX());
+
+    // the size of a changed, so it's parent needs another round
+    assertTrue(root.isLayoutInvalid());
+    root.layoutInvalidatedElements();
+    assertFalse(root.isLayoutInvalid());
+    assertEquals(70, a.getConstraintWidth().getValueAsInt(0));
+  }
+}
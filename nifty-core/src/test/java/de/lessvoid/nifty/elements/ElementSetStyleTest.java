@@ -0,0 +1,108 @@
+package de.lessvoid.nifty.elements;
+
+import de.lessvoid.nifty.Nifty;
+import de.lessvoid.nifty.builder.LayerBuilder;
+import de.lessvoid.nifty.builder.PanelBuilder;
+import de.lessvoid.nifty.builder.ScreenBuilder;
+import de.lessvoid.nifty.builder.StyleBuilder;
+import de.lessvoid.nifty.input.NiftyMouseInputEvent;
+import de.lessvoid.nifty.nulldevice.NullInputSystem;
+import de.lessvoid.nifty.nulldevice.NullSoundDevice;
+import de.lessvoid.nifty.render.RecordingRenderDevice;
+import de.lessvoid.nifty.screen.Screen;
+import de.lessvoid.nifty.spi.render.RenderDevice;
+import de.lessvoid.nifty.spi.time.impl.AccurateTimeProvider;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.easymock.EasyMock.createNiceMock;
+import static org.easymock.EasyMock.replay;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ElementSetStyleTest {
+  private Nifty nifty;
+  private Screen screen;
+  private Element panel;
+
+  @Before
+  public void before() {
+    RenderDevice internal = createNiceMock(RenderDevice.class);
+    replay(internal);
+    nifty = new Nifty(new FixedSizeRenderDevice(internal), new NullSoundDevice(), new NullInputSystem(),
+        new AccurateTimeProvider());
+
+    new StyleBuilder() {{
+      id("small");
+      width("100px");
+      height("100px");
+    }}.build(nifty);
+    new StyleBuilder() {{
+      id("small-clickable");
+      width("100px");
+      height("100px");
+      visibleToMouse();
+    }}.build(nifty);
+    new StyleBuilder() {{
+      id("large");
+      width("200px");
+      height("100px");
+    }}.build(nifty);
+
+    new ScreenBuilder("screen") {{
+      layer(new LayerBuilder("layer") {{
+        childLayoutVertical();
+        panel(new PanelBuilder("panel") {{
+          style("small");
+        }});
+      }});
+    }}.build(nifty);
+    nifty.gotoScreen("screen");
+    nifty.update();
+    screen = nifty.getCurrentScreen();
+    panel = screen.findElementById("panel");
+  }
+
+  @Test
+  public void testStyleChangingVisibleToMouseUpdatesTheMouseOverElements() {
+    assertFalse(screen.hitsElement(createMouseEvent(50, 50)));
+
+    panel.setStyle("small-clickable");
+    assertTrue(screen.hitsElement(createMouseEvent(50, 50)));
+
+    panel.setStyle("small");
+    assertFalse(screen.hitsElement(createMouseEvent(50, 50)));
+  }
+
+  @Test
+  public void testStyleChangingTheSizeLaysOutTheElementAgain() {
+    assertEquals(100, panel.getWidth());
+
+    panel.setStyle("large");
+    nifty.update();
+    assertEquals(200, panel.getWidth());
+  }
+
+  private NiftyMouseInputEvent createMouseEvent(final int x, final int y) {
+    NiftyMouseInputEvent mouseEvent = new NiftyMouseInputEvent();
+    mouseEvent.initialize(x, y, 0, false, false, false);
+    return mouseEvent;
+  }
+
+  private static class FixedSizeRenderDevice extends RecordingRenderDevice {
+    private FixedSizeRenderDevice(final RenderDevice internal) {
+      super(internal);
+    }
+
+    @Override
+    public int getWidth() {
+      return 800;
+    }
+
+    @Override
+    public int getHeight() {
+      return 600;
+    }
+  }
+}
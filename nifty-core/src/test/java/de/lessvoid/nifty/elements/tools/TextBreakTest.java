@@ -1,43 +1,28 @@
 package de.lessvoid.nifty.elements.tools;
 
-import static org.easymock.EasyMock.createMock;
-import static org.easymock.EasyMock.expect;
-import static org.easymock.EasyMock.replay;
-import static org.easymock.EasyMock.verify;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 import java.util.List;
 
-import org.junit.After;
+import javax.annotation.Nonnull;
+
 import org.junit.Before;
 import org.junit.Test;
 
-import de.lessvoid.nifty.elements.Element;
 import de.lessvoid.nifty.spi.render.RenderFont;
 
 public class TextBreakTest {
-  private Element elementMock;
-  private RenderFont renderFontMock;
+  private FixedAdvanceFont font;
 
   @Before
   public void before() {
-    elementMock = createMock(Element.class);
-    renderFontMock = createMock(RenderFont.class);
-  }
-
-  @After
-  public void after() {
-    verify(elementMock);
-    verify(renderFontMock);
+    font = new FixedAdvanceFont(10);
   }
 
   @Test
   public void testNoSplit() {
-    expect(renderFontMock.getWidth("abcdef")).andReturn(12);
-    replay(elementMock);
-    replay(renderFontMock);
-
-    TextBreak textBreak = new TextBreak("abcdef", 100, renderFontMock);
+    TextBreak textBreak = new TextBreak("abcdef", 100, font);
     List<String> lines = textBreak.split();
 
     assertEquals(1, lines.size());
@@ -46,14 +31,7 @@ public class TextBreakTest {
 
   @Test
   public void testSplit() {
-    replay(elementMock);
-
-    expect(renderFontMock.getWidth("abc")).andReturn(95);
-    expect(renderFontMock.getWidth("def")).andReturn(95);
-    expect(renderFontMock.getWidth(" def")).andReturn(95);
-    replay(renderFontMock);
-
-    TextBreak textBreak = new TextBreak("abc def", 100, renderFontMock);
+    TextBreak textBreak = new TextBreak("abc def", 50, font);
     List<String> lines = textBreak.split();
 
     assertEquals(2, lines.size());
@@ -63,17 +41,130 @@ public class TextBreakTest {
 
   @Test
   public void testNoneSplit() {
-    replay(elementMock);
+    TextBreak textBreak = new TextBreak("abc def", 100, font);
+    List<String> lines = textBreak.split();
 
-    expect(renderFontMock.getWidth("abc")).andReturn(40);
-    expect(renderFontMock.getWidth(" def")).andReturn(40);
-    replay(renderFontMock);
+    assertEquals(1, lines.size());
+    assertEquals("abc def", lines.get(0));
+  }
 
-    TextBreak textBreak = new TextBreak("abc def", 100, renderFontMock);
+  @Test
+  public void testLongWordIsBrokenUp() {
+    TextBreak textBreak = new TextBreak("ab abcdefghij", 45, font);
+    List<String> lines = textBreak.split();
+
+    assertEquals(4, lines.size());
+    assertEquals("ab", lines.get(0));
+    assertEquals("abcd", lines.get(1));
+    assertEquals("efgh", lines.get(2));
+    assertEquals("ij", lines.get(3));
+  }
+
+  @Test
+  public void testCharacterWiderThanLineIsKept() {
+    TextBreak textBreak = new TextBreak("abc", 5, font);
+    List<String> lines = textBreak.split();
+
+    assertEquals(3, lines.size());
+    assertEquals("a", lines.get(0));
+    assertEquals("b", lines.get(1));
+    assertEquals("c", lines.get(2));
+  }
+
+  @Test
+  public void testColorCodesDoNotTakeSpace() {
+    TextBreak textBreak = new TextBreak("\\#ff0000#abc \\#00ff00#def", 80, font);
     List<String> lines = textBreak.split();
 
     assertEquals(1, lines.size());
-    assertEquals("abc def", lines.get(0));
+    assertEquals("\\#ff0000#abc \\#00ff00#def", lines.get(0));
   }
 
+  @Test
+  public void testColorIsCarriedToNextLine() {
+    TextBreak textBreak = new TextBreak("\\#ff0000#abcd efgh \\#00ff00#ijkl mnop", 50, font);
+    List<String> lines = textBreak.split();
+
+    assertEquals(4, lines.size());
+    assertEquals("\\#ff0000#abcd", lines.get(0));
+    assertEquals("\\#ff0000#efgh", lines.get(1));
+    assertEquals("\\#ff0000#\\#00ff00#ijkl", lines.get(2));
+    assertEquals("\\#00ff00#mnop", lines.get(3));
+  }
+
+  @Test
+  public void testColorIsCarriedIntoBrokenWord() {
+    TextBreak textBreak = new TextBreak("\\#ff0000#abcdefgh", 45, font);
+    List<String> lines = textBreak.split();
+
+    assertEquals(2, lines.size());
+    assertEquals("\\#ff0000#abcd", lines.get(0));
+    assertEquals("\\#ff0000#efgh", lines.get(1));
+  }
+
+  @Test
+  public void testLongParagraphIsMeasuredOnce() {
+    StringBuilder text = new StringBuilder();
+    for (int i = 0; i < 1000; i++) {
+      text.append(i == 0 ? "abcdefghi" : " abcdefghi");
+    }
+    TextBreak textBreak = new TextBreak(text.toString(), 400, font);
+    List<String> lines = textBreak.split();
+
+    assertEquals(1000 / 4, lines.size());
+    assertEquals("abcdefghi abcdefghi abcdefghi abcdefghi", lines.get(0));
+    assertTrue("advance requested " + font.advanceCalls + " times", font.advanceCalls < 2 * text.length());
+  }
+
+  @Test
+  public void testWidthIsUsedWhenAdvancesDoNotMatch() {
+    // a font that reports a larger advance than the width it reports for a text
+    font = new FixedAdvanceFont(10, 16);
+    TextBreak textBreak = new TextBreak("abcd efgh ijkl", 100, font);
+    List<String> lines = textBreak.split();
+
+    assertEquals(2, lines.size());
+    assertEquals("abcd efgh", lines.get(0));
+    assertEquals("ijkl", lines.get(1));
+  }
+
+  private static class FixedAdvanceFont implements RenderFont {
+    private final int advance;
+    private final int characterAdvance;
+    private int advanceCalls;
+
+    private FixedAdvanceFont(final int advance) {
+      this(advance, advance);
+    }
+
+    private FixedAdvanceFont(final int advance, final int characterAdvance) {
+      this.advance = advance;
+      this.characterAdvance = characterAdvance;
+    }
+
+    @Override
+    public int getWidth(@Nonnull final String text) {
+      return text.length() * advance;
+    }
+
+    @Override
+    public int getWidth(@Nonnull final String text, final float size) {
+      return getWidth(text);
+    }
+
+    @Override
+    public int getHeight() {
+      return 20;
+    }
+
+    @Override
+    public int getCharacterAdvance(final char currentCharacter, final char nextCharacter, final float size) {
+      advanceCalls++;
+      return characterAdvance;
+    }
+
+    @Override
+    public void dispose() {
+    }
+  }
 }
@@ -0,0 +1,78 @@
+package de.lessvoid.nifty.input.mouse;
+
+import de.lessvoid.nifty.input.NiftyMouseInputEvent;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class MouseInputEventProcessorTest {
+  private final MouseInputEventProcessor processor = new MouseInputEventProcessor();
+
+  @Test
+  public void testMoveWithoutButtonChangeIsMoveOnly() {
+    assertTrue(processor.isMoveOnly(0, false, false, false));
+  }
+
+  @Test
+  public void testWheelIsNotMoveOnly() {
+    assertFalse(processor.isMoveOnly(1, false, false, false));
+    assertFalse(processor.isMoveOnly(-1, false, false, false));
+  }
+
+  @Test
+  public void testButtonChangeIsNotMoveOnly() {
+    assertFalse(processor.isMoveOnly(0, true, false, false));
+    assertFalse(processor.isMoveOnly(0, false, true, false));
+    assertFalse(processor.isMoveOnly(0, false, false, true));
+  }
+
+  @Test
+  public void testDragIsMoveOnly() {
+    processor.process(event(10, 20, 0, true));
+    assertTrue(processor.isMoveOnly(0, true, false, false));
+    assertFalse(processor.isMoveOnly(0, false, false, false));
+  }
+
+  @Test
+  public void testButtonTransitions() {
+    NiftyMouseInputEvent down = event(10, 20, 0, true);
+    processor.process(down);
+    assertTrue(down.isButton0InitialDown());
+    assertFalse(down.isButton0Release());
+
+    NiftyMouseInputEvent up = event(10, 20, 0, false);
+    processor.process(up);
+    assertFalse(up.isButton0InitialDown());
+    assertTrue(up.isButton0Release());
+  }
+
+  @Test
+  public void testLastMouseDownEventIsReused() {
+    processor.begin();
+    processor.process(event(10, 20, 0, true));
+    processor.begin();
+    assertTrue(processor.hasLastMouseDownEvent());
+
+    NiftyMouseInputEvent first = processor.getLastMouseDownEvent();
+    assertEquals(10, first.getMouseX());
+    assertEquals(20, first.getMouseY());
+    assertTrue(first.isButton0Down());
+    assertSame(first, processor.getLastMouseDownEvent());
+  }
+
+  @Test
+  public void testNoLastMouseDownEventAfterEvents() {
+    processor.begin();
+    processor.process(event(10, 20, 0, true));
+    assertFalse(processor.hasLastMouseDownEvent());
+  }
+
+  private NiftyMouseInputEvent event(final int x, final int y, final int wheel, final boolean button0Down) {
+    NiftyMouseInputEvent result = new NiftyMouseInputEvent();
+    result.initialize(x, y, wheel, button0Down, false, false);
+    return result;
+  }
+}
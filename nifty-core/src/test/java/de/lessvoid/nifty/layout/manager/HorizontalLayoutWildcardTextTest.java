@@ -55,7 +55,7 @@ public class HorizontalLayoutWildcardTextTest {
 
       @Override
       public int getCharacterAdvance(char currentCharacter, char nextCharacter, float size) {
-        return 100000;
+        return 10;
       }
 
       @Override
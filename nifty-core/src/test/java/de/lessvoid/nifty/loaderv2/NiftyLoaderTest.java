@@ -8,11 +8,21 @@ import de.lessvoid.nifty.spi.render.RenderDevice;
 import de.lessvoid.nifty.spi.sound.SoundDevice;
 import de.lessvoid.nifty.spi.time.TimeProvider;
 import de.lessvoid.nifty.spi.time.impl.AccurateTimeProvider;
+import de.lessvoid.nifty.tools.resourceloader.FileSystemLocation;
+import de.lessvoid.xml.xpp3.BinaryXmlCompiler;
 import junit.framework.TestCase;
 import org.easymock.EasyMock;
+import org.xmlpull.v1.XmlPullParserFactory;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
 
 public class NiftyLoaderTest extends TestCase {
 
@@ -87,4 +97,60 @@ public class NiftyLoaderTest extends TestCase {
         + "</nifty>";
     niftyLoader.loadNiftyXml("nifty.nxs", new ByteArrayInputStream(testXml.getBytes("ISO-8859-1")));
   }
+
+  public void testOutdatedBinaryFileFallsBackToXml() throws Exception {
+    RenderDevice renderDeviceMock = EasyMock.createNiceMock(RenderDevice.class);
+    SoundDevice soundDeviceMock = EasyMock.createNiceMock(SoundDevice.class);
+    InputSystem inputSystemMock = EasyMock.createNiceMock(InputSystem.class);
+    EasyMock.replay(renderDeviceMock, soundDeviceMock, inputSystemMock);
+
+    TimeProvider timeProvider = new AccurateTimeProvider();
+    Nifty nifty = new Nifty(renderDeviceMock, soundDeviceMock, inputSystemMock, timeProvider);
+
+    File dir = File.createTempFile("nifty", "");
+    assertTrue(dir.delete());
+    assertTrue(dir.mkdir());
+    nifty.getResourceLoader().addResourceLocation(new FileSystemLocation(dir));
+    File xmlFile = new File(dir, "styles.xml");
+    File binaryFile = new File(dir, "styles.xml" + BinaryXmlCompiler.FILE_EXTENSION);
+    try {
+      XmlPullParserFactory factory = XmlPullParserFactory.newInstance();
+      factory.setNamespaceAware(true);
+      byte[] xml = "<nifty-styles><style id=\"a\"/></nifty-styles>".getBytes("UTF-8");
+      write(xmlFile, xml);
+      ByteArrayOutputStream binary = new ByteArrayOutputStream();
+      new BinaryXmlCompiler(factory).compile(xml, binary);
+      write(binaryFile, binary.toByteArray());
+
+      NiftyLoader niftyLoader = new NiftyLoader(nifty, timeProvider);
+      assertTrue(Arrays.equals(binary.toByteArray(), read(niftyLoader.openResource(binaryFile.getName()))));
+
+      byte[] changedXml = "<nifty-styles><style id=\"b\"/></nifty-styles>".getBytes("UTF-8");
+      write(xmlFile, changedXml);
+      assertTrue(Arrays.equals(changedXml, read(niftyLoader.openResource(binaryFile.getName()))));
+    } finally {
+      xmlFile.delete();
+      binaryFile.delete();
+      dir.delete();
+    }
+  }
+
+  private static void write(@Nonnull final File file, @Nonnull final byte[] data) throws Exception {
+    OutputStream out = new FileOutputStream(file);
+    try {
+      out.write(data);
+    } finally {
+      out.close();
+    }
+  }
+
+  @Nonnull
+  private static byte[] read(@Nullable final InputStream in) throws Exception {
+    assertNotNull(in);
+    try {
+      return BinaryXmlCompiler.readFully(in);
+    } finally {
+      in.close();
+    }
+  }
 }
@@ -0,0 +1,93 @@
+package de.lessvoid.nifty.loaderv2.types;
+
+import de.lessvoid.nifty.Nifty;
+import de.lessvoid.nifty.spi.input.InputSystem;
+import de.lessvoid.nifty.spi.render.RenderDevice;
+import de.lessvoid.nifty.spi.sound.SoundDevice;
+import de.lessvoid.nifty.spi.time.TimeProvider;
+import de.lessvoid.xml.xpp3.Attributes;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.easymock.EasyMock.createNiceMock;
+import static org.easymock.EasyMock.replay;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class ControlTemplateTest {
+  private Nifty nifty;
+
+  @Before
+  public void setUp() {
+    RenderDevice renderDevice = createNiceMock(RenderDevice.class);
+    SoundDevice soundDevice = createNiceMock(SoundDevice.class);
+    InputSystem inputSystem = createNiceMock(InputSystem.class);
+    TimeProvider timeProvider = createNiceMock(TimeProvider.class);
+    replay(renderDevice, soundDevice, inputSystem, timeProvider);
+    nifty = new Nifty(renderDevice, soundDevice, inputSystem, timeProvider);
+
+    ControlDefinitionType inner = new ControlDefinitionType(new Attributes("name", "inner"));
+    inner.addPanel(new PanelType(new Attributes("id", "#innerPanel")));
+    nifty.registerControlDefintion(inner);
+
+    ControlDefinitionType outer = new ControlDefinitionType(new Attributes("name", "outer", "childRootId", "#root"));
+    PanelType root = new PanelType(new Attributes("id", "#root"));
+    root.addControl(new ControlType(new Attributes("name", "inner")));
+    outer.addPanel(root);
+    nifty.registerControlDefintion(outer);
+  }
+
+  @Test
+  public void testTemplateIsReused() {
+    ElementType template = nifty.resolveControlTemplate("outer");
+    assertSame(template, nifty.resolveControlTemplate("outer"));
+    assertNull(nifty.resolveControlTemplate("missing"));
+  }
+
+  @Test
+  public void testRegisteringDefinitionDropsTemplates() {
+    ElementType template = nifty.resolveControlTemplate("outer");
+    nifty.registerControlDefintion(new ControlDefinitionType(new Attributes("name", "other")));
+    assertNotSame(template, nifty.resolveControlTemplate("outer"));
+  }
+
+  @Test
+  public void testTemplateContainsExpandedControls() {
+    ElementType template = nifty.resolveControlTemplate("outer");
+    ElementType innerControl = template.elements.get(0).elements.get(0);
+    assertEquals(1, innerControl.elements.size());
+    assertEquals("#innerPanel", innerControl.elements.get(0).getAttributes().get("id"));
+  }
+
+  @Test
+  public void testInstancesAreIndependentCopies() {
+    ControlType first = createInstance();
+    ControlType second = createInstance();
+
+    ElementType firstRoot = first.elements.get(0);
+    ElementType secondRoot = second.elements.get(0);
+    assertNotSame(firstRoot, secondRoot);
+    assertNotSame(nifty.resolveControlTemplate("outer").elements.get(0), firstRoot);
+
+    // the instance child replaces the content of the child root and its controls are applied as well
+    assertEquals(1, firstRoot.elements.size());
+    ElementType instanceChild = firstRoot.elements.get(0);
+    assertEquals("instanceChild", instanceChild.getAttributes().get("id"));
+    assertEquals("#innerPanel", instanceChild.elements.get(0).elements.get(0).getAttributes().get("id"));
+
+    firstRoot.getAttributes().set("id", "changed");
+    assertEquals("#root", secondRoot.getAttributes().get("id"));
+    assertEquals("#root", nifty.resolveControlTemplate("outer").elements.get(0).getAttributes().get("id"));
+  }
+
+  private ControlType createInstance() {
+    ControlType control = new ControlType(new Attributes("name", "outer"));
+    PanelType instanceChild = new PanelType(new Attributes("id", "instanceChild"));
+    instanceChild.addControl(new ControlType(new Attributes("name", "inner")));
+    control.addPanel(instanceChild);
+    control.applyControls(nifty);
+    return control;
+  }
+}
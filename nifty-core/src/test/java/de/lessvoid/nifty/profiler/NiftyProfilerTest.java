@@ -0,0 +1,198 @@
+package de.lessvoid.nifty.profiler;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class NiftyProfilerTest {
+  private static Object allocated;
+
+  @Before
+  public void before() {
+    NiftyProfiler.setEnabled(true);
+    NiftyProfiler.setCapacity(NiftyProfiler.DEFAULT_HISTORY_SIZE, NiftyProfiler.DEFAULT_MAX_INTERVALS);
+  }
+
+  @After
+  public void after() {
+    NiftyProfiler.setEnabled(false);
+    NiftyProfiler.setAllocationCountingEnabled(false);
+    NiftyProfiler.setCapacity(NiftyProfiler.DEFAULT_HISTORY_SIZE, NiftyProfiler.DEFAULT_MAX_INTERVALS);
+  }
+
+  @Test
+  public void testNoFrameBeforeFirstEndFrame() {
+    NiftyProfiler.beginFrame();
+    assertNull(NiftyProfiler.getLastFrame());
+    assertTrue(NiftyProfiler.getFrames().isEmpty());
+  }
+
+  @Test
+  public void testNestedSectionIsNotPartOfParentSelfTime() {
+    NiftyProfiler.beginFrame();
+    NiftyProfiler.begin(ProfilerSection.RENDER);
+    NiftyProfiler.begin(ProfilerSection.EFFECTS);
+    NiftyProfiler.end(ProfilerSection.EFFECTS);
+    NiftyProfiler.end(ProfilerSection.RENDER);
+    NiftyProfiler.endFrame();
+
+    ProfilerFrame frame = NiftyProfiler.getLastFrame();
+    assertEquals(2, frame.getIntervalCount());
+    assertEquals(ProfilerSection.EFFECTS, frame.getIntervalSection(0));
+    assertEquals(ProfilerSection.RENDER, frame.getIntervalSection(1));
+    assertEquals(
+        frame.getTotalNanos(ProfilerSection.RENDER),
+        frame.getSelfNanos(ProfilerSection.RENDER) + frame.getTotalNanos(ProfilerSection.EFFECTS));
+    assertEquals(frame.getTotalNanos(ProfilerSection.EFFECTS), frame.getSelfNanos(ProfilerSection.EFFECTS));
+    assertTrue(frame.getDurationNanos() >= frame.getTotalNanos(ProfilerSection.RENDER));
+  }
+
+  @Test
+  public void testRecursiveSectionIsTimedOnce() {
+    NiftyProfiler.beginFrame();
+    NiftyProfiler.begin(ProfilerSection.LAYOUT);
+    NiftyProfiler.begin(ProfilerSection.LAYOUT);
+    NiftyProfiler.end(ProfilerSection.LAYOUT);
+    NiftyProfiler.end(ProfilerSection.LAYOUT);
+    NiftyProfiler.endFrame();
+
+    assertEquals(1, NiftyProfiler.getLastFrame().getIntervalCount());
+  }
+
+  @Test
+  public void testEndFrameEndsActiveSections() {
+    NiftyProfiler.beginFrame();
+    NiftyProfiler.begin(ProfilerSection.RENDER);
+    NiftyProfiler.begin(ProfilerSection.EFFECTS);
+    NiftyProfiler.endFrame();
+
+    assertEquals(2, NiftyProfiler.getLastFrame().getIntervalCount());
+
+    NiftyProfiler.beginFrame();
+    NiftyProfiler.begin(ProfilerSection.EFFECTS);
+    NiftyProfiler.end(ProfilerSection.EFFECTS);
+    NiftyProfiler.endFrame();
+
+    assertEquals(1, NiftyProfiler.getLastFrame().getIntervalCount());
+  }
+
+  @Test
+  public void testSectionOutsideOfFrameStartsFrame() {
+    NiftyProfiler.begin(ProfilerSection.INPUT);
+    NiftyProfiler.end(ProfilerSection.INPUT);
+    NiftyProfiler.endFrame();
+
+    assertEquals(1, NiftyProfiler.getLastFrame().getIntervalCount());
+  }
+
+  @Test
+  public void testCounters() {
+    NiftyProfiler.beginFrame();
+    NiftyProfiler.count(ProfilerCounter.QUADS, 10);
+    NiftyProfiler.count(ProfilerCounter.QUADS, 5);
+    NiftyProfiler.count(ProfilerCounter.BATCHES, 2);
+    NiftyProfiler.endFrame();
+
+    NiftyProfiler.beginFrame();
+    NiftyProfiler.count(ProfilerCounter.QUADS, 1);
+    NiftyProfiler.endFrame();
+
+    List<ProfilerFrame> frames = NiftyProfiler.getFrames();
+    assertEquals(2, frames.size());
+    assertEquals(15, frames.get(0).getCount(ProfilerCounter.QUADS));
+    assertEquals(2, frames.get(0).getCount(ProfilerCounter.BATCHES));
+    assertEquals(1, frames.get(1).getCount(ProfilerCounter.QUADS));
+    assertEquals(0, frames.get(1).getCount(ProfilerCounter.BATCHES));
+  }
+
+  @Test
+  public void testHistoryKeepsLastFrames() {
+    NiftyProfiler.setCapacity(2, 4);
+    for (int i = 0; i < 5; i++) {
+      NiftyProfiler.beginFrame();
+      NiftyProfiler.endFrame();
+    }
+
+    List<ProfilerFrame> frames = NiftyProfiler.getFrames();
+    assertEquals(2, frames.size());
+    assertEquals(3, frames.get(0).getFrameNumber());
+    assertEquals(4, frames.get(1).getFrameNumber());
+    assertEquals(4, NiftyProfiler.getLastFrame().getFrameNumber());
+  }
+
+  @Test
+  public void testIntervalsBeyondCapacityAreDropped() {
+    NiftyProfiler.setCapacity(2, 1);
+    NiftyProfiler.beginFrame();
+    NiftyProfiler.begin(ProfilerSection.EFFECTS);
+    NiftyProfiler.end(ProfilerSection.EFFECTS);
+    NiftyProfiler.begin(ProfilerSection.EFFECTS);
+    NiftyProfiler.end(ProfilerSection.EFFECTS);
+    NiftyProfiler.endFrame();
+
+    ProfilerFrame frame = NiftyProfiler.getLastFrame();
+    assertEquals(1, frame.getIntervalCount());
+    assertEquals(1, frame.getDroppedIntervals());
+  }
+
+  @Test
+  public void testAllocationsAreNotCountedByDefault() {
+    assertFalse(NiftyProfiler.isAllocationCountingEnabled());
+    NiftyProfiler.beginFrame();
+    allocate();
+    NiftyProfiler.endFrame();
+
+    assertEquals(0, NiftyProfiler.getLastFrame().getCount(ProfilerCounter.ALLOCATED_BYTES));
+  }
+
+  @Test
+  public void testAllocationCounting() {
+    NiftyProfiler.setAllocationCountingEnabled(true);
+    NiftyProfiler.beginFrame();
+    allocate();
+    NiftyProfiler.endFrame();
+
+    assertTrue(NiftyProfiler.getLastFrame().getCount(ProfilerCounter.ALLOCATED_BYTES) >= 0);
+  }
+
+  @Test
+  public void testDisabledProfilerRecordsNothing() {
+    NiftyProfiler.setEnabled(false);
+    NiftyProfiler.beginFrame();
+    NiftyProfiler.begin(ProfilerSection.RENDER);
+    NiftyProfiler.end(ProfilerSection.RENDER);
+    NiftyProfiler.endFrame();
+
+    assertNull(NiftyProfiler.getLastFrame());
+  }
+
+  @Test
+  public void testChromeTrace() throws Exception {
+    NiftyProfiler.beginFrame();
+    NiftyProfiler.begin(ProfilerSection.LAYOUT);
+    NiftyProfiler.end(ProfilerSection.LAYOUT);
+    NiftyProfiler.count(ProfilerCounter.ELEMENTS_VISITED, 3);
+    NiftyProfiler.endFrame();
+
+    StringBuilder trace = new StringBuilder();
+    NiftyProfiler.writeChromeTrace(trace);
+
+    String result = trace.toString();
+    assertTrue(result.startsWith("{\"traceEvents\":[{\"name\":\"frame\",\"cat\":\"nifty\",\"ph\":\"X\",\"ts\":0.000,"));
+    assertTrue(result.contains("{\"name\":\"layout\",\"cat\":\"nifty\",\"ph\":\"X\",\"ts\":"));
+    assertTrue(result.contains("\"ph\":\"C\""));
+    assertTrue(result.contains("\"elementsVisited\":3"));
+    assertTrue(result.endsWith("],\"displayTimeUnit\":\"ms\"}"));
+  }
+
+  private static void allocate() {
+    allocated = new byte[1024];
+  }
+}
@@ -0,0 +1,76 @@
+package de.lessvoid.nifty.render;
+
+import de.lessvoid.nifty.spi.render.RenderDevice;
+import de.lessvoid.nifty.tools.Color;
+import junit.framework.TestCase;
+
+import static org.easymock.EasyMock.*;
+
+public class NiftyRenderEngineRecordingTest extends TestCase {
+
+  private NiftyRenderEngineImpl engine;
+  private RenderDevice renderDeviceMock;
+
+  @Override
+  public void setUp() {
+    renderDeviceMock = createStrictMock(RenderDevice.class);
+    expect(renderDeviceMock.getWidth()).andReturn(1024).anyTimes();
+    expect(renderDeviceMock.getHeight()).andReturn(768).anyTimes();
+  }
+
+  public void testReplaySendsRecordedCommandsAgain() {
+    for (int i = 0; i < 2; i++) {
+      renderDeviceMock.enableClip(0, 0, 100, 100);
+      renderDeviceMock.renderQuad(eq(10), eq(20), eq(30), eq(40), isA(Color.class));
+      renderDeviceMock.disableClip();
+    }
+    replay(renderDeviceMock);
+
+    engine = new NiftyRenderEngineImpl(renderDeviceMock);
+    RenderCommandList commands = new RenderCommandList();
+    engine.startRecording(commands);
+    engine.enableClip(0, 0, 100, 100);
+    engine.renderQuad(10, 20, 30, 40);
+    engine.disableClip();
+    engine.stopRecording();
+
+    assertTrue(commands.isValid());
+    assertEquals(3, commands.getCommandCount());
+    assertTrue(engine.replay(commands));
+    verify(renderDeviceMock);
+  }
+
+  public void testReplayRefusedWhenClipDiffers() {
+    renderDeviceMock.renderQuad(eq(10), eq(20), eq(30), eq(40), isA(Color.class));
+    renderDeviceMock.enableClip(0, 0, 100, 100);
+    replay(renderDeviceMock);
+
+    engine = new NiftyRenderEngineImpl(renderDeviceMock);
+    RenderCommandList commands = new RenderCommandList();
+    engine.startRecording(commands);
+    engine.renderQuad(10, 20, 30, 40);
+    engine.stopRecording();
+
+    engine.enableClip(0, 0, 100, 100);
+    assertFalse(engine.replay(commands));
+    verify(renderDeviceMock);
+  }
+
+  public void testInvalidatedListIsNotReplayed() {
+    renderDeviceMock.renderQuad(eq(10), eq(20), eq(30), eq(40), isA(Color.class));
+    replay(renderDeviceMock);
+
+    engine = new NiftyRenderEngineImpl(renderDeviceMock);
+    RenderCommandList commands = new RenderCommandList();
+    assertFalse(engine.replay(commands));
+
+    engine.startRecording(commands);
+    engine.renderQuad(10, 20, 30, 40);
+    engine.stopRecording();
+    commands.invalidate();
+
+    assertFalse(commands.isValid());
+    assertFalse(engine.replay(commands));
+    verify(renderDeviceMock);
+  }
+}
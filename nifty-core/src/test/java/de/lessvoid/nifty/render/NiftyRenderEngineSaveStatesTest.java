@@ -0,0 +1,79 @@
+package de.lessvoid.nifty.render;
+
+import de.lessvoid.nifty.spi.render.RenderDevice;
+import de.lessvoid.nifty.spi.render.RenderFont;
+import de.lessvoid.nifty.tools.Color;
+import junit.framework.TestCase;
+
+import static org.easymock.EasyMock.*;
+
+public class NiftyRenderEngineSaveStatesTest extends TestCase {
+
+  private NiftyRenderEngineImpl engine;
+  private RenderDevice renderDeviceMock;
+
+  @Override
+  public void setUp() {
+    renderDeviceMock = createStrictMock(RenderDevice.class);
+    expect(renderDeviceMock.getWidth()).andReturn(1024).times(2);
+    expect(renderDeviceMock.getHeight()).andReturn(768).times(2);
+  }
+
+  public void testRestoreWithoutChangesDoesNotTouchRenderDevice() {
+    replay(renderDeviceMock);
+
+    engine = new NiftyRenderEngineImpl(renderDeviceMock);
+    engine.saveStates();
+    engine.restoreStates();
+    verify(renderDeviceMock);
+  }
+
+  public void testRestoreBlendModeOnlyWhenChanged() {
+    renderDeviceMock.setBlendMode(BlendMode.MULIPLY);
+    renderDeviceMock.setBlendMode(BlendMode.BLEND);
+    replay(renderDeviceMock);
+
+    engine = new NiftyRenderEngineImpl(renderDeviceMock);
+    engine.saveStates();
+    engine.setBlendMode(BlendMode.MULIPLY);
+    engine.restoreStates();
+    verify(renderDeviceMock);
+  }
+
+  public void testNestedRestore() {
+    RenderFont font = createMock(RenderFont.class);
+    replay(font);
+    replay(renderDeviceMock);
+
+    engine = new NiftyRenderEngineImpl(renderDeviceMock);
+    engine.setColor(new Color(0.1f, 0.2f, 0.3f, 0.4f));
+    engine.saveStates();
+    engine.setFont(font);
+    engine.saveStates();
+    engine.setColor(new Color(1.0f, 1.0f, 1.0f, 1.0f));
+    engine.setRenderTextSize(2.0f);
+    engine.restoreStates();
+
+    assertEquals(font, engine.getFont());
+    assertTrue(engine.isColorChanged());
+
+    engine.restoreStates();
+    assertNull(engine.getFont());
+    assertTrue(engine.isColorAlphaChanged());
+    verify(renderDeviceMock);
+  }
+
+  public void testStackGrows() {
+    replay(renderDeviceMock);
+
+    engine = new NiftyRenderEngineImpl(renderDeviceMock);
+    for (int i = 0; i < 100; i++) {
+      engine.saveStates();
+      engine.setRenderTextSize(i);
+    }
+    for (int i = 0; i < 100; i++) {
+      engine.restoreStates();
+    }
+    verify(renderDeviceMock);
+  }
+}
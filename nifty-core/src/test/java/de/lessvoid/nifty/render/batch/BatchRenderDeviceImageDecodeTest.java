@@ -0,0 +1,110 @@
+package de.lessvoid.nifty.render.batch;
+
+import de.lessvoid.nifty.render.batch.software.SoftwareBatchRenderBackend;
+import de.lessvoid.nifty.spi.render.RenderImage;
+import de.lessvoid.nifty.tools.Color;
+import de.lessvoid.nifty.tools.resourceloader.NiftyResourceLoader;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nonnull;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class BatchRenderDeviceImageDecodeTest {
+  private static final String IMAGE = "de/lessvoid/nifty/render/batch/nifty.png";
+
+  private BlockingBackend backend;
+  private BatchRenderDevice device;
+
+  @Before
+  public void before() {
+    backend = new BlockingBackend();
+    BatchRenderConfiguration config = new BatchRenderConfiguration();
+    config.imageDecodeThreads = 1;
+    device = new BatchRenderDevice(backend, config);
+    device.setResourceLoader(new NiftyResourceLoader());
+  }
+
+  @After
+  public void after() {
+    backend.decoding.countDown();
+  }
+
+  @Test
+  public void testSizeIsKnownBeforeDecoding() {
+    RenderImage image = device.createImage(IMAGE, false);
+
+    assertEquals(4, image.getWidth());
+    assertEquals(4, image.getHeight());
+    assertEquals(0, backend.decodedCount);
+  }
+
+  @Test
+  public void testPendingImageDoesNotCreateAtlases() throws InterruptedException {
+    int atlases = backend.atlases;
+    RenderImage image = device.createImage(IMAGE, false);
+    for (int i = 0; i < 3; i++) {
+      renderFrame(image);
+    }
+    assertEquals(atlases, backend.atlases);
+    assertFalse(((BatchRenderImage) image).isUploaded());
+
+    backend.decoding.countDown();
+    backend.waitForDecoding();
+    renderFrame(image);
+    assertEquals(atlases, backend.atlases);
+    assertTrue(((BatchRenderImage) image).isUploaded());
+  }
+
+  private void renderFrame(@Nonnull final RenderImage image) {
+    device.beginFrame();
+    device.clear();
+    device.renderImage(image, 0, 0, 4, 4, Color.WHITE, 1.0f);
+    device.endFrame();
+  }
+
+  private static class BlockingBackend extends SoftwareBatchRenderBackend {
+    private final CountDownLatch decoding = new CountDownLatch(1);
+    private final CountDownLatch decoded = new CountDownLatch(1);
+    private volatile int decodedCount;
+    private int atlases;
+
+    private BlockingBackend() {
+      super(8, 8);
+    }
+
+    @Override
+    public int createTextureAtlas(final int atlasWidth, final int atlasHeight) {
+      atlases++;
+      return super.createTextureAtlas(atlasWidth, atlasHeight);
+    }
+
+    @Nonnull
+    @Override
+    public Image loadImage(@Nonnull final String filename) {
+      if (Thread.currentThread().getName().equals("nifty-image-decoder")) {
+        try {
+          decoding.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+      Image result = super.loadImage(filename);
+      decodedCount++;
+      decoded.countDown();
+      return result;
+    }
+
+    private void waitForDecoding() throws InterruptedException {
+      decoded.await(10, TimeUnit.SECONDS);
+      // the future is done right after loadImage() returned
+      Thread.sleep(50);
+    }
+  }
+}
@@ -0,0 +1,102 @@
+package de.lessvoid.nifty.render.batch;
+
+import de.lessvoid.nifty.render.batch.TextureAtlasPackingStrategy.Region;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class MaxRectsPackingStrategyTest {
+  private final MaxRectsPackingStrategy strategy = new MaxRectsPackingStrategy();
+
+  @Before
+  public void before() {
+    strategy.reset(100, 100, 0);
+  }
+
+  @Test
+  public void testFillsAtlasCompletely() {
+    for (int i = 0; i < 25; i++) {
+      assertNotNull(strategy.insert(20, 20));
+    }
+    assertNull(strategy.insert(1, 1));
+    assertEquals(0, strategy.getFreeArea());
+    assertEquals(0, strategy.getLargestFreeArea());
+  }
+
+  @Test
+  public void testPaddingIsOnlyKeptBetweenImages() {
+    strategy.reset(100, 100, 10);
+    Region first = strategy.insert(45, 100);
+    Region second = strategy.insert(45, 100);
+    assertNotNull(first);
+    assertNotNull(second);
+    assertEquals(55, Math.abs(first.getX() - second.getX()));
+  }
+
+  @Test
+  public void testRemovedSpaceIsJoined() {
+    Region topLeft = strategy.insert(50, 50);
+    Region topRight = strategy.insert(50, 50);
+    strategy.insert(50, 50);
+    strategy.insert(50, 50);
+    assertNotNull(topLeft);
+    assertNotNull(topRight);
+    assertNull(strategy.insert(100, 50));
+
+    strategy.remove(topLeft);
+    strategy.remove(topRight);
+
+    assertEquals(5000, strategy.getLargestFreeArea());
+    assertNotNull(strategy.insert(100, 50));
+  }
+
+  @Test
+  public void testRemovingAllImagesFreesAtlas() {
+    List<Region> regions = new ArrayList<Region>();
+    for (int i = 0; i < 100; i++) {
+      regions.add(strategy.insert(10, 10));
+    }
+    for (int i = 0; i < regions.size(); i++) {
+      strategy.remove(regions.get(i));
+    }
+
+    assertEquals(10000, strategy.getFreeArea());
+    assertEquals(10000, strategy.getLargestFreeArea());
+    assertNotNull(strategy.insert(100, 100));
+  }
+
+  @Test
+  public void testImagesNeverOverlap() {
+    Random random = new Random(42);
+    List<Region> regions = new ArrayList<Region>();
+    for (int i = 0; i < 500; i++) {
+      if (!regions.isEmpty() && random.nextInt(3) == 0) {
+        strategy.remove(regions.remove(random.nextInt(regions.size())));
+      } else {
+        Region region = strategy.insert(1 + random.nextInt(30), 1 + random.nextInt(30));
+        if (region != null) {
+          regions.add(region);
+        }
+      }
+      assertNoOverlap(regions);
+    }
+  }
+
+  static void assertNoOverlap(final List<Region> regions) {
+    for (int i = 0; i < regions.size(); i++) {
+      Region a = regions.get(i);
+      assertFalse(a.getX() < 0 || a.getY() < 0 || a.getRight() > 100 || a.getBottom() > 100);
+      for (int j = i + 1; j < regions.size(); j++) {
+        assertFalse(a.intersects(regions.get(j)));
+      }
+    }
+  }
+}
@@ -0,0 +1,167 @@
+package de.lessvoid.nifty.render.batch;
+
+import de.lessvoid.nifty.render.batch.core.CoreRender;
+import de.lessvoid.nifty.render.batch.spi.core.CoreGL;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class RecordingGLTest {
+  private RecordingGL recorder;
+  private CoreGL gl;
+
+  @Before
+  public void before() {
+    recorder = new RecordingGL();
+    gl = recorder.getCoreGL();
+  }
+
+  @After
+  public void after() {
+    CheckGL.setDebugMode(false);
+  }
+
+  @Test
+  public void testGeneratedNames() {
+    IntBuffer names = createIntBuffer(2);
+    gl.glGenTextures(2, names);
+
+    assertEquals(1, names.get(0));
+    assertEquals(2, names.get(1));
+    assertEquals(3, gl.glCreateProgram());
+  }
+
+  @Test
+  public void testConstants() {
+    assertEquals(0, gl.GL_NO_ERROR());
+    assertEquals(0, gl.GL_FALSE());
+    assertEquals(1, gl.GL_TRUE());
+    assertTrue(gl.GL_TEXTURE_2D() != gl.GL_BLEND());
+    assertEquals(0, recorder.getCalls().size());
+  }
+
+  @Test
+  public void testCounters() {
+    gl.glBindTexture(gl.GL_TEXTURE_2D(), 1);
+    gl.glEnable(gl.GL_BLEND());
+    gl.glBufferData(gl.GL_ARRAY_BUFFER(), createFloatBuffer(1.0f, 2.0f, 3.0f), gl.GL_STATIC_DRAW());
+    gl.glDrawArrays(gl.GL_TRIANGLES(), 0, 3);
+    gl.glGetError();
+
+    assertEquals(5, recorder.getCalls().size());
+    assertEquals(2, recorder.getStateChanges());
+    assertEquals(12, recorder.getUploadedBytes());
+    assertEquals(1, recorder.getDrawCalls());
+    assertEquals(1, recorder.getErrorChecks());
+
+    recorder.clear();
+    assertEquals(0, recorder.getCalls().size());
+    assertEquals(0, recorder.getStateChanges());
+    assertEquals(0, recorder.getUploadedBytes());
+  }
+
+  @Test
+  public void testBufferArgumentsAreCopied() {
+    FloatBuffer data = createFloatBuffer(1.0f, 2.0f);
+    gl.glBufferData(gl.GL_ARRAY_BUFFER(), data, gl.GL_STATIC_DRAW());
+    data.put(0, 5.0f);
+
+    FloatBuffer recorded = (FloatBuffer) recorder.getCalls("glBufferData").get(0).getArgument(1);
+    assertEquals(1.0f, recorded.get(0), 0.0f);
+    assertEquals(2.0f, recorded.get(1), 0.0f);
+  }
+
+  @Test
+  public void testQueuedErrors() {
+    recorder.queueError(gl.GL_INVALID_ENUM());
+
+    assertEquals(gl.GL_INVALID_ENUM(), gl.glGetError());
+    assertEquals(gl.GL_NO_ERROR(), gl.glGetError());
+  }
+
+  @Test
+  public void testReplay() {
+    gl.glBindTexture(gl.GL_TEXTURE_2D(), 1);
+    gl.glBufferData(gl.GL_ARRAY_BUFFER(), createFloatBuffer(1.0f, 2.0f), gl.GL_STATIC_DRAW());
+    gl.glDrawArrays(gl.GL_TRIANGLES(), 0, 3);
+
+    RecordingGL target = new RecordingGL();
+    recorder.replay(target.getGL());
+
+    assertEquals(3, target.getCalls().size());
+    assertEquals(recorder.getCalls().toString(), target.getCalls().toString());
+    assertEquals(8, target.getUploadedBytes());
+    FloatBuffer replayed = (FloatBuffer) target.getCalls("glBufferData").get(0).getArgument(1);
+    assertEquals(2.0f, replayed.get(1), 0.0f);
+  }
+
+  @Test
+  public void testDelegate() {
+    RecordingGL target = new RecordingGL();
+    RecordingGL forwarding = new RecordingGL(target.getCoreGL());
+    target.queueError(7);
+
+    forwarding.getCoreGL().glDrawArrays(0, 0, 3);
+
+    assertEquals(7, forwarding.getCoreGL().glGetError());
+    assertEquals(1, forwarding.getDrawCalls());
+    assertEquals(1, target.getDrawCalls());
+    assertEquals(1, target.getErrorChecks());
+  }
+
+  @Test
+  public void testDrawCallsAreNotCheckedByDefault() {
+    CoreRender.renderTriangles(gl, 3);
+    CoreRender.renderTrianglesIndexed(gl, 6);
+    CheckGL.checkGLErrorOfFrame(gl);
+
+    assertEquals(2, recorder.getDrawCalls());
+    assertEquals(1, recorder.getErrorChecks());
+  }
+
+  @Test
+  public void testDrawCallsAreCheckedInDebugMode() {
+    CheckGL.setDebugMode(true);
+    CoreRender.renderTriangles(gl, 3);
+    CoreRender.renderTrianglesIndexed(gl, 6);
+
+    assertEquals(2, recorder.getErrorChecks());
+  }
+
+  @Test
+  public void testErrorIsThrownInDebugMode() {
+    CheckGL.setDebugMode(true);
+    recorder.queueError(gl.GL_INVALID_OPERATION());
+    try {
+      CheckGL.checkGLCall(gl, "glDrawArrays", true);
+      fail("expected GLException");
+    } catch (GLException e) {
+      // expected
+    }
+
+    recorder.queueError(gl.GL_INVALID_OPERATION());
+    CheckGL.setDebugMode(false);
+    CheckGL.checkGLCall(gl, "glDrawArrays", true);
+    assertEquals(gl.GL_INVALID_OPERATION(), gl.glGetError());
+  }
+
+  private static IntBuffer createIntBuffer(final int size) {
+    return ByteBuffer.allocateDirect(size * 4).order(ByteOrder.nativeOrder()).asIntBuffer();
+  }
+
+  private static FloatBuffer createFloatBuffer(final float... values) {
+    FloatBuffer result = ByteBuffer.allocateDirect(values.length * 4).order(ByteOrder.nativeOrder()).asFloatBuffer();
+    result.put(values);
+    result.flip();
+    return result;
+  }
+}
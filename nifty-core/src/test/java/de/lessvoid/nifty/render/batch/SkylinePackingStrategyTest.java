@@ -0,0 +1,85 @@
+package de.lessvoid.nifty.render.batch;
+
+import de.lessvoid.nifty.render.batch.TextureAtlasPackingStrategy.Region;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class SkylinePackingStrategyTest {
+  private final SkylinePackingStrategy strategy = new SkylinePackingStrategy();
+
+  @Before
+  public void before() {
+    strategy.reset(100, 100, 0);
+  }
+
+  @Test
+  public void testFillsAtlasCompletely() {
+    for (int i = 0; i < 25; i++) {
+      assertNotNull(strategy.insert(20, 20));
+    }
+    assertNull(strategy.insert(1, 1));
+    assertEquals(0, strategy.getFreeArea());
+    assertEquals(0, strategy.getLargestFreeArea());
+  }
+
+  @Test
+  public void testImageIsPlacedAtLowestPosition() {
+    strategy.insert(60, 50);
+    strategy.insert(40, 20);
+    Region region = strategy.insert(40, 20);
+    assertNotNull(region);
+    assertEquals(60, region.getX());
+    assertEquals(20, region.getY());
+  }
+
+  @Test
+  public void testRemovingTopImageLowersSkyline() {
+    strategy.insert(100, 50);
+    Region top = strategy.insert(100, 50);
+    assertNotNull(top);
+    assertNull(strategy.insert(100, 50));
+
+    strategy.remove(top);
+
+    assertEquals(5000, strategy.getLargestFreeArea());
+    assertNotNull(strategy.insert(100, 50));
+  }
+
+  @Test
+  public void testHoleBelowSkylineIsNotUsed() {
+    Region bottom = strategy.insert(100, 50);
+    strategy.insert(100, 50);
+    assertNotNull(bottom);
+
+    strategy.remove(bottom);
+
+    assertEquals(5000, strategy.getFreeArea());
+    assertEquals(0, strategy.getLargestFreeArea());
+    assertNull(strategy.insert(10, 10));
+  }
+
+  @Test
+  public void testImagesNeverOverlap() {
+    Random random = new Random(42);
+    List<Region> regions = new ArrayList<Region>();
+    for (int i = 0; i < 500; i++) {
+      if (!regions.isEmpty() && random.nextInt(3) == 0) {
+        strategy.remove(regions.remove(random.nextInt(regions.size())));
+      } else {
+        Region region = strategy.insert(1 + random.nextInt(30), 1 + random.nextInt(30));
+        if (region != null) {
+          regions.add(region);
+        }
+      }
+      MaxRectsPackingStrategyTest.assertNoOverlap(regions);
+    }
+  }
+}
@@ -6,11 +6,14 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
+import de.lessvoid.nifty.render.batch.TextureAtlasGenerator.Relocation;
 import de.lessvoid.nifty.render.batch.TextureAtlasGenerator.Result;
 
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.List;
+
 public class TextureAtlasGeneratorTest {
   private static final int ATLAS_WIDTH = 100;
   private static final int ATLAS_HEIGHT = 100;
@@ -191,6 +194,77 @@ public class TextureAtlasGeneratorTest {
     new TextureAtlasGenerator(ATLAS_WIDTH, ATLAS_HEIGHT, ATLAS_PADDING, atlasTolerance);
   }
 
+  @Test
+  public void testOccupancyIsAreaOfImages() {
+    TextureAtlasGenerator generator = createMaxRectsGenerator();
+    generator.addImage(50, 20, "image");
+    assertEquals(0.1f, generator.getOccupancy(), 0.0001f);
+    generator.removeImage("image");
+    assertEquals(0.0f, generator.getOccupancy(), 0.0001f);
+  }
+
+  @Test
+  public void testEmptyAtlasIsNotFragmented() {
+    assertEquals(0.0f, createMaxRectsGenerator().getFragmentation(), 0.0001f);
+  }
+
+  @Test
+  public void testRemovingImageBetweenOthersFragmentsAtlas() {
+    TextureAtlasGenerator generator = createMaxRectsGenerator();
+    generator.addImage(30, 30, "image-1");
+    generator.addImage(30, 30, "image-2");
+    generator.addImage(30, 30, "image-3");
+    float fragmentation = generator.getFragmentation();
+    generator.removeImage("image-2");
+    assertTrue(generator.getFragmentation() > fragmentation);
+  }
+
+  @Test
+  public void testDefragmentMovesImageIntoFreedSpace() {
+    TextureAtlasGenerator generator = createMaxRectsGenerator();
+    generator.addImage(30, 30, "image-1");
+    Result second = generator.addImage(30, 30, "image-2");
+    assertResult(30, 0, 30, 30, second);
+    generator.removeImage("image-1");
+
+    List<Relocation> relocations = generator.defragment(10);
+
+    assertEquals(1, relocations.size());
+    assertEquals("image-2", relocations.get(0).getImageName());
+    assertResult(30, 0, 30, 30, relocations.get(0).getFrom());
+    assertResult(0, 0, 30, 30, relocations.get(0).getTo());
+    assertResult(0, 0, 30, 30, generator.removeImage("image-2"));
+  }
+
+  @Test
+  public void testDefragmentStopsWhenNothingCanBeImproved() {
+    TextureAtlasGenerator generator = createMaxRectsGenerator();
+    generator.addImage(30, 30, "image-1");
+    generator.addImage(30, 30, "image-2");
+    generator.removeImage("image-1");
+    generator.defragment(10);
+
+    assertTrue(generator.defragment(10).isEmpty());
+  }
+
+  @Test
+  public void testDefragmentMovesAtMostTheGivenNumberOfImages() {
+    TextureAtlasGenerator generator = createMaxRectsGenerator();
+    for (int i = 0; i < 9; i++) {
+      generator.addImage(30, 30, "image-" + i);
+    }
+    for (int i = 0; i < 6; i++) {
+      generator.removeImage("image-" + i);
+    }
+
+    assertEquals(1, generator.defragment(1).size());
+    assertEquals(2, generator.defragment(2).size());
+  }
+
+  private TextureAtlasGenerator createMaxRectsGenerator() {
+    return new TextureAtlasGenerator(100, 100, 0, 0.5f, new MaxRectsPackingStrategy());
+  }
+
   private void assertResult(final int x, final int y, final int w, final int h, final Result result) {
     assertEquals(x, result.getX());
     assertEquals(y, result.getY());
@@ -0,0 +1,127 @@
+package de.lessvoid.nifty.render.batch.core;
+
+import de.lessvoid.nifty.render.BlendMode;
+import de.lessvoid.nifty.render.batch.RecordingGL;
+import de.lessvoid.nifty.render.batch.spi.ImageFactory;
+import de.lessvoid.nifty.render.batch.spi.MouseCursorFactory;
+import de.lessvoid.nifty.tools.Color;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+
+import static org.easymock.EasyMock.createNiceMock;
+import static org.junit.Assert.assertEquals;
+
+public class BatchRenderBackendCoreProfileInternalTest {
+  private static final int ATLAS_SIZE = 64;
+  private ClassLoader contextClassLoader;
+  private RecordingGL recording;
+  private BatchRenderBackendCoreProfileInternal backend;
+
+  @Before
+  public void before() {
+    // the shader sources are part of the renderer modules, the recording GL doesn't need them anyway
+    contextClassLoader = Thread.currentThread().getContextClassLoader();
+    Thread.currentThread().setContextClassLoader(new ClassLoader(contextClassLoader) {
+      @Override
+      public InputStream getResourceAsStream(final String name) {
+        if (name.endsWith(".vs") || name.endsWith(".fs")) {
+          return new ByteArrayInputStream(new byte[0]);
+        }
+        return super.getResourceAsStream(name);
+      }
+    });
+    recording = new RecordingGL();
+    backend = new BatchRenderBackendCoreProfileInternal(
+        recording.getCoreGL(),
+        new TestBufferFactory(),
+        createNiceMock(ImageFactory.class),
+        createNiceMock(MouseCursorFactory.class));
+  }
+
+  @After
+  public void after() {
+    Thread.currentThread().setContextClassLoader(contextClassLoader);
+  }
+
+  @Test
+  public void testAtlasSwitchStartsNewBatchWithoutTextureArray() {
+    int[] atlases = createAtlases(3);
+    renderFrame(BlendMode.BLEND, atlases);
+
+    assertEquals(3, backend.getBatchCount());
+    assertEquals(3, backend.getDrawCalls());
+  }
+
+  @Test
+  public void testAtlasSwitchKeepsBatchWithTextureArray() {
+    backend.useTextureArrayAtlas(4);
+    int[] atlases = createAtlases(3);
+    recording.clear();
+    renderFrame(BlendMode.BLEND, atlases);
+
+    assertEquals(1, backend.getBatchCount());
+    assertEquals(1, backend.getDrawCalls());
+    assertEquals(1, recording.getCallCount("glBindTexture"));
+  }
+
+  @Test
+  public void testAtlasesShareOneArrayTexture() {
+    backend.useTextureArrayAtlas(4);
+    recording.clear();
+    createAtlases(3);
+
+    assertEquals(1, recording.getCallCount("glTexImage3D"));
+    assertEquals(0, recording.getCallCount("glTexImage2D"));
+    assertEquals(3, recording.getCallCount("glTexSubImage3D"));
+    assertEquals(2, recording.getCalls("glTexSubImage3D").get(2).getArgument(4));
+  }
+
+  @Test
+  public void testBlendModeChangeStartsNewBatchWithTextureArray() {
+    backend.useTextureArrayAtlas(4);
+    int[] atlases = createAtlases(2);
+    backend.beginFrame();
+    addQuad(BlendMode.BLEND, atlases[0]);
+    addQuad(BlendMode.MULIPLY, atlases[1]);
+    backend.render();
+
+    assertEquals(2, backend.getBatchCount());
+    assertEquals(2, backend.getDrawCalls());
+  }
+
+  @Test
+  public void testAtlasesBeyondLayerLimitUseRegularTextures() {
+    backend.useTextureArrayAtlas(2);
+    int[] atlases = createAtlases(3);
+    renderFrame(BlendMode.BLEND, atlases);
+
+    assertEquals(1, recording.getCallCount("glTexImage2D"));
+    assertEquals(2, backend.getBatchCount());
+    assertEquals(2, backend.getDrawCalls());
+  }
+
+  private int[] createAtlases(final int count) {
+    int[] atlases = new int[count];
+    for (int i = 0; i < count; i++) {
+      atlases[i] = backend.createTextureAtlas(ATLAS_SIZE, ATLAS_SIZE);
+    }
+    return atlases;
+  }
+
+  private void renderFrame(final BlendMode blendMode, final int[] atlases) {
+    backend.beginFrame();
+    for (int atlas : atlases) {
+      addQuad(blendMode, atlas);
+    }
+    backend.render();
+  }
+
+  private void addQuad(final BlendMode blendMode, final int atlas) {
+    backend.beginBatch(blendMode, atlas);
+    backend.addQuad(0, 0, 10, 10, Color.WHITE, Color.WHITE, Color.WHITE, Color.WHITE, 0, 0, 1, 1, atlas);
+  }
+}
@@ -0,0 +1,126 @@
+package de.lessvoid.nifty.render.batch.core;
+
+import de.lessvoid.nifty.render.BlendMode;
+import de.lessvoid.nifty.render.batch.RecordingGL;
+import de.lessvoid.nifty.render.batch.core.CoreTexture2D.ColorFormat;
+import de.lessvoid.nifty.render.batch.core.CoreTexture2D.ResizeFilter;
+import de.lessvoid.nifty.render.batch.spi.BufferFactory;
+import de.lessvoid.nifty.render.batch.spi.core.CoreGL;
+import de.lessvoid.nifty.tools.Color;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class CoreBatchArenaTest {
+  private RecordingGL recording;
+  private CoreGL gl;
+  private BufferFactory bufferFactory;
+  private CoreBatchArena arena;
+  private CoreTexture2D texture1;
+  private CoreTexture2D texture2;
+
+  @Before
+  public void before() {
+    recording = new RecordingGL();
+    gl = recording.getCoreGL();
+    bufferFactory = new TestBufferFactory();
+    CoreShader shader = CoreShader.createShaderWithVertexAttributes(gl, bufferFactory, "aVertex", "aColor", "aTexture");
+    arena = new CoreBatchArena(gl, shader, bufferFactory, 0xFFFFFFFF);
+    texture1 = createTexture();
+    texture2 = createTexture();
+    recording.clear();
+  }
+
+  @Test
+  public void testFrameIsUploadedOnce() {
+    arena.beginFrame();
+    CoreBatchInternal first = begin(BlendMode.BLEND, texture1, 3);
+    CoreBatchInternal second = begin(BlendMode.BLEND, texture2, 2);
+    arena.upload();
+    first.render();
+    second.render();
+    arena.endRendering();
+
+    assertEquals(2, recording.getCallCount("glBufferSubData"));
+    assertEquals(0, recording.getCallCount("glBufferData"));
+    assertEquals(5 * (4 * 8 + 5) * 4, arena.getUploadedBytes());
+    assertEquals(2, arena.getDrawCalls());
+  }
+
+  @Test
+  public void testConsecutiveBatchesWithSameStateAreJoined() {
+    arena.beginFrame();
+    CoreBatchInternal first = begin(BlendMode.BLEND, texture1, 3);
+    CoreBatchInternal second = begin(BlendMode.BLEND, texture1, 2);
+    CoreBatchInternal third = begin(BlendMode.MULIPLY, texture1, 1);
+    arena.upload();
+    first.render();
+    second.render();
+    third.render();
+    arena.endRendering();
+
+    assertEquals(2, arena.getDrawCalls());
+    List<RecordingGL.Call> draws = recording.getCalls("glDrawElements");
+    assertEquals(25, draws.get(0).getArgument(1));
+    assertEquals(0, draws.get(0).getArgument(3));
+    assertEquals(5, draws.get(1).getArgument(1));
+    assertEquals(25 * 4, draws.get(1).getArgument(3));
+    assertEquals(1, recording.getCallCount("glBindTexture"));
+    assertEquals(2, recording.getCallCount("glBlendFunc"));
+  }
+
+  @Test
+  public void testArenaGrowsBeyondInitialCapacity() {
+    arena.beginFrame();
+    CoreBatchInternal batch = begin(BlendMode.BLEND, texture1, 5000);
+    arena.upload();
+    batch.render();
+    arena.endRendering();
+
+    assertEquals(1, arena.getDrawCalls());
+    assertEquals(5000 * 5, recording.getCalls("glDrawElements").get(0).getArgument(1));
+    assertEquals(5000 * (4 * 8 + 5) * 4, arena.getUploadedBytes());
+  }
+
+  @Test
+  public void testNextFrameUsesNextBuffers() {
+    arena.beginFrame();
+    begin(BlendMode.BLEND, texture1, 1);
+    arena.upload();
+    arena.endRendering();
+    Object firstVertexArray = recording.getCalls("glBindVertexArray").get(0).getArgument(0);
+
+    arena.beginFrame();
+    begin(BlendMode.BLEND, texture1, 1);
+    recording.clear();
+    arena.upload();
+    arena.endRendering();
+    Object secondVertexArray = recording.getCalls("glBindVertexArray").get(0).getArgument(0);
+
+    assertEquals(false, firstVertexArray.equals(secondVertexArray));
+    assertEquals(4 * 8 * 4 + 5 * 4, arena.getUploadedBytes());
+  }
+
+  private CoreBatchInternal begin(final BlendMode blendMode, final CoreTexture2D texture, final int quads) {
+    CoreBatchInternal batch = new CoreBatchInternal(arena);
+    batch.begin(blendMode, texture);
+    for (int i = 0; i < quads; i++) {
+      batch.addQuad(i, i, 10, 10, Color.WHITE, Color.WHITE, Color.WHITE, Color.WHITE, 0, 0, 1, 1);
+    }
+    return batch;
+  }
+
+  private CoreTexture2D createTexture() {
+    return new CoreTexture2D(
+        gl,
+        bufferFactory,
+        ColorFormat.RGBA,
+        4,
+        4,
+        bufferFactory.createNativeOrderedByteBuffer(4 * 4 * 4),
+        ResizeFilter.Nearest);
+  }
+}
@@ -0,0 +1,51 @@
+package de.lessvoid.nifty.render.batch.software;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class FrameStatisticsTest {
+  @Test
+  public void testStoreAndLoad() {
+    Properties properties = new Properties();
+    new FrameStatistics(10, 2000, 5000, 120, 3, 4096).store(properties, "start.");
+
+    FrameStatistics loaded = FrameStatistics.load(properties, "start.");
+    assertEquals(10, loaded.getFrames());
+    assertEquals(2000, loaded.getFrameNanos());
+    assertEquals(5000, loaded.getMaxFrameNanos());
+    assertEquals(120, loaded.getQuads());
+    assertEquals(3, loaded.getBatches());
+    assertEquals(4096, loaded.getAllocatedBytes());
+  }
+
+  @Test
+  public void testLoadMissingPrefix() {
+    assertNull(FrameStatistics.load(new Properties(), "start."));
+  }
+
+  @Test
+  public void testNoRegressionWithinTolerance() {
+    FrameStatistics baseline = new FrameStatistics(10, 2000, 5000, 120, 3, 4096);
+    FrameStatistics current = new FrameStatistics(10, 2300, 9000, 120, 3, 4000);
+
+    assertTrue(current.findRegressions(baseline, 0.2f).isEmpty());
+  }
+
+  @Test
+  public void testRegressions() {
+    FrameStatistics baseline = new FrameStatistics(10, 2000, 5000, 120, 3, 4096);
+    FrameStatistics current = new FrameStatistics(10, 2500, 5000, 121, 4, 4096);
+
+    List<String> regressions = current.findRegressions(baseline, 0.2f);
+    assertEquals(3, regressions.size());
+    assertEquals("quads increased from 120 to 121", regressions.get(0));
+    assertEquals("batches increased from 3 to 4", regressions.get(1));
+    assertEquals("frameNanos increased from 2000 to 2500", regressions.get(2));
+  }
+}
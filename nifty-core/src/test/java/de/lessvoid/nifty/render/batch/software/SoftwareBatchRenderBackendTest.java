@@ -0,0 +1,194 @@
+package de.lessvoid.nifty.render.batch.software;
+
+import de.lessvoid.nifty.render.BlendMode;
+import de.lessvoid.nifty.render.batch.BatchRenderDevice;
+import de.lessvoid.nifty.render.batch.spi.BatchRenderBackend.Image;
+import de.lessvoid.nifty.tools.Color;
+import de.lessvoid.nifty.tools.resourceloader.NiftyResourceLoader;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SoftwareBatchRenderBackendTest {
+  private static final int WHITE = 0xffffffff;
+  private static final int RED = 0xffff0000;
+  private static final int GREEN = 0xff00ff00;
+  private static final int BLUE = 0xff0000ff;
+
+  private SoftwareBatchRenderBackend backend;
+  private int atlas;
+
+  @Before
+  public void before() {
+    backend = new SoftwareBatchRenderBackend(4, 4);
+    atlas = backend.createTextureAtlas(4, 4);
+    // the left half of the atlas is white, the right half contains a 2x2 image with four different colors
+    backend.addImageToAtlas(createImage(2, 4, WHITE, WHITE, WHITE, WHITE, WHITE, WHITE, WHITE, WHITE), 0, 0, atlas);
+    backend.addImageToAtlas(createImage(2, 2, RED, GREEN, BLUE, 0), 2, 0, atlas);
+    backend.beginFrame();
+    backend.clear();
+  }
+
+  @Test
+  public void testQuadCoversPixelsWithCenterInside() {
+    backend.beginBatch(BlendMode.BLEND, atlas);
+    addQuad(1, 1, 2, 2, Color.WHITE);
+    backend.render();
+
+    assertEquals(0, backend.getPixel(0, 0));
+    assertEquals(WHITE, backend.getPixel(1, 1));
+    assertEquals(WHITE, backend.getPixel(2, 2));
+    assertEquals(0, backend.getPixel(3, 1));
+    assertEquals(0, backend.getPixel(1, 3));
+  }
+
+  @Test
+  public void testQuadIsClippedToFramebuffer() {
+    backend.beginBatch(BlendMode.BLEND, atlas);
+    addQuad(-10, -10, 20, 20, Color.BLACK);
+    backend.render();
+
+    for (int pixel : backend.getPixels()) {
+      assertEquals(0xff000000, pixel);
+    }
+  }
+
+  @Test
+  public void testBlendUsesSourceAlpha() {
+    backend.beginBatch(BlendMode.BLEND, atlas);
+    addQuad(0, 0, 4, 4, new Color(1.0f, 0.0f, 0.0f, 1.0f));
+    addQuad(0, 0, 4, 4, new Color(1.0f, 1.0f, 1.0f, 0.5f));
+    backend.render();
+
+    assertEquals(0xbfff8080, backend.getPixel(2, 2));
+  }
+
+  @Test
+  public void testMultiplyUsesFramebufferColor() {
+    backend.beginBatch(BlendMode.BLEND, atlas);
+    addQuad(0, 0, 4, 4, Color.WHITE);
+    backend.beginBatch(BlendMode.MULIPLY, atlas);
+    addQuad(0, 0, 2, 4, new Color(0.5f, 1.0f, 0.0f, 1.0f));
+    int batches = backend.render();
+
+    assertEquals(2, batches);
+    assertEquals(0xff80ff00, backend.getPixel(0, 0));
+    assertEquals(WHITE, backend.getPixel(3, 0));
+  }
+
+  @Test
+  public void testMultiplyWithTransparentTexel() {
+    backend.beginBatch(BlendMode.BLEND, atlas);
+    addQuad(0, 0, 4, 4, Color.WHITE);
+    backend.beginBatch(BlendMode.MULIPLY, atlas);
+    // the transparent texel of the 2x2 image
+    backend.addQuad(0, 0, 2, 2, Color.WHITE, Color.WHITE, Color.WHITE, Color.WHITE, 0.75f, 0.25f, 0.25f, 0.25f, atlas);
+    backend.render();
+
+    assertEquals(0, backend.getPixel(0, 0));
+    assertEquals(WHITE, backend.getPixel(3, 3));
+  }
+
+  @Test
+  public void testTextureIsSampledFromAtlasRegion() {
+    backend.beginBatch(BlendMode.BLEND, atlas);
+    backend.addQuad(0, 0, 4, 4, Color.WHITE, Color.WHITE, Color.WHITE, Color.WHITE, 0.5f, 0.0f, 0.5f, 0.5f, atlas);
+    backend.render();
+
+    assertEquals(RED, backend.getPixel(0, 0));
+    assertEquals(RED, backend.getPixel(1, 1));
+    assertEquals(GREEN, backend.getPixel(3, 0));
+    assertEquals(BLUE, backend.getPixel(0, 3));
+    // transparent texels are discarded
+    assertEquals(0, backend.getPixel(3, 3));
+  }
+
+  @Test
+  public void testVertexColorsAreInterpolated() {
+    backend.beginBatch(BlendMode.BLEND, atlas);
+    backend.addQuad(0, 0, 4, 4, Color.BLACK, Color.WHITE, Color.WHITE, Color.BLACK, 0.0f, 0.0f, 0.5f, 1.0f, atlas);
+    backend.render();
+
+    // color3 is the left bottom and color4 the right bottom vertex
+    assertEquals(0xff383838, backend.getPixel(0, 0));
+    assertEquals(0xffc7c7c7, backend.getPixel(0, 3));
+    assertEquals(0xff979797, backend.getPixel(1, 3));
+    assertEquals(0xff383838, backend.getPixel(3, 3));
+    assertEquals(0xff686868, backend.getPixel(3, 2));
+  }
+
+  @Test
+  public void testNextFrameStartsWithoutQuads() {
+    backend.beginBatch(BlendMode.BLEND, atlas);
+    addQuad(0, 0, 4, 4, Color.WHITE);
+    backend.render();
+    backend.beginFrame();
+    backend.clear();
+
+    assertEquals(0, backend.render());
+    assertEquals(0, backend.getPixel(1, 1));
+  }
+
+  @Test
+  public void testNonAtlasTexture() {
+    int texture = backend.createNonAtlasTexture(createImage(1, 1, GREEN));
+    assertTrue(backend.existsNonAtlasTexture(texture));
+
+    backend.beginBatch(BlendMode.BLEND, texture);
+    backend.addQuad(0, 0, 4, 4, Color.WHITE, Color.WHITE, Color.WHITE, Color.WHITE, 0.0f, 0.0f, 1.0f, 1.0f, texture);
+    backend.render();
+    assertEquals(GREEN, backend.getPixel(3, 3));
+
+    backend.deleteNonAtlasTexture(texture);
+    assertFalse(backend.existsNonAtlasTexture(texture));
+  }
+
+  @Test
+  public void testCreateImageCopiesFramebuffer() {
+    backend.beginBatch(BlendMode.BLEND, atlas);
+    addQuad(0, 0, 1, 1, Color.WHITE);
+    backend.render();
+
+    assertEquals(WHITE, backend.createImage().getRGB(0, 0));
+    assertEquals(0, backend.createImage().getRGB(1, 0));
+  }
+
+  @Test
+  public void testBatchRenderDeviceClipping() {
+    SoftwareBatchRenderBackend deviceBackend = new SoftwareBatchRenderBackend(8, 8);
+    BatchRenderDevice device = new BatchRenderDevice(deviceBackend);
+    device.setResourceLoader(new NiftyResourceLoader());
+    device.beginFrame();
+    device.clear();
+    device.enableClip(2, 2, 6, 6);
+    device.renderQuad(0, 0, 8, 8, Color.WHITE);
+    device.disableClip();
+    device.endFrame();
+
+    assertEquals(0, deviceBackend.getPixel(1, 1));
+    assertEquals(WHITE, deviceBackend.getPixel(2, 2));
+    assertEquals(WHITE, deviceBackend.getPixel(6, 6));
+    assertEquals(0, deviceBackend.getPixel(7, 7));
+  }
+
+  private void addQuad(final float x, final float y, final float width, final float height, final Color color) {
+    backend.addQuad(x, y, width, height, color, color, color, color, 0.0f, 0.0f, 0.5f, 1.0f, atlas);
+  }
+
+  private Image createImage(final int width, final int height, final int... argb) {
+    ByteBuffer buffer = ByteBuffer.allocate(width * height * 4);
+    for (int pixel : argb) {
+      buffer.put((byte) (pixel >> 16));
+      buffer.put((byte) (pixel >> 8));
+      buffer.put((byte) pixel);
+      buffer.put((byte) (pixel >>> 24));
+    }
+    buffer.flip();
+    return backend.loadImage(buffer, width, height);
+  }
+}
@@ -0,0 +1,65 @@
+package de.lessvoid.nifty.render.io;
+
+import org.junit.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.assertEquals;
+
+public class DefaultImageLoaderTest {
+  private static final int TOP_LEFT = 0x80102030;
+  private static final int BOTTOM_LEFT = 0xff405060;
+  private static final int TRANSPARENT = 0x00ffffff;
+
+  @Test
+  public void testLoadRGBAWithAlpha() throws IOException {
+    ByteBuffer buffer = load(BufferedImage.TYPE_4BYTE_ABGR, false);
+    assertPixel(buffer, 0, 0x10, 0x20, 0x30, 0x80);
+    assertPixel(buffer, 1, 0, 0, 0, 0);
+    assertPixel(buffer, 2, 0x40, 0x50, 0x60, 0xff);
+  }
+
+  @Test
+  public void testLoadRGBAWithoutAlpha() throws IOException {
+    ByteBuffer buffer = load(BufferedImage.TYPE_3BYTE_BGR, false);
+    assertPixel(buffer, 0, 0x10, 0x20, 0x30, 0xff);
+    assertPixel(buffer, 2, 0x40, 0x50, 0x60, 0xff);
+  }
+
+  @Test
+  public void testLoadARGBFlipped() throws IOException {
+    ByteBuffer buffer = load(BufferedImage.TYPE_4BYTE_ABGR, true);
+    // the bottom row comes first and the red and blue components are swapped
+    assertPixel(buffer, 0, 0x60, 0x50, 0x40, 0xff);
+    assertPixel(buffer, 2, 0x30, 0x20, 0x10, 0x80);
+  }
+
+  private ByteBuffer load(final int imageType, final boolean argbFlipped) throws IOException {
+    BufferedImage image = new BufferedImage(2, 2, imageType);
+    image.setRGB(0, 0, TOP_LEFT);
+    image.setRGB(1, 0, TRANSPARENT);
+    image.setRGB(0, 1, BOTTOM_LEFT);
+    image.setRGB(1, 1, BOTTOM_LEFT);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    ImageIO.write(image, "png", out);
+
+    DefaultImageLoader loader = new DefaultImageLoader();
+    ByteArrayInputStream in = new ByteArrayInputStream(out.toByteArray());
+    ByteBuffer result = argbFlipped ? loader.loadAsByteBufferARGB(in, true) : loader.loadAsByteBufferRGBA(in);
+    assertEquals(2, loader.getImageWidth());
+    assertEquals(2, loader.getImageHeight());
+    assertEquals(16, result.remaining());
+    return result;
+  }
+
+  private void assertPixel(final ByteBuffer buffer, final int pixel, final int... expected) {
+    for (int i = 0; i < 4; i++) {
+      assertEquals(expected[i], buffer.get(pixel * 4 + i) & 0xff);
+    }
+  }
+}
@@ -0,0 +1,160 @@
+package de.lessvoid.nifty.screen;
+
+import de.lessvoid.nifty.Nifty;
+import de.lessvoid.nifty.elements.Element;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.easymock.EasyMock.createNiceMock;
+import static org.easymock.EasyMock.replay;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class ElementIdIndexTest {
+  private final List<Element> layers = new ArrayList<Element>();
+  private final ElementIdIndex index = new ElementIdIndex();
+  private Nifty niftyMock;
+  private Element layer;
+  private Element control;
+  private Element controlChild;
+  private Element other;
+
+  @Before
+  public void before() {
+    niftyMock = createNiceMock(Nifty.class);
+    replay(niftyMock);
+
+    layer = createElement("layer", null);
+    control = createElement("control", layer);
+    controlChild = createElement("control#panel#text", control);
+    other = createElement("other", layer);
+
+    layers.add(layer);
+    index.registerTree(layer);
+  }
+
+  @Test
+  public void testFindById() {
+    assertEquals(layer, index.find("layer", null, layers));
+    assertEquals(control, index.find("control", null, layers));
+    assertEquals(other, index.find("other", null, layers));
+    assertNull(index.find("unknown", null, layers));
+  }
+
+  @Test
+  public void testFindByChildId() {
+    assertEquals(controlChild, index.find("#text", null, layers));
+    assertEquals(controlChild, index.find("#panel#text", null, layers));
+    assertEquals(controlChild, index.find("#text", control, layers));
+    assertNull(index.find("#panel", null, layers));
+    assertNull(index.find("text", null, layers));
+  }
+
+  @Test
+  public void testFindOnlyInsideOfAncestor() {
+    assertNull(index.find("#text", other, layers));
+    assertNull(index.find("other", control, layers));
+    assertEquals(control, index.find("control", control, layers));
+  }
+
+  @Test
+  public void testFindOnlyInLayers() {
+    Element popup = createElement("popup", null);
+    index.register(popup);
+
+    assertNull(index.find("popup", null, layers));
+    assertEquals(popup, index.find("popup", popup, layers));
+  }
+
+  @Test
+  public void testFindReturnsFirstInTreeOrder() {
+    Element otherChild = createElement("other#text", other);
+    index.register(otherChild);
+
+    assertEquals(controlChild, index.find("#text", null, layers));
+    assertEquals(otherChild, index.find("#text", other, layers));
+
+    Element first = new Element(niftyMock, null, "first#text", layer, null, false, null);
+    layer.insertChild(first, 0);
+    index.register(first);
+
+    assertEquals(first, index.find("#text", null, layers));
+  }
+
+  @Test
+  public void testFindReturnsAncestorBeforeDescendant() {
+    Element outer = createElement("box#text", other);
+    Element inner = createElement("box#text#inner#text", outer);
+    index.register(outer);
+    index.register(inner);
+
+    assertEquals(outer, index.find("#text", other, layers));
+    assertEquals(inner, index.find("#inner#text", null, layers));
+
+    index.unregisterTree(control);
+    assertEquals(outer, index.find("#text", null, layers));
+  }
+
+  @Test
+  public void testFindChildIdInsideOfEachInstance() {
+    List<Element> instances = new ArrayList<Element>();
+    for (int i = 0; i < 10; i++) {
+      Element instance = createElement("instance" + i, layer);
+      createElement("instance" + i + "#text", instance);
+      index.registerTree(instance);
+      instances.add(instance);
+    }
+
+    for (int i = 0; i < instances.size(); i++) {
+      assertEquals(instances.get(i).getChildren().get(0), index.find("#text", instances.get(i), layers));
+    }
+    assertEquals(controlChild, index.find("#text", null, layers));
+  }
+
+  @Test
+  public void testFindInLayersThatAreChildrenOfTheRootElement() {
+    Element root = createElement("root", null);
+    Element rootLayer = createElement("rootLayer", root);
+    Element rootControl = createElement("rootControl", rootLayer);
+    Element rootControlChild = createElement("rootControl#text", rootControl);
+    List<Element> rootLayers = new ArrayList<Element>();
+    rootLayers.add(rootLayer);
+    index.registerTree(root);
+
+    assertEquals(rootLayer, index.find("rootLayer", null, rootLayers));
+    assertEquals(rootControl, index.find("rootControl", null, rootLayers));
+    assertEquals(rootControlChild, index.find("#text", null, rootLayers));
+    assertEquals(rootControlChild, index.find("#text", rootControl, rootLayers));
+    assertNull(index.find("root", null, rootLayers));
+  }
+
+  @Test
+  public void testUnregister() {
+    index.unregisterTree(control);
+
+    assertNull(index.find("control", null, layers));
+    assertNull(index.find("#text", null, layers));
+    assertEquals(other, index.find("other", null, layers));
+  }
+
+  @Test
+  public void testIdChanged() {
+    index.unregister(other, "other");
+    other.setId("renamed");
+    index.register(other);
+
+    assertNull(index.find("other", null, layers));
+    assertEquals(other, index.find("renamed", null, layers));
+  }
+
+  private Element createElement(final String id, final Element parent) {
+    Element element = new Element(niftyMock, null, id, parent, null, false, null);
+    if (parent != null) {
+      parent.addChild(element);
+    }
+    return element;
+  }
+}
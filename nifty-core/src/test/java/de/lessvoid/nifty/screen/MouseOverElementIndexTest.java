@@ -0,0 +1,110 @@
+package de.lessvoid.nifty.screen;
+
+import de.lessvoid.nifty.Nifty;
+import de.lessvoid.nifty.controls.FocusHandler;
+import de.lessvoid.nifty.elements.Element;
+import de.lessvoid.nifty.input.NiftyMouseInputEvent;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.easymock.EasyMock.createNiceMock;
+import static org.easymock.EasyMock.replay;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class MouseOverElementIndexTest {
+  private final List<Element> layers = new ArrayList<Element>();
+  private final MouseOverElementIndex index = new MouseOverElementIndex();
+  private Element layer;
+  private Element panel;
+  private Element button;
+  private Element hiddenPanel;
+
+  @Before
+  public void before() {
+    Nifty niftyMock = createNiceMock(Nifty.class);
+    replay(niftyMock);
+    FocusHandler focusHandler = new FocusHandler();
+
+    layer = createElement(niftyMock, focusHandler, "layer", null, false, 0, 0, 100, 100);
+    panel = createElement(niftyMock, focusHandler, "panel", layer, true, 10, 10, 50, 50);
+    button = createElement(niftyMock, focusHandler, "button", panel, true, 20, 20, 10, 10);
+    hiddenPanel = createElement(niftyMock, focusHandler, null, layer, false, 0, 0, 100, 100);
+    createElement(niftyMock, focusHandler, "hiddenButton", hiddenPanel, true, 0, 0, 100, 100);
+    createElement(niftyMock, focusHandler, "text", panel, false, 20, 20, 10, 10);
+    hiddenPanel.hideWithoutEffect();
+
+    layers.add(layer);
+  }
+
+  @Test
+  public void testOnlyMouseVisibleElementsAreIndexed() {
+    assertFalse(index.isValid());
+    fillWithIndex(25, 25);
+    assertTrue(index.isValid());
+    assertEquals(2, index.size());
+  }
+
+  @Test
+  public void testSameResultAsFullWalk() {
+    assertEquals(fillWithFullWalk(25, 25), fillWithIndex(25, 25));
+    assertEquals(fillWithFullWalk(15, 15), fillWithIndex(15, 15));
+    assertEquals(fillWithFullWalk(90, 90), fillWithIndex(90, 90));
+  }
+
+  @Test
+  public void testInvalidate() {
+    fillWithIndex(25, 25);
+    button.setVisibleToMouseEvents(false);
+    index.invalidate();
+
+    assertEquals(fillWithFullWalk(25, 25), fillWithIndex(25, 25));
+    assertEquals(1, index.size());
+  }
+
+  private String fillWithIndex(final int x, final int y) {
+    MouseOverHandler handler = new MouseOverHandler();
+    index.buildMouseOverElements(layers, createMouseEvent(x, y), handler);
+    return handler.getInfoString();
+  }
+
+  private String fillWithFullWalk(final int x, final int y) {
+    MouseOverHandler handler = new MouseOverHandler();
+    NiftyMouseInputEvent mouseEvent = createMouseEvent(x, y);
+    for (int i = 0; i < layers.size(); i++) {
+      layers.get(i).buildMouseOverElements(mouseEvent, 0, handler);
+    }
+    return handler.getInfoString();
+  }
+
+  private NiftyMouseInputEvent createMouseEvent(final int x, final int y) {
+    NiftyMouseInputEvent mouseEvent = new NiftyMouseInputEvent();
+    mouseEvent.initialize(x, y, 0, false, false, false);
+    return mouseEvent;
+  }
+
+  private Element createElement(
+      final Nifty nifty,
+      final FocusHandler focusHandler,
+      final String id,
+      final Element parent,
+      final boolean visibleToMouse,
+      final int x,
+      final int y,
+      final int width,
+      final int height) {
+    Element element = new Element(nifty, null, id, parent, focusHandler, visibleToMouse, null);
+    element.getLayoutPart().getBox().setX(x);
+    element.getLayoutPart().getBox().setY(y);
+    element.setWidth(width);
+    element.setHeight(height);
+    if (parent != null) {
+      parent.addChild(element);
+    }
+    return element;
+  }
+}
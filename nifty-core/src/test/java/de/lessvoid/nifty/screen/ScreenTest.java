@@ -3,6 +3,11 @@ package de.lessvoid.nifty.screen;
 import de.lessvoid.nifty.EndNotify;
 import de.lessvoid.nifty.Nifty;
 import de.lessvoid.nifty.NiftyMouse;
+import de.lessvoid.nifty.elements.Element;
+import de.lessvoid.nifty.input.NiftyMouseInputEvent;
+import de.lessvoid.nifty.render.NiftyRenderEngineImpl;
+import de.lessvoid.nifty.render.RenderCommandList;
+import de.lessvoid.nifty.spi.render.RenderDevice;
 import de.lessvoid.nifty.render.NiftyRenderEngine;
 import de.lessvoid.nifty.screen.Screen.StartScreenEndNotify;
 import de.lessvoid.nifty.spi.time.TimeProvider;
@@ -11,6 +16,7 @@ import org.junit.Before;
 import org.junit.Test;
 
 import static org.easymock.EasyMock.*;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
@@ -81,4 +87,92 @@ public class ScreenTest {
     startScreenEndNotify = screen.createScreenStartEndNotify(null);
     startScreenEndNotify.perform();
   }
+
+  @Test
+  public void testHitsElement() {
+    Nifty elementNifty = createNiceMock(Nifty.class);
+    replay(elementNifty);
+    Element layer = createElement(elementNifty, null, false, 0, 0, 100, 100);
+    Element button = createElement(elementNifty, layer, true, 20, 20, 10, 10);
+    screen.addLayerElement(layer);
+    screen.processAddAndRemoveLayerElements();
+
+    assertTrue(screen.hitsElement(createMouseEvent(25, 25)));
+    assertFalse(screen.hitsElement(createMouseEvent(50, 50)));
+    assertFalse(screen.isMouseOverElement());
+
+    button.setVisibleToMouseEvents(false);
+    screen.invalidateMouseOverIndex();
+    assertFalse(screen.hitsElement(createMouseEvent(25, 25)));
+  }
+
+  @Test
+  public void testChangingNestedElementRecordsItsLayerAgain() {
+    Nifty retainedNifty = createNiceMock(Nifty.class);
+    expect(retainedNifty.isRetainedRendering()).andStubReturn(true);
+    replay(retainedNifty);
+    screen = new Screen(retainedNifty, "retained", screenControllerMock, timeProviderMock);
+    // like in a loaded screen the layers are children of the root element
+    Element root = createElement(retainedNifty, null, false, 0, 0, 100, 100);
+    Element layer = createElement(retainedNifty, root, false, 0, 0, 100, 100);
+    Element panel = createElement(retainedNifty, layer, false, 10, 10, 50, 50);
+    Element text = createElement(retainedNifty, panel, false, 20, 20, 10, 10);
+    Element otherLayer = createElement(retainedNifty, root, false, 0, 0, 100, 100);
+    screen.setRootElement(root);
+    screen.addLayerElement(layer);
+    screen.addLayerElement(otherLayer);
+    screen.processAddAndRemoveLayerElements();
+
+    RenderDevice renderDevice = createNiceMock(RenderDevice.class);
+    replay(renderDevice);
+    CountingRenderEngine renderEngine = new CountingRenderEngine(renderDevice);
+    screen.renderLayers(renderEngine);
+    assertEquals(2, renderEngine.recordings);
+
+    screen.renderLayers(renderEngine);
+    assertEquals(2, renderEngine.recordings);
+
+    screen.invalidateRender(text);
+    screen.renderLayers(renderEngine);
+    assertEquals(3, renderEngine.recordings);
+  }
+
+  private NiftyMouseInputEvent createMouseEvent(final int x, final int y) {
+    NiftyMouseInputEvent mouseEvent = new NiftyMouseInputEvent();
+    mouseEvent.initialize(x, y, 0, false, false, false);
+    return mouseEvent;
+  }
+
+  private Element createElement(
+      final Nifty nifty,
+      final Element parent,
+      final boolean visibleToMouse,
+      final int x,
+      final int y,
+      final int width,
+      final int height) {
+    Element element = new Element(nifty, null, null, parent, screen.getFocusHandler(), visibleToMouse, null);
+    element.getLayoutPart().getBox().setX(x);
+    element.getLayoutPart().getBox().setY(y);
+    element.setWidth(width);
+    element.setHeight(height);
+    if (parent != null) {
+      parent.addChild(element);
+    }
+    return element;
+  }
+
+  private static class CountingRenderEngine extends NiftyRenderEngineImpl {
+    private int recordings;
+
+    private CountingRenderEngine(final RenderDevice renderDevice) {
+      super(renderDevice);
+    }
+
+    @Override
+    public void startRecording(final RenderCommandList commandList) {
+      recordings++;
+      super.startRecording(commandList);
+    }
+  }
 }
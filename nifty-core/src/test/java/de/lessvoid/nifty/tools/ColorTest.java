@@ -60,6 +60,32 @@ public class ColorTest {
     assertEquals("#0f7f", c.getColorString());
   }
 
+  @Test
+  public void testColorStringFromValuesOutOfRange() {
+    Color c = new Color(0.0f, 2.0f, 0.5f, 1.0f);
+    assertEquals("#01e7f", c.getColorString());
+  }
+
+  @Test
+  public void testCopyKeepsColorString() {
+    Color c = new Color(new Color(0.0f, 1.0f, 0.5f, 1.0f));
+    assertEquals("#0f7f", c.getColorString());
+    assertEquals("#0f7", c.getColorStringWithoutAlpha());
+  }
+
+  @Test
+  public void testColorLongModeUpperCase() {
+    Color c = new Color("#FF0080C0");
+    checkColor(c, 1.0f, 0.0f, 0.5f, 0.75f);
+    assertEquals("#FF0080C0", c.getColorString());
+  }
+
+  @Test
+  public void testInvalidColorIsWhite() {
+    Color c = new Color("#12g4");
+    checkColor(c, 1.0f, 1.0f, 1.0f, 1.0f);
+  }
+
   private void checkColor(Color m, float red, float green, float blue, float alpha) {
     assertEquals(red, m.getRed(), EPSILON);
     assertEquals(green, m.getGreen(), EPSILON);
@@ -929,4 +929,40 @@ public class SizeValueTest {
     SizeValue a = SizeValue.percent(100);
     assertTrue(a.getValueAsInt(212) == 212);
   }
+
+  @Test
+  public void testValueOfSharesInstances() {
+    SizeValue a = SizeValue.valueOf("25%");
+    assertSame(a, SizeValue.valueOf("25%"));
+    assertEquals(new SizeValue("25%"), a);
+    assertSame(SizeValue.def(), SizeValue.valueOf(null));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testValueOfInvalid() {
+    SizeValue.valueOf("abc");
+  }
+
+  @Test
+  public void testParseMatchesFloatParsing() {
+    String[] values = {"0", "-0", "12", "-12", "123456789", "1234567890", "1.5", "-2.25", "1e2", " 7", "+3"};
+    for (String value : values) {
+      assertEquals(value, Float.valueOf(value), new SizeValue(value + "px").getValue(0.f), 0.f);
+      assertEquals(value, Float.floatToIntBits(Float.valueOf(value)),
+          Float.floatToIntBits(new SizeValue(value + "%").getValue(SizeValue.MAX_PERCENT)));
+    }
+  }
+
+  @Test
+  public void testComputedValuesShared() {
+    assertSame(SizeValue.px(42), SizeValue.px(42));
+    assertSame(SizeValue.percent(50), SizeValue.percent(50));
+    assertSame(SizeValue.def(42), SizeValue.def(42));
+    assertSame(SizeValue.sum(42), SizeValue.sum(42));
+    assertSame(SizeValue.max(42), SizeValue.max(42));
+    assertSame(SizeValue.wildcard(42), SizeValue.wildcard(42));
+    assertEquals(new SizeValue(SizeValueType.Sum, 42), SizeValue.sum(42));
+    assertEquals(SizeValue.px(100000), SizeValue.px(100000));
+    assertEquals(-5, SizeValue.px(-5).getValueAsInt(0.f));
+  }
 }
@@ -0,0 +1,83 @@
+package de.lessvoid.xml.tools;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class MethodInvokerTest {
+
+  @Test
+  public void testInvokeWithoutParameters() {
+    MethodInvoker invoker = new MethodInvoker("onClick()", new Target());
+    assertEquals("clicked", invoker.invoke());
+    assertEquals("clicked", invoker.invoke());
+  }
+
+  @Test
+  public void testInvokeWithEncodedParameters() {
+    MethodInvoker invoker = new MethodInvoker("select(a, b)", new Target());
+    assertEquals("a-b", invoker.invoke());
+    assertEquals("a-b", invoker.invoke("ignored", "too"));
+  }
+
+  @Test
+  public void testInvokeWithActualParameters() {
+    MethodInvoker invoker = new MethodInvoker("select()", new Target());
+    assertEquals("x-y", invoker.invoke("x", "y"));
+  }
+
+  @Test
+  public void testInvokeParameterMismatchCallsWithoutParameters() {
+    MethodInvoker invoker = new MethodInvoker("onClick()", new Target());
+    assertEquals("clicked", invoker.invoke("unexpected"));
+  }
+
+  @Test
+  public void testMissingMethod() {
+    MethodInvoker invoker = new MethodInvoker("doesNotExist()", new Target());
+    assertNull(invoker.invoke());
+  }
+
+  @Test
+  public void testSetFirstTarget() {
+    MethodInvoker invoker = new MethodInvoker("onClick()");
+    invoker.setFirst(new OtherTarget());
+    assertEquals("other", invoker.invoke());
+  }
+
+  @Test
+  public void testSetFirstIgnoresTargetWithoutMethod() {
+    MethodInvoker invoker = new MethodInvoker("onClick()");
+    invoker.setFirst("no onClick() here");
+    assertNull(invoker.invoke());
+
+    invoker.setFirst(new OtherTarget());
+    assertEquals("other", invoker.invoke());
+  }
+
+  @Test
+  public void testResolvedMethodFollowsClass() {
+    ResolvedMethod resolvedMethod = new ResolvedMethod("onClick()");
+    assertEquals(Target.class, resolvedMethod.getMethod(Target.class).getDeclaringClass());
+    assertEquals(0, resolvedMethod.getParameterCount());
+    assertEquals(OtherTarget.class, resolvedMethod.getMethod(OtherTarget.class).getDeclaringClass());
+    assertNull(resolvedMethod.getMethod(String.class));
+  }
+
+  public static class Target {
+    public String onClick() {
+      return "clicked";
+    }
+
+    public String select(final String a, final String b) {
+      return a + "-" + b;
+    }
+  }
+
+  public static class OtherTarget {
+    public String onClick() {
+      return "other";
+    }
+  }
+}
@@ -0,0 +1,122 @@
+package de.lessvoid.xml.xpp3;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.xmlpull.v1.XmlPullParser;
+import org.xmlpull.v1.XmlPullParserFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class BinaryXmlPullParserTest {
+  private static final String XML =
+      "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
+      "<nifty xmlns=\"http://nifty-gui.lessvoid.com/nifty-gui\">\n" +
+      "  <screen id=\"start\" controller=\"some.Controller\">\n" +
+      "    <layer id=\"layer\" childLayout=\"center\">\n" +
+      "      <text text=\"hällo &amp; bye\" font=\"aurulent-sans-16.fnt\"/>\n" +
+      "    </layer>\n" +
+      "    <layer id=\"other\" />\n" +
+      "  </screen>\n" +
+      "</nifty>\n";
+
+  private XmlPullParserFactory factory;
+
+  @Before
+  public void setUp() throws Exception {
+    factory = XmlPullParserFactory.newInstance();
+    factory.setValidating(false);
+    factory.setNamespaceAware(true);
+  }
+
+  @Test
+  public void testBinaryEventsMatchXmlEvents() throws Exception {
+    byte[] binary = compile(XML);
+    assertTrue(BinaryXmlCompiler.isBinaryXml(binary));
+
+    BinaryXmlPullParser binaryParser = new BinaryXmlPullParser();
+    binaryParser.setInput(new ByteArrayInputStream(binary), null);
+    assertEquals(BinaryXmlCompiler.checksum(XML.getBytes("UTF-8")), binaryParser.getChecksum());
+
+    XmlPullParser xmlParser = factory.newPullParser();
+    xmlParser.setInput(new ByteArrayInputStream(XML.getBytes("UTF-8")), null);
+
+    int tags = 0;
+    int xmlEvent = nextTagOrEnd(xmlParser);
+    int binaryEvent = binaryParser.next();
+    while (xmlEvent != XmlPullParser.END_DOCUMENT) {
+      assertEquals(xmlEvent, binaryEvent);
+      assertEquals(xmlParser.getName(), binaryParser.getName());
+      assertEquals(xmlParser.getDepth(), binaryParser.getDepth());
+      if (xmlEvent == XmlPullParser.START_TAG) {
+        assertEquals(xmlParser.getAttributeCount(), binaryParser.getAttributeCount());
+        for (int i = 0; i < xmlParser.getAttributeCount(); i++) {
+          assertEquals(xmlParser.getAttributeName(i), binaryParser.getAttributeName(i));
+          assertEquals(xmlParser.getAttributeValue(i), binaryParser.getAttributeValue(i));
+        }
+      }
+      tags++;
+      xmlEvent = nextTagOrEnd(xmlParser);
+      binaryEvent = binaryParser.next();
+    }
+    assertEquals(XmlPullParser.END_DOCUMENT, binaryEvent);
+    assertEquals(10, tags);
+  }
+
+  @Test
+  public void testAttributesFromBinary() throws Exception {
+    BinaryXmlPullParser binaryParser = new BinaryXmlPullParser();
+    binaryParser.setInput(compile(XML));
+    assertEquals(XmlPullParser.START_DOCUMENT, binaryParser.getEventType());
+    binaryParser.next();
+    binaryParser.next();
+    binaryParser.next();
+    binaryParser.next();
+
+    Attributes attributes = new Attributes(binaryParser);
+    assertEquals("text", binaryParser.getName());
+    assertEquals(4, binaryParser.getDepth());
+    assertEquals("hällo & bye", attributes.get("text"));
+    assertEquals("aurulent-sans-16.fnt", binaryParser.getAttributeValue(null, "font"));
+  }
+
+  @Test
+  public void testXmlIsNotBinary() throws Exception {
+    assertFalse(BinaryXmlCompiler.isBinaryXml(XML.getBytes("UTF-8")));
+    assertFalse(BinaryXmlCompiler.isBinaryXml(new byte[0]));
+  }
+
+  @Test
+  public void testStreamIsResetAfterCheck() throws Exception {
+    byte[] binary = compile(XML);
+    ByteArrayInputStream binaryStream = new ByteArrayInputStream(binary);
+    assertTrue(BinaryXmlCompiler.isBinaryXml(binaryStream));
+    assertEquals(binary.length, binaryStream.available());
+
+    ByteArrayInputStream xmlStream = new ByteArrayInputStream(XML.getBytes("UTF-8"));
+    assertFalse(BinaryXmlCompiler.isBinaryXml(xmlStream));
+    assertEquals('<', xmlStream.read());
+
+    assertFalse(BinaryXmlCompiler.isBinaryXml(new ByteArrayInputStream(new byte[2])));
+  }
+
+  private byte[] compile(final String xml) throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    new BinaryXmlCompiler(factory).compile(new ByteArrayInputStream(xml.getBytes("UTF-8")), out);
+    return out.toByteArray();
+  }
+
+  private static int nextTagOrEnd(final XmlPullParser xpp) throws Exception {
+    int eventType = xpp.next();
+    while (eventType != XmlPullParser.START_TAG &&
+        eventType != XmlPullParser.END_TAG &&
+        eventType != XmlPullParser.END_DOCUMENT) {
+      eventType = xpp.next();
+    }
+    return eventType;
+  }
+}
@@ -4,6 +4,7 @@ import de.lessvoid.nifty.spi.render.RenderFont;
 
 import javax.annotation.Nonnull;
 import java.awt.*;
+import java.awt.font.TextAttribute;
 
 public class RenderFontJava2dImpl implements RenderFont {
 
@@ -11,6 +12,10 @@ public class RenderFontJava2dImpl implements RenderFont {
 
   private final RenderDeviceJava2dImpl renderDevice;
 
+  private final boolean kerning;
+
+  private final char[] pair = new char[2];
+
   Font getFont() {
     return font;
   }
@@ -18,14 +23,28 @@ public class RenderFontJava2dImpl implements RenderFont {
   public RenderFontJava2dImpl(RenderDeviceJava2dImpl renderDevice, Font font) {
     this.renderDevice = renderDevice;
     this.font = font;
+    this.kerning = TextAttribute.KERNING_ON.equals(font.getAttributes().get(TextAttribute.KERNING));
   }
 
   @Override
   public int getCharacterAdvance(
       char currentCharacter,
       char nextCharacter, float size) {
-    // I don't know exactly what to do here.
-    return getFont().getSize();
+    Graphics graphics = renderDevice.getGraphics();
+
+    if (graphics == null) {
+      return -1;
+    }
+
+    FontMetrics fontMetrics = graphics.getFontMetrics(font);
+    int advance = fontMetrics.charWidth(currentCharacter);
+    if (kerning && nextCharacter != 0) {
+      // the pair is measured as a whole, so its width includes the kerning between the two characters
+      pair[0] = currentCharacter;
+      pair[1] = nextCharacter;
+      advance = fontMetrics.charsWidth(pair, 0, 2) - fontMetrics.charWidth(nextCharacter);
+    }
+    return (int) (advance * size);
   }
 
   @Override
@@ -148,6 +148,11 @@ public class JoglCoreGL extends JoglGL implements CoreGL {
     return GL2.GL_STREAM_DRAW;
   }
 
+  @Override
+  public int GL_TEXTURE_2D_ARRAY() {
+    return GL3.GL_TEXTURE_2D_ARRAY;
+  }
+
   @Override
   public int GL_TEXTURE0() {
     return GL.GL_TEXTURE0;
@@ -278,6 +283,16 @@ public class JoglCoreGL extends JoglGL implements CoreGL {
     GLContext.getCurrentGL().getGL3().glBufferData(target, data.remaining() * 4, data, usage);
   }
 
+  @Override
+  public void glBufferSubData(int target, long offset, IntBuffer data) {
+    GLContext.getCurrentGL().getGL3().glBufferSubData(target, offset, data.remaining() * 4, data);
+  }
+
+  @Override
+  public void glBufferSubData(int target, long offset, FloatBuffer data) {
+    GLContext.getCurrentGL().getGL3().glBufferSubData(target, offset, data.remaining() * 4, data);
+  }
+
   @Override
   public void glCompileShader(int shader) {
     GLContext.getCurrentGL().getGL3().glCompileShader(shader);
@@ -390,6 +405,16 @@ public class JoglCoreGL extends JoglGL implements CoreGL {
     GLContext.getCurrentGL().getGL3().glShaderSource(shader, sources.length, sources, sourceLengths, 0);
   }
 
+  @Override
+  public void glTexImage3D(int target, int level, int internalFormat, int width, int height, int depth, int border, int format, int type, ByteBuffer pixels) {
+    GLContext.getCurrentGL().getGL3().glTexImage3D(target, level, internalFormat, width, height, depth, border, format, type, pixels);
+  }
+
+  @Override
+  public void glTexSubImage3D(int target, int level, int xoffset, int yoffset, int zoffset, int width, int height, int depth, int format, int type, ByteBuffer pixels) {
+    GLContext.getCurrentGL().getGL3().glTexSubImage3D(target, level, xoffset, yoffset, zoffset, width, height, depth, format, type, pixels);
+  }
+
   @Override
   public void glUniform1(int location, FloatBuffer values) {
     GLContext.getCurrentGL().getGL3().glUniform1fv(location, values.remaining(), values);
@@ -0,0 +1,20 @@
+#version 150 core
+
+uniform sampler2D uTex;
+uniform sampler2DArray uTexArray;
+
+layout(origin_upper_left) in vec4 gl_FragCoord;
+
+in vec4 vColor;
+in vec3 vTexture;
+
+out vec4 fColor;
+
+void main() {
+  // texture coordinates with a negative layer belong to a regular texture
+  if (vTexture.z < 0.0) {
+    fColor = vColor * texture(uTex, vTexture.xy, 0);
+  } else {
+    fColor = vColor * texture(uTexArray, vTexture, 0);
+  }
+}
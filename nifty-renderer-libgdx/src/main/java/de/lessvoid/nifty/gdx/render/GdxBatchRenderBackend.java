@@ -190,4 +190,9 @@ public class GdxBatchRenderBackend implements BatchRenderBackend {
   public void fillRemovedImagesInAtlas(boolean shouldFill) {
     internalBackend.fillRemovedImagesInAtlas(shouldFill);
   }
+
+  @Override
+  public void useTextureArrayAtlas(int maxLayers) {
+    internalBackend.useTextureArrayAtlas(maxLayers);
+  }
 }
@@ -153,6 +153,11 @@ public class LwjglCoreGL extends LwjglGL implements CoreGL {
     return GL15.GL_STREAM_DRAW;
   }
 
+  @Override
+  public int GL_TEXTURE_2D_ARRAY() {
+    return GL30.GL_TEXTURE_2D_ARRAY;
+  }
+
   @Override
   public int GL_TEXTURE0() {
     return GL13.GL_TEXTURE0;
@@ -283,6 +288,16 @@ public class LwjglCoreGL extends LwjglGL implements CoreGL {
     GL15.glBufferData(target, data, usage);
   }
 
+  @Override
+  public void glBufferSubData(int target, long offset, IntBuffer data) {
+    GL15.glBufferSubData(target, offset, data);
+  }
+
+  @Override
+  public void glBufferSubData(int target, long offset, FloatBuffer data) {
+    GL15.glBufferSubData(target, offset, data);
+  }
+
   @Override
   public void glCompileShader(int shader) {
     GL20.glCompileShader(shader);
@@ -385,6 +400,16 @@ public class LwjglCoreGL extends LwjglGL implements CoreGL {
     GL20.glShaderSource(shader, string);
   }
 
+  @Override
+  public void glTexImage3D(int target, int level, int internalFormat, int width, int height, int depth, int border, int format, int type, ByteBuffer pixels) {
+    GL12.glTexImage3D(target, level, internalFormat, width, height, depth, border, format, type, pixels);
+  }
+
+  @Override
+  public void glTexSubImage3D(int target, int level, int xoffset, int yoffset, int zoffset, int width, int height, int depth, int format, int type, ByteBuffer pixels) {
+    GL12.glTexSubImage3D(target, level, xoffset, yoffset, zoffset, width, height, depth, format, type, pixels);
+  }
+
   @Override
   public void glUniform1(int location, FloatBuffer values) {
     GL20.glUniform1(location, values);